@@ -0,0 +1,167 @@
+import java.util.Arrays;
+
+/**
+ * Filtro di Bloom a blocchi. Il filtro rappresenta in modo approssimato un
+ * insieme di valori hash: mightContain() può restituire true per un valore mai
+ * inserito (falso positivo), ma non restituisce mai false per un valore
+ * inserito.
+ * <p>
+ * A differenza di un filtro di Bloom classico, tutti i bit di un valore stanno
+ * in un unico blocco di 512 bit, grande quanto una linea di cache da 64 byte,
+ * scelto in base al valore stesso. La JVM non garantisce che un long[] sia
+ * allineato a 64 byte, per cui un blocco può stare a cavallo di due linee: ogni
+ * inserimento e ogni ricerca toccano comunque al più due linee di cache
+ * consecutive invece di una per ogni funzione hash, al prezzo di un tasso di
+ * falsi positivi leggermente più alto a parità di memoria.
+ * <p>
+ * Il blocco è diviso in 8 parole da 64 bit e ogni valore imposta esattamente
+ * un bit in ogni parola ("split block"), scelto con una diversa funzione hash
+ * moltiplicativa. In questo modo mightContain() controlla sempre tutte e 8 le
+ * parole senza salti condizionali, che sarebbero imprevedibili proprio nel
+ * caso più frequente di un valore assente.
+ * <p>
+ * Il numero di bit è calcolato dal numero di inserimenti previsti e dal tasso
+ * di falsi positivi desiderato con la formula classica
+ * m = -n ln(p) / (ln 2)^2.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+public class BlockedBloomFilter {
+
+    /*
+     * Numero di long in un blocco: 8 long da 64 bit sono 512 bit, la
+     * dimensione di una linea di cache.
+     */
+    private static final int WORDS_PER_BLOCK = 8;
+
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * 64;
+
+    /*
+     * Costanti dispari delle funzioni hash moltiplicative, una per ogni parola
+     * del blocco.
+     */
+    private static final int[] SALT = { 0x47b6137b, 0x44974d91, 0x8824ad5b,
+            0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31 };
+
+    /*
+     * I bit del filtro, WORDS_PER_BLOCK long consecutivi per ogni blocco.
+     */
+    private final long[] words;
+
+    private final int numberOfBlocks;
+
+    /**
+     * Costruisce un filtro vuoto dimensionato per il numero di inserimenti e
+     * il tasso di falsi positivi dati.
+     *
+     * @param expectedInsertions
+     *                                  il numero di valori che si prevede di
+     *                                  inserire
+     * @param falsePositiveRate
+     *                                  il tasso di falsi positivi desiderato,
+     *                                  strettamente compreso tra 0 e 1
+     * @throws IllegalArgumentException
+     *                                      se expectedInsertions è negativo o
+     *                                      falsePositiveRate non è compreso
+     *                                      tra 0 e 1
+     */
+    public BlockedBloomFilter(int expectedInsertions,
+            double falsePositiveRate) {
+        if (expectedInsertions < 0)
+            throw new IllegalArgumentException(
+                    "Numero di inserimenti negativo: " + expectedInsertions);
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+            throw new IllegalArgumentException(
+                    "Tasso di falsi positivi non valido: "
+                            + falsePositiveRate);
+        int n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        double bits = -n * Math.log(falsePositiveRate) / (ln2 * ln2);
+        long blocks = Math.max(1, (long) Math.ceil(bits / BITS_PER_BLOCK));
+        if (blocks > Integer.MAX_VALUE / WORDS_PER_BLOCK)
+            throw new IllegalArgumentException(
+                    "Filtro troppo grande per i parametri dati");
+        this.numberOfBlocks = (int) blocks;
+        this.words = new long[this.numberOfBlocks * WORDS_PER_BLOCK];
+    }
+
+    /*
+     * Mescola i bit del valore hash (finalizzatore di MurmurHash3) in modo che
+     * anche hashCode poco casuali, come quelli di Integer, usino tutti i bit.
+     */
+    private static long mix(int hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /*
+     * Indice del primo long del blocco del valore mescolato h, scelto con i 32
+     * bit alti di h.
+     */
+    private int blockStart(long h) {
+        return (int) (((h >>> 32) * this.numberOfBlocks) >>> 32)
+                * WORDS_PER_BLOCK;
+    }
+
+    /**
+     * Inserisce un valore hash nel filtro.
+     *
+     * @param hash
+     *                 il valore hash, tipicamente l'hashCode di un oggetto
+     */
+    public void put(int hash) {
+        long h = mix(hash);
+        int start = blockStart(h);
+        int x = (int) h;
+        // Nella parola i imposto il bit dato dai 6 bit alti di x * SALT[i]
+        for (int i = 0; i < WORDS_PER_BLOCK; i++)
+            this.words[start + i] |= 1L << ((x * SALT[i]) >>> 26);
+    }
+
+    /**
+     * Determina se un valore hash potrebbe essere stato inserito.
+     *
+     * @param hash
+     *                 il valore hash da cercare
+     * @return false se il valore sicuramente non è stato inserito, true se
+     *         potrebbe esserlo stato
+     */
+    public boolean mightContain(int hash) {
+        long h = mix(hash);
+        int start = blockStart(h);
+        int x = (int) h;
+        // Accumulo in r il bit di ogni parola, senza uscire in anticipo
+        long r = 1;
+        for (int i = 0; i < WORDS_PER_BLOCK; i++)
+            r &= this.words[start + i] >>> ((x * SALT[i]) >>> 26);
+        return r != 0;
+    }
+
+    /**
+     * Svuota il filtro.
+     */
+    public void clear() {
+        Arrays.fill(this.words, 0L);
+    }
+
+    /**
+     * @return il numero di bit del filtro
+     */
+    public long getNumberOfBits() {
+        return (long) this.words.length * 64;
+    }
+
+    /**
+     * @return il numero di funzioni hash usate per ogni valore, cioè il numero
+     *         di parole di un blocco
+     */
+    public int getNumberOfHashFunctions() {
+        return WORDS_PER_BLOCK;
+    }
+
+}
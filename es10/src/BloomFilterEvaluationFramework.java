@@ -0,0 +1,128 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Misura il tempo delle ricerche di elementi assenti in una
+ * CollisionListResizableHashTable con e senza un BlockedBloomFilter davanti
+ * (BloomFilteredSet). Per ogni numero di elementi, fattore di caricamento
+ * della tabella e tasso di falsi positivi vengono scritti sul file
+ * bloomfilter.csv i tempi totali in nanosecondi delle ricerche, il loro
+ * rapporto e il tasso di falsi positivi osservato. Il filtro conviene quando
+ * scorrere una lista di collisione costa più di calcolare gli hash del
+ * filtro, cioè con fattori di caricamento alti o equals() costosi.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class BloomFilterEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    private static final double[] TABLE_LOAD_FACTORS = { 0.75, 8 };
+
+    private static final double[] FALSE_POSITIVE_RATES = { 0.1, 0.01,
+            0.001 };
+
+    /*
+     * Numero di ricerche di elementi assenti per ogni misura
+     */
+    private static final int NUMBER_OF_LOOKUPS = 1000000;
+
+    /*
+     * Numero di ripetizioni per ogni configurazione, la prima è di
+     * riscaldamento e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "bloomfilter.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "bloomfilter.csv");
+            System.exit(1);
+        }
+        o.println("N,TableLoadFactor,FalsePositiveRate,PlainMissTns,"
+                + "FilteredMissTns,Speedup,ObservedFalsePositiveRate");
+        Random randomGenerator = new Random();
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            for (double lf : TABLE_LOAD_FACTORS)
+                measure(o, n, lf, randomGenerator);
+            System.out.println("Completate le misure per n = " + n);
+        }
+        o.close();
+    }
+
+    /*
+     * Esegue e scrive su o le misure per una tabella con n elementi e
+     * fattore di caricamento lf.
+     */
+    private static void measure(PrintStream o, int n, double lf,
+            Random randomGenerator) {
+        // Elementi presenti e cercati sono interi casuali, così che anche le
+        // ricerche di elementi assenti finiscano in bucket occupati
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<Integer>(
+                new DivisionPrimaryHashFunction(), n, lf);
+        Set<Integer> present = new HashSet<Integer>();
+        while (present.size() < n) {
+            int x = randomGenerator.nextInt();
+            present.add(x);
+            table.add(x);
+        }
+        int[] misses = new int[NUMBER_OF_LOOKUPS];
+        for (int i = 0; i < NUMBER_OF_LOOKUPS; i++) {
+            int x = randomGenerator.nextInt();
+            while (present.contains(x))
+                x = randomGenerator.nextInt();
+            misses[i] = x;
+        }
+        for (double fpp : FALSE_POSITIVE_RATES) {
+            BloomFilteredSet<Integer> filtered = new BloomFilteredSet<Integer>(
+                    table, n, fpp);
+            for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                long start = System.nanoTime();
+                int found = 0;
+                for (int x : misses)
+                    if (table.contains(x))
+                        found++;
+                long plainTime = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int x : misses)
+                    if (filtered.contains(x))
+                        found++;
+                long filteredTime = System.nanoTime() - start;
+                if (found != 0)
+                    throw new IllegalStateException(
+                            "Trovato un elemento assente");
+                int falsePositives = 0;
+                for (int x : misses)
+                    if (filtered.getFilter().mightContain(x))
+                        falsePositives++;
+                if (s == 0)
+                    continue; // riscaldamento
+                o.println(n + "," + lf + "," + fpp + "," + plainTime + ","
+                        + filteredTime + "," + (double) plainTime / filteredTime
+                        + "," + (double) falsePositives / NUMBER_OF_LOOKUPS);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Insieme che mette un BlockedBloomFilter davanti a un altro insieme, ad
+ * esempio una CollisionListResizableHashTable. Una chiamata a contains() per
+ * un elemento che il filtro esclude restituisce subito false senza scorrere le
+ * liste di collisione dell'insieme sottostante; negli altri casi la ricerca
+ * viene delegata. Il vantaggio è tanto maggiore quanto più frequenti sono le
+ * ricerche di elementi assenti.
+ * <p>
+ * Il filtro viene aggiornato ad ogni inserimento. Un filtro di Bloom non
+ * permette cancellazioni, per cui gli elementi rimossi restano nel filtro e
+ * fanno solo crescere i falsi positivi, senza mai rendere contains() errato;
+ * rebuildFilter() ricostruisce il filtro dagli elementi effettivamente
+ * presenti.
+ * <p>
+ * Il filtro usa l'hashCode degli elementi, per cui, come per le tabelle hash,
+ * si assume che equals() e hashCode() siano ridefiniti in modo coerente. Tutte
+ * le altre operazioni, compresa la gestione degli elementi null, sono quelle
+ * dell'insieme sottostante; se questo accetta null, nel filtro null ha hash 0.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+public class BloomFilteredSet<E> implements Set<E> {
+
+    private final Set<E> set;
+
+    private BlockedBloomFilter filter;
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    /**
+     * Mette un filtro davanti all'insieme dato. Se l'insieme non è vuoto i
+     * suoi elementi vengono inseriti nel filtro.
+     *
+     * @param set
+     *                               l'insieme a cui delegare le operazioni
+     * @param expectedInsertions
+     *                               il numero di elementi per cui
+     *                               dimensionare il filtro
+     * @param falsePositiveRate
+     *                               il tasso di falsi positivi desiderato
+     * @throws NullPointerException
+     *                                      se l'insieme è null
+     * @throws IllegalArgumentException
+     *                                      se i parametri del filtro non sono
+     *                                      validi
+     */
+    public BloomFilteredSet(Set<E> set, int expectedInsertions,
+            double falsePositiveRate) {
+        if (set == null)
+            throw new NullPointerException(
+                    "L'insieme da filtrare non può essere null");
+        this.set = set;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BlockedBloomFilter(expectedInsertions,
+                falsePositiveRate);
+        if (!set.isEmpty())
+            for (E e : set)
+                this.filter.put(hash(e));
+    }
+
+    /*
+     * Hash con cui un elemento viene inserito e cercato nel filtro. Null ha
+     * hash 0, così il filtro non esclude mai un null presente nell'insieme
+     * sottostante.
+     */
+    private static int hash(Object o) {
+        return o == null ? 0 : o.hashCode();
+    }
+
+    @Override
+    public int size() {
+        return this.set.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.set.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!this.filter.mightContain(hash(o)))
+            return false;
+        return this.set.contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return this.set.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.set.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return this.set.toArray(a);
+    }
+
+    @Override
+    public boolean add(E e) {
+        boolean added = this.set.add(e);
+        if (added)
+            this.filter.put(hash(e));
+        return added;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!this.filter.mightContain(hash(o)))
+            return false;
+        return this.set.remove(o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean changed = false;
+        for (E e : c)
+            if (add(e))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return this.set.retainAll(c);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean changed = false;
+        for (Object o : c)
+            if (remove(o))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        this.set.clear();
+        this.filter.clear();
+    }
+
+    /**
+     * Ricostruisce il filtro a partire dagli elementi attualmente presenti
+     * nell'insieme sottostante, eliminando i bit lasciati dagli elementi
+     * rimossi. Il filtro viene ridimensionato se gli elementi sono più di
+     * quelli previsti alla costruzione.
+     */
+    public void rebuildFilter() {
+        BlockedBloomFilter f = new BlockedBloomFilter(
+                Math.max(this.expectedInsertions, this.set.size()),
+                this.falsePositiveRate);
+        for (E e : this.set)
+            f.put(hash(e));
+        this.filter = f;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected BlockedBloomFilter getFilter() {
+        return this.filter;
+    }
+
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classe di test JUnit per le classi BloomFilteredSet e BlockedBloomFilter
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class BloomFilteredSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    @Test
+    final void testBlockedBloomFilterParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockedBloomFilter(-1, 0.01));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockedBloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockedBloomFilter(10, 1));
+        BlockedBloomFilter f = new BlockedBloomFilter(1000, 0.01);
+        // Circa 9.6 bit per elemento per l'1%
+        assertTrue(f.getNumberOfBits() >= 9585);
+        assertEquals(8, f.getNumberOfHashFunctions());
+        assertEquals(0, f.getNumberOfBits() % 512);
+    }
+
+    @Test
+    final void testBlockedBloomFilterNoFalseNegatives() {
+        BlockedBloomFilter f = new BlockedBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++)
+            f.put(i * 17);
+        for (int i = 0; i < 10000; i++)
+            assertTrue(f.mightContain(i * 17));
+        f.clear();
+        assertFalse(f.mightContain(17));
+    }
+
+    @Test
+    final void testBlockedBloomFilterFalsePositiveRate() {
+        BlockedBloomFilter f = new BlockedBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++)
+            f.put(i);
+        int falsePositives = 0;
+        for (int i = 10000; i < 110000; i++)
+            if (f.mightContain(i))
+                falsePositives++;
+        // Il filtro a blocchi ha un tasso un po' più alto di quello richiesto
+        assertTrue(falsePositives < 2000, "Falsi positivi: " + falsePositives);
+    }
+
+    @Test
+    final void testContainsWithHashTable() {
+        BloomFilteredSet<Integer> set = new BloomFilteredSet<>(
+                new CollisionListResizableHashTable<Integer>(divisionHash),
+                1000, 0.01);
+        for (int i = 0; i < 1000; i++)
+            assertTrue(set.add(i * 3));
+        assertFalse(set.add(3));
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 3000; i++)
+            assertEquals(i % 3 == 0, set.contains(i));
+    }
+
+    @Test
+    final void testWrapNonEmptySetAndRemove() {
+        Set<String> s = new HashSet<>();
+        s.add("a");
+        s.add("b");
+        BloomFilteredSet<String> set = new BloomFilteredSet<>(s, 100, 0.01);
+        assertTrue(set.contains("a"));
+        assertTrue(set.contains("b"));
+        assertFalse(set.contains("c"));
+        assertTrue(set.remove("a"));
+        assertFalse(set.contains("a"));
+        assertFalse(set.remove("a"));
+        set.rebuildFilter();
+        assertFalse(set.getFilter().mightContain("a".hashCode()));
+        assertTrue(set.contains("b"));
+    }
+
+    @Test
+    final void testNullElements() {
+        // Gli elementi null sono gestiti dall'insieme sottostante, sia quando
+        // vengono inseriti sia quando sono già presenti alla costruzione
+        Set<String> s = new HashSet<>();
+        s.add(null);
+        s.add("a");
+        BloomFilteredSet<String> set = new BloomFilteredSet<>(s, 100, 0.01);
+        assertTrue(set.contains(null));
+        assertTrue(set.remove(null));
+        assertFalse(set.contains(null));
+        assertTrue(set.add(null));
+        assertFalse(set.add(null));
+        assertTrue(set.contains(null));
+        set.rebuildFilter();
+        assertTrue(set.contains(null));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    final void testClear() {
+        BloomFilteredSet<Integer> set = new BloomFilteredSet<>(
+                new HashSet<Integer>(), 100, 0.01);
+        set.add(1);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.getFilter().mightContain(Integer.valueOf(1).hashCode()));
+    }
+
+}
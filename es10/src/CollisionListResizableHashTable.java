@@ -3,7 +3,10 @@
  */
 
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -18,15 +21,18 @@ import java.util.Set;
  * La tabella ha una dimensione iniziale di default (16) e un fattore di
  * caricamento di defaut (0.75). Quando il fattore di bilanciamento effettivo
  * eccede quello di default la tabella viene raddoppiata e viene fatto un
- * riposizionamento di tutti gli elementi.
+ * riposizionamento di tutti gli elementi. Se si conosce in anticipo il numero
+ * di elementi da inserire si può usare il costruttore che prende la dimensione
+ * attesa e il fattore di caricamento, in modo da evitare le resize intermedie.
  *
  * @author Template: Luca Tesei, Implementazione: collettiva
  */
 public class CollisionListResizableHashTable<E> implements Set<E> {
 
     /*
-     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
-     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     * La capacità iniziale di default. E' una potenza di due e quindi la
+     * capacità sarà sempre una potenza di due, in quanto ogni resize raddoppia
+     * la tabella.
      */
     private static final int INITIAL_CAPACITY = 16;
 
@@ -35,6 +41,23 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private static final double LOAD_FACTOR = 0.75;
 
+    /*
+     * Capacità massima della tabella, la più grande potenza di due
+     * rappresentabile come int.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /*
+     * La capacità iniziale di questa tabella, sempre una potenza di due. Viene
+     * usata anche da clear() per tornare alla situazione iniziale.
+     */
+    private final int initialCapacity;
+
+    /*
+     * Il fattore di bilanciamento di questa tabella.
+     */
+    private final double loadFactor;
+
     /*
      * Numero di elementi effettivamente presenti nella hash table in questo
      * momento. ATTENZIONE: questo valore è diverso dalla capacity, che è la
@@ -84,6 +107,15 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private int modCount;
 
+    /*
+     * Statistiche della tabella, null se non abilitate. E' volatile perché le
+     * statistiche possono essere abilitate, disabilitate e lette da un thread
+     * di monitoraggio diverso da quello che usa la tabella. Quando sono
+     * disabilitate il costo per le operazioni è la sola lettura di questo
+     * campo.
+     */
+    private volatile HashTableStatistics stats;
+
     // I due metodi seguenti sono di comodo per gestire la capacity e la soglia
     // oltre la quale bisogna fare il resize.
 
@@ -94,10 +126,22 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     /*
      * Valore corrente soglia oltre la quale si deve fare la resize,
-     * getCurrentCapacity * LOAD_FACTOR
+     * getCurrentCapacity * loadFactor
      */
     private int getCurrentThreshold() {
-        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+        return (int) (getCurrentCapacity() * this.loadFactor);
+    }
+
+    /*
+     * Calcola la più piccola capacità, potenza di due, tale che la soglia
+     * corrispondente sia almeno uguale al numero di elementi dato.
+     */
+    private static int capacityFor(int expectedSize, double loadFactor) {
+        int capacity = 1;
+        while (capacity < MAXIMUM_CAPACITY
+                && (int) (capacity * loadFactor) < expectedSize)
+            capacity = capacity * 2;
+        return capacity;
     }
 
     /**
@@ -106,11 +150,65 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     public CollisionListResizableHashTable(PrimaryHashFunction phf) {
         this.phf = phf;
+        this.initialCapacity = INITIAL_CAPACITY;
+        this.loadFactor = LOAD_FACTOR;
         this.table = new Object[INITIAL_CAPACITY];
         this.size = 0;
         this.modCount = 0;
     }
 
+    /**
+     * Costruisce una Hash Table con il fattore di caricamento dato e una
+     * capacità iniziale sufficiente a contenere il numero di elementi atteso
+     * senza fare nessuna resize.
+     *
+     * @param phf
+     *                         la funzione di hash primaria
+     * @param expectedSize
+     *                         il numero di elementi che si prevede di
+     *                         inserire
+     * @param loadFactor
+     *                         il fattore di caricamento oltre il quale la
+     *                         tabella viene raddoppiata
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo o se
+     *                                      loadFactor non è un numero
+     *                                      positivo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            int expectedSize, double loadFactor) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException(
+                    "Dimensione attesa negativa: " + expectedSize);
+        if (!(loadFactor > 0) || Double.isInfinite(loadFactor))
+            throw new IllegalArgumentException(
+                    "Fattore di caricamento non valido: " + loadFactor);
+        this.phf = phf;
+        this.loadFactor = loadFactor;
+        this.initialCapacity = capacityFor(expectedSize, loadFactor);
+        this.table = new Object[this.initialCapacity];
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    /**
+     * Costruisce una Hash Table con il fattore di caricamento di default e una
+     * capacità iniziale sufficiente a contenere il numero di elementi atteso
+     * senza fare nessuna resize.
+     *
+     * @param phf
+     *                         la funzione di hash primaria
+     * @param expectedSize
+     *                         il numero di elementi che si prevede di
+     *                         inserire
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            int expectedSize) {
+        this(phf, expectedSize, LOAD_FACTOR);
+    }
+
     @Override
     public int size() {
         return this.size;
@@ -122,7 +220,6 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public boolean contains(Object o) {
         // TODO implementare
         /*
@@ -139,6 +236,17 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if (o == null) {
             return false;
         }
+        return find(o, true);
+    }
+
+    /*
+     * Cerca l'oggetto o, non null, nella lista di collisione del suo bucket.
+     * Il numero di confronti fatti viene registrato nelle statistiche solo se
+     * record è vero, cioè per le ricerche chiamate dall'esterno: il controllo
+     * dei duplicati fatto da add() non deve contare come una ricerca.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean find(Object o, boolean record) {
         /*
          * Calcolo l'indice del bucket in cui cercare l'oggetto o
          */
@@ -149,15 +257,21 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         Node<E> n = (Node<E>) this.table[pos];
         /*
          * Scorro la lista concatenata fino a quando non trovo l'elemento o o
-         * fino a quando non arrivo alla fine della lista
+         * fino a quando non arrivo alla fine della lista, contando i confronti
+         * fatti per le statistiche
          */
-        while (n != null) {
-            if (n.item.equals(o)) {
-                return true;
-            }
+        int probes = 0;
+        boolean found = false;
+        while (n != null && !found) {
+            probes++;
+            found = n.item.equals(o);
             n = n.next;
         }
-        return false;
+        HashTableStatistics s = this.stats;
+        if (record && s != null) {
+            s.recordProbe(probes);
+        }
+        return found;
     }
 
     @Override
@@ -194,9 +308,26 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         // se bisogna fare resize(), cioè se this.size >
         // this.getCurrentThreshold()
 
-        if (e == null || this.contains(e)) {
+        if (e == null || this.find(e, false)) {
             return false;
         }
+        this.insert(e);
+        /*
+         * Se la tabella è piena, devo fare il resize
+         */
+        if (this.size > this.getCurrentThreshold()) {
+            this.resize();
+        }
+        return true;
+    }
+
+    /*
+     * Inserisce l'elemento e, che si assume non null e non presente, nella
+     * lista di collisione del suo bucket, senza controllare la soglia di
+     * resize.
+     */
+    @SuppressWarnings("unchecked")
+    private void insert(E e) {
         /*
          * Calcolo l'indice del bucket in cui inserire l'oggetto e
          */
@@ -227,13 +358,6 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
          */
         this.size++;
         this.modCount++;
-        /*
-         * Se la tabella è piena, devo fare il resize
-         */
-        if (this.size > this.getCurrentThreshold()) {
-            this.resize();
-        }
-        return true;
     }
 
     @SuppressWarnings("unchecked")
@@ -242,10 +366,22 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      * chiamare quando this.size diventa maggiore di getCurrentThreshold()
      */ private void resize() {
         // TODO implementare
+        if (this.getCurrentCapacity() < MAXIMUM_CAPACITY) {
+            this.resize(this.getCurrentCapacity() * 2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    /*
+     * Porta la tabella alla capacità data, che deve essere una potenza di due,
+     * e riposiziona tutti gli elementi.
+     */ private void resize(int newCapacity) {
+        HashTableStatistics s = this.stats;
+        long startTimeNano = s != null ? System.nanoTime() : 0;
         /*
-         * Creo una nuova tabella con capacità uguale a getCurrentCapacity() * 2
+         * Creo una nuova tabella con la capacità richiesta
          */
-        Object[] newTable = new Object[this.getCurrentCapacity() * 2];
+        Object[] newTable = new Object[newCapacity];
         /*
          * Scorro la tabella corrente e ricalcolo l'indice di ogni elemento
          * inserendolo nella nuova tabella
@@ -266,6 +402,11 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
                 n = n.next;
             }
         }
+        this.table = newTable;
+        if (s != null) {
+            s.recordResize(System.nanoTime() - startTimeNano,
+                    (double) this.size / newTable.length);
+        }
     }
 
     @Override
@@ -340,13 +481,49 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if (c == null) {
             return false;
         }
+        /*
+         * Porto subito la tabella alla capacità necessaria per contenere tutti
+         * gli elementi, in modo da fare al più una sola resize
+         */
+        long expectedSize = (long) this.size + c.size();
+        if (expectedSize > this.getCurrentThreshold()) {
+            int newCapacity = capacityFor(
+                    (int) Math.min(expectedSize, Integer.MAX_VALUE),
+                    this.loadFactor);
+            if (newCapacity > this.getCurrentCapacity()) {
+                this.resize(newCapacity);
+            }
+        }
+        /*
+         * Se la tabella è vuota e c è un insieme che distingue gli elementi
+         * con equals(), come questa tabella, gli elementi di c sono già
+         * distinti e quindi non serve controllare i duplicati. Non vale per
+         * un Set qualsiasi: un insieme basato sull'identità o un TreeSet con
+         * un comparatore non coerente con equals() possono contenere elementi
+         * uguali secondo equals()
+         */
+        if (this.size == 0 && (c instanceof HashSet
+                || c instanceof CollisionListResizableHashTable)) {
+            for (E e : c) {
+                if (e != null) {
+                    this.insert(e);
+                }
+            }
+            if (this.size > this.getCurrentThreshold()) {
+                this.resize();
+            }
+            return this.size > 0;
+        }
         /*
          * Scorro la collection c e aggiungo ogni elemento alla tabella
          */
+        boolean changed = false;
         for (E e : c) {
-            this.add(e);
+            if (this.add(e)) {
+                changed = true;
+            }
         }
-        return true;
+        return changed;
     }
 
     @Override
@@ -373,9 +550,79 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     @Override
     public void clear() {
         // Ritorno alla situazione iniziale
-        this.table = new Object[INITIAL_CAPACITY];
+        this.table = new Object[this.initialCapacity];
         this.size = 0;
-        this.modCount = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Abilita la raccolta delle statistiche su questa tabella. Se erano già
+     * abilitate non fa nulla, altrimenti riparte con contatori azzerati.
+     */
+    public void enableStatistics() {
+        if (this.stats == null) {
+            HashTableStatistics s = new HashTableStatistics();
+            s.recordLoadFactor((double) this.size / this.getCurrentCapacity());
+            this.stats = s;
+        }
+    }
+
+    /**
+     * Disabilita la raccolta delle statistiche su questa tabella, scartando
+     * quelle raccolte finora.
+     */
+    public void disableStatistics() {
+        this.stats = null;
+    }
+
+    /**
+     * @return le statistiche raccolte, oppure null se non sono abilitate
+     */
+    public HashTableStatistics getStatistics() {
+        return this.stats;
+    }
+
+    /**
+     * Calcola una fotografia dello stato corrente della tabella, scorrendo
+     * tutti i bucket per determinare la lunghezza media e massima delle liste
+     * di collisione. Il metodo non modifica la tabella e può essere chiamato
+     * da un thread di monitoraggio; in questo caso, se la tabella viene
+     * modificata nel frattempo, i valori restituiti sono approssimati. Ogni
+     * chiamata aggiunge anche un campione del fattore di caricamento alle
+     * statistiche.
+     *
+     * @return una fotografia dello stato corrente della tabella
+     * @throws IllegalStateException
+     *                                   se le statistiche non sono abilitate
+     */
+    @SuppressWarnings("unchecked")
+    public HashTableStatistics.Snapshot getStatisticsSnapshot() {
+        HashTableStatistics s = this.stats;
+        if (s == null)
+            throw new IllegalStateException(
+                    "Statistiche non abilitate su questa tabella");
+        // Leggo una sola volta il riferimento alla tabella, che potrebbe
+        // cambiare per una resize concorrente
+        Object[] t = this.table;
+        int count = 0;
+        int nonEmptyBuckets = 0;
+        int maxChainLength = 0;
+        for (int i = 0; i < t.length; i++) {
+            Node<E> n = (Node<E>) t[i];
+            int chainLength = 0;
+            while (n != null) {
+                chainLength++;
+                n = n.next;
+            }
+            if (chainLength > 0) {
+                nonEmptyBuckets++;
+                count += chainLength;
+                maxChainLength = Math.max(maxChainLength, chainLength);
+            }
+        }
+        s.recordLoadFactor((double) count / t.length);
+        return new HashTableStatistics.Snapshot(count, t.length,
+                nonEmptyBuckets, maxChainLength, s);
     }
 
     /*
@@ -430,46 +677,54 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
             this.numeroModificheAtteso = modCount;
             this.pos = 0;
             this.n = (Node<E>) table[pos];
+            if (this.n == null) {
+                this.advance();
+            }
         }
 
-        @Override
+        /*
+         * Porta n sul primo nodo del primo bucket non vuoto successivo a pos,
+         * oppure a null se non ce ne sono altri
+         */
         @SuppressWarnings("unchecked")
+        private void advance() {
+            this.n = null;
+            while (this.n == null && this.pos + 1 < table.length) {
+                this.pos++;
+                this.n = (Node<E>) table[this.pos];
+            }
+        }
+
+        @Override
         public boolean hasNext() {
             // TODO implementare
             /*
-             * Se il nodo corrente è null, allora scorro la tabella fino a
-             * trovare un nodo non null
+             * n è sempre il prossimo nodo da restituire
              */
-            if (this.n == null) {
-                for (int i = this.pos + 1; i < table.length; i++) {
-                    if (table[i] != null) {
-                        this.pos = i;
-                        this.n = (Node<E>) table[i];
-                        return true;
-                    }
-                }
-            }
-            return false;
+            return this.n != null;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public E next() {
             // TODO implementare
+            if (this.numeroModificheAtteso != modCount) {
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            }
+            if (this.n == null) {
+                throw new NoSuchElementException(
+                        "Richiesta di next quando hasNext è falso");
+            }
+            E item = this.n.item;
             /*
-             * Se il nodo corrente è null, allora scorro la tabella fino a
-             * trovare un nodo non null
+             * Passo al nodo successivo nella lista concatenata e, se questa è
+             * finita, al primo nodo del bucket non vuoto successivo
              */
+            this.n = this.n.next;
             if (this.n == null) {
-                for (int i = this.pos + 1; i < table.length; i++) {
-                    if (table[i] != null) {
-                        this.pos = i;
-                        this.n = (Node<E>) table[i];
-                        return this.n.item;
-                    }
-                }
+                this.advance();
             }
-            return null;
+            return item;
         }
 
     }
@@ -1,9 +1,15 @@
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -503,4 +509,171 @@ class CollisionListResizableHashTableTest {
         assertFalse(hasThrown);
     }
 
+    @Test
+    void testStatisticsDisabledByDefault() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertNull(table.getStatistics());
+        assertThrows(IllegalStateException.class, () -> {
+            table.getStatisticsSnapshot();
+        });
+    }
+
+    @Test
+    void divisionHash_testStatisticsChainLengths() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.enableStatistics();
+        // 1, 17 e 33 collidono nel bucket 1 di una tabella di capacità 16
+        Integer vals[] = { 1, 17, 33, 2 };
+        table.addAll(Arrays.asList(vals));
+        HashTableStatistics.Snapshot snapshot = table.getStatisticsSnapshot();
+        assertEquals(4, snapshot.getSize());
+        assertEquals(2, snapshot.getNonEmptyBuckets());
+        assertEquals(3, snapshot.getMaxChainLength());
+        assertEquals(2.0, snapshot.getAverageChainLength());
+        assertEquals(4.0 / snapshot.getCapacity(), snapshot.getLoadFactor());
+    }
+
+    @Test
+    void divisionHash_testStatisticsProbeHistogram() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 17, 33 };
+        table.addAll(Arrays.asList(vals));
+        table.enableStatistics();
+        table.contains(1);
+        table.contains(33);
+        table.contains(5);
+        long[] histogram = table.getStatistics().getProbeHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(1, histogram[3]);
+        assertEquals(3, table.getStatistics().getContainsCount());
+    }
+
+    @Test
+    void divisionHash_testStatisticsIgnoreAdd() {
+        // Il controllo dei duplicati di add() non è una ricerca e non deve
+        // comparire nell'istogramma dei probe
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.enableStatistics();
+        table.add(1);
+        table.add(17);
+        table.add(17);
+        assertEquals(0, table.getStatistics().getContainsCount());
+        table.contains(17);
+        assertEquals(1, table.getStatistics().getContainsCount());
+    }
+
+    @Test
+    void multiplicationHash_testStatisticsResizeCount() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.enableStatistics();
+        for (int i = 0; i < 13; i++)
+            table.add(i);
+        assertTrue(table.getStatistics().getResizeCount() >= 1);
+        assertTrue(table.getStatistics().getLoadFactorSamples().size() >= 2);
+        table.disableStatistics();
+        assertNull(table.getStatistics());
+    }
+
+    @Test
+    void testConstructorExpectedSize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 100, 0.5);
+        assertEquals(256, table.getTable().length);
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        assertEquals(256, table.getTable().length);
+        assertEquals(100, table.size());
+    }
+
+    @Test
+    void testConstructorIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, -1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, 10, 0);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, 10,
+                    Double.NaN);
+        });
+    }
+
+    @Test
+    void multiplicationHash_testAddAllSetPresizes() {
+        Set<Integer> vals = new HashSet<>();
+        for (int i = 0; i < 1000; i++)
+            vals.add(i * 7);
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        table.enableStatistics();
+        table.addAll(vals);
+        assertEquals(1000, table.size());
+        assertEquals(1, table.getStatistics().getResizeCount());
+        assertTrue(table.containsAll(vals));
+    }
+
+    @Test
+    void divisionHash_testAddAllSetNotEmptyTable() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(3);
+        table.addAll(new HashSet<>(Arrays.asList(1, 2, 3, 4)));
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    void divisionHash_testAddAllSetNotUsingEquals() {
+        // Un insieme basato sull'identità può contenere elementi uguali
+        // secondo equals(), che la tabella non deve duplicare
+        Set<String> identity = Collections.newSetFromMap(
+                new IdentityHashMap<String, Boolean>());
+        identity.add(new String("a"));
+        identity.add(new String("a"));
+        identity.add("b");
+        CollisionListResizableHashTable<String> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertTrue(table.addAll(identity));
+        assertEquals(2, table.size());
+        // Lo stesso per un TreeSet con un comparatore non coerente con
+        // equals()
+        TreeSet<Integer> byParity = new TreeSet<>(
+                (x, y) -> Integer.compare(x % 2, y % 2));
+        byParity.add(1);
+        byParity.add(2);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                divisionHash);
+        other.add(1);
+        assertTrue(other.addAll(byParity));
+        assertEquals(2, other.size());
+    }
+
+    @Test
+    void divisionHash_testAddAllReturnsWhetherChanged() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.addAll(new HashSet<Integer>()));
+        assertFalse(table.addAll(new ArrayList<Integer>()));
+        assertTrue(table.addAll(new HashSet<>(Arrays.asList(1, 2))));
+        assertFalse(table.addAll(Arrays.asList(1, 2)));
+        assertTrue(table.addAll(Arrays.asList(2, 3)));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void divisionHash_testClearKeepsInitialCapacity() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 1000);
+        int capacity = table.getTable().length;
+        table.add(1);
+        table.clear();
+        assertEquals(capacity, table.getTable().length);
+    }
+
 }
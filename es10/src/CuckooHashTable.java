@@ -0,0 +1,569 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Realizza un insieme tramite una tabella hash con cuckoo hashing. Ogni
+ * elemento può stare solo in uno di due bucket, individuati da due funzioni di
+ * hash primarie passate nel costruttore, e ogni bucket ha SLOTS_PER_BUCKET
+ * posizioni. Per questo contains() fa sempre al più 2 * SLOTS_PER_BUCKET
+ * confronti più quelli con un piccolo stash di dimensione STASH_SIZE, qualunque
+ * sia il numero di elementi e la distribuzione delle chiavi, tranne nel caso
+ * di molti hashCode uguali descritto sotto.
+ * <p>
+ * Quando entrambi i bucket di un nuovo elemento sono pieni si sposta
+ * ("cuckoo") un elemento di uno dei due bucket nel suo bucket alternativo, e
+ * così via fino a trovare un posto libero. Se dopo MAX_KICKS spostamenti non si
+ * è trovato posto, l'elemento rimasto senza posto viene messo nello stash. Se
+ * anche lo stash è pieno c'è un ciclo: la tabella viene ricostruita cambiando
+ * il seme con cui vengono mescolati gli hashCode (e, se anche questo non
+ * basta, raddoppiando la capacità).
+ * <p>
+ * Il seme non cambia i bucket di elementi con lo stesso hashCode: se più di
+ * 2 * SLOTS_PER_BUCKET + STASH_SIZE elementi hanno lo stesso hashCode nessuna
+ * ricostruzione può trovare posto per tutti. Per questo dopo
+ * MAX_REHASH_ATTEMPTS tentativi falliti gli elementi rimasti senza posto
+ * vengono messi in una lista di trabocco, che viene scandita da contains()
+ * solo se non è vuota e che viene svuotata alla successiva ricostruzione.
+ * <p>
+ * Come CollisionListResizableHashTable la tabella non accetta elementi
+ * duplicati (individuati tramite il metodo equals()) e non accetta elementi
+ * null.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+public class CuckooHashTable<E> implements Set<E> {
+
+    /**
+     * Numero di posizioni di ogni bucket.
+     */
+    public static final int SLOTS_PER_BUCKET = 4;
+
+    /**
+     * Numero massimo di elementi nello stash.
+     */
+    public static final int STASH_SIZE = 4;
+
+    /*
+     * Numero di bucket iniziale di default, una potenza di due.
+     */
+    private static final int INITIAL_BUCKETS = 4;
+
+    /*
+     * Fattore di caricamento massimo. Con bucket di 4 posizioni il cuckoo
+     * hashing riesce a inserire con alta probabilità fino a circa il 95% di
+     * occupazione; si resta sotto per mantenere corte le catene di spostamenti.
+     */
+    private static final double LOAD_FACTOR = 0.9;
+
+    /*
+     * Numero massimo di spostamenti per un inserimento prima di usare lo stash.
+     */
+    private static final int MAX_KICKS = 500;
+
+    /*
+     * Numero massimo di semi provati in una ricostruzione prima di mettere gli
+     * elementi rimasti senza posto nella lista di trabocco.
+     */
+    private static final int MAX_REHASH_ATTEMPTS = 4;
+
+    /*
+     * Numero massimo di bucket, potenza di due tale che il numero di posizioni
+     * sia rappresentabile come int.
+     */
+    private static final int MAXIMUM_BUCKETS = 1 << 28;
+
+    /*
+     * Le posizioni della tabella: il bucket b occupa le posizioni da
+     * b * SLOTS_PER_BUCKET a (b + 1) * SLOTS_PER_BUCKET - 1. Le posizioni vuote
+     * contengono null. Come in CollisionListResizableHashTable si usa un array
+     * di Object perché non si possono creare array generici.
+     */
+    private Object[] slots;
+
+    /*
+     * Lo stash: i primi stashSize elementi sono quelli che non hanno trovato
+     * posto nei loro bucket.
+     */
+    private final Object[] stash;
+
+    private int stashSize;
+
+    /*
+     * Lista di trabocco: elementi che non hanno trovato posto né nei bucket né
+     * nello stash neanche dopo MAX_REHASH_ATTEMPTS ricostruzioni. È vuota
+     * tranne che con molti elementi con lo stesso hashCode.
+     */
+    private final ArrayList<Object> overflow;
+
+    private int size;
+
+    private final PrimaryHashFunction phf1;
+
+    private final PrimaryHashFunction phf2;
+
+    /*
+     * Seme usato per mescolare gli hashCode prima di passarli alle funzioni di
+     * hash primarie. Cambiarlo equivale a scegliere due nuove funzioni hash.
+     */
+    private int seed;
+
+    /*
+     * Generatore dei nuovi semi e della scelta dell'elemento da spostare.
+     */
+    private final Random random;
+
+    /*
+     * Numero di bucket scelto dal costruttore, ripristinato da clear().
+     */
+    private final int initialBuckets;
+
+    /*
+     * Numero di ricostruzioni della tabella dovute a cicli.
+     */
+    private int rehashCount;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iteratore
+     * fail-fast.
+     */
+    private int modCount;
+
+    /**
+     * Costruisce una tabella vuota con capacità iniziale di default.
+     *
+     * @param phf1
+     *                 la funzione di hash primaria che individua il primo
+     *                 bucket
+     * @param phf2
+     *                 la funzione di hash primaria che individua il secondo
+     *                 bucket
+     * @throws NullPointerException
+     *                                  se una delle due funzioni è null
+     */
+    public CuckooHashTable(PrimaryHashFunction phf1, PrimaryHashFunction phf2) {
+        this(phf1, phf2, 0);
+    }
+
+    /**
+     * Costruisce una tabella vuota in grado di contenere il numero di elementi
+     * atteso senza ridimensionamenti.
+     *
+     * @param phf1
+     *                         la funzione di hash primaria che individua il
+     *                         primo bucket
+     * @param phf2
+     *                         la funzione di hash primaria che individua il
+     *                         secondo bucket
+     * @param expectedSize
+     *                         il numero di elementi che si prevede di
+     *                         inserire
+     * @throws NullPointerException
+     *                                      se una delle due funzioni è null
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo
+     */
+    public CuckooHashTable(PrimaryHashFunction phf1, PrimaryHashFunction phf2,
+            int expectedSize) {
+        if (phf1 == null || phf2 == null)
+            throw new NullPointerException(
+                    "Le funzioni di hash primarie non possono essere null");
+        if (expectedSize < 0)
+            throw new IllegalArgumentException(
+                    "Dimensione attesa negativa: " + expectedSize);
+        this.phf1 = phf1;
+        this.phf2 = phf2;
+        this.random = new Random();
+        this.seed = 0;
+        this.stash = new Object[STASH_SIZE];
+        this.overflow = new ArrayList<Object>();
+        this.initialBuckets = bucketsFor(expectedSize);
+        this.slots = new Object[this.initialBuckets * SLOTS_PER_BUCKET];
+        this.size = 0;
+        this.stashSize = 0;
+        this.rehashCount = 0;
+        this.modCount = 0;
+    }
+
+    /*
+     * Il più piccolo numero di bucket, potenza di due, che contiene il numero
+     * di elementi dato rispettando il fattore di caricamento.
+     */
+    private static int bucketsFor(int expectedSize) {
+        int buckets = INITIAL_BUCKETS;
+        while (buckets < MAXIMUM_BUCKETS && (int) (buckets * SLOTS_PER_BUCKET
+                * LOAD_FACTOR) < expectedSize)
+            buckets = buckets * 2;
+        return buckets;
+    }
+
+    private int getNumberOfBuckets() {
+        return this.slots.length / SLOTS_PER_BUCKET;
+    }
+
+    private int getCurrentThreshold() {
+        return (int) (this.slots.length * LOAD_FACTOR);
+    }
+
+    /*
+     * Primo bucket dell'oggetto o.
+     */
+    private int bucket1(Object o) {
+        return this.phf1.hash(o.hashCode() ^ this.seed,
+                getNumberOfBuckets());
+    }
+
+    /*
+     * Secondo bucket dell'oggetto o. L'hashCode viene ulteriormente
+     * mescolato, in modo che le posizioni siano indipendenti anche se le due
+     * funzioni di hash primarie sono dello stesso tipo.
+     */
+    private int bucket2(Object o) {
+        int h = (o.hashCode() ^ this.seed) * 0x9E3779B9;
+        return this.phf2.hash(h ^ (h >>> 16), getNumberOfBuckets());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException(
+                    "Tentativo di cercare un elemento null");
+        return findInBucket(bucket1(o), o) >= 0
+                || findInBucket(bucket2(o), o) >= 0 || findInStash(o) >= 0
+                || (!this.overflow.isEmpty() && this.overflow.contains(o));
+    }
+
+    /*
+     * Restituisce la posizione di o nel bucket b, -1 se non c'è.
+     */
+    private int findInBucket(int b, Object o) {
+        int start = b * SLOTS_PER_BUCKET;
+        for (int i = start; i < start + SLOTS_PER_BUCKET; i++)
+            if (this.slots[i] != null && this.slots[i].equals(o))
+                return i;
+        return -1;
+    }
+
+    /*
+     * Restituisce la posizione di o nello stash, -1 se non c'è.
+     */
+    private int findInStash(Object o) {
+        for (int i = 0; i < this.stashSize; i++)
+            if (this.stash[i].equals(o))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException(
+                    "Tentativo di inserire un elemento null");
+        if (contains(e))
+            return false;
+        if (this.size + 1 > getCurrentThreshold()
+                && getNumberOfBuckets() < MAXIMUM_BUCKETS)
+            rehash(getNumberOfBuckets() * 2, null);
+        Object homeless = insert(e);
+        // Se la lista di trabocco non è vuota una ricostruzione è già fallita
+        // con questi elementi: si evita di ripeterla ad ogni inserimento
+        if (homeless != null) {
+            if (this.overflow.isEmpty())
+                rehash(getNumberOfBuckets(), homeless);
+            else
+                this.overflow.add(homeless);
+        }
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    /*
+     * Inserisce l'elemento o, che si assume non presente, spostando se
+     * necessario altri elementi nei loro bucket alternativi e usando lo stash
+     * come ultima risorsa. Restituisce null se l'inserimento è riuscito,
+     * altrimenti l'elemento (non necessariamente o) rimasto senza posto perché
+     * anche lo stash è pieno.
+     */
+    private Object insert(Object o) {
+        Object current = o;
+        int b = bucket1(current);
+        if (placeInBucket(b, current) || placeInBucket(bucket2(current),
+                current))
+            return null;
+        for (int kicks = 0; kicks < MAX_KICKS; kicks++) {
+            // Sposto un elemento a caso del bucket b e metto al suo posto
+            // l'elemento corrente
+            int victimPos = b * SLOTS_PER_BUCKET
+                    + this.random.nextInt(SLOTS_PER_BUCKET);
+            Object victim = this.slots[victimPos];
+            this.slots[victimPos] = current;
+            current = victim;
+            // Il bucket alternativo della vittima è quello dei due diverso da
+            // b (se coincidono non c'è alternativa e si riprova da lì)
+            int alt = bucket1(current);
+            if (alt == b)
+                alt = bucket2(current);
+            if (placeInBucket(alt, current))
+                return null;
+            b = alt;
+        }
+        if (this.stashSize < STASH_SIZE) {
+            this.stash[this.stashSize++] = current;
+            return null;
+        }
+        return current;
+    }
+
+    /*
+     * Mette o nella prima posizione libera del bucket b, se c'è.
+     */
+    private boolean placeInBucket(int b, Object o) {
+        int start = b * SLOTS_PER_BUCKET;
+        for (int i = start; i < start + SLOTS_PER_BUCKET; i++)
+            if (this.slots[i] == null) {
+                this.slots[i] = o;
+                return true;
+            }
+        return false;
+    }
+
+    /*
+     * Ricostruisce la tabella con il numero di bucket dato, reinserendo tutti
+     * gli elementi presenti più l'eventuale elemento extra rimasto senza posto.
+     * Ad ogni tentativo fallito si sceglie un nuovo seme e, dal secondo in poi,
+     * si raddoppia anche il numero di bucket. Dopo MAX_REHASH_ATTEMPTS
+     * tentativi falliti si torna al numero di bucket dato e gli elementi
+     * rimasti senza posto vanno nella lista di trabocco.
+     */
+    private void rehash(int numberOfBuckets, Object extra) {
+        Object[] elements = new Object[this.size + (extra != null ? 1 : 0)];
+        int n = 0;
+        for (Object o : this.slots)
+            if (o != null)
+                elements[n++] = o;
+        for (int i = 0; i < this.stashSize; i++)
+            elements[n++] = this.stash[i];
+        for (Object o : this.overflow)
+            elements[n++] = o;
+        if (extra != null)
+            elements[n++] = extra;
+        int buckets = numberOfBuckets;
+        for (int attempts = 0; attempts < MAX_REHASH_ATTEMPTS; attempts++) {
+            if (extra != null || attempts > 0) {
+                this.seed = this.random.nextInt();
+                this.rehashCount++;
+            }
+            if (attempts > 1 && buckets < MAXIMUM_BUCKETS)
+                buckets = buckets * 2;
+            if (fill(buckets, elements, n, false))
+                return;
+        }
+        fill(numberOfBuckets, elements, n, true);
+    }
+
+    /*
+     * Svuota la tabella, la porta al numero di bucket dato e vi inserisce i
+     * primi n elementi dell'array. Se useOverflow è falso si ferma al primo
+     * elemento rimasto senza posto e restituisce false, altrimenti mette gli
+     * elementi senza posto nella lista di trabocco e restituisce true.
+     */
+    private boolean fill(int buckets, Object[] elements, int n,
+            boolean useOverflow) {
+        this.slots = new Object[buckets * SLOTS_PER_BUCKET];
+        Arrays.fill(this.stash, null);
+        this.stashSize = 0;
+        this.overflow.clear();
+        for (int i = 0; i < n; i++) {
+            Object homeless = insert(elements[i]);
+            if (homeless != null) {
+                if (!useOverflow)
+                    return false;
+                this.overflow.add(homeless);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException(
+                    "Tentativo di rimuovere un elemento null");
+        int pos = findInBucket(bucket1(o), o);
+        if (pos < 0)
+            pos = findInBucket(bucket2(o), o);
+        if (pos >= 0) {
+            this.slots[pos] = null;
+        } else {
+            pos = findInStash(o);
+            if (pos >= 0) {
+                // Compatto lo stash spostando l'ultimo elemento al posto di o
+                this.stash[pos] = this.stash[this.stashSize - 1];
+                this.stash[--this.stashSize] = null;
+            } else if (this.overflow.isEmpty() || !this.overflow.remove(o)) {
+                return false;
+            }
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean changed = false;
+        for (E e : c)
+            if (add(e))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean changed = false;
+        for (Object o : c)
+            if (remove(o))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        this.slots = new Object[this.initialBuckets * SLOTS_PER_BUCKET];
+        Arrays.fill(this.stash, null);
+        this.stashSize = 0;
+        this.overflow.clear();
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * @return il numero di ricostruzioni della tabella dovute a cicli di
+     *         spostamenti, utile per verificare la qualità delle funzioni hash
+     */
+    public int getRehashCount() {
+        return this.rehashCount;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected Object[] getSlots() {
+        return this.slots;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getStashSize() {
+        return this.stashSize;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getOverflowSize() {
+        return this.overflow.size();
+    }
+
+    /*
+     * Iteratore fail-fast: prima scorre le posizioni della tabella, poi lo
+     * stash e infine la lista di trabocco.
+     */
+    private class Itr implements Iterator<E> {
+
+        /*
+         * Prossima posizione da esaminare; le posizioni da slots.length in poi
+         * indicano lo stash e quelle da slots.length + stashSize in poi la
+         * lista di trabocco.
+         */
+        private int pos;
+
+        private int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = modCount;
+            this.pos = 0;
+            advance();
+        }
+
+        /*
+         * Porta pos sulla prima posizione occupata a partire da pos.
+         */
+        private void advance() {
+            while (this.pos < slots.length && slots[this.pos] == null)
+                this.pos++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.pos < slots.length + stashSize + overflow.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (this.numeroModificheAtteso != modCount)
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            if (!hasNext())
+                throw new NoSuchElementException(
+                        "Richiesta di next quando hasNext è falso");
+            Object o;
+            if (this.pos < slots.length) {
+                o = slots[this.pos++];
+                advance();
+            } else if (this.pos < slots.length + stashSize) {
+                o = stash[this.pos++ - slots.length];
+            } else {
+                o = overflow.get(this.pos++ - slots.length - stashSize);
+            }
+            return (E) o;
+        }
+    }
+
+}
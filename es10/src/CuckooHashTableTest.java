@@ -0,0 +1,172 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classe di test JUnit per la classe CuckooHashTable
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class CuckooHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testCuckooHashTable() {
+        assertThrows(NullPointerException.class,
+                () -> new CuckooHashTable<Integer>(null, divisionHash));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CuckooHashTable<Integer>(divisionHash,
+                        multiplicationHash, -1));
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    final void testAddContains() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        assertTrue(table.add(42));
+        assertFalse(table.add(42));
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(10));
+        assertEquals(1, table.size());
+        assertThrows(NullPointerException.class, () -> table.add(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+    }
+
+    @Test
+    final void testManyElementsSameHashFunctionType() {
+        // Anche con due funzioni dello stesso tipo i bucket devono essere
+        // indipendenti
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                divisionHash);
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int x = random.nextInt();
+            assertEquals(expected.add(x), table.add(x));
+        }
+        assertEquals(expected.size(), table.size());
+        for (Integer x : expected)
+            assertTrue(table.contains(x));
+        assertTrue(table.getStashSize() <= CuckooHashTable.STASH_SIZE);
+    }
+
+    @Test
+    final void testAdversarialKeys() {
+        // Multipli di 1024 collidono tutti nella funzione di divisione
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        for (int i = 0; i < 2000; i++)
+            assertTrue(table.add(i * 1024));
+        assertEquals(2000, table.size());
+        for (int i = 0; i < 2000; i++)
+            assertTrue(table.contains(i * 1024));
+        assertFalse(table.contains(1));
+    }
+
+    @Test
+    final void testEqualHashCodes() {
+        // "Aa" e "BB" hanno lo stesso hashCode, quindi anche tutte le 32
+        // stringhe ottenute concatenandone 5: nessun seme le separa e più di
+        // 2 * SLOTS_PER_BUCKET + STASH_SIZE devono finire nella lista di
+        // trabocco
+        CuckooHashTable<String> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 32; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 5; j++)
+                sb.append((i >> j & 1) == 0 ? "Aa" : "BB");
+            String s = sb.toString();
+            assertEquals("AaAaAaAaAa".hashCode(), s.hashCode());
+            assertTrue(table.add(s));
+            expected.add(s);
+        }
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.add("x" + i));
+        assertEquals(1032, table.size());
+        assertTrue(table.getOverflowSize() > 0);
+        for (String s : expected)
+            assertTrue(table.contains(s));
+        assertFalse(table.contains("AaAaAaAaBB" + "x"));
+        Set<String> seen = new HashSet<>();
+        for (String s : table)
+            assertTrue(seen.add(s));
+        assertEquals(1032, seen.size());
+        for (String s : expected)
+            assertTrue(table.remove(s));
+        for (String s : expected)
+            assertFalse(table.contains(s));
+        assertEquals(1000, table.size());
+    }
+
+    @Test
+    final void testRemove() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        for (int i = 0; i < 100; i += 2)
+            assertTrue(table.remove(i));
+        assertFalse(table.remove(0));
+        assertEquals(50, table.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i % 2 == 1, table.contains(i));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+    }
+
+    @Test
+    final void testIterator() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 500; i++) {
+            table.add(i * 31);
+            expected.add(i * 31);
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (Integer x : table)
+            assertTrue(seen.add(x));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    final void testIteratorFailFast() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash);
+        table.add(1);
+        table.add(2);
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(3);
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+    }
+
+    @Test
+    final void testClear() {
+        CuckooHashTable<Integer> table = new CuckooHashTable<>(divisionHash,
+                multiplicationHash, 1000);
+        int capacity = table.getSlots().length;
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        table.clear();
+        // clear() mantiene la capacità scelta dal costruttore
+        assertEquals(capacity, table.getSlots().length);
+        assertTrue(table.isEmpty());
+        assertFalse(table.contains(1));
+        assertFalse(table.iterator().hasNext());
+    }
+
+}
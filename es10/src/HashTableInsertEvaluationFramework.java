@@ -0,0 +1,108 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Misura il throughput di inserimento nella CollisionListResizableHashTable
+ * confrontando tre modalità: inserimenti singoli con add() in una tabella con
+ * capacità di default, addAll() di una lista in una tabella con capacità di
+ * default e addAll() di un Set in una tabella costruita con la dimensione
+ * attesa. Per ogni numero di elementi i tempi in nanosecondi e il numero di
+ * inserimenti al secondo sono scritti sul file hashinsert.csv.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class HashTableInsertEvaluationFramework {
+
+    /*
+     * Numero minimo, incremento (moltiplicativo) e numero massimo di elementi
+     * da inserire
+     */
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di ripetizioni per ogni dimensione, la prima è di riscaldamento
+     * e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 5;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashinsert.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashinsert.csv");
+            System.exit(1);
+        }
+        o.println("N,AddTns,AddAllListTns,AddAllSetPresizedTns,"
+                + "AddOpsPerSec,AddAllListOpsPerSec,AddAllSetPresizedOpsPerSec");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        Random randomGenerator = new Random();
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            for (int i = 0; i < NUMBER_OF_SAMPLES_PER_SIZE; i++) {
+                // Genero n chiavi distinte
+                Set<Integer> keys = new HashSet<Integer>();
+                while (keys.size() < n)
+                    keys.add(randomGenerator.nextInt());
+                List<Integer> keyList = new ArrayList<Integer>(
+                        keys);
+
+                long start = System.nanoTime();
+                CollisionListResizableHashTable<Integer> t1 = new CollisionListResizableHashTable<Integer>(
+                        phf);
+                for (Integer k : keyList)
+                    t1.add(k);
+                long addTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                CollisionListResizableHashTable<Integer> t2 = new CollisionListResizableHashTable<Integer>(
+                        phf);
+                t2.addAll(keyList);
+                long addAllListTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                CollisionListResizableHashTable<Integer> t3 = new CollisionListResizableHashTable<Integer>(
+                        phf, n);
+                t3.addAll(keys);
+                long addAllSetTime = System.nanoTime() - start;
+
+                if (t1.size() != n || t2.size() != n || t3.size() != n)
+                    throw new IllegalStateException(
+                            "Numero di elementi inseriti errato per n = " + n);
+                if (i == 0)
+                    continue; // riscaldamento
+                o.println(n + "," + addTime + "," + addAllListTime + ","
+                        + addAllSetTime + "," + opsPerSec(n, addTime) + ","
+                        + opsPerSec(n, addAllListTime) + ","
+                        + opsPerSec(n, addAllSetTime));
+            }
+            System.out.println("Completate le misure per n = " + n);
+        }
+        o.close();
+    }
+
+    private static long opsPerSec(int n, long elapsedTimeNano) {
+        return (long) (n * 1e9 / Math.max(1, elapsedTimeNano));
+    }
+
+}
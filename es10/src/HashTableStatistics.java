@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Raccoglie statistiche sul comportamento di una
+ * CollisionListResizableHashTable: numero di resize e tempo speso a fare
+ * resize, istogramma del numero di confronti (probe) fatti da contains() e
+ * andamento nel tempo del fattore di caricamento.
+ * <p>
+ * Un oggetto di questa classe viene creato dalla tabella solo quando le
+ * statistiche vengono abilitate. I contatori sono thread-safe, per cui possono
+ * essere letti da un thread di monitoraggio mentre la tabella viene usata da
+ * un altro thread. Le informazioni sulle liste di collisione (lunghezza media e
+ * massima) non sono mantenute qui, ma vengono calcolate dalla tabella al
+ * momento della richiesta di uno snapshot.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+public class HashTableStatistics {
+
+    /**
+     * Numero di classi dell'istogramma dei probe. La classe i conta le
+     * chiamate a contains() che hanno fatto esattamente i confronti, l'ultima
+     * classe conta tutte quelle che ne hanno fatti almeno
+     * PROBE_HISTOGRAM_SIZE - 1.
+     */
+    public static final int PROBE_HISTOGRAM_SIZE = 16;
+
+    /*
+     * Numero massimo di campioni del fattore di caricamento conservati. Quando
+     * si supera questo numero viene scartato il campione più vecchio.
+     */
+    private static final int MAX_LOAD_FACTOR_SAMPLES = 1024;
+
+    private final LongAdder resizeCount = new LongAdder();
+
+    private final LongAdder resizeTimeNanos = new LongAdder();
+
+    private final LongAdder containsCount = new LongAdder();
+
+    private final AtomicLongArray probeHistogram = new AtomicLongArray(
+            PROBE_HISTOGRAM_SIZE);
+
+    /*
+     * Campioni del fattore di caricamento. L'accesso è sincronizzato su questa
+     * stessa lista perché viene scritta sia dalla tabella (ad ogni resize) che
+     * dal thread di monitoraggio (ad ogni snapshot).
+     */
+    private final List<LoadFactorSample> loadFactorSamples = new ArrayList<LoadFactorSample>();
+
+    /*
+     * Il costruttore è package-private: gli oggetti vengono creati solo dalla
+     * tabella.
+     */
+    HashTableStatistics() {
+    }
+
+    /*
+     * Registra una chiamata a contains() che ha fatto il numero dato di
+     * confronti.
+     */
+    void recordProbe(int probes) {
+        this.containsCount.increment();
+        this.probeHistogram.incrementAndGet(
+                Math.min(probes, PROBE_HISTOGRAM_SIZE - 1));
+    }
+
+    /*
+     * Registra una resize che ha impiegato il tempo dato e che ha portato il
+     * fattore di caricamento al valore dato.
+     */
+    void recordResize(long elapsedNanos, double loadFactorAfter) {
+        this.resizeCount.increment();
+        this.resizeTimeNanos.add(elapsedNanos);
+        recordLoadFactor(loadFactorAfter);
+    }
+
+    /*
+     * Aggiunge un campione del fattore di caricamento con il tempo corrente.
+     */
+    void recordLoadFactor(double loadFactor) {
+        synchronized (this.loadFactorSamples) {
+            if (this.loadFactorSamples.size() == MAX_LOAD_FACTOR_SAMPLES)
+                this.loadFactorSamples.remove(0);
+            this.loadFactorSamples
+                    .add(new LoadFactorSample(System.nanoTime(), loadFactor));
+        }
+    }
+
+    /**
+     * @return il numero di resize fatte da quando le statistiche sono state
+     *         abilitate
+     */
+    public long getResizeCount() {
+        return this.resizeCount.sum();
+    }
+
+    /**
+     * @return il tempo totale, in nanosecondi, speso a fare resize da quando
+     *         le statistiche sono state abilitate
+     */
+    public long getResizeTimeNanos() {
+        return this.resizeTimeNanos.sum();
+    }
+
+    /**
+     * @return il numero di chiamate a contains() registrate
+     */
+    public long getContainsCount() {
+        return this.containsCount.sum();
+    }
+
+    /**
+     * Restituisce una copia dell'istogramma dei probe di contains(). La
+     * posizione i contiene il numero di chiamate che hanno fatto i confronti
+     * con equals(); l'ultima posizione accumula tutte le chiamate con almeno
+     * PROBE_HISTOGRAM_SIZE - 1 confronti.
+     *
+     * @return una copia dell'istogramma dei probe
+     */
+    public long[] getProbeHistogram() {
+        long[] h = new long[PROBE_HISTOGRAM_SIZE];
+        for (int i = 0; i < PROBE_HISTOGRAM_SIZE; i++)
+            h[i] = this.probeHistogram.get(i);
+        return h;
+    }
+
+    /**
+     * @return una copia dei campioni del fattore di caricamento, dal più
+     *         vecchio al più recente
+     */
+    public List<LoadFactorSample> getLoadFactorSamples() {
+        synchronized (this.loadFactorSamples) {
+            return new ArrayList<LoadFactorSample>(this.loadFactorSamples);
+        }
+    }
+
+    /**
+     * Un campione del fattore di caricamento della tabella in un certo istante.
+     */
+    public static class LoadFactorSample {
+
+        private final long timeNanos;
+
+        private final double loadFactor;
+
+        LoadFactorSample(long timeNanos, double loadFactor) {
+            this.timeNanos = timeNanos;
+            this.loadFactor = loadFactor;
+        }
+
+        /**
+         * @return l'istante del campione, come restituito da System.nanoTime()
+         */
+        public long getTimeNanos() {
+            return this.timeNanos;
+        }
+
+        /**
+         * @return il fattore di caricamento nell'istante del campione
+         */
+        public double getLoadFactor() {
+            return this.loadFactor;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.timeNanos + ", " + this.loadFactor + ")";
+        }
+    }
+
+    /**
+     * Fotografia dello stato della tabella in un certo istante: dimensione,
+     * capacità, fattore di caricamento e lunghezza media e massima delle liste
+     * di collisione non vuote, oltre ai contatori accumulati fino a
+     * quell'istante.
+     */
+    public static class Snapshot {
+
+        private final int size;
+
+        private final int capacity;
+
+        private final int nonEmptyBuckets;
+
+        private final int maxChainLength;
+
+        private final long resizeCount;
+
+        private final long resizeTimeNanos;
+
+        private final long[] probeHistogram;
+
+        Snapshot(int size, int capacity, int nonEmptyBuckets,
+                int maxChainLength, HashTableStatistics stats) {
+            this.size = size;
+            this.capacity = capacity;
+            this.nonEmptyBuckets = nonEmptyBuckets;
+            this.maxChainLength = maxChainLength;
+            this.resizeCount = stats.getResizeCount();
+            this.resizeTimeNanos = stats.getResizeTimeNanos();
+            this.probeHistogram = stats.getProbeHistogram();
+        }
+
+        public int getSize() {
+            return this.size;
+        }
+
+        public int getCapacity() {
+            return this.capacity;
+        }
+
+        /**
+         * @return il rapporto tra il numero di elementi e la capacità
+         */
+        public double getLoadFactor() {
+            return (double) this.size / this.capacity;
+        }
+
+        public int getNonEmptyBuckets() {
+            return this.nonEmptyBuckets;
+        }
+
+        /**
+         * @return la lunghezza media delle liste di collisione non vuote, 0 se
+         *         la tabella è vuota
+         */
+        public double getAverageChainLength() {
+            if (this.nonEmptyBuckets == 0)
+                return 0;
+            return (double) this.size / this.nonEmptyBuckets;
+        }
+
+        public int getMaxChainLength() {
+            return this.maxChainLength;
+        }
+
+        public long getResizeCount() {
+            return this.resizeCount;
+        }
+
+        public long getResizeTimeNanos() {
+            return this.resizeTimeNanos;
+        }
+
+        public long[] getProbeHistogram() {
+            return this.probeHistogram.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot [size=" + this.size + ", capacity="
+                    + this.capacity + ", loadFactor=" + getLoadFactor()
+                    + ", averageChainLength=" + getAverageChainLength()
+                    + ", maxChainLength=" + this.maxChainLength
+                    + ", resizeCount=" + this.resizeCount
+                    + ", resizeTimeNanos=" + this.resizeTimeNanos + "]";
+        }
+    }
+
+}
@@ -0,0 +1,504 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Realizza un insieme di chiavi di tipo long memorizzate fuori dallo heap
+ * della JVM, in una tabella hash a indirizzamento aperto con scansione
+ * lineare. Ogni chiave occupa esattamente 8 byte, senza oggetti wrapper né
+ * nodi di lista, e la tabella non viene mai scandita dal garbage collector.
+ * <p>
+ * La posizione iniziale di una chiave è calcolata con la funzione di hash
+ * primaria passata nel costruttore, come in CollisionListResizableHashTable,
+ * applicata a un int ottenuto mescolando i 64 bit della chiave. La funzione di
+ * hash primaria restituisce un int, per cui oltre 2^PHF_RANGE_SHIFT posizioni
+ * sceglie un gruppo di posizioni consecutive e la posizione nel gruppo è data
+ * da altri bit della chiave mescolata. La tabella è divisa in segmenti di al
+ * più 2^SEGMENT_SHIFT posizioni, ognuno in un ByteBuffer diretto, perché un
+ * singolo ByteBuffer non può superare i 2GB; capacità, posizioni e numero di
+ * chiavi sono long, per cui il numero di segmenti cresce con la tabella. La
+ * capacità è sempre una potenza di due, al più MAXIMUM_CAPACITY posizioni.
+ * <p>
+ * Una posizione vuota contiene il valore 0; la chiave 0, che non potrebbe
+ * essere distinta da una posizione vuota, è gestita a parte con un flag.
+ * Quando il fattore di caricamento supera LOAD_FACTOR la tabella viene
+ * raddoppiata allocando una nuova area di memoria e reinserendo tutte le
+ * chiavi.
+ * <p>
+ * L'insieme può essere salvato su file con saveTo(Path) e riaperto con
+ * mapFrom(Path, PrimaryHashFunction): il file viene mappato in memoria senza
+ * essere letto, per cui la riapertura è immediata anche per tabelle molto
+ * grandi. Le modifiche a un insieme mappato sono scritte direttamente nel
+ * file; sync() aggiorna l'intestazione e forza la scrittura su disco. Una
+ * resize di un insieme mappato lo sposta in memoria diretta, staccandolo dal
+ * file. Il file usa l'ordine dei byte nativo della macchina, per cui va
+ * riaperto su macchine con la stessa architettura.
+ * <p>
+ * La classe non è thread-safe.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+public class OffHeapLongHashSet {
+
+    /*
+     * Numero di bit dell'indice di una posizione all'interno di un segmento:
+     * ogni segmento ha al più 2^24 posizioni, cioè 128MB.
+     */
+    private static final int SEGMENT_SHIFT = 24;
+
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Capacità massima: 2^40 posizioni, cioè 8TB in 2^16 segmenti.
+     */
+    private static final long MAXIMUM_CAPACITY = 1L << 40;
+
+    /*
+     * Numero di bit delle posizioni restituite dalla funzione di hash
+     * primaria, che lavora su int.
+     */
+    private static final int PHF_RANGE_SHIFT = 30;
+
+    /*
+     * Fattore di caricamento. Con la scansione lineare conviene restare bassi
+     * per mantenere corte le sequenze di posizioni occupate.
+     */
+    private static final double LOAD_FACTOR = 0.7;
+
+    /*
+     * Intestazione del file: numero magico, capacità, numero di chiavi
+     * diverse da 0 e flag della chiave 0, ognuno su 8 byte.
+     */
+    private static final long MAGIC = 0x4153444C48534554L; // "ASDLHSET"
+
+    private static final int HEADER_BYTES = 32;
+
+    /*
+     * I segmenti della tabella. Il segmento i contiene le posizioni da
+     * i * 2^SEGMENT_SHIFT in poi.
+     */
+    private ByteBuffer[] segments;
+
+    private long capacity;
+
+    /*
+     * Numero di chiavi diverse da 0 presenti nella tabella.
+     */
+    private long count;
+
+    private boolean containsZero;
+
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Il file da cui è stata mappata la tabella, null se la tabella è in
+     * memoria diretta.
+     */
+    private Path mappedFile;
+
+    /**
+     * Costruisce un insieme vuoto con capacità iniziale di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se phf è null
+     */
+    public OffHeapLongHashSet(PrimaryHashFunction phf) {
+        this(phf, 0);
+    }
+
+    /**
+     * Costruisce un insieme vuoto in grado di contenere il numero di chiavi
+     * atteso senza ridimensionamenti.
+     *
+     * @param phf
+     *                         la funzione di hash primaria
+     * @param expectedSize
+     *                         il numero di chiavi che si prevede di inserire
+     * @throws NullPointerException
+     *                                      se phf è null
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo o
+     *                                      eccede la capacità massima
+     */
+    public OffHeapLongHashSet(PrimaryHashFunction phf, long expectedSize) {
+        if (phf == null)
+            throw new NullPointerException(
+                    "La funzione di hash primaria non può essere null");
+        if (expectedSize < 0
+                || expectedSize > (long) (MAXIMUM_CAPACITY * LOAD_FACTOR))
+            throw new IllegalArgumentException(
+                    "Dimensione attesa non valida: " + expectedSize);
+        this.phf = phf;
+        long c = INITIAL_CAPACITY;
+        while ((long) (c * LOAD_FACTOR) < expectedSize)
+            c = c * 2;
+        this.capacity = c;
+        this.segments = allocate(c);
+        this.count = 0;
+        this.containsZero = false;
+        this.mappedFile = null;
+    }
+
+    /*
+     * Costruttore usato da mapFrom.
+     */
+    private OffHeapLongHashSet(PrimaryHashFunction phf, ByteBuffer[] segments,
+            long capacity, long count, boolean containsZero, Path mappedFile) {
+        this.phf = phf;
+        this.segments = segments;
+        this.capacity = capacity;
+        this.count = count;
+        this.containsZero = containsZero;
+        this.mappedFile = mappedFile;
+    }
+
+    /*
+     * Alloca in memoria diretta i segmenti per una tabella della capacità
+     * data, tutti inizializzati a 0.
+     */
+    private static ByteBuffer[] allocate(long capacity) {
+        ByteBuffer[] s = new ByteBuffer[numberOfSegments(capacity)];
+        for (int i = 0; i < s.length; i++)
+            s[i] = ByteBuffer.allocateDirect(segmentSlots(capacity) * 8)
+                    .order(ByteOrder.nativeOrder());
+        return s;
+    }
+
+    private static int numberOfSegments(long capacity) {
+        return (int) Math.max(1, capacity >>> SEGMENT_SHIFT);
+    }
+
+    private static int segmentSlots(long capacity) {
+        return (int) Math.min(capacity, 1 << SEGMENT_SHIFT);
+    }
+
+    private long getSlot(long i) {
+        return this.segments[(int) (i >>> SEGMENT_SHIFT)]
+                .getLong((int) (i & SEGMENT_MASK) << 3);
+    }
+
+    private void setSlot(long i, long key) {
+        this.segments[(int) (i >>> SEGMENT_SHIFT)]
+                .putLong((int) (i & SEGMENT_MASK) << 3, key);
+    }
+
+    /*
+     * Posizione iniziale della chiave nella tabella corrente. Oltre
+     * 2^PHF_RANGE_SHIFT posizioni la funzione di hash primaria sceglie il
+     * gruppo di capacity >>> PHF_RANGE_SHIFT posizioni e i bit alti di un
+     * secondo prodotto la posizione nel gruppo.
+     */
+    private long home(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int mixed = (int) (h ^ (h >>> 32));
+        if (this.capacity <= 1L << PHF_RANGE_SHIFT)
+            return this.phf.hash(mixed, (int) this.capacity);
+        int groupShift = Long.numberOfTrailingZeros(this.capacity)
+                - PHF_RANGE_SHIFT;
+        long group = this.phf.hash(mixed, 1 << PHF_RANGE_SHIFT);
+        return (group << groupShift)
+                | ((h * 0xC2B2AE3D27D4EB4FL) >>> (64 - groupShift));
+    }
+
+    /**
+     * @return il numero di chiavi presenti
+     */
+    public long size() {
+        return this.count + (this.containsZero ? 1 : 0);
+    }
+
+    /**
+     * @return true se l'insieme è vuoto
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return il numero di posizioni della tabella
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Determina se una chiave è presente.
+     *
+     * @param key
+     *                la chiave da cercare
+     * @return true se la chiave è presente
+     */
+    public boolean contains(long key) {
+        if (key == 0)
+            return this.containsZero;
+        long mask = this.capacity - 1;
+        long i = home(key);
+        long k;
+        while ((k = getSlot(i)) != 0) {
+            if (k == key)
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Inserisce una chiave.
+     *
+     * @param key
+     *                la chiave da inserire
+     * @return true se la chiave non era presente ed è stata inserita
+     * @throws IllegalStateException
+     *                                   se la tabella ha raggiunto la capacità
+     *                                   massima
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            boolean added = !this.containsZero;
+            this.containsZero = true;
+            return added;
+        }
+        if (!insert(key))
+            return false;
+        this.count++;
+        if (this.count > (long) (this.capacity * LOAD_FACTOR))
+            resize();
+        return true;
+    }
+
+    /*
+     * Inserisce una chiave diversa da 0 senza controllare la soglia.
+     */
+    private boolean insert(long key) {
+        long mask = this.capacity - 1;
+        long i = home(key);
+        long k;
+        while ((k = getSlot(i)) != 0) {
+            if (k == key)
+                return false;
+            i = (i + 1) & mask;
+        }
+        setSlot(i, key);
+        return true;
+    }
+
+    /*
+     * Raddoppia la tabella allocando una nuova area di memoria diretta e
+     * reinserendo tutte le chiavi. La vecchia area viene liberata dal garbage
+     * collector quando il ByteBuffer non è più raggiungibile.
+     */
+    private void resize() {
+        if (this.capacity == MAXIMUM_CAPACITY) {
+            if (this.count >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException(
+                        "Raggiunta la capacità massima della tabella");
+            return;
+        }
+        ByteBuffer[] oldSegments = this.segments;
+        long oldCapacity = this.capacity;
+        this.capacity = oldCapacity * 2;
+        this.segments = allocate(this.capacity);
+        this.mappedFile = null;
+        for (int s = 0; s < oldSegments.length; s++) {
+            ByteBuffer b = oldSegments[s];
+            for (int j = 0; j < segmentSlots(oldCapacity); j++) {
+                long k = b.getLong(j << 3);
+                if (k != 0)
+                    insert(k);
+            }
+        }
+    }
+
+    /**
+     * Rimuove una chiave. Per non interrompere le sequenze di scansione le
+     * chiavi successive vengono spostate indietro dove necessario, per cui non
+     * servono marcatori di cancellazione.
+     *
+     * @param key
+     *                la chiave da rimuovere
+     * @return true se la chiave era presente ed è stata rimossa
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean removed = this.containsZero;
+            this.containsZero = false;
+            return removed;
+        }
+        long mask = this.capacity - 1;
+        long i = home(key);
+        long k;
+        while ((k = getSlot(i)) != key) {
+            if (k == 0)
+                return false;
+            i = (i + 1) & mask;
+        }
+        // Backward shift: riempio il buco in i con la prima chiave successiva
+        // la cui posizione iniziale non sta tra i (escluso) e la sua posizione
+        // corrente j (inclusa)
+        long j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            k = getSlot(j);
+            if (k == 0)
+                break;
+            long h = home(k);
+            boolean inRange = i <= j ? (i < h && h <= j) : (i < h || h <= j);
+            if (!inRange) {
+                setSlot(i, k);
+                i = j;
+            }
+        }
+        setSlot(i, 0);
+        this.count--;
+        return true;
+    }
+
+    /**
+     * Rimuove tutte le chiavi, mantenendo la capacità corrente.
+     */
+    public void clear() {
+        for (long i = 0; i < this.capacity; i++)
+            setSlot(i, 0);
+        this.count = 0;
+        this.containsZero = false;
+    }
+
+    /**
+     * Applica l'azione data a tutte le chiavi presenti, in un ordine non
+     * specificato.
+     *
+     * @param action
+     *                   l'azione da applicare
+     */
+    public void forEach(LongConsumer action) {
+        if (this.containsZero)
+            action.accept(0);
+        for (long i = 0; i < this.capacity; i++) {
+            long k = getSlot(i);
+            if (k != 0)
+                action.accept(k);
+        }
+    }
+
+    /**
+     * Salva l'insieme nel file dato, sovrascrivendolo se esiste.
+     *
+     * @param file
+     *                 il file di destinazione
+     * @throws IOException
+     *                         se si verifica un errore di scrittura
+     */
+    public void saveTo(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(header(), 0);
+            long position = HEADER_BYTES;
+            for (ByteBuffer s : this.segments) {
+                ByteBuffer d = s.duplicate();
+                d.clear();
+                while (d.hasRemaining())
+                    position += ch.write(d, position);
+            }
+        }
+    }
+
+    /**
+     * Per un insieme ottenuto con mapFrom aggiorna l'intestazione del file e
+     * forza la scrittura su disco di tutte le modifiche. Per un insieme in
+     * memoria diretta non fa nulla.
+     *
+     * @throws IOException
+     *                         se si verifica un errore di scrittura
+     */
+    public void sync() throws IOException {
+        if (this.mappedFile == null)
+            return;
+        for (ByteBuffer s : this.segments)
+            ((MappedByteBuffer) s).force();
+        try (FileChannel ch = FileChannel.open(this.mappedFile,
+                StandardOpenOption.WRITE)) {
+            ch.write(header(), 0);
+            ch.force(false);
+        }
+    }
+
+    /**
+     * @return true se l'insieme è mappato su un file
+     */
+    public boolean isMapped() {
+        return this.mappedFile != null;
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES)
+                .order(ByteOrder.nativeOrder());
+        h.putLong(MAGIC).putLong(this.capacity).putLong(this.count)
+                .putLong(this.containsZero ? 1 : 0);
+        h.flip();
+        return h;
+    }
+
+    /**
+     * Riapre un insieme salvato con saveTo mappando il file in memoria in
+     * lettura e scrittura. Le chiavi non vengono lette né reinserite: il
+     * sistema operativo carica le pagine del file quando vengono usate.
+     *
+     * @param file
+     *                 il file da mappare
+     * @param phf
+     *                 la funzione di hash primaria, che deve essere la stessa
+     *                 usata quando l'insieme è stato salvato
+     * @return l'insieme mappato sul file
+     * @throws IOException
+     *                                      se si verifica un errore di
+     *                                      lettura
+     * @throws IllegalArgumentException
+     *                                      se il file non contiene un
+     *                                      insieme valido
+     */
+    public static OffHeapLongHashSet mapFrom(Path file, PrimaryHashFunction phf)
+            throws IOException {
+        if (phf == null)
+            throw new NullPointerException(
+                    "La funzione di hash primaria non può essere null");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES)
+                    .order(ByteOrder.nativeOrder());
+            while (h.hasRemaining() && ch.read(h) >= 0)
+                ;
+            h.flip();
+            if (h.remaining() < HEADER_BYTES || h.getLong() != MAGIC)
+                throw new IllegalArgumentException(
+                        "Il file " + file + " non contiene un insieme valido");
+            long capacity = h.getLong();
+            long count = h.getLong();
+            boolean containsZero = h.getLong() != 0;
+            if (capacity < 1 || capacity > MAXIMUM_CAPACITY
+                    || Long.bitCount(capacity) != 1
+                    || ch.size() != HEADER_BYTES + capacity * 8)
+                throw new IllegalArgumentException("Il file " + file
+                        + " ha una dimensione non valida");
+            ByteBuffer[] segments = new ByteBuffer[numberOfSegments(capacity)];
+            long bytes = (long) segmentSlots(capacity) * 8;
+            for (int i = 0; i < segments.length; i++)
+                segments[i] = ch
+                        .map(FileChannel.MapMode.READ_WRITE,
+                                HEADER_BYTES + i * bytes, bytes)
+                        .order(ByteOrder.nativeOrder());
+            return new OffHeapLongHashSet(phf, segments, capacity, count,
+                    containsZero, file);
+        }
+    }
+
+}
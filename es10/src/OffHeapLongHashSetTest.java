@@ -0,0 +1,166 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classe di test JUnit per la classe OffHeapLongHashSet
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class OffHeapLongHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    final void testOffHeapLongHashSet() {
+        assertThrows(NullPointerException.class,
+                () -> new OffHeapLongHashSet(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapLongHashSet(divisionHash, -1));
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash, 1000);
+        assertTrue(set.isEmpty());
+        assertTrue(set.getCapacity() * 0.7 >= 1000);
+    }
+
+    @Test
+    final void testAddContainsRemove() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash);
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-7));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(43));
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.remove(42));
+        assertFalse(set.remove(42));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    final void testRandomOperationsAgainstHashSet() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(multiplicationHash);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            // Chiavi in un intervallo piccolo per avere molte collisioni e
+            // rimozioni di chiavi presenti
+            long k = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(k), set.remove(k));
+            else
+                assertEquals(expected.add(k), set.add(k));
+        }
+        assertEquals(expected.size(), set.size());
+        for (long k = -2500; k < 2500; k++)
+            assertEquals(expected.contains(k), set.contains(k));
+        Set<Long> seen = new HashSet<>();
+        set.forEach(k -> assertTrue(seen.add(k)));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    final void testClear() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash);
+        for (long k = 0; k < 100; k++)
+            set.add(k);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(5));
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    final void testSaveAndMap() throws IOException {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash);
+        for (long k = 0; k < 1000; k++)
+            set.add(k * 1_000_000_007L);
+        Path file = tempDir.resolve("set.bin");
+        set.saveTo(file);
+        OffHeapLongHashSet mapped = OffHeapLongHashSet.mapFrom(file,
+                divisionHash);
+        assertTrue(mapped.isMapped());
+        assertEquals(1000, mapped.size());
+        for (long k = 0; k < 1000; k++)
+            assertTrue(mapped.contains(k * 1_000_000_007L));
+        assertFalse(mapped.contains(1));
+        // Le modifiche sono scritte nel file
+        mapped.remove(0);
+        mapped.add(1);
+        mapped.sync();
+        OffHeapLongHashSet reopened = OffHeapLongHashSet.mapFrom(file,
+                divisionHash);
+        assertEquals(1000, reopened.size());
+        assertFalse(reopened.contains(0));
+        assertTrue(reopened.contains(1));
+    }
+
+    @Test
+    final void testCapacityBeyondIntRange() throws IOException {
+        // Un insieme vuoto salvato viene trasformato in uno da 2^31 posizioni
+        // (128 segmenti) cambiando la capacità nell'intestazione ed estendendo
+        // il file, che resta sparso: nessuna memoria viene allocata finché le
+        // pagine non vengono usate
+        long capacity = 1L << 31;
+        Path file = tempDir.resolve("large.bin");
+        new OffHeapLongHashSet(multiplicationHash).saveTo(file);
+        try (FileChannel ch = FileChannel.open(file,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+            b.putLong(capacity).flip();
+            ch.write(b, 8);
+            ch.write(ByteBuffer.allocate(1), 32 + capacity * 8 - 1);
+        }
+        OffHeapLongHashSet set = OffHeapLongHashSet.mapFrom(file,
+                multiplicationHash);
+        assertEquals(capacity, set.getCapacity());
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            long k = random.nextLong();
+            assertEquals(expected.add(k), set.add(k));
+        }
+        assertEquals(expected.size(), set.size());
+        for (Long k : expected)
+            assertTrue(set.contains(k));
+        int removed = 0;
+        for (Long k : expected)
+            if (removed++ % 2 == 0)
+                assertTrue(set.remove(k));
+        removed = 0;
+        for (Long k : expected)
+            assertEquals(removed++ % 2 == 1, set.contains(k));
+        assertEquals(expected.size() / 2, set.size());
+    }
+
+    @Test
+    final void testMapInvalidFile() throws IOException {
+        Path file = tempDir.resolve("invalid.bin");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class,
+                () -> OffHeapLongHashSet.mapFrom(file, divisionHash));
+    }
+
+}
@@ -0,0 +1,171 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Confronta BTreeSet, con diversi fanout, e BinarySearchTree sulle ricerche e
+ * sulle visite di intervalli. Per ogni numero di chiavi n, a partire da
+ * MIN_SIZE e moltiplicando ogni volta per FATTORE_INCREMENTO fino a MAX_SIZE,
+ * ogni struttura viene riempita con n chiavi in ordine casuale; si misura poi
+ * il tempo medio di NUMBER_OF_LOOKUPS chiamate di contains su chiavi casuali,
+ * metà presenti e metà assenti, e di NUMBER_OF_RANGES visite di intervalli
+ * contenenti circa RANGE_LENGTH chiavi ciascuno.
+ *
+ * Sul file btree.csv vengono scritti per ogni struttura e numero di chiavi
+ * l'altezza, il tempo medio in nanosecondi per inserire una chiave, per una
+ * ricerca e per visitare una chiave di un intervallo.
+ *
+ * Con 100 milioni di chiavi la JVM deve essere avviata con una heap di
+ * almeno 16 GB (-Xmx16g); se la memoria non basta le misure si fermano alla
+ * dimensione precedente.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class BTreeEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 100000000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    private static final int NUMBER_OF_LOOKUPS = 1000000;
+
+    private static final int NUMBER_OF_RANGES = 10000;
+
+    private static final int RANGE_LENGTH = 100;
+
+    private static final int[] FANOUTS = {16, 64, 256};
+
+    /*
+     * Valore che dipende dai risultati, perché il compilatore non elimini le
+     * chiamate
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "btree.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "btree.csv");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        o.println("Tree,Size,Height,InsertNs,ContainsNs,RangeScanNsPerKey");
+        try {
+            for (long size = MIN_SIZE; size <= MAX_SIZE; size *= FATTORE_INCREMENTO) {
+                int n = (int) size;
+                // Le chiavi sono i numeri pari da 0 a 2n - 2, in ordine casuale
+                Integer[] keys = new Integer[n];
+                for (int i = 0; i < n; i++)
+                    keys[i] = 2 * i;
+                for (int i = n - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    Integer t = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = t;
+                }
+                Integer[] lookups = new Integer[NUMBER_OF_LOOKUPS];
+                for (int i = 0; i < NUMBER_OF_LOOKUPS; i++)
+                    lookups[i] = random.nextInt(2 * n);
+                Integer[] lo = new Integer[NUMBER_OF_RANGES];
+                Integer[] hi = new Integer[NUMBER_OF_RANGES];
+                for (int i = 0; i < NUMBER_OF_RANGES; i++) {
+                    lo[i] = random.nextInt(2 * n);
+                    hi[i] = lo[i] + 2 * RANGE_LENGTH;
+                }
+                for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                    boolean write = s > 0; // la prima iterazione è di riscaldamento
+                    measureBinarySearchTree(o, keys, lookups, lo, hi, write);
+                    for (int fanout : FANOUTS)
+                        measureBTree(o, fanout, keys, lookups, lo, hi, write);
+                }
+                keys = null;
+                System.out.println("Completate le misure per " + n + " chiavi");
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.println("Memoria insufficiente, misure interrotte");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+    private static void measureBinarySearchTree(PrintStream o, Integer[] keys,
+            Integer[] lookups, Integer[] lo, Integer[] hi, boolean write) {
+        long start = System.nanoTime();
+        BinarySearchTree<Integer> t = new BinarySearchTree<Integer>();
+        for (Integer k : keys)
+            t.add(k);
+        long insert = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer k : lookups)
+            if (t.contains(k))
+                checksum++;
+        long contains = System.nanoTime() - start;
+        long scanned = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lo.length; i++) {
+            Iterator<Integer> it = t.iterator(lo[i], hi[i]);
+            while (it.hasNext()) {
+                checksum += it.next();
+                scanned++;
+            }
+        }
+        long scan = System.nanoTime() - start;
+        if (write)
+            o.println("BinarySearchTree," + keys.length + "," + t.getHeight() + ","
+                    + (double) insert / keys.length + ","
+                    + (double) contains / lookups.length + ","
+                    + (double) scan / scanned);
+    }
+
+    private static void measureBTree(PrintStream o, int fanout, Integer[] keys,
+            Integer[] lookups, Integer[] lo, Integer[] hi, boolean write) {
+        long start = System.nanoTime();
+        BTreeSet<Integer> t = new BTreeSet<Integer>(fanout);
+        for (Integer k : keys)
+            t.add(k);
+        long insert = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer k : lookups)
+            if (t.contains(k))
+                checksum++;
+        long contains = System.nanoTime() - start;
+        long scanned = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lo.length; i++) {
+            Iterator<Integer> it = t.iterator(lo[i], hi[i]);
+            while (it.hasNext()) {
+                checksum += it.next();
+                scanned++;
+            }
+        }
+        long scan = System.nanoTime() - start;
+        if (write)
+            o.println("BTreeSet-" + fanout + "," + keys.length + "," + t.getHeight()
+                    + "," + (double) insert / keys.length + ","
+                    + (double) contains / lookups.length + ","
+                    + (double) scan / scanned);
+    }
+
+}
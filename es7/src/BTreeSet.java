@@ -0,0 +1,770 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Un oggetto di questa classe rappresenta un insieme ordinato di etichette
+ * realizzato con un B+-tree, con le stesse operazioni della classe
+ * BinarySearchTree. Questa classe non accetta elementi null e non accetta
+ * elementi duplicati.
+ * <p>
+ * Ogni nodo contiene fino a <code>fanout</code> etichette, se è una foglia,
+ * o fino a <code>fanout</code> figli, se è un nodo interno, memorizzati in
+ * array contigui: una ricerca visita O(log n / log fanout) nodi e in ognuno
+ * esegue una ricerca binaria nell'array, invece di seguire un puntatore per
+ * ogni livello come in un albero binario. Tutte le etichette sono nelle
+ * foglie, che sono collegate tra loro in ordine, per cui le visite in ordine
+ * e le visite di un intervallo scorrono gli array delle foglie senza
+ * risalire l'albero.
+ * <p>
+ * Tutte le foglie sono alla stessa profondità e ogni nodo diverso dalla
+ * radice è pieno almeno a metà: un nodo pieno viene diviso in due durante
+ * l'inserimento e un nodo che scende sotto la metà prende un elemento da un
+ * fratello o viene fuso con esso durante la cancellazione. Le operazioni di
+ * ricerca, inserimento e cancellazione hanno quindi complessità
+ * O(log n) nel caso pessimo.
+ * <p>
+ * Gli iteratori sono fail-fast: se l'insieme viene modificato durante la
+ * visita, la successiva chiamata a next lancia una
+ * <code>ConcurrentModificationException</code>.
+ *
+ * @param <E> il tipo delle etichette. La classe {@code E} deve avere un
+ *            ordinamento naturale definito tra gli elementi.
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class BTreeSet<E extends Comparable<E>> implements Iterable<E> {
+
+    /**
+     * Numero massimo di figli di un nodo, e di etichette di una foglia,
+     * usato dal costruttore senza parametri.
+     */
+    public static final int DEFAULT_FANOUT = 64;
+
+    /**
+     * Valore minimo del numero massimo di figli di un nodo.
+     */
+    public static final int MIN_FANOUT = 3;
+
+    private final int fanout;
+
+    /*
+     * Numero minimo di etichette di una foglia diversa dalla radice
+     */
+    private final int minLeafSize;
+
+    /*
+     * Numero minimo di figli di un nodo interno diverso dalla radice
+     */
+    private final int minInternalSize;
+
+    /*
+     * Radice dell'albero, una foglia vuota se l'insieme è vuoto
+     */
+    private Node root;
+
+    /*
+     * Prima e ultima foglia della lista delle foglie
+     */
+    private Leaf head;
+
+    private Leaf tail;
+
+    /*
+     * Numero di etichette presenti nell'insieme
+     */
+    private int size;
+
+    /*
+     * Numero di livelli dell'albero meno 1: 0 se la radice è una foglia
+     */
+    private int levels;
+
+    /*
+     * Numero di modifiche all'insieme, per gli iteratori fail-fast
+     */
+    private int modCount;
+
+    /*
+     * Separatore da inserire nel genitore dopo la divisione di un nodo,
+     * impostato da insert
+     */
+    private Object promoted;
+
+    /*
+     * Impostato da insert e delete per indicare se l'insieme è stato
+     * effettivamente modificato
+     */
+    private boolean modified;
+
+    /**
+     * Crea un insieme vuoto con il fanout di default.
+     */
+    public BTreeSet() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Crea un insieme vuoto con un fanout dato.
+     *
+     * @param fanout il numero massimo di figli di un nodo interno e di
+     *               etichette di una foglia
+     * @throws IllegalArgumentException se il fanout è minore di MIN_FANOUT
+     */
+    public BTreeSet(int fanout) {
+        if (fanout < MIN_FANOUT)
+            throw new IllegalArgumentException("Fanout non valido: " + fanout);
+        this.fanout = fanout;
+        this.minLeafSize = fanout / 2;
+        this.minInternalSize = (fanout + 1) / 2;
+        this.clear();
+        this.modCount = 0;
+    }
+
+    /**
+     * @return il numero massimo di figli di un nodo di questo albero
+     */
+    public int getFanout() {
+        return this.fanout;
+    }
+
+    /**
+     * Determina se questo insieme è vuoto.
+     *
+     * @return true se questo insieme è vuoto, false altrimenti
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determina il numero di etichette in questo insieme.
+     *
+     * @return il numero di etichette in questo insieme
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Cancella tutte le etichette di questo insieme, che quindi diventa vuoto.
+     */
+    public void clear() {
+        Leaf leaf = new Leaf(this.fanout);
+        this.root = leaf;
+        this.head = leaf;
+        this.tail = leaf;
+        this.size = 0;
+        this.levels = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Restituisce l'altezza dell'albero, cioè la lunghezza del cammino dalla
+     * radice alle foglie, che sono tutte alla stessa profondità.
+     *
+     * @return l'altezza dell'albero oppure -1 se questo insieme è vuoto
+     */
+    public int getHeight() {
+        if (this.isEmpty()) return -1;
+        return this.levels;
+    }
+
+    /**
+     * Aggiunge ad una lista data le etichette di questo insieme nell'ordine
+     * naturale.
+     *
+     * @param l una lista (può essere anche vuota) su cui inserire le
+     *          etichette in ordine.
+     * @throws NullPointerException se la lista passata è null
+     */
+    @SuppressWarnings("unchecked")
+    public void addOrderedLabelsTo(List<E> l) {
+        if (l == null) throw new NullPointerException("Lista null su cui aggiungere le etichette");
+        for (Leaf leaf = this.head; leaf != null; leaf = leaf.next)
+            for (int i = 0; i < leaf.size; i++)
+                l.add((E) leaf.keys[i]);
+    }
+
+    /**
+     * Restituisce la lista ordinata delle etichette di questo insieme secondo
+     * l'ordinamento naturale della classe {@code E}.
+     *
+     * @return la lista ordinata delle etichette di questo insieme
+     */
+    public List<E> getOrderedLabels() {
+        List<E> l = new ArrayList<E>(this.size);
+        this.addOrderedLabelsTo(l);
+        return l;
+    }
+
+    /**
+     * Determina se una etichetta è presente in questo insieme.
+     *
+     * @param label l'etichetta da cercare
+     * @return true se l'etichetta è presente, false altrimenti
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean contains(E label) {
+        if (label == null) throw new NullPointerException("Etichetta da cercare null");
+        Leaf leaf = this.findLeaf(label);
+        return search(leaf.keys, leaf.size, label) >= 0;
+    }
+
+    /**
+     * Restituisce l'etichetta più piccola presente nell'insieme.
+     *
+     * @return l'etichetta minima oppure null se l'insieme è vuoto
+     */
+    @SuppressWarnings("unchecked")
+    public E getMin() {
+        if (this.isEmpty()) return null;
+        return (E) this.head.keys[0];
+    }
+
+    /**
+     * Restituisce l'etichetta più grande presente nell'insieme.
+     *
+     * @return l'etichetta massima oppure null se l'insieme è vuoto
+     */
+    @SuppressWarnings("unchecked")
+    public E getMax() {
+        if (this.isEmpty()) return null;
+        return (E) this.tail.keys[this.tail.size - 1];
+    }
+
+    /**
+     * Restituisce l'etichetta successiva a una etichetta data.
+     *
+     * @param label l'etichetta di cui trovare il successore
+     * @return l'etichetta successore di {@code label} in questo insieme,
+     * oppure null se {@code label} non ha un successore
+     * @throws IllegalArgumentException se l'etichetta {@code label} non è
+     *                                  presente in questo insieme
+     * @throws NullPointerException     se l'etichetta passata è null
+     */
+    @SuppressWarnings("unchecked")
+    public E getSuccessor(E label) {
+        if (label == null) throw new NullPointerException("Etichetta di cui cercare il successore null");
+        Leaf leaf = this.findLeaf(label);
+        int i = search(leaf.keys, leaf.size, label);
+        if (i < 0)
+            throw new IllegalArgumentException("Tentativo di cercare il successore di una etichetta non esistente");
+        if (i + 1 < leaf.size) return (E) leaf.keys[i + 1];
+        if (leaf.next == null) return null;
+        return (E) leaf.next.keys[0];
+    }
+
+    /**
+     * Restituisce l'etichetta precedente a una etichetta data.
+     *
+     * @param label l'etichetta di cui trovare il predecessore
+     * @return l'etichetta predecessore di {@code label} in questo insieme,
+     * oppure null se {@code label} non ha un predecessore
+     * @throws IllegalArgumentException se l'etichetta {@code label} non è
+     *                                  presente in questo insieme
+     * @throws NullPointerException     se l'etichetta passata è null
+     */
+    @SuppressWarnings("unchecked")
+    public E getPredecessor(E label) {
+        if (label == null) throw new NullPointerException("Etichetta di cui cercare il predecessore null");
+        Leaf leaf = this.findLeaf(label);
+        int i = search(leaf.keys, leaf.size, label);
+        if (i < 0)
+            throw new IllegalArgumentException("Tentativo di cercare il predecessore di una etichetta non esistente");
+        if (i > 0) return (E) leaf.keys[i - 1];
+        if (leaf.prev == null) return null;
+        return (E) leaf.prev.keys[leaf.prev.size - 1];
+    }
+
+    /**
+     * Aggiunge una etichetta a questo insieme.
+     *
+     * @param label etichetta da inserire
+     * @return true se l'etichetta è stata effettivamente inserita, false se
+     * era già presente
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean add(E label) {
+        if (label == null) throw new NullPointerException("Etichetta da aggiungere null");
+        this.modified = false;
+        Node sibling = this.insert(this.root, label);
+        if (sibling != null) {
+            // la radice è stata divisa: l'albero cresce di un livello
+            Internal newRoot = new Internal(this.fanout);
+            newRoot.children[0] = this.root;
+            newRoot.children[1] = sibling;
+            newRoot.keys[0] = this.promoted;
+            newRoot.size = 2;
+            this.root = newRoot;
+            this.levels++;
+        }
+        if (this.modified) {
+            this.size++;
+            this.modCount++;
+        }
+        return this.modified;
+    }
+
+    /**
+     * Rimuove una etichetta da questo insieme.
+     *
+     * @param label l'etichetta da rimuovere
+     * @return true se l'etichetta è stata rimossa, false se non era presente
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean remove(E label) {
+        if (label == null) throw new NullPointerException("Tentativo di rimuovere etichetta null");
+        this.modified = false;
+        this.delete(this.root, label);
+        if (!this.modified) return false;
+        if (this.root instanceof Internal && this.root.size == 1) {
+            // la radice ha un solo figlio: l'albero scende di un livello
+            this.root = ((Internal) this.root).children[0];
+            this.levels--;
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Restituisce un iteratore sulle etichette di questo insieme in ordine
+     * crescente.
+     *
+     * @return un iteratore sulle etichette in ordine crescente
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(this.head, 0, null, false);
+    }
+
+    /**
+     * Restituisce un iteratore in ordine crescente sulle etichette di questo
+     * insieme comprese nell'intervallo [lo, hi).
+     *
+     * @param lo estremo inferiore dell'intervallo, incluso
+     * @param hi estremo superiore dell'intervallo, escluso
+     * @return un iteratore sulle etichette dell'intervallo in ordine crescente
+     * @throws NullPointerException     se uno degli estremi è null
+     * @throws IllegalArgumentException se {@code lo} è maggiore di {@code hi}
+     */
+    public Iterator<E> iterator(E lo, E hi) {
+        checkRange(lo, hi);
+        Leaf leaf = this.findLeaf(lo);
+        return new Itr(leaf, lowerBound(leaf.keys, leaf.size, lo), hi, false);
+    }
+
+    /**
+     * Restituisce un iteratore sulle etichette di questo insieme in ordine
+     * decrescente.
+     *
+     * @return un iteratore sulle etichette in ordine decrescente
+     */
+    public Iterator<E> descendingIterator() {
+        return new Itr(this.tail, this.tail.size - 1, null, true);
+    }
+
+    /**
+     * Restituisce un iteratore in ordine decrescente sulle etichette di
+     * questo insieme comprese nell'intervallo [lo, hi).
+     *
+     * @param lo estremo inferiore dell'intervallo, incluso
+     * @param hi estremo superiore dell'intervallo, escluso
+     * @return un iteratore sulle etichette dell'intervallo in ordine
+     * decrescente
+     * @throws NullPointerException     se uno degli estremi è null
+     * @throws IllegalArgumentException se {@code lo} è maggiore di {@code hi}
+     */
+    public Iterator<E> descendingIterator(E lo, E hi) {
+        checkRange(lo, hi);
+        Leaf leaf = this.findLeaf(hi);
+        return new Itr(leaf, lowerBound(leaf.keys, leaf.size, hi) - 1, lo, true);
+    }
+
+    /*
+     * Controlla gli estremi di un intervallo [lo, hi)
+     */
+    private void checkRange(E lo, E hi) {
+        if (lo == null || hi == null) throw new NullPointerException("Estremo dell'intervallo null");
+        if (lo.compareTo(hi) > 0)
+            throw new IllegalArgumentException("Intervallo non valido: " + lo + " > " + hi);
+    }
+
+    /*
+     * Restituisce la foglia in cui si trova, o dovrebbe trovarsi, una
+     * etichetta
+     */
+    private Leaf findLeaf(E label) {
+        Node n = this.root;
+        while (n instanceof Internal) {
+            Internal in = (Internal) n;
+            n = in.children[upperBound(in.keys, in.size - 1, label)];
+        }
+        return (Leaf) n;
+    }
+
+    /*
+     * Ricerca binaria di label tra le prime n chiavi: restituisce la sua
+     * posizione, oppure -(punto di inserimento) - 1 se non è presente
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Comparable<E>> int search(Object[] keys, int n, E label) {
+        int low = 0;
+        int high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = ((E) keys[mid]).compareTo(label);
+            if (c < 0) low = mid + 1;
+            else if (c > 0) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    /*
+     * Numero di chiavi, tra le prime n, minori di label
+     */
+    private static <E extends Comparable<E>> int lowerBound(Object[] keys, int n, E label) {
+        int i = search(keys, n, label);
+        return i >= 0 ? i : -(i + 1);
+    }
+
+    /*
+     * Numero di chiavi, tra le prime n, minori o uguali a label: è l'indice
+     * del figlio in cui scendere in un nodo interno
+     */
+    private static <E extends Comparable<E>> int upperBound(Object[] keys, int n, E label) {
+        int i = search(keys, n, label);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    /*
+     * Inserisce l'etichetta nel sotto-albero con radice n. Se n deve essere
+     * diviso restituisce il nuovo nodo, fratello destro di n, e imposta
+     * promoted al separatore da inserire nel genitore, altrimenti restituisce
+     * null.
+     */
+    private Node insert(Node n, E label) {
+        if (n instanceof Leaf) {
+            Leaf leaf = (Leaf) n;
+            int i = search(leaf.keys, leaf.size, label);
+            if (i >= 0) return null;
+            this.modified = true;
+            i = -(i + 1);
+            if (leaf.size < this.fanout) {
+                leaf.insertKey(i, label);
+                return null;
+            }
+            // foglia piena: la seconda metà delle chiavi passa a una nuova foglia
+            Leaf right = new Leaf(this.fanout);
+            int mid = (this.fanout + 1) / 2;
+            right.size = leaf.size - mid;
+            System.arraycopy(leaf.keys, mid, right.keys, 0, right.size);
+            Arrays.fill(leaf.keys, mid, leaf.size, null);
+            leaf.size = mid;
+            if (i <= mid) leaf.insertKey(i, label);
+            else right.insertKey(i - mid, label);
+            right.next = leaf.next;
+            right.prev = leaf;
+            if (leaf.next != null) leaf.next.prev = right;
+            else this.tail = right;
+            leaf.next = right;
+            this.promoted = right.keys[0];
+            return right;
+        }
+        Internal in = (Internal) n;
+        int c = upperBound(in.keys, in.size - 1, label);
+        Node sibling = this.insert(in.children[c], label);
+        if (sibling == null) return null;
+        Object separator = this.promoted;
+        if (in.size < this.fanout) {
+            in.insertChild(c, separator, sibling);
+            return null;
+        }
+        // nodo pieno: si dividono i fanout + 1 figli tra n e un nuovo nodo
+        Object[] keys = new Object[this.fanout];
+        Node[] children = new Node[this.fanout + 1];
+        System.arraycopy(in.keys, 0, keys, 0, c);
+        keys[c] = separator;
+        System.arraycopy(in.keys, c, keys, c + 1, this.fanout - 1 - c);
+        System.arraycopy(in.children, 0, children, 0, c + 1);
+        children[c + 1] = sibling;
+        System.arraycopy(in.children, c + 1, children, c + 2, this.fanout - 1 - c);
+        int leftSize = (this.fanout + 1) / 2;
+        Internal right = new Internal(this.fanout);
+        right.size = this.fanout + 1 - leftSize;
+        System.arraycopy(children, leftSize, right.children, 0, right.size);
+        System.arraycopy(keys, leftSize, right.keys, 0, right.size - 1);
+        Arrays.fill(in.keys, null);
+        Arrays.fill(in.children, null);
+        System.arraycopy(children, 0, in.children, 0, leftSize);
+        System.arraycopy(keys, 0, in.keys, 0, leftSize - 1);
+        in.size = leftSize;
+        this.promoted = keys[leftSize - 1];
+        return right;
+    }
+
+    /*
+     * Cancella l'etichetta dal sotto-albero con radice n, ribilanciando i
+     * figli che scendono sotto la metà
+     */
+    private void delete(Node n, E label) {
+        if (n instanceof Leaf) {
+            Leaf leaf = (Leaf) n;
+            int i = search(leaf.keys, leaf.size, label);
+            if (i < 0) return;
+            this.modified = true;
+            leaf.removeKey(i);
+            return;
+        }
+        Internal in = (Internal) n;
+        int c = upperBound(in.keys, in.size - 1, label);
+        Node child = in.children[c];
+        this.delete(child, label);
+        if (this.modified && child.size < (child instanceof Leaf ? this.minLeafSize : this.minInternalSize))
+            this.fixUnderflow(in, c);
+    }
+
+    /*
+     * Il figlio c del nodo in ha meno elementi del minimo: prende un elemento
+     * da un fratello che ne ha più del minimo, oppure viene fuso con un
+     * fratello
+     */
+    private void fixUnderflow(Internal in, int c) {
+        Node child = in.children[c];
+        int min = child instanceof Leaf ? this.minLeafSize : this.minInternalSize;
+        if (c > 0 && in.children[c - 1].size > min) {
+            this.borrowFromLeft(in, c);
+        } else if (c + 1 < in.size && in.children[c + 1].size > min) {
+            this.borrowFromRight(in, c);
+        } else if (c > 0) {
+            this.merge(in, c - 1);
+        } else {
+            this.merge(in, c);
+        }
+    }
+
+    private void borrowFromLeft(Internal in, int c) {
+        Node child = in.children[c];
+        Node left = in.children[c - 1];
+        if (child instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf leaf = (Leaf) child;
+            leaf.insertKey(0, l.keys[l.size - 1]);
+            l.removeKey(l.size - 1);
+            in.keys[c - 1] = leaf.keys[0];
+        } else {
+            Internal l = (Internal) left;
+            Internal node = (Internal) child;
+            // il separatore scende nel figlio e l'ultima chiave di left sale
+            System.arraycopy(node.keys, 0, node.keys, 1, node.size - 1);
+            System.arraycopy(node.children, 0, node.children, 1, node.size);
+            node.keys[0] = in.keys[c - 1];
+            node.children[0] = l.children[l.size - 1];
+            node.size++;
+            in.keys[c - 1] = l.keys[l.size - 2];
+            l.keys[l.size - 2] = null;
+            l.children[l.size - 1] = null;
+            l.size--;
+        }
+    }
+
+    private void borrowFromRight(Internal in, int c) {
+        Node child = in.children[c];
+        Node right = in.children[c + 1];
+        if (child instanceof Leaf) {
+            Leaf r = (Leaf) right;
+            Leaf leaf = (Leaf) child;
+            leaf.insertKey(leaf.size, r.keys[0]);
+            r.removeKey(0);
+            in.keys[c] = r.keys[0];
+        } else {
+            Internal r = (Internal) right;
+            Internal node = (Internal) child;
+            // il separatore scende nel figlio e la prima chiave di right sale
+            node.keys[node.size - 1] = in.keys[c];
+            node.children[node.size] = r.children[0];
+            node.size++;
+            in.keys[c] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.size - 2);
+            System.arraycopy(r.children, 1, r.children, 0, r.size - 1);
+            r.keys[r.size - 2] = null;
+            r.children[r.size - 1] = null;
+            r.size--;
+        }
+    }
+
+    /*
+     * Fonde il figlio c + 1 del nodo in nel figlio c
+     */
+    private void merge(Internal in, int c) {
+        Node left = in.children[c];
+        Node right = in.children[c + 1];
+        if (left instanceof Leaf) {
+            Leaf l = (Leaf) left;
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.size, r.size);
+            l.size += r.size;
+            l.next = r.next;
+            if (r.next != null) r.next.prev = l;
+            else this.tail = l;
+        } else {
+            Internal l = (Internal) left;
+            Internal r = (Internal) right;
+            // il separatore scende tra le chiavi dei due nodi
+            l.keys[l.size - 1] = in.keys[c];
+            System.arraycopy(r.keys, 0, l.keys, l.size, r.size - 1);
+            System.arraycopy(r.children, 0, l.children, l.size, r.size);
+            l.size += r.size;
+        }
+        // rimuove il separatore c e il figlio c + 1 dal genitore
+        System.arraycopy(in.keys, c + 1, in.keys, c, in.size - 2 - c);
+        System.arraycopy(in.children, c + 2, in.children, c + 1, in.size - 2 - c);
+        in.keys[in.size - 2] = null;
+        in.children[in.size - 1] = null;
+        in.size--;
+    }
+
+    /**
+     * Just for JUnit testing purposes.
+     *
+     * @return the root node of this tree
+     */
+    protected Node getRoot() {
+        return this.root;
+    }
+
+    /*
+     * Nodo dell'albero: size è il numero di etichette se il nodo è una
+     * foglia e il numero di figli se è un nodo interno. Le classi sono
+     * protected solamente per permettere i test JUnit.
+     */
+    protected abstract static class Node {
+        protected int size;
+    }
+
+    /*
+     * Foglia: contiene le etichette in ordine crescente nelle prime size
+     * posizioni dell'array keys, ed è collegata alle foglie adiacenti.
+     */
+    protected static final class Leaf extends Node {
+        protected final Object[] keys;
+
+        protected Leaf next;
+
+        protected Leaf prev;
+
+        private Leaf(int fanout) {
+            this.keys = new Object[fanout];
+        }
+
+        private void insertKey(int i, Object key) {
+            System.arraycopy(this.keys, i, this.keys, i + 1, this.size - i);
+            this.keys[i] = key;
+            this.size++;
+        }
+
+        private void removeKey(int i) {
+            System.arraycopy(this.keys, i + 1, this.keys, i, this.size - i - 1);
+            this.size--;
+            this.keys[this.size] = null;
+        }
+    }
+
+    /*
+     * Nodo interno con size figli e size - 1 separatori: tutte le etichette
+     * del figlio i sono minori di keys[i] e tutte quelle del figlio i + 1 sono
+     * maggiori o uguali a keys[i].
+     */
+    protected static final class Internal extends Node {
+        protected final Object[] keys;
+
+        protected final Node[] children;
+
+        private Internal(int fanout) {
+            this.keys = new Object[fanout - 1];
+            this.children = new Node[fanout];
+        }
+
+        /*
+         * Inserisce un nuovo figlio subito dopo il figlio c, con il separatore
+         * che li divide
+         */
+        private void insertChild(int c, Object separator, Node child) {
+            System.arraycopy(this.keys, c, this.keys, c + 1, this.size - 1 - c);
+            System.arraycopy(this.children, c + 1, this.children, c + 2, this.size - 1 - c);
+            this.keys[c] = separator;
+            this.children[c + 1] = child;
+            this.size++;
+        }
+    }
+
+    /*
+     * Iteratore che scorre le foglie a partire da una posizione data, in
+     * avanti o all'indietro. Si ferma quando l'etichetta raggiunge il limite,
+     * se presente: in ordine crescente il limite è escluso, in ordine
+     * decrescente è incluso.
+     */
+    private class Itr implements Iterator<E> {
+        private Leaf leaf;
+
+        private int index;
+
+        private final E bound;
+
+        private final boolean descending;
+
+        private final int expectedModCount;
+
+        Itr(Leaf leaf, int index, E bound, boolean descending) {
+            this.leaf = leaf;
+            this.index = index;
+            this.bound = bound;
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.normalize();
+        }
+
+        /*
+         * Porta la posizione su una etichetta esistente, passando alla foglia
+         * adiacente se necessario, e la annulla se l'etichetta è fuori
+         * dall'intervallo
+         */
+        @SuppressWarnings("unchecked")
+        private void normalize() {
+            if (this.descending) {
+                if (this.index < 0) {
+                    this.leaf = this.leaf.prev;
+                    if (this.leaf != null) this.index = this.leaf.size - 1;
+                }
+            } else if (this.index >= this.leaf.size) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            if (this.leaf == null || this.leaf.size == 0 || this.bound == null) return;
+            int c = ((E) this.leaf.keys[this.index]).compareTo(this.bound);
+            if (this.descending ? c < 0 : c >= 0) this.leaf = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.leaf != null && this.leaf.size > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != this.expectedModCount)
+                throw new ConcurrentModificationException("L'insieme è stato modificato");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non ci sono altre etichette");
+            E label = (E) this.leaf.keys[this.index];
+            this.index += this.descending ? -1 : 1;
+            this.normalize();
+            return label;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classe di test JUnit per la classe BTreeSet
+ *
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+class BTreeSetTest {
+
+    /*
+     * Controlla le proprietà del B+-tree: chiavi ordinate e comprese tra i
+     * separatori, nodi pieni almeno a metà e foglie tutte alla stessa
+     * profondità, restituisce la profondità delle foglie
+     */
+    private int checkNode(BTreeSet<Integer> set, BTreeSet.Node n, Integer min, Integer max, boolean isRoot) {
+        int fanout = set.getFanout();
+        assertTrue(n.size <= fanout);
+        if (n instanceof BTreeSet.Leaf) {
+            BTreeSet.Leaf leaf = (BTreeSet.Leaf) n;
+            if (!isRoot) assertTrue(leaf.size >= fanout / 2);
+            for (int i = 0; i < leaf.size; i++) {
+                Integer k = (Integer) leaf.keys[i];
+                if (i > 0) assertTrue((Integer) leaf.keys[i - 1] < k);
+                if (min != null) assertTrue(k >= min);
+                if (max != null) assertTrue(k < max);
+            }
+            return 0;
+        }
+        BTreeSet.Internal in = (BTreeSet.Internal) n;
+        assertTrue(in.size >= (isRoot ? 2 : (fanout + 1) / 2));
+        int depth = -1;
+        for (int i = 0; i < in.size; i++) {
+            Integer lo = i == 0 ? min : (Integer) in.keys[i - 1];
+            Integer hi = i == in.size - 1 ? max : (Integer) in.keys[i];
+            int d = checkNode(set, in.children[i], lo, hi, false);
+            if (depth >= 0) assertEquals(depth, d);
+            depth = d;
+        }
+        return depth + 1;
+    }
+
+    private BTreeSet<Integer> sevenLabels() {
+        BTreeSet<Integer> set = new BTreeSet<Integer>(3);
+        set.add(2);
+        set.add(5);
+        set.add(7);
+        set.add(1);
+        set.add(3);
+        set.add(4);
+        set.add(6);
+        return set;
+    }
+
+    @Test
+    void testBTreeSet() {
+        BTreeSet<Integer> set = new BTreeSet<Integer>();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+        assertEquals(-1, set.getHeight());
+        assertEquals(BTreeSet.DEFAULT_FANOUT, set.getFanout());
+        assertThrows(IllegalArgumentException.class, () -> {
+            new BTreeSet<Integer>(2);
+        });
+        assertNull(set.getMin());
+        assertNull(set.getMax());
+        assertFalse(set.contains(42));
+        assertFalse(set.remove(42));
+    }
+
+    @Test
+    void testOperations() {
+        BTreeSet<Integer> set = sevenLabels();
+        assertEquals(7, set.size());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), set.getOrderedLabels());
+        assertEquals(checkNode(set, set.getRoot(), null, null, true), set.getHeight());
+        assertTrue(set.getHeight() > 0);
+        assertTrue(set.contains(4));
+        assertFalse(set.contains(42));
+        assertFalse(set.add(4));
+        assertEquals(1, set.getMin());
+        assertEquals(7, set.getMax());
+        for (int i = 1; i < 7; i++) {
+            assertEquals(i + 1, set.getSuccessor(i));
+            assertEquals(i, set.getPredecessor(i + 1));
+        }
+        assertNull(set.getSuccessor(7));
+        assertNull(set.getPredecessor(1));
+        assertThrows(IllegalArgumentException.class, () -> {
+            set.getSuccessor(42);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            set.getPredecessor(42);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            set.add(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            set.contains(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            set.addOrderedLabelsTo(null);
+        });
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertTrue(set.getOrderedLabels().isEmpty());
+    }
+
+    @Test
+    void testIterators() {
+        BTreeSet<Integer> set = sevenLabels();
+        List<Integer> labels = new ArrayList<Integer>();
+        for (Integer e : set)
+            labels.add(e);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), labels);
+        labels.clear();
+        set.descendingIterator().forEachRemaining(labels::add);
+        assertEquals(Arrays.asList(7, 6, 5, 4, 3, 2, 1), labels);
+        labels.clear();
+        set.iterator(3, 6).forEachRemaining(labels::add);
+        assertEquals(Arrays.asList(3, 4, 5), labels);
+        labels.clear();
+        set.descendingIterator(3, 6).forEachRemaining(labels::add);
+        assertEquals(Arrays.asList(5, 4, 3), labels);
+        assertFalse(set.iterator(10, 20).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> {
+            set.iterator(6, 3);
+        });
+        Iterator<Integer> it = set.iterator();
+        it.next();
+        set.remove(5);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+        set.clear();
+        assertFalse(set.iterator().hasNext());
+        assertFalse(set.descendingIterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> {
+            set.iterator().next();
+        });
+    }
+
+    @Test
+    void testRandomOperations() {
+        // Confronto con TreeSet su una sequenza casuale di operazioni, con
+        // fanout piccoli per esercitare divisioni, prestiti e fusioni
+        for (int fanout : new int[]{3, 4, 5, 16}) {
+            BTreeSet<Integer> set = new BTreeSet<Integer>(fanout);
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            Random random = new Random(fanout);
+            for (int i = 0; i < 20000; i++) {
+                Integer e = random.nextInt(2000);
+                if (random.nextInt(5) < 2)
+                    assertEquals(expected.remove(e), set.remove(e));
+                else
+                    assertEquals(expected.add(e), set.add(e));
+                assertEquals(expected.size(), set.size());
+                if (i % 1000 == 0)
+                    checkNode(set, set.getRoot(), null, null, true);
+            }
+            assertEquals(checkNode(set, set.getRoot(), null, null, true), set.getHeight());
+            assertEquals(new ArrayList<Integer>(expected), set.getOrderedLabels());
+            for (int i = 0; i < 100; i++) {
+                int lo = random.nextInt(2200) - 100;
+                int hi = lo + random.nextInt(300);
+                List<Integer> labels = new ArrayList<Integer>();
+                set.iterator(lo, hi).forEachRemaining(labels::add);
+                assertEquals(new ArrayList<Integer>(expected.subSet(lo, hi)), labels);
+                labels.clear();
+                set.descendingIterator(lo, hi).forEachRemaining(labels::add);
+                assertEquals(new ArrayList<Integer>(expected.subSet(lo, true, hi, false).descendingSet()), labels);
+            }
+            for (Integer e : expected) {
+                assertEquals(expected.higher(e), set.getSuccessor(e));
+                assertEquals(expected.lower(e), set.getPredecessor(e));
+            }
+            for (Integer e : new ArrayList<Integer>(expected))
+                assertTrue(set.remove(e));
+            assertTrue(set.isEmpty());
+            assertEquals(-1, set.getHeight());
+            assertFalse(set.iterator().hasNext());
+            assertTrue(set.add(42));
+            assertEquals(42, set.getMin());
+            assertEquals(42, set.getMax());
+        }
+    }
+
+}
@@ -0,0 +1,553 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un oggetto di questa classe rappresenta un binary search tree bilanciato,
+ * cioè un albero AVL, con le stesse API pubbliche della classe
+ * BinarySearchTree. L'albero è realizzato tramite nodi ricorsivi
+ * (rappresentati da oggetti della classe interna RecAVL) che memorizzano,
+ * oltre all'etichetta e ai due sotto-alberi, la propria altezza. Questa classe
+ * non accetta elementi null e non accetta elementi duplicati.
+ * <p>
+ * Dopo ogni inserimento e ogni cancellazione i nodi sul cammino dalla radice
+ * al punto di modifica vengono ribilanciati con rotazioni in modo che, per
+ * ogni nodo, le altezze dei due sotto-alberi differiscano al massimo di 1.
+ * L'altezza di un albero AVL con n nodi è quindi al più circa 1.44 log n,
+ * anche quando le etichette vengono inserite in ordine crescente, e le
+ * operazioni di ricerca, inserimento e cancellazione hanno complessità
+ * O(log n) nel caso pessimo. L'altezza dell'albero viene restituita in tempo
+ * costante.
+ *
+ * @param <E> il tipo delle etichette dei nodi in questo albero. La classe
+ *            {@code E} deve avere un ordinamento naturale definito tra gli
+ *            elementi.
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class BalancedBinarySearchTree<E extends Comparable<E>> {
+
+    /*
+     * Puntatore all'attuale nodo radice dell'albero, se null allora l'albero è
+     * vuoto
+     */
+    private RecAVL root;
+
+    /*
+     * Numero di nodi attualmente presenti in questo albero
+     */
+    private int size;
+
+    /*
+     * Impostato dai metodi ricorsivi di inserimento e cancellazione per
+     * indicare se l'albero è stato effettivamente modificato
+     */
+    private boolean modified;
+
+    /**
+     * Crea un albero binario di ricerca bilanciato vuoto.
+     */
+    public BalancedBinarySearchTree() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Costruisce un albero contenente solo un nodo radice/foglia.
+     *
+     * @param label etichetta del nodo radice/foglia
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public BalancedBinarySearchTree(E label) {
+        if (label == null) throw new NullPointerException("Etichetta della radice null");
+        this.root = new RecAVL(label);
+        this.size = 1;
+    }
+
+    /**
+     * Determina se questo albero è vuoto.
+     *
+     * @return true se questo albero è vuoto, false altrimenti
+     */
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    /**
+     * Determina il numero di nodi in questo albero.
+     *
+     * @return il numero di nodi in questo albero
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Cancella tutti i nodi di questo albero, che quindi diventa vuoto.
+     */
+    public void clear() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Restituisce l'altezza di questo albero. L'altezza è definita come la
+     * massima lunghezza di un percorso dal nodo radice a un nodo foglia in
+     * questo albero. L'altezza dell'albero vuoto è -1, l'altezza dell'albero
+     * con una radice/foglia è 0, e così via.
+     *
+     * @return l'altezza di questo albero oppure -1 se questo albero è vuoto.
+     */
+    public int getHeight() {
+        return height(this.root);
+    }
+
+    /**
+     * Aggiunge ad una lista data la lista delle etichette dei nodi dell'albero
+     * nell'ordine naturale.
+     *
+     * @param l una lista (può essere anche vuota) su cui inserire le
+     *          etichette in ordine.
+     * @throws NullPointerException se la lista passata è null
+     */
+    public void addOrderedLabelsTo(List<E> l) {
+        if (l == null) throw new NullPointerException("Lista null su cui aggiungere le etichette");
+        if (this.isEmpty()) return;
+        this.root.addLabelsInOrder(l);
+    }
+
+    /**
+     * Restituisce la lista ordinata delle etichette dei nodi di questo albero
+     * secondo l'ordinamento naturale della classe {@code E}.
+     *
+     * @return la lista ordinata delle etichette dei nodi di questo albero
+     * secondo l'ordinamento naturale della classe {@code E}
+     */
+    public List<E> getOrderedLabels() {
+        List<E> l = new ArrayList<E>(this.size);
+        if (!this.isEmpty()) this.root.addLabelsInOrder(l);
+        return l;
+    }
+
+    /**
+     * Cerca un certo nodo in questo albero che ha una etichetta data.
+     *
+     * @param label l'etichetta da cercare
+     * @return true se l'etichetta è presente, false altrimenti
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean contains(E label) {
+        if (label == null) throw new NullPointerException("Etichetta da cercare null");
+        return search(label) != null;
+    }
+
+    /**
+     * Restituisce l'etichetta più piccola, in base all'ordinamento naturale
+     * della classe {@code E}, presente nell'albero.
+     *
+     * @return l'etichetta minima presente nell'albero oppure null se l'albero è
+     * vuoto
+     */
+    public E getMin() {
+        if (this.isEmpty()) return null;
+        return this.root.getMinNode().getLabel();
+    }
+
+    /**
+     * Restituisce l'etichetta più grande, in base all'ordinamento naturale
+     * della classe {@code E}, presente nell'albero.
+     *
+     * @return l'etichetta massima presente nell'albero oppure null se l'albero
+     * è vuoto
+     */
+    public E getMax() {
+        if (this.isEmpty()) return null;
+        return this.root.getMaxNode().getLabel();
+    }
+
+    /**
+     * Restituisce l'etichetta successiva a una etichetta data secondo l'ordine
+     * canonico della classe E.
+     *
+     * @param label l'etichetta di cui trovare il successore
+     * @return l'etichetta successore di {@code label} in questo albero, oppure
+     * null se {@code label} non ha un successore
+     * @throws IllegalArgumentException se l'etichetta {@code label} non è
+     *                                  presente in questo albero
+     * @throws NullPointerException     se l'etichetta passata è null
+     */
+    public E getSuccessor(E label) {
+        if (label == null) throw new NullPointerException("Etichetta di cui cercare il successore null");
+        /*
+         * Il successore è il minimo del sotto-albero destro del nodo, se
+         * esiste, altrimenti è l'ultimo nodo del cammino dalla radice da cui
+         * si è scesi a sinistra
+         */
+        RecAVL succ = null;
+        RecAVL n = this.root;
+        while (n != null) {
+            int c = label.compareTo(n.label);
+            if (c < 0) {
+                succ = n;
+                n = n.left;
+            } else if (c > 0) {
+                n = n.right;
+            } else {
+                if (n.right != null) succ = n.right.getMinNode();
+                return succ == null ? null : succ.getLabel();
+            }
+        }
+        throw new IllegalArgumentException("Tentativo di cercare il successore di una etichetta non esistente");
+    }
+
+    /**
+     * Restituisce l'etichetta precedente a una etichetta data secondo l'ordine
+     * canonico della classe E.
+     *
+     * @param label l'etichetta di cui trovare il predecessore
+     * @return l'etichetta predecessore di {@code label} in questo albero,
+     * oppure null se {@code label} non ha un predecessore
+     * @throws IllegalArgumentException se l'etichetta {@code label} non è
+     *                                  presente in questo albero
+     * @throws NullPointerException     se l'etichetta passata è null
+     */
+    public E getPredecessor(E label) {
+        if (label == null) throw new NullPointerException("Etichetta di cui cercare il predecessore null");
+        // simmetrico a getSuccessor
+        RecAVL pred = null;
+        RecAVL n = this.root;
+        while (n != null) {
+            int c = label.compareTo(n.label);
+            if (c > 0) {
+                pred = n;
+                n = n.right;
+            } else if (c < 0) {
+                n = n.left;
+            } else {
+                if (n.left != null) pred = n.left.getMaxNode();
+                return pred == null ? null : pred.getLabel();
+            }
+        }
+        throw new IllegalArgumentException("Tentativo di cercare il predecessore di una etichetta non esistente");
+    }
+
+    /**
+     * Aggiunge un nodo a questo albero con una etichetta specificata.
+     *
+     * @param label etichetta da inserire
+     * @return true se il nodo è stato effettivamente inserito, false se
+     * l'etichetta era già presente
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean add(E label) {
+        if (label == null) throw new NullPointerException("Etichetta da aggiungere null");
+        if (this.isEmpty()) {
+            // aggiunge la radice
+            this.root = new RecAVL(label);
+            this.size = 1;
+            return true;
+        }
+        // la radice può cambiare a causa delle rotazioni
+        this.modified = false;
+        this.root = this.root.insert(label);
+        if (this.modified) this.size++;
+        return this.modified;
+    }
+
+    /**
+     * Rimuove da questo albero il nodo contenente una certa etichetta.
+     *
+     * @param label l'etichetta del nodo da rimuovere
+     * @return true se il nodo è stato rimosso, false se l'etichetta non era
+     * presente
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public boolean remove(E label) {
+        if (label == null) throw new NullPointerException("Tentativo di rimuovere etichetta null");
+        if (this.isEmpty())
+            // etichetta sicuramente non presente in un albero vuoto
+            return false;
+        this.modified = false;
+        this.root = this.root.delete(label);
+        if (this.modified) this.size--;
+        return this.modified;
+    }
+
+    /**
+     * Just for JUnit testing purposes.
+     *
+     * @return the RecAVL node corresponding to the root of this binary search
+     * tree.
+     */
+    protected RecAVL getRoot() {
+        return this.root;
+    }
+
+    /*
+     * Cerca iterativamente il nodo con una certa etichetta, restituisce null
+     * se l'etichetta non è presente
+     */
+    private RecAVL search(E label) {
+        RecAVL n = this.root;
+        while (n != null) {
+            int c = label.compareTo(n.label);
+            if (c == 0) return n;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    /*
+     * Altezza di un (sotto-)albero, -1 se è vuoto
+     */
+    private int height(RecAVL n) {
+        return n == null ? -1 : n.height;
+    }
+
+    /*
+     * Classe interna che implementa i metodi ricorsivi e in cui ogni nodo è un
+     * (sotto-)albero AVL. I metodi che modificano l'albero restituiscono la
+     * nuova radice del (sotto-)albero, che può cambiare a causa delle
+     * rotazioni. Lo specificatore è protected solamente per permettere i test
+     * JUnit.
+     */
+    protected class RecAVL {
+        /*
+         * Etichetta associata al nodo
+         */
+        private E label;
+
+        /*
+         * Sottoalbero sinistro, se non presente vale null
+         */
+        private RecAVL left;
+
+        /*
+         * Sottoalbero destro, se non presente vale null
+         */
+        private RecAVL right;
+
+        /*
+         * Altezza di questo (sotto-)albero, 0 se il nodo è una foglia
+         */
+        private int height;
+
+        /*
+         * Costruisce un (sotto-)albero che contiene solo la radice/foglia.
+         *
+         * @param label etichetta da associare al nodo
+         */
+        protected RecAVL(E label) {
+            this.label = label;
+            this.left = null;
+            this.right = null;
+            this.height = 0;
+        }
+
+        /**
+         * @return the label
+         */
+        protected E getLabel() {
+            return this.label;
+        }
+
+        /**
+         * @return the left
+         */
+        protected RecAVL getLeft() {
+            return left;
+        }
+
+        /**
+         * @return the right
+         */
+        protected RecAVL getRight() {
+            return right;
+        }
+
+        /**
+         * @return the height
+         */
+        protected int getHeight() {
+            return height;
+        }
+
+        /*
+         * Ricalcola l'altezza di questo nodo a partire da quelle dei figli.
+         */
+        private void updateHeight() {
+            this.height = 1 + Math.max(height(this.left), height(this.right));
+        }
+
+        /*
+         * Differenza tra l'altezza del sotto-albero sinistro e quella del
+         * sotto-albero destro.
+         */
+        private int balanceFactor() {
+            return height(this.left) - height(this.right);
+        }
+
+        /*
+         * Ruota questo (sotto-)albero verso destra: il figlio sinistro diventa
+         * la radice.
+         *
+         * @return la nuova radice del (sotto-)albero
+         */
+        private RecAVL rotateRight() {
+            RecAVL l = this.left;
+            this.left = l.right;
+            l.right = this;
+            this.updateHeight();
+            l.updateHeight();
+            return l;
+        }
+
+        /*
+         * Ruota questo (sotto-)albero verso sinistra: il figlio destro diventa
+         * la radice.
+         *
+         * @return la nuova radice del (sotto-)albero
+         */
+        private RecAVL rotateLeft() {
+            RecAVL r = this.right;
+            this.right = r.left;
+            r.left = this;
+            this.updateHeight();
+            r.updateHeight();
+            return r;
+        }
+
+        /*
+         * Aggiorna l'altezza di questo nodo e, se i suoi sotto-alberi
+         * differiscono in altezza di 2, lo ribilancia con una rotazione
+         * semplice o doppia. I sotto-alberi devono essere già bilanciati.
+         *
+         * @return la nuova radice del (sotto-)albero
+         */
+        private RecAVL rebalance() {
+            this.updateHeight();
+            int balance = this.balanceFactor();
+            if (balance > 1) {
+                // caso sinistra-destra: prima si ruota il figlio
+                if (this.left.balanceFactor() < 0) this.left = this.left.rotateLeft();
+                return this.rotateRight();
+            }
+            if (balance < -1) {
+                // caso destra-sinistra: prima si ruota il figlio
+                if (this.right.balanceFactor() > 0) this.right = this.right.rotateRight();
+                return this.rotateLeft();
+            }
+            return this;
+        }
+
+        /*
+         * Aggiunge un nodo a questo (sotto-)albero con una etichetta
+         * specificata e lo ribilancia. Imposta modified a true se il nodo è
+         * stato effettivamente inserito.
+         *
+         * @param label etichetta da inserire
+         *
+         * @return la nuova radice del (sotto-)albero
+         */
+        protected RecAVL insert(E label) {
+            int c = label.compareTo(this.label);
+            if (c < 0) {
+                if (this.left == null) {
+                    this.left = new RecAVL(label);
+                    modified = true;
+                } else {
+                    this.left = this.left.insert(label);
+                }
+            } else if (c > 0) {
+                if (this.right == null) {
+                    this.right = new RecAVL(label);
+                    modified = true;
+                } else {
+                    this.right = this.right.insert(label);
+                }
+            } else {
+                // l'etichetta è già presente, l'albero non cambia
+                return this;
+            }
+            return this.rebalance();
+        }
+
+        /*
+         * Cancella il nodo con una certa etichetta da questo (sotto-)albero e
+         * lo ribilancia. Imposta modified a true se il nodo è stato
+         * effettivamente cancellato.
+         *
+         * @param label l'etichetta da cancellare
+         *
+         * @return la nuova radice del (sotto-)albero, null se il
+         * (sotto-)albero è diventato vuoto
+         */
+        protected RecAVL delete(E label) {
+            int c = label.compareTo(this.label);
+            if (c < 0) {
+                if (this.left == null) return this;
+                this.left = this.left.delete(label);
+            } else if (c > 0) {
+                if (this.right == null) return this;
+                this.right = this.right.delete(label);
+            } else {
+                modified = true;
+                // con al più un figlio il nodo viene sostituito dal figlio
+                if (this.left == null) return this.right;
+                if (this.right == null) return this.left;
+                /*
+                 * con due figli il nodo prende l'etichetta del successore,
+                 * che viene cancellato dal sotto-albero destro
+                 */
+                RecAVL successor = this.right.getMinNode();
+                this.label = successor.label;
+                this.right = this.right.deleteMin();
+            }
+            return this.rebalance();
+        }
+
+        /*
+         * Cancella il nodo con l'etichetta minima da questo (sotto-)albero e
+         * lo ribilancia.
+         *
+         * @return la nuova radice del (sotto-)albero, null se il
+         * (sotto-)albero è diventato vuoto
+         */
+        private RecAVL deleteMin() {
+            if (this.left == null) return this.right;
+            this.left = this.left.deleteMin();
+            return this.rebalance();
+        }
+
+        /*
+         * Aggiunge a una lista data le etichette dei nodi di questo
+         * (sotto-)albero nell'ordine naturale, con una visita in-order.
+         *
+         * @param l una lista (può essere anche vuota) su cui inserire le
+         * etichette in ordine
+         */
+        protected void addLabelsInOrder(List<E> l) {
+            if (this.left != null) this.left.addLabelsInOrder(l);
+            l.add(this.label);
+            if (this.right != null) this.right.addLabelsInOrder(l);
+        }
+
+        /*
+         * Restituisce il puntatore al nodo che contiene l'etichetta più piccola
+         * presente in questo (sotto-)albero.
+         */
+        protected RecAVL getMinNode() {
+            RecAVL n = this;
+            while (n.left != null) n = n.left;
+            return n;
+        }
+
+        /*
+         * Restituisce il puntatore al nodo che contiene l'etichetta più grande
+         * presente in questo (sotto-)albero.
+         */
+        protected RecAVL getMaxNode() {
+            RecAVL n = this;
+            while (n.right != null) n = n.right;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classe di test JUnit per la classe BalancedBinarySearchTree
+ *
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+class BalancedBinarySearchTreeTest {
+
+    /*
+     * Controlla che ogni nodo rispetti l'ordinamento e il bilanciamento AVL e
+     * che l'altezza memorizzata sia corretta, restituisce l'altezza
+     */
+    private int checkAVL(BalancedBinarySearchTree<Integer>.RecAVL n, Integer min, Integer max) {
+        if (n == null) return -1;
+        if (min != null) assertTrue(n.getLabel() > min);
+        if (max != null) assertTrue(n.getLabel() < max);
+        int l = checkAVL(n.getLeft(), min, n.getLabel());
+        int r = checkAVL(n.getRight(), n.getLabel(), max);
+        assertTrue(Math.abs(l - r) <= 1);
+        assertEquals(1 + Math.max(l, r), n.getHeight());
+        return n.getHeight();
+    }
+
+    private BalancedBinarySearchTree<Integer> sevenNodes() {
+        BalancedBinarySearchTree<Integer> bst = new BalancedBinarySearchTree<Integer>();
+        bst.add(2);
+        bst.add(5);
+        bst.add(7);
+        bst.add(1);
+        bst.add(3);
+        bst.add(4);
+        bst.add(6);
+        return bst;
+    }
+
+    @Test
+    void testBalancedBinarySearchTree() {
+        BalancedBinarySearchTree<Integer> bst = new BalancedBinarySearchTree<Integer>(42);
+        assertEquals(1, bst.size());
+        assertEquals(0, bst.getHeight());
+        assertThrows(NullPointerException.class, () -> {
+            new BalancedBinarySearchTree<Integer>(null);
+        });
+        assertTrue(new BalancedBinarySearchTree<Integer>().isEmpty());
+        assertEquals(-1, new BalancedBinarySearchTree<Integer>().getHeight());
+    }
+
+    @Test
+    void testGetHeightSorted() {
+        BalancedBinarySearchTree<Integer> bst = new BalancedBinarySearchTree<Integer>();
+        for (int i = 0; i < 100; i++)
+            bst.add(i);
+        // un albero AVL con 100 nodi inseriti in ordine è completo fino al livello 6
+        assertEquals(6, bst.getHeight());
+        assertEquals(100, bst.size());
+        checkAVL(bst.getRoot(), null, null);
+        for (int i = 99; i >= 0; i -= 2)
+            assertTrue(bst.remove(i));
+        checkAVL(bst.getRoot(), null, null);
+        assertEquals(50, bst.size());
+    }
+
+    @Test
+    void testGetOrderedLabels() {
+        BalancedBinarySearchTree<Integer> bst = sevenNodes();
+        List<Integer> true_labels = Arrays.asList(new Integer[]{1, 2, 3, 4, 5, 6, 7});
+        assertEquals(true_labels, bst.getOrderedLabels());
+        List<Integer> labels = new ArrayList<Integer>();
+        bst.addOrderedLabelsTo(labels);
+        assertEquals(true_labels, labels);
+        assertThrows(NullPointerException.class, () -> {
+            bst.addOrderedLabelsTo(null);
+        });
+        assertTrue(new BalancedBinarySearchTree<Integer>().getOrderedLabels().isEmpty());
+    }
+
+    @Test
+    void testContainsMinMax() {
+        BalancedBinarySearchTree<Integer> bst = sevenNodes();
+        assertTrue(bst.contains(4));
+        assertFalse(bst.contains(42));
+        assertThrows(NullPointerException.class, () -> {
+            bst.contains(null);
+        });
+        assertEquals(1, bst.getMin());
+        assertEquals(7, bst.getMax());
+        bst.clear();
+        assertNull(bst.getMin());
+        assertNull(bst.getMax());
+        assertFalse(bst.contains(4));
+    }
+
+    @Test
+    void testGetSuccessorPredecessor() {
+        BalancedBinarySearchTree<Integer> bst = sevenNodes();
+        for (int i = 1; i < 7; i++) {
+            assertEquals(i + 1, bst.getSuccessor(i));
+            assertEquals(i, bst.getPredecessor(i + 1));
+        }
+        assertNull(bst.getSuccessor(7));
+        assertNull(bst.getPredecessor(1));
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.getSuccessor(42);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.getPredecessor(42);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.getSuccessor(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.getPredecessor(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new BalancedBinarySearchTree<Integer>().getSuccessor(3);
+        });
+    }
+
+    @Test
+    void testAddRemove() {
+        BalancedBinarySearchTree<Integer> bst = new BalancedBinarySearchTree<Integer>();
+        assertFalse(bst.remove(2));
+        assertTrue(bst.add(2));
+        assertFalse(bst.add(2));
+        assertTrue(bst.remove(2));
+        assertFalse(bst.remove(2));
+        assertTrue(bst.isEmpty());
+        assertThrows(NullPointerException.class, () -> {
+            bst.add(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.remove(null);
+        });
+    }
+
+    @Test
+    void testRandomOperations() {
+        // Confronto con TreeSet su una sequenza casuale di operazioni
+        BalancedBinarySearchTree<Integer> bst = new BalancedBinarySearchTree<Integer>();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            Integer e = random.nextInt(1000);
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(e), bst.remove(e));
+            else
+                assertEquals(expected.add(e), bst.add(e));
+            assertEquals(expected.size(), bst.size());
+        }
+        checkAVL(bst.getRoot(), null, null);
+        assertEquals(new ArrayList<Integer>(expected), bst.getOrderedLabels());
+        for (Integer e : expected) {
+            assertEquals(expected.higher(e), bst.getSuccessor(e));
+            assertEquals(expected.lower(e), bst.getPredecessor(e));
+        }
+    }
+
+}
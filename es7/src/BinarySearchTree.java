@@ -1,5 +1,10 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
  * Un oggetto di questa classe rappresenta un binary search tree, cioè un albero
@@ -18,13 +23,33 @@ import java.util.List;
  * esegue un autobilanciamento dell'altezza, quindi nei casi degeneri la
  * complessità delle operazioni può diventare O(n) dove n è il numero degli
  * elementi presenti.
+ * <p>
+ * Ogni nodo memorizza l'altezza e il numero di nodi del proprio
+ * sotto-albero, aggiornati lungo il cammino verso la radice a ogni
+ * inserimento e cancellazione. In questo modo getHeight richiede tempo
+ * costante e le operazioni di statistica d'ordine select, rank e
+ * countInRange richiedono tempo O(h).
+ * <p>
+ * Gli iteratori restituiti da iterator e descendingIterator, anche su un
+ * intervallo di etichette, visitano l'albero in modo iterativo seguendo i
+ * puntatori ai genitori, senza usare uno stack e senza creare la lista delle
+ * etichette: ogni passo costa O(1) ammortizzato e una visita di un
+ * intervallo tocca solo i nodi restituiti, oltre al cammino per trovare il
+ * primo. Gli iteratori sono fail-fast: se l'albero viene modificato durante
+ * la visita, la successiva chiamata a next lancia una
+ * <code>ConcurrentModificationException</code>.
+ * <p>
+ * Un albero può essere costruito da una sequenza ordinata di etichette con
+ * fromSorted, in tempo O(n) e con altezza minima, invece che con n chiamate
+ * di add, che costano O(n^2) se le etichette arrivano in ordine. Due alberi
+ * possono essere fusi con merge nello stesso modo.
  *
  * @param <E> il tipo delle etichette dei nodi in questo Binary Search Tree.
  *            La classe {@code E} deve avere un ordinamento naturale definito
  *            tra gli elementi.
  * @author Template: Luca Tesei, Implementazione: collettiva
  */
-public class BinarySearchTree<E extends Comparable<E>> {
+public class BinarySearchTree<E extends Comparable<E>> implements Iterable<E> {
 
     /*
      * Puntatore all'attuale nodo radice dell'albero, se null allora l'albero è
@@ -37,6 +62,11 @@ public class BinarySearchTree<E extends Comparable<E>> {
      */
     private int size;
 
+    /*
+     * Numero di modifiche a questo albero, per gli iteratori fail-fast
+     */
+    private int modCount;
+
     /**
      * Crea un albero binario di ricerca vuoto.
      */
@@ -57,6 +87,105 @@ public class BinarySearchTree<E extends Comparable<E>> {
         this.size = 1;
     }
 
+    /**
+     * Costruisce un albero bilanciato contenente le etichette di una lista
+     * ordinata, in tempo lineare. La radice di ogni sotto-albero è
+     * l'etichetta centrale della sua parte di lista, per cui l'altezza
+     * dell'albero è la minima possibile, floor(log2 n).
+     *
+     * @param labels le etichette in ordine strettamente crescente
+     * @param <E>    il tipo delle etichette
+     * @return un albero bilanciato con le etichette date
+     * @throws NullPointerException     se la lista o una sua etichetta è null
+     * @throws IllegalArgumentException se le etichette non sono in ordine
+     *                                  strettamente crescente
+     */
+    public static <E extends Comparable<E>> BinarySearchTree<E> fromSorted(List<E> labels) {
+        if (labels == null) throw new NullPointerException("Lista di etichette null");
+        // una lista ad accesso non casuale viene copiata in un array
+        List<E> l = labels instanceof RandomAccess ? labels : new ArrayList<E>(labels);
+        for (int i = 0; i < l.size(); i++) {
+            if (l.get(i) == null) throw new NullPointerException("Etichetta null in posizione " + i);
+            if (i > 0 && l.get(i - 1).compareTo(l.get(i)) >= 0)
+                throw new IllegalArgumentException("Etichette non in ordine strettamente crescente in posizione " + i);
+        }
+        BinarySearchTree<E> t = new BinarySearchTree<E>();
+        t.root = t.buildBalanced(l, 0, l.size(), null);
+        t.size = l.size();
+        return t;
+    }
+
+    /**
+     * Costruisce un albero bilanciato contenente le etichette di un array
+     * ordinato, in tempo lineare.
+     *
+     * @param labels le etichette in ordine strettamente crescente
+     * @param <E>    il tipo delle etichette
+     * @return un albero bilanciato con le etichette date
+     * @throws NullPointerException     se l'array o una sua etichetta è null
+     * @throws IllegalArgumentException se le etichette non sono in ordine
+     *                                  strettamente crescente
+     */
+    public static <E extends Comparable<E>> BinarySearchTree<E> fromSorted(E[] labels) {
+        if (labels == null) throw new NullPointerException("Array di etichette null");
+        return fromSorted(Arrays.asList(labels));
+    }
+
+    /**
+     * Costruisce un albero bilanciato contenente le etichette di due alberi
+     * dati, senza modificarli. Le etichette dei due alberi vengono fuse in
+     * ordine con una sola visita di ciascuno e l'albero viene costruito con
+     * fromSorted, in tempo O(n + m).
+     *
+     * @param a   il primo albero
+     * @param b   il secondo albero
+     * @param <E> il tipo delle etichette
+     * @return un albero bilanciato con l'unione delle etichette di a e b
+     * @throws NullPointerException se uno degli alberi è null
+     */
+    public static <E extends Comparable<E>> BinarySearchTree<E> merge(BinarySearchTree<E> a, BinarySearchTree<E> b) {
+        if (a == null || b == null) throw new NullPointerException("Albero da fondere null");
+        List<E> l = new ArrayList<E>(a.size + b.size);
+        Iterator<E> ia = a.iterator();
+        Iterator<E> ib = b.iterator();
+        E x = ia.hasNext() ? ia.next() : null;
+        E y = ib.hasNext() ? ib.next() : null;
+        while (x != null && y != null) {
+            int c = x.compareTo(y);
+            if (c <= 0) {
+                l.add(x);
+                // un'etichetta presente in entrambi gli alberi viene inserita una volta
+                if (c == 0) y = ib.hasNext() ? ib.next() : null;
+                x = ia.hasNext() ? ia.next() : null;
+            } else {
+                l.add(y);
+                y = ib.hasNext() ? ib.next() : null;
+            }
+        }
+        for (; x != null; x = ia.hasNext() ? ia.next() : null)
+            l.add(x);
+        for (; y != null; y = ib.hasNext() ? ib.next() : null)
+            l.add(y);
+        BinarySearchTree<E> t = new BinarySearchTree<E>();
+        t.root = t.buildBalanced(l, 0, l.size(), null);
+        t.size = l.size();
+        return t;
+    }
+
+    /*
+     * Costruisce il sotto-albero bilanciato con le etichette l[lo, hi) e lo
+     * collega al genitore dato, restituisce null se l'intervallo è vuoto
+     */
+    private RecBST buildBalanced(List<E> l, int lo, int hi, RecBST parent) {
+        if (lo >= hi) return null;
+        int mid = (lo + hi) >>> 1;
+        RecBST n = new RecBST(l.get(mid), null, null, parent);
+        n.left = this.buildBalanced(l, lo, mid, n);
+        n.right = this.buildBalanced(l, mid + 1, hi, n);
+        n.updateCounters();
+        return n;
+    }
+
     /**
      * Determina se questo albero è vuoto.
      *
@@ -81,6 +210,7 @@ public class BinarySearchTree<E extends Comparable<E>> {
     public void clear() {
         this.root = null;
         this.size = 0;
+        this.modCount++;
     }
 
     /**
@@ -93,7 +223,54 @@ public class BinarySearchTree<E extends Comparable<E>> {
      */
     public int getHeight() {
         if (this.isEmpty()) return -1;
-        return this.root.computeHeight();
+        return this.root.height;
+    }
+
+    /**
+     * Restituisce l'etichetta di rango k, cioè l'etichetta che ha esattamente
+     * k etichette minori in questo albero.
+     *
+     * @param k il rango dell'etichetta cercata, a partire da 0
+     * @return l'etichetta di rango k
+     * @throws IllegalArgumentException se k è negativo o non minore del
+     *                                  numero di nodi di questo albero
+     */
+    public E select(int k) {
+        if (k < 0 || k >= this.size)
+            throw new IllegalArgumentException("Rango non valido: " + k);
+        return this.root.select(k).getLabel();
+    }
+
+    /**
+     * Restituisce il numero di etichette di questo albero minori di una
+     * etichetta data, che non deve essere necessariamente presente.
+     *
+     * @param label l'etichetta di cui calcolare il rango
+     * @return il numero di etichette minori di {@code label}
+     * @throws NullPointerException se l'etichetta passata è null
+     */
+    public int rank(E label) {
+        if (label == null) throw new NullPointerException("Etichetta di cui calcolare il rango null");
+        if (this.isEmpty()) return 0;
+        return this.root.rank(label);
+    }
+
+    /**
+     * Restituisce il numero di etichette di questo albero comprese
+     * nell'intervallo [lo, hi), cioè maggiori o uguali a {@code lo} e minori
+     * di {@code hi}.
+     *
+     * @param lo estremo inferiore dell'intervallo, incluso
+     * @param hi estremo superiore dell'intervallo, escluso
+     * @return il numero di etichette nell'intervallo
+     * @throws NullPointerException     se uno degli estremi è null
+     * @throws IllegalArgumentException se {@code lo} è maggiore di {@code hi}
+     */
+    public int countInRange(E lo, E hi) {
+        if (lo == null || hi == null) throw new NullPointerException("Estremo dell'intervallo null");
+        if (lo.compareTo(hi) > 0)
+            throw new IllegalArgumentException("Intervallo non valido: " + lo + " > " + hi);
+        return this.rank(hi) - this.rank(lo);
     }
 
     /**
@@ -106,8 +283,8 @@ public class BinarySearchTree<E extends Comparable<E>> {
      */
     public void addOrderedLabelsTo(List<E> l) {
         if (l == null) throw new NullPointerException("Lista null su cui aggiungere le etichette");
-        if (this.isEmpty()) return;
-        this.root.addLabelsInOrder(l);
+        for (E label : this)
+            l.add(label);
     }
 
     /**
@@ -118,8 +295,156 @@ public class BinarySearchTree<E extends Comparable<E>> {
      * secondo l'ordinamento naturale della classe {@code E}
      */
     public List<E> getOrderedLabels() {
-        if (this.isEmpty()) return new ArrayList<E>();
-        return this.root.inOrderVisit();
+        List<E> l = new ArrayList<E>(this.size);
+        this.addOrderedLabelsTo(l);
+        return l;
+    }
+
+    /**
+     * Restituisce un iteratore sulle etichette di questo albero in ordine
+     * crescente.
+     *
+     * @return un iteratore sulle etichette in ordine crescente
+     */
+    @Override
+    public Iterator<E> iterator() {
+        if (this.isEmpty()) return new Itr(null, null, false);
+        return new Itr(this.root.getMinNode(), null, false);
+    }
+
+    /**
+     * Restituisce un iteratore in ordine crescente sulle etichette di questo
+     * albero comprese nell'intervallo [lo, hi).
+     *
+     * @param lo estremo inferiore dell'intervallo, incluso
+     * @param hi estremo superiore dell'intervallo, escluso
+     * @return un iteratore sulle etichette dell'intervallo in ordine crescente
+     * @throws NullPointerException     se uno degli estremi è null
+     * @throws IllegalArgumentException se {@code lo} è maggiore di {@code hi}
+     */
+    public Iterator<E> iterator(E lo, E hi) {
+        checkRange(lo, hi);
+        return new Itr(this.ceilingNode(lo), hi, false);
+    }
+
+    /**
+     * Restituisce un iteratore sulle etichette di questo albero in ordine
+     * decrescente.
+     *
+     * @return un iteratore sulle etichette in ordine decrescente
+     */
+    public Iterator<E> descendingIterator() {
+        if (this.isEmpty()) return new Itr(null, null, true);
+        return new Itr(this.root.getMaxNode(), null, true);
+    }
+
+    /**
+     * Restituisce un iteratore in ordine decrescente sulle etichette di
+     * questo albero comprese nell'intervallo [lo, hi).
+     *
+     * @param lo estremo inferiore dell'intervallo, incluso
+     * @param hi estremo superiore dell'intervallo, escluso
+     * @return un iteratore sulle etichette dell'intervallo in ordine
+     * decrescente
+     * @throws NullPointerException     se uno degli estremi è null
+     * @throws IllegalArgumentException se {@code lo} è maggiore di {@code hi}
+     */
+    public Iterator<E> descendingIterator(E lo, E hi) {
+        checkRange(lo, hi);
+        return new Itr(this.lowerNode(hi), lo, true);
+    }
+
+    /*
+     * Controlla gli estremi di un intervallo [lo, hi)
+     */
+    private void checkRange(E lo, E hi) {
+        if (lo == null || hi == null) throw new NullPointerException("Estremo dell'intervallo null");
+        if (lo.compareTo(hi) > 0)
+            throw new IllegalArgumentException("Intervallo non valido: " + lo + " > " + hi);
+    }
+
+    /*
+     * Restituisce il nodo con la più piccola etichetta maggiore o uguale a
+     * label, null se non esiste
+     */
+    private RecBST ceilingNode(E label) {
+        RecBST candidate = null;
+        RecBST n = this.root;
+        while (n != null) {
+            if (n.label.compareTo(label) >= 0) {
+                candidate = n;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return candidate;
+    }
+
+    /*
+     * Restituisce il nodo con la più grande etichetta minore di label, null
+     * se non esiste
+     */
+    private RecBST lowerNode(E label) {
+        RecBST candidate = null;
+        RecBST n = this.root;
+        while (n != null) {
+            if (n.label.compareTo(label) < 0) {
+                candidate = n;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return candidate;
+    }
+
+    /*
+     * Iteratore che visita i nodi a partire da un nodo dato passando ogni
+     * volta al successore, o al predecessore se è discendente, con i
+     * puntatori ai genitori. Si ferma quando l'etichetta raggiunge il limite,
+     * se presente: in ordine crescente il limite è escluso, in ordine
+     * decrescente è incluso.
+     */
+    private class Itr implements Iterator<E> {
+        private RecBST next;
+
+        private final E bound;
+
+        private final boolean descending;
+
+        private final int expectedModCount;
+
+        Itr(RecBST first, E bound, boolean descending) {
+            this.bound = bound;
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.next = this.inRange(first) ? first : null;
+        }
+
+        private boolean inRange(RecBST n) {
+            if (n == null) return false;
+            if (this.bound == null) return true;
+            int c = n.label.compareTo(this.bound);
+            return this.descending ? c >= 0 : c < 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != this.expectedModCount)
+                throw new ConcurrentModificationException("L'albero è stato modificato");
+            if (this.next == null)
+                throw new NoSuchElementException("Non ci sono altre etichette");
+            RecBST n = this.next;
+            RecBST following = this.descending ? n.getPredecessorNode() : n.getSuccessorNode();
+            this.next = this.inRange(following) ? following : null;
+            return n.label;
+        }
     }
 
     /**
@@ -220,11 +545,15 @@ public class BinarySearchTree<E extends Comparable<E>> {
             // aggiunge la radice
             this.root = new RecBST(label);
             this.size = 1;
+            this.modCount++;
             return true;
         } // chiama il corrispondente metodo sulla radice
         else {
             boolean result = this.root.insert(label);
-            if (result) this.size++;
+            if (result) {
+                this.size++;
+                this.modCount++;
+            }
             return result;
         }
     }
@@ -248,6 +577,7 @@ public class BinarySearchTree<E extends Comparable<E>> {
             return false;
         n.deleteSelfLabel();
         this.size--;
+        this.modCount++;
         return true;
     }
 
@@ -289,6 +619,16 @@ public class BinarySearchTree<E extends Comparable<E>> {
          */
         private RecBST parent;
 
+        /*
+         * Altezza di questo (sotto-)albero, 0 se il nodo è una foglia
+         */
+        private int height;
+
+        /*
+         * Numero di nodi di questo (sotto-)albero, compreso questo nodo
+         */
+        private int size;
+
         /*
          * Costruisce un (sotto-)albero che contiene solo la radice/foglia.
          *
@@ -299,6 +639,8 @@ public class BinarySearchTree<E extends Comparable<E>> {
             this.left = null;
             this.right = null;
             this.parent = null;
+            this.height = 0;
+            this.size = 1;
         }
 
         /*
@@ -318,6 +660,7 @@ public class BinarySearchTree<E extends Comparable<E>> {
             this.left = aLeft;
             this.right = aRight;
             this.parent = aParent;
+            this.updateCounters();
         }
 
         /**
@@ -376,8 +719,43 @@ public class BinarySearchTree<E extends Comparable<E>> {
             this.parent = parent;
         }
 
+        /**
+         * @return the cached height of this subtree
+         */
+        protected int getHeight() {
+            return height;
+        }
+
+        /**
+         * @return the cached number of nodes of this subtree
+         */
+        protected int getSize() {
+            return size;
+        }
+
         /*
-         * Restituisce l'altezza di questo nodo.
+         * Ricalcola l'altezza e il numero di nodi di questo (sotto-)albero a
+         * partire da quelli dei figli.
+         */
+        private void updateCounters() {
+            int leftHeight = -1;
+            int rightHeight = -1;
+            int n = 1;
+            if (this.left != null) {
+                leftHeight = this.left.height;
+                n += this.left.size;
+            }
+            if (this.right != null) {
+                rightHeight = this.right.height;
+                n += this.right.size;
+            }
+            this.height = 1 + Math.max(leftHeight, rightHeight);
+            this.size = n;
+        }
+
+        /*
+         * Restituisce l'altezza di questo nodo ricalcolandola con una visita
+         * di tutto il (sotto-)albero, senza usare l'altezza memorizzata.
          *
          * @return la lunghezza del massimo cammino da questo nodo a una foglia.
          */
@@ -417,11 +795,13 @@ public class BinarySearchTree<E extends Comparable<E>> {
                 // il nodo a sinistra
                 if (label.compareTo(this.label) < 0) {
                     this.left = new RecBST(label, null, null, this);
+                    this.updateCounters();
                     return true;
                     // se l'etichetta è maggiore di quella del nodo corrente,
                     // aggiunge il nodo a destra
                 } else if (label.compareTo(this.label) > 0) {
                     this.right = new RecBST(label, null, null, this);
+                    this.updateCounters();
                     return true;
                     // se l'etichetta è uguale a quella del nodo corrente, non
                     // aggiunge nulla
@@ -435,19 +815,21 @@ public class BinarySearchTree<E extends Comparable<E>> {
                 if (label.compareTo(this.label) < 0) {
                     if (this.left == null) {
                         this.left = new RecBST(label, null, null, this);
-                        return true;
-                    } else {
-                        return this.left.insert(label);
+                    } else if (!this.left.insert(label)) {
+                        return false;
                     }
+                    this.updateCounters();
+                    return true;
                     // se l'etichetta è maggiore di quella del nodo corrente,
                     // chiama il metodo sull'albero destro
                 } else if (label.compareTo(this.label) > 0) {
                     if (this.right == null) {
                         this.right = new RecBST(label, null, null, this);
-                        return true;
-                    } else {
-                        return this.right.insert(label);
+                    } else if (!this.right.insert(label)) {
+                        return false;
                     }
+                    this.updateCounters();
+                    return true;
                     // se l'etichetta è uguale a quella del nodo corrente, non
                     // aggiunge nulla
                 } else {
@@ -563,19 +945,12 @@ public class BinarySearchTree<E extends Comparable<E>> {
          */
         protected RecBST getMinNode() {
             /*
-             * caso base: nodo foglia
-             * restituisce il nodo corrente
+             * scende a sinistra finché esiste un sotto-albero sinistro, senza
+             * ricorsione per non esaurire lo stack sugli alberi degeneri
              */
-            if (this.left == null) {
-                return this;
-                /*
-                 * caso ricorsivo: nodo interno
-                 * restituisce il nodo più a sinistra che non ha un sotto-albero
-                 * sinistro
-                 */
-            } else {
-                return this.left.getMinNode();
-            }
+            RecBST n = this;
+            while (n.left != null) n = n.left;
+            return n;
         }
 
         /*
@@ -586,20 +961,10 @@ public class BinarySearchTree<E extends Comparable<E>> {
          * questo (sotto-)albero
          */
         protected RecBST getMaxNode() {
-            /*
-             * caso base: nodo foglia
-             * restituisce il nodo corrente
-             */
-            if (this.right == null) {
-                return this;
-                /*
-                 * caso ricorsivo: nodo interno
-                 * restituisce il nodo più a destra che non ha un sotto-albero
-                 * destro
-                 */
-            } else {
-                return this.right.getMaxNode();
-            }
+            // simmetrico a getMinNode
+            RecBST n = this;
+            while (n.right != null) n = n.right;
+            return n;
         }
 
         /*
@@ -612,19 +977,21 @@ public class BinarySearchTree<E extends Comparable<E>> {
          */
         protected RecBST getSuccessorNode() {
             /*
-             * caso base: nodo foglia
-             * restituisce null
+             * se esiste il sotto-albero destro, il successore è il suo nodo
+             * più a sinistra
              */
-            if (this.right == null) {
-                return null;
-                /*
-                 * caso ricorsivo: nodo interno
-                 * restituisce il nodo più a sinistra che non ha un sotto-albero
-                 * sinistro
-                 */
-            } else {
-                return this.right.getMinNode();
+            if (this.right != null) return this.right.getMinNode();
+            /*
+             * altrimenti è il primo antenato di cui questo nodo è nel
+             * sotto-albero sinistro, null se non esiste
+             */
+            RecBST n = this;
+            RecBST p = this.parent;
+            while (p != null && n == p.right) {
+                n = p;
+                p = p.parent;
             }
+            return p;
         }
 
         /*
@@ -636,20 +1003,15 @@ public class BinarySearchTree<E extends Comparable<E>> {
          * non ha predecessore
          */
         protected RecBST getPredecessorNode() {
-            /*
-             * caso base: nodo foglia
-             * restituisce null
-             */
-            if (this.left == null) {
-                return null;
-                /*
-                 * caso ricorsivo: nodo interno
-                 * restituisce il nodo più a destra che non ha un sotto-albero
-                 * destro
-                 */
-            } else {
-                return this.left.getMaxNode();
+            // simmetrico a getSuccessorNode
+            if (this.left != null) return this.left.getMaxNode();
+            RecBST n = this;
+            RecBST p = this.parent;
+            while (p != null && n == p.left) {
+                n = p;
+                p = p.parent;
             }
+            return p;
         }
 
         /*
@@ -661,19 +1023,71 @@ public class BinarySearchTree<E extends Comparable<E>> {
         protected void deleteSelfLabel() {
             /*
              * caso base: nodo foglia
-             * cancella il nodo corrente
+             * scollega il nodo corrente dal genitore e aggiorna i contatori
+             * dei nodi sul cammino verso la radice
              */
             if (this.left == null && this.right == null) {
+                if (this.parent == null) {
+                    root = null;
+                } else {
+                    if (this.parent.left == this) this.parent.left = null;
+                    else this.parent.right = null;
+                    for (RecBST n = this.parent; n != null; n = n.parent)
+                        n.updateCounters();
+                }
                 this.parent = null;
                 /*
                  * caso ricorsivo: nodo interno
                  * cancella il nodo corrente copiando l'etichetta del nodo
-                 * successore
+                 * successore nel sotto-albero destro o, se questo non c'è,
+                 * del nodo predecessore nel sotto-albero sinistro
                  */
             } else {
-                RecBST successor = this.getSuccessorNode();
-                this.label = successor.label;
-                successor.deleteSelfLabel();
+                RecBST other;
+                if (this.right != null) other = this.right.getMinNode();
+                else other = this.left.getMaxNode();
+                this.label = other.label;
+                other.deleteSelfLabel();
+            }
+        }
+
+        /*
+         * Restituisce il nodo con l'etichetta di rango k in questo
+         * (sotto-)albero.
+         *
+         * @param k il rango, compreso tra 0 e il numero di nodi meno 1
+         *
+         * @return il nodo con k etichette minori nel (sotto-)albero
+         */
+        protected RecBST select(int k) {
+            int leftSize = this.left == null ? 0 : this.left.size;
+            // l'etichetta cercata è nel sotto-albero sinistro
+            if (k < leftSize) return this.left.select(k);
+            // l'etichetta cercata è quella di questo nodo
+            if (k == leftSize) return this;
+            // l'etichetta cercata è nel sotto-albero destro
+            return this.right.select(k - leftSize - 1);
+        }
+
+        /*
+         * Restituisce il numero di etichette di questo (sotto-)albero minori di
+         * una etichetta data.
+         *
+         * @param label l'etichetta di cui calcolare il rango
+         *
+         * @return il numero di etichette minori di label
+         */
+        protected int rank(E label) {
+            int c = label.compareTo(this.label);
+            int leftSize = this.left == null ? 0 : this.left.size;
+            if (c < 0) {
+                // sono tutte nel sotto-albero sinistro
+                return this.left == null ? 0 : this.left.rank(label);
+            } else if (c == 0) {
+                return leftSize;
+            } else {
+                // il sotto-albero sinistro, questo nodo e parte del destro
+                return leftSize + 1 + (this.right == null ? 0 : this.right.rank(label));
             }
         }
     }
@@ -0,0 +1,134 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Confronta BinarySearchTree e BalancedBinarySearchTree inserendo chiavi in
+ * ordine crescente, come avviene per timestamp e identificativi, e in ordine
+ * casuale. Per ogni numero di chiavi n, a partire da MIN_SIZE e moltiplicando
+ * ogni volta per FATTORE_INCREMENTO fino a MAX_SIZE, si misura il tempo medio
+ * di inserimento, l'altezza ottenuta e il tempo medio di NUMBER_OF_LOOKUPS
+ * chiamate di contains su chiavi casuali, metà presenti e metà assenti.
+ *
+ * BinarySearchTree con chiavi ordinate degenera in una lista: l'inserimento
+ * costa O(n^2) e i metodi ricorsivi usano uno stack di profondità n, per cui
+ * viene misurato solo fino a SORTED_UNBALANCED_MAX_SIZE chiavi.
+ *
+ * Sul file bst.csv vengono scritti per ogni albero, ordine delle chiavi e
+ * numero di chiavi l'altezza, il tempo medio in nanosecondi per inserire una
+ * chiave e quello per una ricerca.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class BinarySearchTreeEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    private static final int SORTED_UNBALANCED_MAX_SIZE = 10000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    private static final int NUMBER_OF_LOOKUPS = 100000;
+
+    /*
+     * Valore che dipende dai risultati delle ricerche, perché il compilatore
+     * non le elimini
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "bst.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "bst.csv");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        o.println("Tree,Keys,Size,Height,InsertNs,ContainsNs");
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            // Le chiavi sono i numeri pari da 0 a 2n - 2
+            Integer[] sorted = new Integer[n];
+            for (int i = 0; i < n; i++)
+                sorted[i] = 2 * i;
+            Integer[] shuffled = sorted.clone();
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer t = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = t;
+            }
+            Integer[] lookups = new Integer[NUMBER_OF_LOOKUPS];
+            for (int i = 0; i < NUMBER_OF_LOOKUPS; i++)
+                lookups[i] = random.nextInt(2 * n);
+            for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                boolean write = s > 0; // la prima iterazione è di riscaldamento
+                if (n <= SORTED_UNBALANCED_MAX_SIZE)
+                    measureUnbalanced(o, "Sorted", sorted, lookups, write);
+                measureUnbalanced(o, "Random", shuffled, lookups, write);
+                measureBalanced(o, "Sorted", sorted, lookups, write);
+                measureBalanced(o, "Random", shuffled, lookups, write);
+            }
+            System.out.println("Completate le misure per " + n + " chiavi");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+    private static void measureUnbalanced(PrintStream o, String order,
+            Integer[] keys, Integer[] lookups, boolean write) {
+        long start = System.nanoTime();
+        BinarySearchTree<Integer> t = new BinarySearchTree<Integer>();
+        for (Integer k : keys)
+            t.add(k);
+        long insert = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer k : lookups)
+            if (t.contains(k))
+                checksum++;
+        long contains = System.nanoTime() - start;
+        if (write)
+            o.println("BinarySearchTree," + order + "," + keys.length + ","
+                    + t.getHeight() + "," + (double) insert / keys.length + ","
+                    + (double) contains / lookups.length);
+    }
+
+    private static void measureBalanced(PrintStream o, String order,
+            Integer[] keys, Integer[] lookups, boolean write) {
+        long start = System.nanoTime();
+        BalancedBinarySearchTree<Integer> t = new BalancedBinarySearchTree<Integer>();
+        for (Integer k : keys)
+            t.add(k);
+        long insert = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Integer k : lookups)
+            if (t.contains(k))
+                checksum++;
+        long contains = System.nanoTime() - start;
+        if (write)
+            o.println("BalancedBinarySearchTree," + order + "," + keys.length
+                    + "," + t.getHeight() + "," + (double) insert / keys.length
+                    + "," + (double) contains / lookups.length);
+    }
+
+}
@@ -2,7 +2,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -411,5 +416,219 @@ class BinarySearchTreeTest {
         assertEquals(2, bst.getRoot().getLabel());
     }
 
+    /*
+     * Controlla che altezza e numero di nodi memorizzati in ogni nodo siano
+     * corretti, restituisce il numero di nodi
+     */
+    private int checkCounters(BinarySearchTree<Integer>.RecBST n) {
+        if (n == null) return 0;
+        int size = 1 + checkCounters(n.getLeft()) + checkCounters(n.getRight());
+        assertEquals(n.computeHeight(), n.getHeight());
+        assertEquals(size, n.getSize());
+        return size;
+    }
+
+    @Test
+    void testSelectRank() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+        bst.add(2);
+        bst.add(5);
+        bst.add(7);
+        bst.add(1);
+        bst.add(3);
+        bst.add(4);
+        bst.add(6);
+        for (int k = 0; k < 7; k++) {
+            assertEquals(k + 1, bst.select(k));
+            assertEquals(k, bst.rank(k + 1));
+        }
+        assertEquals(0, bst.rank(0));
+        assertEquals(7, bst.rank(42));
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.select(7);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.select(-1);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.rank(null);
+        });
+        assertEquals(0, new BinarySearchTree<Integer>().rank(42));
+    }
+
+    @Test
+    void testCountInRange() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+        for (int i = 0; i < 100; i += 2)
+            bst.add(i);
+        assertEquals(50, bst.countInRange(-10, 1000));
+        assertEquals(5, bst.countInRange(10, 20));
+        assertEquals(5, bst.countInRange(9, 19));
+        assertEquals(0, bst.countInRange(10, 10));
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.countInRange(20, 10);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.countInRange(null, 10);
+        });
+    }
+
+    @Test
+    void testCachedCounters() {
+        // Confronto con TreeSet su una sequenza casuale di operazioni
+        BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            Integer e = random.nextInt(500);
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(e), bst.remove(e));
+            else
+                assertEquals(expected.add(e), bst.add(e));
+            assertEquals(expected.size(), bst.size());
+            assertEquals(expected.isEmpty(), bst.isEmpty());
+        }
+        assertEquals(expected.size(), checkCounters(bst.getRoot()));
+        assertEquals(bst.getRoot().computeHeight(), bst.getHeight());
+        assertEquals(new ArrayList<Integer>(expected), bst.getOrderedLabels());
+        int k = 0;
+        for (Integer e : expected) {
+            assertEquals(e, bst.select(k));
+            assertEquals(k, bst.rank(e));
+            k++;
+        }
+        assertEquals(expected.subSet(100, 300).size(), bst.countInRange(100, 300));
+        for (Integer e : new ArrayList<Integer>(expected))
+            assertTrue(bst.remove(e));
+        assertTrue(bst.isEmpty());
+        assertEquals(-1, bst.getHeight());
+    }
+
+    @Test
+    void testIterator() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+        assertFalse(bst.iterator().hasNext());
+        assertFalse(bst.descendingIterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> {
+            bst.iterator().next();
+        });
+        bst.add(2);
+        bst.add(5);
+        bst.add(7);
+        bst.add(1);
+        bst.add(3);
+        bst.add(4);
+        bst.add(6);
+        List<Integer> labels = new ArrayList<Integer>();
+        for (Integer e : bst)
+            labels.add(e);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), labels);
+        labels.clear();
+        Iterator<Integer> it = bst.descendingIterator();
+        while (it.hasNext())
+            labels.add(it.next());
+        assertEquals(Arrays.asList(7, 6, 5, 4, 3, 2, 1), labels);
+        Iterator<Integer> it1 = bst.iterator();
+        it1.next();
+        bst.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it1.next();
+        });
+    }
+
+    @Test
+    void testRangeIterator() {
+        BinarySearchTree<Integer> bst = new BinarySearchTree<Integer>();
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            Integer e = random.nextInt(2000);
+            expected.add(e);
+            bst.add(e);
+        }
+        for (int i = 0; i < 100; i++) {
+            int lo = random.nextInt(2200) - 100;
+            int hi = lo + random.nextInt(300);
+            List<Integer> labels = new ArrayList<Integer>();
+            bst.iterator(lo, hi).forEachRemaining(labels::add);
+            assertEquals(new ArrayList<Integer>(expected.subSet(lo, hi)), labels);
+            labels.clear();
+            bst.descendingIterator(lo, hi).forEachRemaining(labels::add);
+            assertEquals(new ArrayList<Integer>(expected.subSet(lo, true, hi, false).descendingSet()), labels);
+        }
+        assertFalse(bst.iterator(10, 10).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> {
+            bst.iterator(20, 10);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            bst.descendingIterator(null, 10);
+        });
+    }
+
+    @Test
+    void testFromSorted() {
+        for (int n = 0; n <= 100; n++) {
+            List<Integer> labels = new ArrayList<Integer>();
+            for (int i = 0; i < n; i++)
+                labels.add(2 * i);
+            BinarySearchTree<Integer> bst = BinarySearchTree.fromSorted(labels);
+            assertEquals(n, bst.size());
+            assertEquals(labels, bst.getOrderedLabels());
+            // altezza minima: floor(log2 n)
+            assertEquals(n == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(n), bst.getHeight());
+            if (n > 0) {
+                assertEquals(n, checkCounters(bst.getRoot()));
+                assertEquals(n / 2, bst.rank(2 * (n / 2)));
+                if (n > 1) assertEquals(labels.get(n - 2), bst.getPredecessor(labels.get(n - 1)));
+            }
+            // l'albero costruito si modifica come gli altri
+            assertTrue(bst.add(-1));
+            assertTrue(bst.remove(-1));
+            assertEquals(labels, bst.getOrderedLabels());
+        }
+        BinarySearchTree<Integer> bst = BinarySearchTree.fromSorted(new Integer[]{1, 2, 3, 4, 5, 6, 7});
+        assertEquals(4, bst.getRoot().getLabel());
+        assertEquals(3, bst.getSuccessor(2));
+        assertEquals(5, bst.getSuccessor(4));
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySearchTree.fromSorted(new Integer[]{1, 3, 2});
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            BinarySearchTree.fromSorted(new Integer[]{1, 1});
+        });
+        assertThrows(NullPointerException.class, () -> {
+            BinarySearchTree.fromSorted(new Integer[]{1, null});
+        });
+        assertThrows(NullPointerException.class, () -> {
+            BinarySearchTree.fromSorted((List<Integer>) null);
+        });
+    }
+
+    @Test
+    void testMerge() {
+        BinarySearchTree<Integer> a = new BinarySearchTree<Integer>();
+        BinarySearchTree<Integer> b = new BinarySearchTree<Integer>();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Integer x = random.nextInt(1000);
+            Integer y = random.nextInt(1000);
+            a.add(x);
+            b.add(y);
+            expected.add(x);
+            expected.add(y);
+        }
+        BinarySearchTree<Integer> m = BinarySearchTree.merge(a, b);
+        assertEquals(expected.size(), m.size());
+        assertEquals(new ArrayList<Integer>(expected), m.getOrderedLabels());
+        assertEquals(31 - Integer.numberOfLeadingZeros(m.size()), m.getHeight());
+        // gli alberi di partenza non cambiano
+        assertEquals(a.size(), a.getOrderedLabels().size());
+        assertEquals(a.getOrderedLabels(), BinarySearchTree.merge(a, new BinarySearchTree<Integer>()).getOrderedLabels());
+        assertTrue(BinarySearchTree.merge(new BinarySearchTree<Integer>(), new BinarySearchTree<Integer>()).isEmpty());
+        assertThrows(NullPointerException.class, () -> {
+            BinarySearchTree.merge(a, null);
+        });
+    }
 
 }
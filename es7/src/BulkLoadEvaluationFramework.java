@@ -0,0 +1,117 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Confronta la costruzione di un BinarySearchTree da n etichette ordinate con
+ * fromSorted e con n chiamate di add, sia con le etichette in ordine, come
+ * quando si ripristina un albero da un dump ordinato, sia in ordine casuale,
+ * e misura la fusione di due alberi di n / 2 etichette ciascuno con merge.
+ * Per ogni numero di etichette n, a partire da MIN_SIZE e moltiplicando ogni
+ * volta per FATTORE_INCREMENTO fino a MAX_SIZE, si misura il tempo medio per
+ * etichetta e l'altezza dell'albero ottenuto.
+ *
+ * Le chiamate di add con le etichette in ordine costano O(n^2) e usano uno
+ * stack di profondità n, per cui vengono misurate solo fino a
+ * SORTED_ADD_MAX_SIZE etichette.
+ *
+ * Sul file bulkload.csv vengono scritti per ogni metodo e numero di
+ * etichette l'altezza e il tempo medio in nanosecondi per etichetta.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class BulkLoadEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    private static final int SORTED_ADD_MAX_SIZE = 10000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "bulkload.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "bulkload.csv");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        o.println("Method,Size,Height,NsPerLabel");
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            List<Integer> sorted = new ArrayList<Integer>(n);
+            for (int i = 0; i < n; i++)
+                sorted.add(i);
+            List<Integer> shuffled = new ArrayList<Integer>(sorted);
+            Collections.shuffle(shuffled, random);
+            // le due metà per merge: etichette pari e dispari
+            List<Integer> even = new ArrayList<Integer>();
+            List<Integer> odd = new ArrayList<Integer>();
+            for (int i = 0; i < n; i++)
+                if (i % 2 == 0)
+                    even.add(i);
+                else
+                    odd.add(i);
+            BinarySearchTree<Integer> a = BinarySearchTree.fromSorted(even);
+            BinarySearchTree<Integer> b = BinarySearchTree.fromSorted(odd);
+            for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                long start = System.nanoTime();
+                BinarySearchTree<Integer> t = BinarySearchTree.fromSorted(sorted);
+                long elapsed = System.nanoTime() - start;
+                if (s > 0) // la prima iterazione è di riscaldamento
+                    o.println("fromSorted," + n + "," + t.getHeight() + ","
+                            + (double) elapsed / n);
+                start = System.nanoTime();
+                t = BinarySearchTree.merge(a, b);
+                elapsed = System.nanoTime() - start;
+                if (s > 0)
+                    o.println("merge," + n + "," + t.getHeight() + ","
+                            + (double) elapsed / n);
+                start = System.nanoTime();
+                t = new BinarySearchTree<Integer>();
+                for (Integer e : shuffled)
+                    t.add(e);
+                elapsed = System.nanoTime() - start;
+                if (s > 0)
+                    o.println("addRandom," + n + "," + t.getHeight() + ","
+                            + (double) elapsed / n);
+                if (n <= SORTED_ADD_MAX_SIZE) {
+                    start = System.nanoTime();
+                    t = new BinarySearchTree<Integer>();
+                    for (Integer e : sorted)
+                        t.add(e);
+                    elapsed = System.nanoTime() - start;
+                    if (s > 0)
+                        o.println("addSorted," + n + "," + t.getHeight() + ","
+                                + (double) elapsed / n);
+                }
+            }
+            System.out.println("Completate le misure per " + n + " etichette");
+        }
+        o.close();
+    }
+
+}
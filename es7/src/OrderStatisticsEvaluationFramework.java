@@ -0,0 +1,124 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Confronta le operazioni di BinarySearchTree che usano l'altezza e il
+ * numero di nodi memorizzati in ogni nodo con le versioni che li ricalcolano
+ * visitando l'albero. Per ogni numero di chiavi n, a partire da MIN_SIZE e
+ * moltiplicando ogni volta per FATTORE_INCREMENTO fino a MAX_SIZE, si
+ * costruisce un albero con n chiavi inserite in ordine casuale e si misura il
+ * tempo medio di NUMBER_OF_QUERIES chiamate di:
+ * <ul>
+ * <li>getHeight, contro computeHeight sulla radice;</li>
+ * <li>select(k), contro l'elemento k della lista getOrderedLabels;</li>
+ * <li>countInRange(lo, hi), contro il conteggio delle etichette
+ * nell'intervallo nella lista getOrderedLabels.</li>
+ * </ul>
+ *
+ * Sul file orderstatistics.csv vengono scritti per ogni numero di chiavi i
+ * tempi medi in nanosecondi di ciascuna operazione nelle due versioni.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author Template: Luca Tesei, Implementazione: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class OrderStatisticsEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    private static final int NUMBER_OF_QUERIES = 50;
+
+    /*
+     * Valore che dipende dai risultati, perché il compilatore non elimini le
+     * chiamate
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "orderstatistics.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "orderstatistics.csv");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        o.println("Size,HeightNs,ComputeHeightNs,SelectNs,ListSelectNs,CountInRangeNs,ListCountNs");
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            BinarySearchTree<Integer> t = new BinarySearchTree<Integer>();
+            while (t.size() < n)
+                t.add(random.nextInt(4 * n));
+            int[] ranks = new int[NUMBER_OF_QUERIES];
+            Integer[] lo = new Integer[NUMBER_OF_QUERIES];
+            Integer[] hi = new Integer[NUMBER_OF_QUERIES];
+            for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+                ranks[i] = random.nextInt(n);
+                lo[i] = random.nextInt(4 * n);
+                hi[i] = lo[i] + random.nextInt(4 * n - lo[i]);
+            }
+            for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++)
+                    checksum += t.getHeight();
+                long height = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++)
+                    checksum += t.getRoot().computeHeight();
+                long computeHeight = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++)
+                    checksum += t.select(ranks[i]);
+                long select = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++)
+                    checksum += t.getOrderedLabels().get(ranks[i]);
+                long listSelect = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++)
+                    checksum += t.countInRange(lo[i], hi[i]);
+                long count = System.nanoTime() - start;
+                start = System.nanoTime();
+                for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+                    List<Integer> labels = t.getOrderedLabels();
+                    for (Integer e : labels)
+                        if (e >= lo[i] && e < hi[i])
+                            checksum++;
+                }
+                long listCount = System.nanoTime() - start;
+                if (s > 0) // la prima iterazione è di riscaldamento
+                    o.println(n + "," + (double) height / NUMBER_OF_QUERIES + ","
+                            + (double) computeHeight / NUMBER_OF_QUERIES + ","
+                            + (double) select / NUMBER_OF_QUERIES + ","
+                            + (double) listSelect / NUMBER_OF_QUERIES + ","
+                            + (double) count / NUMBER_OF_QUERIES + ","
+                            + (double) listCount / NUMBER_OF_QUERIES);
+            }
+            System.out.println("Completate le misure per " + n + " chiavi");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+}
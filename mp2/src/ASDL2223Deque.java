@@ -19,9 +19,17 @@ import java.util.*;
  * <li><code>public <T> T[] toArray(T[] a)</code></li>
  * <li><code>public boolean removeAll(Collection<?> c)</code></li>
  * <li><code>public boolean retainAll(Collection<?> c)</code></li>
- * <li><code>public boolean removeFirstOccurrence(Object o)</code></li>
- * <li><code>public boolean removeLastOccurrence(Object o)</code></li>
  * </ul>
+ * <p>
+ * A deque constructed with <code>ASDL2223Deque(true)</code> keeps also a
+ * hash index from each element to the nodes that contain it, in the order of
+ * the deque. The index is updated by every insertion and removal and makes
+ * <code>contains</code>, <code>remove(Object)</code>,
+ * <code>removeFirstOccurrence</code> and <code>removeLastOccurrence</code>
+ * take constant expected time instead of a scan of the list, at the cost of
+ * an entry of the index for each distinct element. The elements of an
+ * indexed deque must have <code>hashCode</code> consistent with
+ * <code>equals</code> and must not change while they are in the deque.
  *
  * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
  */
@@ -49,14 +57,39 @@ public class ASDL2223Deque<E> implements Deque<E> {
      */
     private int modCount;
 
+    /*
+     * Index from each element to the node that contains it or, if the element
+     * is contained in more nodes, to an ArrayDeque of these nodes in the
+     * order of the list. It is null if this deque is not indexed.
+     */
+    private final HashMap<Object, Object> index;
+
     /**
      * Constructs an empty deque.
      */
     public ASDL2223Deque() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty deque, optionally indexed.
+     *
+     * @param indexed if true, the deque keeps a hash index of its elements to
+     *                find them in constant expected time
+     */
+    public ASDL2223Deque(boolean indexed) {
         size = 0;
         first = null;
         last = null;
         modCount = 0;
+        index = indexed ? new HashMap<Object, Object>() : null;
+    }
+
+    /**
+     * @return true if this deque keeps a hash index of its elements
+     */
+    public boolean isIndexed() {
+        return index != null;
     }
 
     @Override
@@ -126,6 +159,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
         first = null;
         last = null;
         modCount = 0;
+        if (index != null) {
+            index.clear();
+        }
     }
 
     @Override
@@ -151,6 +187,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
             first.prev = node;
             first = node;
         }
+        if (index != null) {
+            indexAdd(node, true);
+        }
         modCount++;
         size++;
     }
@@ -177,6 +216,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
             last.next = node;
         }
         last = node;
+        if (index != null) {
+            indexAdd(node, false);
+        }
         modCount++;
         size++;
     }
@@ -205,6 +247,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
             first.prev = node;
             first = node;
         }
+        if (index != null) {
+            indexAdd(node, true);
+        }
         modCount++;
         size++;
         return true;
@@ -233,6 +278,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
             last.next = node;
         }
         last = node;
+        if (index != null) {
+            indexAdd(node, false);
+        }
         modCount++;
         size++;
         return true;
@@ -247,6 +295,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
          * If the deque has only one element, the first and the last element are
          * both null
          */
+        if (index != null) {
+            indexRemove(first);
+        }
         if (size == 1) {
             E e = first.item;
             first = null;
@@ -261,6 +312,7 @@ public class ASDL2223Deque<E> implements Deque<E> {
          */
         E e = first.item;
         first = first.next;
+        first.prev = null;
         modCount++;
         size--;
         return e;
@@ -275,6 +327,9 @@ public class ASDL2223Deque<E> implements Deque<E> {
          * If the deque has only one element, the first and the last element are
          * both null
          */
+        if (index != null) {
+            indexRemove(last);
+        }
         if (size == 1) {
             E e = last.item;
             first = null;
@@ -351,12 +406,28 @@ public class ASDL2223Deque<E> implements Deque<E> {
 
     @Override
     public boolean removeFirstOccurrence(Object o) {
-        throw new UnsupportedOperationException("This class does not implement this service.");
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Node<E> node = findFirst(o);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
     }
 
     @Override
     public boolean removeLastOccurrence(Object o) {
-        throw new UnsupportedOperationException("This class does not implement this service.");
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Node<E> node = findLast(o);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
     }
 
     @Override
@@ -412,6 +483,13 @@ public class ASDL2223Deque<E> implements Deque<E> {
 
     @Override
     public boolean remove(Object o) {
+        // remove the first occurrence of the element, as specified by Deque
+        return removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        // return true if the element is in the deque
         if (o == null) {
             throw new NullPointerException("Null elements are not permitted.");
         }
@@ -419,70 +497,142 @@ public class ASDL2223Deque<E> implements Deque<E> {
         if (size == 0) {
             return false;
         }
+        if (index != null) {
+            return index.containsKey(o);
+        }
+        return findFirst(o) != null;
+    }
+
+    /*
+     * Return the first node that contains an element equal to o, or null if
+     * there is no such node
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E> findFirst(Object o) {
+        if (index != null) {
+            Object v = index.get(o);
+            if (v instanceof ArrayDeque) {
+                return ((ArrayDeque<Node<E>>) v).peekFirst();
+            }
+            return (Node<E>) v;
+        }
         Node<E> node = first;
         while (node != null) {
             if (node.item.equals(o)) {
-                // if the element is the first element of the deque
-                if (size == 1) {
-                    first = null;
-                    last = null;
-                    /*
-                     * if the element is the first element of the deque,
-                     * the second element becomes the first element
-                     */
-                } else if (node == first) {
-                    first = first.next;
-                    first.prev = null;
-                    /*
-                     * if the element is the last element of the deque, the
-                     * previous element becomes the last element
-                     */
-                } else if (node == last) {
-                    last = last.prev;
-                    last.next = null;
-                    /*
-                     * if the element is in the middle of the deque, the
-                     * previous element becomes the next element of the
-                     * previous element and the next element becomes the
-                     * previous element of the next element
-                     */
-                } else {
-                    node.prev.next = node.next;
-                    node.next.prev = node.prev;
-                }
-                modCount++;
-                size--;
-                return true;
+                return node;
             }
             node = node.next;
         }
-        // if the element is not found, return false
-        return false;
+        return null;
     }
 
-    @Override
-    public boolean contains(Object o) {
-        // return true if the element is in the deque
-        if (o == null) {
-            throw new NullPointerException("Null elements are not permitted.");
-        }
-        // if the deque is empty, return false
-        if (size == 0) {
-            return false;
+    /*
+     * Return the last node that contains an element equal to o, or null if
+     * there is no such node
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E> findLast(Object o) {
+        if (index != null) {
+            Object v = index.get(o);
+            if (v instanceof ArrayDeque) {
+                return ((ArrayDeque<Node<E>>) v).peekLast();
+            }
+            return (Node<E>) v;
         }
-        Node<E> node = first;
+        Node<E> node = last;
         while (node != null) {
-            /*
-             * if the element is found, return true, otherwise, continue
-             * searching
-             */
             if (node.item.equals(o)) {
-                return true;
+                return node;
             }
-            node = node.next;
+            node = node.prev;
+        }
+        return null;
+    }
+
+    /*
+     * Remove the given node from the list, that must be the first or the last
+     * occurrence of its element
+     */
+    private void unlink(Node<E> node) {
+        if (index != null) {
+            indexRemove(node);
+        }
+        // if the element is the only element of the deque
+        if (size == 1) {
+            first = null;
+            last = null;
+            /*
+             * if the element is the first element of the deque, the second
+             * element becomes the first element
+             */
+        } else if (node == first) {
+            first = first.next;
+            first.prev = null;
+            /*
+             * if the element is the last element of the deque, the previous
+             * element becomes the last element
+             */
+        } else if (node == last) {
+            last = last.prev;
+            last.next = null;
+            /*
+             * if the element is in the middle of the deque, the previous and
+             * the next element are linked to each other
+             */
+        } else {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+        }
+        modCount++;
+        size--;
+    }
+
+    /*
+     * Add the new node, that has been inserted at the front or at the end of
+     * the list, to the index
+     */
+    @SuppressWarnings("unchecked")
+    private void indexAdd(Node<E> node, boolean atFront) {
+        Object v = index.putIfAbsent(node.item, node);
+        if (v == null) {
+            return;
+        }
+        ArrayDeque<Node<E>> nodes;
+        if (v instanceof ArrayDeque) {
+            nodes = (ArrayDeque<Node<E>>) v;
+        } else {
+            // The second occurrence of the element
+            nodes = new ArrayDeque<Node<E>>(4);
+            nodes.add((Node<E>) v);
+            index.put(node.item, nodes);
+        }
+        if (atFront) {
+            nodes.addFirst(node);
+        } else {
+            nodes.addLast(node);
+        }
+    }
+
+    /*
+     * Remove from the index the given node, that is the first or the last
+     * occurrence of its element, since only such nodes are ever removed
+     */
+    @SuppressWarnings("unchecked")
+    private void indexRemove(Node<E> node) {
+        Object v = index.get(node.item);
+        if (v == node) {
+            index.remove(node.item);
+            return;
+        }
+        ArrayDeque<Node<E>> nodes = (ArrayDeque<Node<E>>) v;
+        if (nodes.peekFirst() == node) {
+            nodes.pollFirst();
+        } else {
+            nodes.pollLast();
+        }
+        if (nodes.size() == 1) {
+            index.put(node.item, nodes.peekFirst());
         }
-        // if the element is not found, return false
-        return false;
     }
 
     @Override
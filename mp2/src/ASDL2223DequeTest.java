@@ -622,4 +622,89 @@ class ASDL2223DequeTest {
         assertThrows(ConcurrentModificationException.class, () -> it3.next());
     }
 
+    @Test
+    final void testRemoveOccurrences() {
+        for (boolean indexed : new boolean[] { false, true }) {
+            ASDL2223Deque<String> d = new ASDL2223Deque<String>(indexed);
+            assertThrows(NullPointerException.class, () -> d.removeFirstOccurrence(null));
+            assertThrows(NullPointerException.class, () -> d.removeLastOccurrence(null));
+            assertFalse(d.removeFirstOccurrence("Pippo"));
+            d.add("Pippo");
+            d.add("Pluto");
+            d.add("Pippo");
+            d.add("Minnie");
+            d.add("Pippo");
+            assertTrue(d.removeLastOccurrence("Pippo"));
+            assertTrue(d.getLastNode().item.equals("Minnie"));
+            assertTrue(d.removeFirstOccurrence("Pippo"));
+            assertTrue(d.getFirstNode().item.equals("Pluto"));
+            assertTrue(d.getFirstNode().prev == null);
+            assertTrue(d.removeLastOccurrence("Pippo"));
+            assertFalse(d.removeLastOccurrence("Pippo"));
+            assertFalse(d.contains("Pippo"));
+            assertTrue(Arrays.equals(d.toArray(), new Object[] { "Pluto", "Minnie" }));
+            assertTrue(d.getLastNode().prev == d.getFirstNode());
+            assertTrue(d.size() == 2);
+        }
+    }
+
+    @Test
+    final void testIndexed() {
+        ASDL2223Deque<Integer> d = new ASDL2223Deque<Integer>(true);
+        assertTrue(d.isIndexed());
+        assertFalse(new ASDL2223Deque<Integer>().isIndexed());
+        assertThrows(NullPointerException.class, () -> d.contains(null));
+        assertThrows(NullPointerException.class, () -> d.remove(null));
+        // Confronto con ArrayDeque su una sequenza casuale di operazioni
+        ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            Integer e = random.nextInt(50);
+            switch (random.nextInt(9)) {
+                case 0:
+                    d.addFirst(e);
+                    expected.addFirst(e);
+                    break;
+                case 1:
+                    assertEquals(expected.offerLast(e), d.offerLast(e));
+                    break;
+                case 2:
+                    assertEquals(expected.pollFirst(), d.pollFirst());
+                    break;
+                case 3:
+                    assertEquals(expected.pollLast(), d.pollLast());
+                    break;
+                case 4:
+                    assertEquals(expected.remove(e), d.remove(e));
+                    break;
+                case 5:
+                    assertEquals(expected.removeLastOccurrence(e), d.removeLastOccurrence(e));
+                    break;
+                case 6:
+                    assertEquals(expected.contains(e), d.contains(e));
+                    break;
+                case 7:
+                    d.push(e);
+                    expected.push(e);
+                    break;
+                default:
+                    d.add(e);
+                    expected.add(e);
+                    break;
+            }
+            assertEquals(expected.size(), d.size());
+        }
+        assertTrue(Arrays.equals(expected.toArray(), d.toArray()));
+        d.clear();
+        assertFalse(d.contains(0));
+        d.add(7);
+        d.add(7);
+        assertTrue(d.contains(7));
+        assertTrue(d.remove(7));
+        assertTrue(d.contains(7));
+        assertTrue(d.removeFirst() == 7);
+        assertFalse(d.contains(7));
+        assertTrue(d.isEmpty());
+    }
+
 }
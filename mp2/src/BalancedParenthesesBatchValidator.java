@@ -0,0 +1,333 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Validates large batches of strings with a pool of worker threads, each of
+ * which reuses the same <code>BalancedParenthesesChecker</code> for all the
+ * strings it checks, so that validating a string allocates no objects.
+ * <p>
+ * The inputs are split in blocks of <code>BLOCK_SIZE</code> consecutive
+ * strings, that are checked by the workers in parallel. The result of a batch
+ * is a <code>BitSet</code> whose bit i is set if and only if the i-th input
+ * is a balanced parentheses sequence; an input containing invalid characters
+ * is not balanced. Since <code>BLOCK_SIZE</code> is a multiple of 64, every
+ * block writes its own words of the bit set and the workers never share
+ * memory while checking.
+ * <p>
+ * Every worker keeps its own counters, that can be read at any time with
+ * <code>getMetrics()</code>. The validator must be closed to stop the
+ * workers.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class BalancedParenthesesBatchValidator implements AutoCloseable {
+
+    /**
+     * Number of consecutive inputs checked by a single task.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
+    private final ExecutorService workers;
+
+    private final int numberOfThreads;
+
+    /*
+     * The state of each worker, created by the worker itself the first time
+     * it checks a block
+     */
+    private final ThreadLocal<Worker> worker;
+
+    /*
+     * The states of all the workers, for the metrics
+     */
+    private final ConcurrentLinkedQueue<Worker> allWorkers;
+
+    private volatile boolean closed;
+
+    /**
+     * Create a validator with one worker for each available processor.
+     */
+    public BalancedParenthesesBatchValidator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a validator with the given number of workers.
+     *
+     * @param numberOfThreads the number of worker threads
+     * @throws IllegalArgumentException if numberOfThreads is not positive
+     */
+    public BalancedParenthesesBatchValidator(int numberOfThreads) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.allWorkers = new ConcurrentLinkedQueue<Worker>();
+        this.worker = ThreadLocal.withInitial(() -> {
+            Worker w = new Worker(Thread.currentThread().getName());
+            allWorkers.add(w);
+            return w;
+        });
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "validator-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.workers = Executors.newFixedThreadPool(numberOfThreads, factory);
+        this.closed = false;
+    }
+
+    /**
+     * Validate the given strings.
+     *
+     * @param inputs the strings to validate
+     * @return a bit set whose bit i is set if and only if the i-th input is a
+     * balanced parentheses sequence
+     * @throws NullPointerException  if inputs or one of its elements is null
+     * @throws IllegalStateException if the validator has been closed
+     */
+    public BitSet validate(List<String> inputs) {
+        return validate(inputs.iterator());
+    }
+
+    /**
+     * Validate the strings of the given stream, in the order of the stream.
+     *
+     * @param inputs the strings to validate
+     * @return a bit set whose bit i is set if and only if the i-th input is a
+     * balanced parentheses sequence
+     * @throws NullPointerException  if inputs or one of its elements is null
+     * @throws IllegalStateException if the validator has been closed
+     */
+    public BitSet validate(Stream<String> inputs) {
+        return validate(inputs.iterator());
+    }
+
+    /*
+     * Read the inputs in blocks, submit a task for each block and collect the
+     * words of the results
+     */
+    private BitSet validate(Iterator<String> inputs) {
+        if (closed) {
+            throw new IllegalStateException("The validator has been closed.");
+        }
+        List<Future<long[]>> blocks = new ArrayList<Future<long[]>>();
+        int index = 0;
+        try {
+            while (inputs.hasNext()) {
+                String[] block = new String[BLOCK_SIZE];
+                int n = 0;
+                while (n < BLOCK_SIZE && inputs.hasNext()) {
+                    String s = inputs.next();
+                    if (s == null) {
+                        throw new NullPointerException("Null input at position " + index);
+                    }
+                    block[n++] = s;
+                    index++;
+                }
+                final int length = n;
+                blocks.add(workers.submit(() -> worker.get().check(block, length)));
+            }
+            long[] words = new long[(index + 63) >>> 6];
+            int w = 0;
+            for (Future<long[]> f : blocks) {
+                long[] blockWords = f.get();
+                System.arraycopy(blockWords, 0, words, w, blockWords.length);
+                w += BLOCK_SIZE >>> 6;
+            }
+            return BitSet.valueOf(words);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation failed.", e.getCause());
+        } finally {
+            // On errors the remaining blocks are not needed
+            for (Future<long[]> f : blocks) {
+                f.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Return the counters of the workers that have checked at least a block.
+     * The counters of a worker that is checking a block are updated when the
+     * block is completed.
+     *
+     * @return a snapshot of the counters of each worker
+     */
+    public List<ThreadMetrics> getMetrics() {
+        List<ThreadMetrics> metrics = new ArrayList<ThreadMetrics>();
+        for (Worker w : allWorkers) {
+            metrics.add(new ThreadMetrics(w));
+        }
+        return metrics;
+    }
+
+    /**
+     * Stop the workers, after the blocks already submitted have been checked.
+     * Closing a validator already closed has no effect.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdown();
+    }
+
+    /*
+     * The state of a worker: its checker and its counters. The counters are
+     * written only by the worker and read by getMetrics.
+     */
+    private static final class Worker {
+        private final String threadName;
+
+        private final BalancedParenthesesChecker checker;
+
+        private volatile long blocks;
+
+        private volatile long inputs;
+
+        private volatile long balanced;
+
+        private volatile long invalid;
+
+        private volatile long characters;
+
+        private volatile long busyNanos;
+
+        private Worker(String threadName) {
+            this.threadName = threadName;
+            this.checker = new BalancedParenthesesChecker();
+        }
+
+        /*
+         * Check the first n strings of the block and return the words of the
+         * results
+         */
+        private long[] check(String[] block, int n) {
+            long start = System.nanoTime();
+            long[] words = new long[(n + 63) >>> 6];
+            long chars = 0;
+            int nBalanced = 0;
+            int nInvalid = 0;
+            for (int i = 0; i < n; i++) {
+                String s = block[i];
+                chars += s.length();
+                if (checker.isBalanced(s)) {
+                    words[i >>> 6] |= 1L << i;
+                    nBalanced++;
+                } else if (checker.getLastError()
+                        == BalancedParenthesesChecker.Error.INVALID_CHARACTER) {
+                    nInvalid++;
+                }
+            }
+            // Only this thread writes the counters
+            blocks = blocks + 1;
+            inputs = inputs + n;
+            balanced = balanced + nBalanced;
+            invalid = invalid + nInvalid;
+            characters = characters + chars;
+            busyNanos = busyNanos + System.nanoTime() - start;
+            return words;
+        }
+    }
+
+    /**
+     * The counters of a worker at a certain instant.
+     */
+    public static final class ThreadMetrics {
+        private final String threadName;
+
+        private final long blocks;
+
+        private final long inputs;
+
+        private final long balanced;
+
+        private final long invalid;
+
+        private final long characters;
+
+        private final long busyNanos;
+
+        private ThreadMetrics(Worker w) {
+            this.threadName = w.threadName;
+            this.busyNanos = w.busyNanos;
+            this.characters = w.characters;
+            this.invalid = w.invalid;
+            this.balanced = w.balanced;
+            this.inputs = w.inputs;
+            this.blocks = w.blocks;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public long getBlocks() {
+            return blocks;
+        }
+
+        public long getInputs() {
+            return inputs;
+        }
+
+        public long getBalanced() {
+            return balanced;
+        }
+
+        /**
+         * @return the number of inputs that contained invalid characters
+         */
+        public long getInvalid() {
+            return invalid;
+        }
+
+        public long getCharacters() {
+            return characters;
+        }
+
+        /**
+         * @return the time, in nanoseconds, spent by the worker checking
+         * blocks
+         */
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        /**
+         * @return the number of inputs checked per second of work, 0 if the
+         * worker has not worked yet
+         */
+        public double getInputsPerSecond() {
+            return busyNanos == 0 ? 0 : inputs * 1e9 / busyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "ThreadMetrics [threadName=" + threadName + ", blocks=" + blocks
+                    + ", inputs=" + inputs + ", balanced=" + balanced + ", invalid="
+                    + invalid + ", characters=" + characters + ", busyNanos="
+                    + busyNanos + ", inputsPerSecond=" + getInputsPerSecond() + "]";
+        }
+    }
+
+}
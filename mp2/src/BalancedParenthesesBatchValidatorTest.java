@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalancedParenthesesBatchValidatorTest {
+
+    /*
+     * Genera n espressioni brevi a caso, alcune con caratteri non validi
+     */
+    private static List<String> inputs(int n, Random r) {
+        List<String> inputs = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = r.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append("(([[{{ ))]]}}".charAt(r.nextInt(13)));
+            }
+            if (r.nextInt(20) == 0) {
+                sb.append('x');
+            }
+            inputs.add(sb.toString());
+        }
+        return inputs;
+    }
+
+    @Test
+    final void testValidate() {
+        Random r = new Random(3);
+        List<String> inputs = inputs(5000, r);
+        // Espressioni bilanciate in posizioni note, a cavallo dei blocchi
+        for (int i = 0; i < inputs.size(); i += 1023) {
+            inputs.set(i, "( [ ] )");
+        }
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        try (BalancedParenthesesBatchValidator v = new BalancedParenthesesBatchValidator(3)) {
+            assertTrue(v.getNumberOfThreads() == 3);
+            BitSet result = v.validate(inputs);
+            BitSet fromStream = v.validate(inputs.stream());
+            assertEquals(result, fromStream);
+            int balanced = 0;
+            int invalid = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                boolean expected = checker.isBalanced(inputs.get(i));
+                assertEquals(expected, result.get(i), inputs.get(i));
+                if (expected) {
+                    balanced++;
+                } else if (checker.getLastError() == BalancedParenthesesChecker.Error.INVALID_CHARACTER) {
+                    invalid++;
+                }
+            }
+            assertTrue(result.length() <= inputs.size());
+            assertTrue(result.get(1023) && result.get(2046));
+            // Le metriche contano le due validazioni
+            long inputsCount = 0;
+            long balancedCount = 0;
+            long invalidCount = 0;
+            long blocks = 0;
+            for (BalancedParenthesesBatchValidator.ThreadMetrics m : v.getMetrics()) {
+                inputsCount += m.getInputs();
+                balancedCount += m.getBalanced();
+                invalidCount += m.getInvalid();
+                blocks += m.getBlocks();
+                assertTrue(m.getThreadName().startsWith("validator-"));
+                assertTrue(m.getInputsPerSecond() > 0);
+            }
+            assertTrue(v.getMetrics().size() <= 3);
+            assertEquals(2 * inputs.size(), inputsCount);
+            assertEquals(2 * balanced, balancedCount);
+            assertEquals(2 * invalid, invalidCount);
+            assertEquals(2 * 5, blocks);
+            assertTrue(invalid > 0);
+        }
+    }
+
+    @Test
+    final void testEmptyAndErrors() {
+        BalancedParenthesesBatchValidator v = new BalancedParenthesesBatchValidator(2);
+        assertThrows(IllegalArgumentException.class, () -> new BalancedParenthesesBatchValidator(0));
+        assertTrue(v.validate(new ArrayList<String>()).isEmpty());
+        assertTrue(v.getMetrics().isEmpty());
+        List<String> withNull = new ArrayList<String>();
+        withNull.add("()");
+        withNull.add(null);
+        assertThrows(NullPointerException.class, () -> v.validate(withNull));
+        BitSet b = v.validate(List.of("", "(", "()", "x"));
+        assertEquals("{0, 2}", b.toString());
+        v.close();
+        v.close();
+        assertThrows(IllegalStateException.class, () -> v.validate(List.of("()")));
+    }
+
+}
@@ -1,9 +1,16 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
- * An object of this class is an actor that uses an ASDL2223Deque<Character> as
- * a Stack in order to check that a sequence containing the following
- * characters: '(', ')', '[', ']', '{', '}' in any order is a string of balanced
- * parentheses or not. The input is given as a String in which white spaces,
- * tabs and newlines are ignored.
+ * An object of this class is an actor that uses a stack in order to check
+ * that a sequence containing the following characters: '(', ')', '[', ']',
+ * '{', '}' in any order is a string of balanced parentheses or not. The input
+ * is given as a String in which white spaces, tabs and newlines are ignored.
  * <p>
  * Some examples:
  * <p>
@@ -12,19 +19,201 @@
  * parentheses - "( { } " is NOT a string of balanced parentheses - "}(([]))" is
  * NOT a string of balanced parentheses - "( ( \n [(P)] \t ))" is NOT a string
  * of balanced parentheses
+ * <p>
+ * The input can also be read in chunks from a <code>Reader</code> or from a
+ * <code>ReadableByteChannel</code>, so that inputs that do not fit in memory
+ * can be checked; in this case the checker stops at the first error and
+ * returns its offset. The characters are classified with a lookup table and
+ * the stack contains one byte for each open parenthesis, so that checking
+ * does not allocate any object, apart from the growth of the stack and the
+ * buffers that the checker allocates once. Since the stack is an array, at
+ * most <code>MAX_STACK_LENGTH - 2</code> parentheses can be open at the same
+ * time; an input nested deeper than that is rejected with an
+ * <code>IllegalStateException</code>.
+ * <p>
+ * Long strings can also be checked in parallel: the string is split in
+ * chunks, each chunk is reduced to the sequence of its unmatched closing
+ * parentheses followed by the sequence of its unmatched open parentheses,
+ * and the summaries of adjacent chunks are combined by matching the open
+ * parentheses of the left one with the closing parentheses of the right one.
  *
  * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
  */
 public class BalancedParenthesesChecker {
 
-    // The stack is to be used to check the balanced parentheses
-    private ASDL2223Deque<Character> stack;
+    /**
+     * The kinds of errors that can be found in the input.
+     */
+    public enum Error {
+        /**
+         * A character that is not a parenthesis nor a white space
+         */
+        INVALID_CHARACTER,
+        /**
+         * A closing parenthesis that does not match the last open one, or
+         * that is found when there are no open parentheses
+         */
+        MISMATCHED_CLOSING,
+        /**
+         * The input ends while some parentheses are still open
+         */
+        UNCLOSED
+    }
+
+    /*
+     * Number of chars or bytes read at a time from a stream
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /*
+     * Classes of the characters in the lookup table. Open and closing
+     * parentheses are marked with a flag together with their kind, 1, 2 or 3;
+     * the characters out of the table are invalid.
+     */
+    private static final byte INVALID = 0;
+
+    private static final byte SPACE = 4;
+
+    private static final byte OPEN = 8;
+
+    private static final byte CLOSE = 16;
+
+    private static final byte KIND = 3;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        // The white spaces matched by \s in a regular expression
+        for (char c : new char[] { ' ', '\t', '\n', '\u000B', '\f', '\r' }) {
+            CLASSES[c] = SPACE;
+        }
+        CLASSES['('] = OPEN | 1;
+        CLASSES[')'] = CLOSE | 1;
+        CLASSES['['] = OPEN | 2;
+        CLASSES[']'] = CLOSE | 2;
+        CLASSES['{'] = OPEN | 3;
+        CLASSES['}'] = CLOSE | 3;
+    }
+
+    /*
+     * The stack of the kinds of the open parentheses. Position 0 contains
+     * kind 0, which does not match any closing parenthesis, so that a closing
+     * parenthesis on an empty stack needs no special case.
+     */
+    private byte[] stack;
+
+    // The number of open parentheses in the stack, plus 1
+    private int depth;
+
+    /**
+     * The maximum length of the stack, the largest array length that every
+     * JVM can allocate. Position 0 of the stack is not used by parentheses and
+     * the position above the top is always written, so at most
+     * MAX_STACK_LENGTH - 2 parentheses can be open at the same time.
+     */
+    public static final int MAX_STACK_LENGTH = Integer.MAX_VALUE - 8;
+
+    // The length beyond which the stack is not grown
+    private final int maxStackLength;
+
+    // The error found by the last check, null if there was none
+    private Error lastError;
+
+    /*
+     * Strings shorter than this are checked sequentially by checkParallel
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /*
+     * Minimum number of characters of a chunk checked by a single task
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /*
+     * Number of chunks for each thread of the pool, so that the threads that
+     * finish first can steal the remaining chunks
+     */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    // Buffers for reading streams, allocated when first needed
+    private char[] charBuffer;
+
+    private ByteBuffer byteBuffer;
 
     /**
      * Create a new checker.
      */
     public BalancedParenthesesChecker() {
-        this.stack = new ASDL2223Deque<Character>();
+        this(MAX_STACK_LENGTH);
+    }
+
+    /*
+     * Create a checker whose stack does not grow beyond the given length.
+     * This constructor is only for JUnit testing purposes, so that the limit
+     * can be reached without allocating a huge stack.
+     */
+    protected BalancedParenthesesChecker(int maxStackLength) {
+        this.maxStackLength = maxStackLength;
+        this.stack = new byte[Math.min(64, maxStackLength)];
+        this.depth = 1;
+        this.lastError = null;
+    }
+
+    /*
+     * Clear the stack before a new check
+     */
+    private void reset() {
+        this.depth = 1;
+        this.lastError = null;
+    }
+
+    /*
+     * Process a character of class cls, which is not invalid, and return false
+     * if it is a closing parenthesis that does not match the stack. The input
+     * usually alternates open and closing parentheses in an unpredictable
+     * way, so the stack is updated without branching on the class: the kind
+     * is always written above the top, where it matters only for an open
+     * parenthesis, and the depth is updated by adding the open and closing
+     * flags.
+     */
+    private boolean accept(byte cls) {
+        int d = depth;
+        if (d + 1 == stack.length) {
+            grow(cls);
+        }
+        byte[] st = stack;
+        int kind = cls & KIND;
+        int close = (cls >>> 4) & 1;
+        boolean mismatch = close != 0 & st[d - 1] != kind;
+        st[d] = (byte) kind;
+        depth = d + ((cls >>> 3) & 1) - close;
+        return !mismatch;
+    }
+
+    /*
+     * Double the stack, which is full, without exceeding maxStackLength. When
+     * the stack cannot grow any more a closing parenthesis still fits, since
+     * it only writes the position above the top, while an open one would
+     * overflow the stack.
+     */
+    private void grow(byte cls) {
+        if (stack.length == maxStackLength) {
+            if ((cls & OPEN) != 0) {
+                throw new IllegalStateException("More than "
+                        + (maxStackLength - 2)
+                        + " open parentheses at the same time");
+            }
+            return;
+        }
+        int newLength = (int) Math.min((long) stack.length << 1,
+                maxStackLength);
+        byte[] newStack = new byte[newLength];
+        System.arraycopy(stack, 0, newStack, 0, depth);
+        stack = newStack;
+    }
+
+    private static byte classOf(int c) {
+        return c < CLASSES.length ? CLASSES[c] : INVALID;
     }
 
     /**
@@ -41,65 +230,346 @@ public class BalancedParenthesesChecker {
      *                                  and newline '\n'
      */
     public boolean check(String s) {
+        boolean balanced = isBalanced(s);
+        if (lastError == Error.INVALID_CHARACTER) {
+            throw new IllegalArgumentException();
+        }
+        return balanced;
+    }
+
+    /**
+     * Check, like <code>check(String)</code>, if a given string contains a
+     * balanced parentheses sequence, but without throwing an exception for
+     * invalid characters: in this case the result is false and
+     * <code>getLastError()</code> returns <code>INVALID_CHARACTER</code>.
+     *
+     * @param s the string to check
+     * @return true if s contains a balanced parentheses sequence, false
+     * otherwise
+     */
+    public boolean isBalanced(String s) {
         // First of all the stack is cleared
-        stack.clear();
-        // Check if s is null
+        reset();
         if (s.isEmpty()) {
             return true;
         }
-        /*
-         * Check if s contains only the characters '(', ')', '[', ']', '{', '}',
-         * white space ' ', tab '\t' and newline '\n'
-         */
-        if (!s.matches("^[\\s\\t\\n\\(\\)\\[\\]\\{\\}]*$")) {
+        boolean balanced = true;
+        for (int i = 0; i < s.length(); i++) {
+            byte cls = classOf(s.charAt(i));
+            if (cls == INVALID) {
+                lastError = Error.INVALID_CHARACTER;
+                return false;
+            }
+            /*
+             * After a mismatch the rest of the string is only validated,
+             * since an invalid character must be reported anyway
+             */
+            if (balanced && !accept(cls)) {
+                balanced = false;
+                lastError = Error.MISMATCHED_CLOSING;
+            }
+        }
+        if (balanced && depth != 1) {
+            balanced = false;
+            lastError = Error.UNCLOSED;
+        }
+        return balanced;
+    }
+
+    /**
+     * Check the characters read from the given reader, in chunks, until the
+     * end of the input or the first error. The reader is not closed.
+     *
+     * @param in the reader to check
+     * @return -1 if the input is a balanced parentheses sequence, otherwise
+     * the offset, counted in characters from 0, of the first invalid
+     * character or mismatched closing parenthesis, or the length of the
+     * input if it ends with some parentheses still open; the kind of
+     * error is returned by <code>getLastError()</code>
+     * @throws IOException           if reading from the reader fails
+     * @throws IllegalStateException if more than
+     *                               <code>MAX_STACK_LENGTH - 2</code>
+     *                               parentheses are open at the same time
+     */
+    public long check(Reader in) throws IOException {
+        reset();
+        if (charBuffer == null) {
+            charBuffer = new char[CHUNK_SIZE];
+        }
+        char[] buffer = charBuffer;
+        long offset = 0;
+        int n;
+        while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+            for (int i = 0; i < n; i++) {
+                byte cls = classOf(buffer[i]);
+                if (cls == INVALID) {
+                    lastError = Error.INVALID_CHARACTER;
+                    return offset + i;
+                }
+                if (!accept(cls)) {
+                    lastError = Error.MISMATCHED_CLOSING;
+                    return offset + i;
+                }
+            }
+            offset += n;
+        }
+        return endOfInput(offset);
+    }
+
+    /**
+     * Check the bytes read from the given channel, in chunks, until the end of
+     * the input or the first error. The input is interpreted as ASCII, so any
+     * byte with a value greater than 127 is an invalid character. The channel
+     * is not closed.
+     *
+     * @param in the channel to check
+     * @return -1 if the input is a balanced parentheses sequence, otherwise
+     * the offset, counted in bytes from 0, of the first invalid character
+     * or mismatched closing parenthesis, or the length of the input if it
+     * ends with some parentheses still open; the kind of error is returned
+     * by <code>getLastError()</code>
+     * @throws IOException           if reading from the channel fails
+     * @throws IllegalStateException if more than
+     *                               <code>MAX_STACK_LENGTH - 2</code>
+     *                               parentheses are open at the same time
+     */
+    public long check(ReadableByteChannel in) throws IOException {
+        reset();
+        if (byteBuffer == null) {
+            byteBuffer = ByteBuffer.allocate(CHUNK_SIZE);
+        }
+        ByteBuffer buffer = byteBuffer;
+        byte[] bytes = buffer.array();
+        long offset = 0;
+        buffer.clear();
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            for (int i = 0; i < n; i++) {
+                // A negative byte is a value greater than 127
+                byte b = bytes[i];
+                byte cls = b < 0 ? INVALID : CLASSES[b];
+                if (cls == INVALID) {
+                    lastError = Error.INVALID_CHARACTER;
+                    return offset + i;
+                }
+                if (!accept(cls)) {
+                    lastError = Error.MISMATCHED_CLOSING;
+                    return offset + i;
+                }
+            }
+            offset += n;
+            buffer.clear();
+        }
+        return endOfInput(offset);
+    }
+
+    /*
+     * Result of a stream check that reached the end of the input, whose
+     * length is given
+     */
+    private long endOfInput(long length) {
+        if (depth != 1) {
+            lastError = Error.UNCLOSED;
+            return length;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the kind of error found by the last check, or null if the last
+     * input was a balanced parentheses sequence
+     */
+    public Error getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Check, in parallel with the tasks of the common ForkJoinPool, if a
+     * given string contains a balanced parentheses sequence. The result is the
+     * same as that of <code>check(String)</code>; short strings are checked
+     * sequentially.
+     *
+     * @param s the string to check
+     * @return true if s contains a balanced parentheses sequence, false
+     * otherwise
+     * @throws IllegalArgumentException if s contains at least a character
+     *                                  different form:'(', ')', '[', ']',
+     *                                  '{', '}' and white spaces
+     */
+    public boolean checkParallel(String s) {
+        return checkParallel(s, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Check, in parallel with the tasks of the given pool, if a given string
+     * contains a balanced parentheses sequence. The result is the same as that
+     * of <code>check(String)</code>; short strings are checked sequentially.
+     *
+     * @param s    the string to check
+     * @param pool the pool that executes the tasks
+     * @return true if s contains a balanced parentheses sequence, false
+     * otherwise
+     * @throws IllegalArgumentException if s contains at least a character
+     *                                  different form:'(', ')', '[', ']',
+     *                                  '{', '}' and white spaces
+     */
+    public boolean checkParallel(String s, ForkJoinPool pool) {
+        if (s.length() < PARALLEL_THRESHOLD) {
+            return check(s);
+        }
+        int chunkSize = Math.max(MIN_CHUNK_SIZE,
+                s.length() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        return checkParallel(s, pool, chunkSize);
+    }
+
+    /*
+     * Parallel check with chunks of at most chunkSize characters, also for
+     * short strings; used directly only by the tests
+     */
+    boolean checkParallel(String s, ForkJoinPool pool, int chunkSize) {
+        reset();
+        Summary r = pool.invoke(new ChunkTask(s, 0, s.length(), chunkSize));
+        if (r.invalid) {
+            lastError = Error.INVALID_CHARACTER;
             throw new IllegalArgumentException();
         }
+        if (r.mismatch || r.closers.length > 0) {
+            lastError = Error.MISMATCHED_CLOSING;
+        } else if (r.openers.length > 0) {
+            lastError = Error.UNCLOSED;
+        }
+        return lastError == null;
+    }
+
+    /*
+     * What remains of a chunk after matching its parentheses: the kinds of the
+     * unmatched closing parentheses, in order, and of the unmatched open ones,
+     * from the bottom of the stack to the top, or the fact that two
+     * parentheses of different kinds were matched or that there is an invalid
+     * character. Summaries are combined associatively.
+     */
+    private static final class Summary {
+        private final byte[] closers;
+
+        private final byte[] openers;
+
+        private final boolean mismatch;
+
+        private final boolean invalid;
+
+        private Summary(byte[] closers, byte[] openers, boolean mismatch,
+                        boolean invalid) {
+            this.closers = closers;
+            this.openers = openers;
+            this.mismatch = mismatch;
+            this.invalid = invalid;
+        }
+
         /*
-         * Check if s contains a balanced parentheses sequence
+         * Summary of the characters from begin (included) to end (excluded)
          */
-        for (int i = 0; i < s.length(); i++) {
-            /*
-             * If the character is a white space, a tab or a newline, it is
-             * ignored
-             */
-            if (s.charAt(i) == '(' || s.charAt(i) == '[' || s.charAt(i) == '{') {
-                stack.addFirst(s.charAt(i));
-                /*
-                 * If the character is a closing parentheses, it is checked if
-                 * it is the closing parentheses of the last opening parentheses
-                 * in the stack
-                 */
-            } else if (s.charAt(i) == ')' || s.charAt(i) == ']' || s.charAt(i) == '}') {
-                // If the stack is empty, the string is not balanced
-                if (stack.isEmpty()) {
-                    return false;
+        private static Summary of(String s, int begin, int end) {
+            byte[] closers = new byte[16];
+            int nClosers = 0;
+            // Stack of the open parentheses with a sentinel, as in accept
+            byte[] st = new byte[64];
+            int d = 1;
+            boolean mismatch = false;
+            for (int i = begin; i < end; i++) {
+                byte cls = classOf(s.charAt(i));
+                if (cls == INVALID) {
+                    // The whole check fails, so the rest does not matter
+                    return new Summary(new byte[0], new byte[0], mismatch, true);
+                }
+                int kind = cls & KIND;
+                int close = (cls >>> 4) & 1;
+                // Not short-circuited, so that only one rarely taken branch remains
+                if (close != 0 & d == 1) {
+                    // Its open parenthesis can only be in a previous chunk
+                    if (nClosers == closers.length) {
+                        closers = Arrays.copyOf(closers, nClosers << 1);
+                    }
+                    closers[nClosers++] = (byte) kind;
+                    continue;
                 }
-                if (s.charAt(i) == ')' && stack.getFirst() == '(') {
-                    /*
-                     * If the character is the closing parentheses of the last
-                     * opening parentheses in the stack, it is removed from the
-                     * stack
-                     */
-                    stack.removeFirst();
-                } else if (s.charAt(i) == ']' && stack.getFirst() == '[') {
-                    stack.removeFirst();
-                } else if (s.charAt(i) == '}' && stack.getFirst() == '{') {
-                    stack.removeFirst();
-                } else {
-                    /*
-                     * If the character is not the closing parentheses of the
-                     * last opening parentheses in the stack, the string is not
-                     * balanced
-                     */
-                    return false;
+                if (d + 1 == st.length) {
+                    st = Arrays.copyOf(st, st.length << 1);
                 }
+                /*
+                 * After a mismatch the stack is still updated, but only
+                 * invalid characters can change the result
+                 */
+                mismatch |= close != 0 & st[d - 1] != kind;
+                st[d] = (byte) kind;
+                d += ((cls >>> 3) & 1) - close;
             }
+            return new Summary(Arrays.copyOf(closers, nClosers),
+                    Arrays.copyOfRange(st, 1, d), mismatch, false);
         }
+
         /*
-         * If the stack is empty, the string is balanced, otherwise it is not
-         * balanced
+         * Summary of the concatenation of the chunk of this summary and of the
+         * chunk of r, which follows it
          */
-        return stack.isEmpty();
+        private Summary combine(Summary r) {
+            if (invalid || r.invalid) {
+                return new Summary(new byte[0], new byte[0], false, true);
+            }
+            if (mismatch || r.mismatch) {
+                return new Summary(new byte[0], new byte[0], true, false);
+            }
+            // The open parentheses on the top match the first closing ones
+            int matched = Math.min(openers.length, r.closers.length);
+            for (int i = 0; i < matched; i++) {
+                if (openers[openers.length - 1 - i] != r.closers[i]) {
+                    return new Summary(new byte[0], new byte[0], true, false);
+                }
+            }
+            byte[] newClosers = new byte[closers.length + r.closers.length - matched];
+            System.arraycopy(closers, 0, newClosers, 0, closers.length);
+            System.arraycopy(r.closers, matched, newClosers, closers.length,
+                    r.closers.length - matched);
+            byte[] newOpeners = new byte[openers.length - matched + r.openers.length];
+            System.arraycopy(openers, 0, newOpeners, 0, openers.length - matched);
+            System.arraycopy(r.openers, 0, newOpeners, openers.length - matched,
+                    r.openers.length);
+            return new Summary(newClosers, newOpeners, false, false);
+        }
+    }
+
+    /*
+     * Task computing the summary of a part of the string, splitting it in two
+     * halves while it is longer than chunkSize
+     */
+    private static final class ChunkTask extends RecursiveTask<Summary> {
+        private static final long serialVersionUID = 1L;
+
+        private final String s;
+
+        private final int begin;
+
+        private final int end;
+
+        private final int chunkSize;
+
+        private ChunkTask(String s, int begin, int end, int chunkSize) {
+            this.s = s;
+            this.begin = begin;
+            this.end = end;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (end - begin <= chunkSize) {
+                return Summary.of(s, begin, end);
+            }
+            int middle = (begin + end) >>> 1;
+            ChunkTask left = new ChunkTask(s, begin, middle, chunkSize);
+            left.fork();
+            Summary right = new ChunkTask(s, middle, end, chunkSize).compute();
+            return left.join().combine(right);
+        }
     }
 
 }
@@ -1,5 +1,14 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class BalancedParenthesesCheckerTest {
@@ -38,4 +47,158 @@ class BalancedParenthesesCheckerTest {
         assertFalse(checker.check(" (\t ) } (([]))"));
     }
 
+
+    @Test
+    final void testLastError() {
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        assertTrue(checker.check("\r\f( )"));
+        assertNull(checker.getLastError());
+        assertFalse(checker.check("( }"));
+        assertEquals(BalancedParenthesesChecker.Error.MISMATCHED_CLOSING, checker.getLastError());
+        assertFalse(checker.check("( ["));
+        assertEquals(BalancedParenthesesChecker.Error.UNCLOSED, checker.getLastError());
+        // Un carattere non valido viene segnalato anche dopo un errore
+        assertThrows(IllegalArgumentException.class, () -> checker.check(") P"));
+        assertThrows(IllegalArgumentException.class, () -> checker.check("(\u00e8)"));
+        assertEquals(BalancedParenthesesChecker.Error.INVALID_CHARACTER, checker.getLastError());
+    }
+
+    private static ReadableByteChannel channel(String s) {
+        return Channels.newChannel(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    final void testCheckStream() throws IOException {
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        String[] inputs = { "", " (( [ \n  ( {\t ( \t) [   ] } ) \n ] ) ) ",
+                "( ([ ) ]) ", " } (([]))", "( { } ", "( ( \n [ ( P )] \t ))", "(\u00e8)" };
+        long[] offsets = { -1, -1, 5, 1, 6, 10, 1 };
+        BalancedParenthesesChecker.Error[] errors = { null, null,
+                BalancedParenthesesChecker.Error.MISMATCHED_CLOSING,
+                BalancedParenthesesChecker.Error.MISMATCHED_CLOSING,
+                BalancedParenthesesChecker.Error.UNCLOSED,
+                BalancedParenthesesChecker.Error.INVALID_CHARACTER,
+                BalancedParenthesesChecker.Error.INVALID_CHARACTER };
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(offsets[i], checker.check(new StringReader(inputs[i])), inputs[i]);
+            assertEquals(errors[i], checker.getLastError());
+            assertEquals(offsets[i], checker.check(channel(inputs[i])), inputs[i]);
+            assertEquals(errors[i], checker.getLastError());
+        }
+    }
+
+    @Test
+    final void testCheckLargeStream() throws IOException {
+        // Input più lungo di un blocco di lettura e molto annidato
+        int depth = 300000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("([{".charAt(i % 3));
+        }
+        sb.append(' ');
+        for (int i = depth - 1; i >= 0; i--) {
+            sb.append(")]}".charAt(i % 3));
+        }
+        String s = sb.toString();
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        assertTrue(checker.check(s));
+        assertEquals(-1, checker.check(new StringReader(s)));
+        assertEquals(-1, checker.check(channel(s)));
+        // Errore nell'ultimo carattere
+        String wrong = s.substring(0, s.length() - 1) + "]";
+        assertEquals(s.length() - 1, checker.check(new StringReader(wrong)));
+        assertEquals(s.length() - 1, checker.check(channel(wrong)));
+        assertEquals(s.length() - 1, checker.check(channel(s.substring(0, s.length() - 1))));
+        assertEquals(BalancedParenthesesChecker.Error.UNCLOSED, checker.getLastError());
+    }
+
+    @Test
+    final void testStackLimit() throws IOException {
+        // Con uno stack di al più 100 posizioni si possono avere 98 parentesi
+        // aperte insieme: lo stack cresce fino al limite e non oltre
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker(100);
+        StringBuilder open = new StringBuilder();
+        StringBuilder closed = new StringBuilder();
+        for (int i = 0; i < 98; i++) {
+            open.append('(');
+            closed.append(')');
+        }
+        String open98 = open.toString();
+        assertEquals(-1, checker.check(new StringReader(open98 + closed)));
+        assertEquals(98, checker.check(new StringReader(open98)));
+        assertEquals(BalancedParenthesesChecker.Error.UNCLOSED, checker.getLastError());
+        // Al limite si possono ancora chiudere parentesi, ma non aprirne
+        assertEquals(-1, checker.check(channel(open98 + " " + closed)));
+        assertThrows(IllegalStateException.class,
+                () -> checker.check(new StringReader(open98 + "(")));
+        assertThrows(IllegalStateException.class,
+                () -> checker.check(channel(open98 + "[")));
+    }
+
+    @Test
+    final void testCheckParallel() {
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        BalancedParenthesesChecker sequential = new BalancedParenthesesChecker();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random r = new Random(7);
+        // Sequenze casuali quasi bilanciate, divise in blocchi molto piccoli
+        for (int k = 0; k < 2000; k++) {
+            StringBuilder sb = new StringBuilder();
+            StringBuilder open = new StringBuilder();
+            int n = r.nextInt(200);
+            for (int i = 0; i < n; i++) {
+                int c = r.nextInt(20);
+                if (c < 8) {
+                    int kind = r.nextInt(3);
+                    sb.append("([{".charAt(kind));
+                    open.append(")]}".charAt(kind));
+                } else if (c < 16 && open.length() > 0) {
+                    sb.append(open.charAt(open.length() - 1));
+                    open.setLength(open.length() - 1);
+                } else if (c < 19) {
+                    sb.append(' ');
+                } else {
+                    sb.append(")]}".charAt(r.nextInt(3)));
+                }
+            }
+            if (r.nextBoolean()) {
+                sb.append(open.reverse());
+            }
+            if (r.nextInt(50) == 0) {
+                sb.insert(r.nextInt(sb.length() + 1), 'x');
+            }
+            String s = sb.toString();
+            int chunkSize = 1 + r.nextInt(8);
+            boolean invalid = s.indexOf('x') >= 0;
+            if (invalid) {
+                assertThrows(IllegalArgumentException.class, () -> checker.checkParallel(s, pool, chunkSize));
+                assertThrows(IllegalArgumentException.class, () -> sequential.check(s));
+            } else {
+                assertEquals(sequential.check(s), checker.checkParallel(s, pool, chunkSize), s);
+            }
+            assertEquals(sequential.getLastError(), checker.getLastError(), s);
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    final void testCheckParallelLarge() {
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 400000; i++) {
+            sb.append("{[(".charAt(i % 3));
+        }
+        for (int i = 400000 - 1; i >= 0; i--) {
+            sb.append("}])".charAt(i % 3));
+        }
+        String s = sb.toString();
+        assertTrue(checker.checkParallel(s));
+        assertTrue(checker.checkParallel(s, new ForkJoinPool(3)));
+        assertFalse(checker.checkParallel(s.substring(1)));
+        assertEquals(BalancedParenthesesChecker.Error.MISMATCHED_CLOSING, checker.getLastError());
+        assertFalse(checker.checkParallel(s.substring(0, s.length() - 1)));
+        assertEquals(BalancedParenthesesChecker.Error.UNCLOSED, checker.getLastError());
+        assertThrows(IllegalArgumentException.class, () -> checker.checkParallel(s + "?"));
+    }
+
 }
@@ -0,0 +1,150 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Misura la velocità del BalancedParenthesesChecker su sequenze bilanciate
+ * generate a caso, con MIN_SIZE caratteri che vengono moltiplicati ogni volta
+ * per FATTORE_INCREMENTO fino a MAX_SIZE, con un annidamento massimo di
+ * MAX_DEPTH parentesi. Ogni sequenza viene controllata come String, letta da
+ * uno StringReader, letta da un FileChannel su un file temporaneo e infine
+ * controllata in parallelo con checkParallel su ForkJoinPool con 1, 2, 4 e 8
+ * thread, per misurare la scalabilità del controllo a blocchi.
+ * 
+ * Sul file parentheses.csv vengono scritti per ogni modo e dimensione il
+ * tempo in millisecondi e la velocità in milioni di caratteri al secondo.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class BalancedParenthesesEvaluationFramework {
+
+    private static final int MIN_SIZE = 100000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 100000000;
+
+    private static final int MAX_DEPTH = 1000;
+
+    /*
+     * Numero di ripetizioni per ogni dimensione, la prima è di riscaldamento
+     * e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    private static final String[] MODES = { "String", "Reader", "Channel",
+            "Parallel1", "Parallel2", "Parallel4", "Parallel8" };
+
+    /*
+     * Il primo modo parallelo, il cui numero di thread è 1 e viene
+     * raddoppiato a ogni modo successivo
+     */
+    private static final int FIRST_PARALLEL_MODE = 3;
+
+    public static void main(String[] args) throws IOException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "parentheses.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "parentheses.csv");
+            System.exit(1);
+        }
+        o.println("Mode,Size,TimeMs,MCharsPerSec");
+        Random randomGenerator = new Random();
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        ForkJoinPool[] pools = new ForkJoinPool[MODES.length
+                - FIRST_PARALLEL_MODE];
+        for (int p = 0; p < pools.length; p++)
+            pools[p] = new ForkJoinPool(1 << p);
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            String s = generate(n, randomGenerator);
+            Path file = Files.createTempFile("parentheses", ".txt");
+            try {
+                try (BufferedWriter w = Files.newBufferedWriter(file,
+                        StandardCharsets.US_ASCII)) {
+                    w.write(s);
+                }
+                for (int mode = 0; mode < MODES.length; mode++)
+                    for (int k = 0; k < NUMBER_OF_SAMPLES_PER_SIZE; k++) {
+                        long start = System.nanoTime();
+                        boolean balanced;
+                        if (mode == 0)
+                            balanced = checker.check(s);
+                        else if (mode == 1)
+                            balanced = checker
+                                    .check(new StringReader(s)) == -1;
+                        else if (mode >= FIRST_PARALLEL_MODE)
+                            balanced = checker.checkParallel(s,
+                                    pools[mode - FIRST_PARALLEL_MODE]);
+                        else
+                            try (FileChannel ch = FileChannel.open(file,
+                                    StandardOpenOption.READ)) {
+                                balanced = checker.check(ch) == -1;
+                            }
+                        long elapsed = System.nanoTime() - start;
+                        if (!balanced)
+                            throw new IllegalStateException(
+                                    "Sequenza generata non bilanciata");
+                        if (k > 0) // la prima ripetizione è di riscaldamento
+                            o.println(MODES[mode] + "," + n + ","
+                                    + elapsed / 1e6 + ","
+                                    + n * 1e3 / elapsed);
+                    }
+            } finally {
+                Files.delete(file);
+            }
+            System.out.println("Completate le misure per " + n + " caratteri");
+        }
+        o.close();
+        for (ForkJoinPool pool : pools)
+            pool.shutdown();
+    }
+
+    /*
+     * Genera una sequenza bilanciata di n caratteri, con spazi, tab e a capo
+     */
+    private static String generate(int n, Random randomGenerator) {
+        char[] c = new char[n];
+        // I tipi delle parentesi aperte, come indici in "([{"
+        byte[] open = new byte[MAX_DEPTH];
+        int depth = 0;
+        int i = 0;
+        while (i < n - depth) {
+            int k = randomGenerator.nextInt(10);
+            if (k < 2)
+                c[i++] = " \t\n".charAt(randomGenerator.nextInt(3));
+            else if (k < 6 && depth < MAX_DEPTH && i < n - depth - 1) {
+                open[depth] = (byte) randomGenerator.nextInt(3);
+                c[i++] = "([{".charAt(open[depth++]);
+            } else if (depth > 0)
+                c[i++] = ")]}".charAt(open[--depth]);
+            else
+                c[i++] = ' ';
+        }
+        while (depth > 0)
+            c[i++] = ")]}".charAt(open[--depth]);
+        return new String(c);
+    }
+
+}
@@ -0,0 +1,138 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Misura il numero di espressioni brevi validate al secondo creando un nuovo
+ * BalancedParenthesesChecker per ogni espressione, riusando lo stesso
+ * checker in un solo thread e usando un BalancedParenthesesBatchValidator
+ * con 1, 2, 4 e 8 thread. Le espressioni sono NUMBER_OF_INPUTS sequenze
+ * casuali di parentesi e spazi lunghe fino a MAX_LENGTH caratteri, una su
+ * INVALID_RATIO con un carattere non valido.
+ * 
+ * Sul file batchvalidation.csv vengono scritti per ogni modo il tempo totale
+ * in millisecondi e il numero di espressioni validate al secondo. I
+ * risultati dei modi con più thread dipendono dal numero di processori
+ * disponibili.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class BatchValidationEvaluationFramework {
+
+    private static final int NUMBER_OF_INPUTS = 2000000;
+
+    private static final int MAX_LENGTH = 40;
+
+    private static final int INVALID_RATIO = 100;
+
+    /*
+     * Numero di ripetizioni per ogni modo, la prima è di riscaldamento e non
+     * viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    private static final String[] MODES = { "NewCheckerPerInput",
+            "ReusedChecker", "Batch1", "Batch2", "Batch4", "Batch8" };
+
+    /*
+     * Il primo modo con il validatore, il cui numero di thread è 1 e viene
+     * raddoppiato a ogni modo successivo
+     */
+    private static final int FIRST_BATCH_MODE = 2;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "batchvalidation.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "batchvalidation.csv");
+            System.exit(1);
+        }
+        Random randomGenerator = new Random();
+        List<String> inputs = new ArrayList<String>(NUMBER_OF_INPUTS);
+        for (int i = 0; i < NUMBER_OF_INPUTS; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = randomGenerator.nextInt(MAX_LENGTH + 1);
+            for (int j = 0; j < length; j++)
+                sb.append("()[]{} ".charAt(randomGenerator.nextInt(7)));
+            if (randomGenerator.nextInt(INVALID_RATIO) == 0)
+                sb.append('?');
+            inputs.add(sb.toString());
+        }
+        o.println("Mode,Inputs,TimeMs,InputsPerSec");
+        BitSet expected = null;
+        for (int mode = 0; mode < MODES.length; mode++) {
+            BalancedParenthesesBatchValidator validator = null;
+            if (mode >= FIRST_BATCH_MODE)
+                validator = new BalancedParenthesesBatchValidator(
+                        1 << (mode - FIRST_BATCH_MODE));
+            for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                long start = System.nanoTime();
+                BitSet result;
+                if (mode == 0)
+                    result = checkWithNewCheckers(inputs);
+                else if (mode == 1)
+                    result = checkWithOneChecker(inputs);
+                else
+                    result = validator.validate(inputs);
+                long elapsed = System.nanoTime() - start;
+                if (expected == null)
+                    expected = result;
+                else if (!expected.equals(result))
+                    throw new IllegalStateException("Risultati diversi per "
+                            + MODES[mode]);
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(MODES[mode] + "," + NUMBER_OF_INPUTS + ","
+                            + elapsed / 1e6 + ","
+                            + (long) (NUMBER_OF_INPUTS * 1e9 / elapsed));
+            }
+            if (validator != null)
+                validator.close();
+            System.out.println("Completate le misure per " + MODES[mode]);
+        }
+        o.close();
+    }
+
+    /*
+     * Come faceva chi usava il checker: un checker per ogni espressione e
+     * un'eccezione per ogni espressione non valida
+     */
+    private static BitSet checkWithNewCheckers(List<String> inputs) {
+        BitSet result = new BitSet(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            try {
+                if (new BalancedParenthesesChecker().check(inputs.get(i)))
+                    result.set(i);
+            } catch (IllegalArgumentException e) {
+                // Non bilanciata
+            }
+        }
+        return result;
+    }
+
+    private static BitSet checkWithOneChecker(List<String> inputs) {
+        BalancedParenthesesChecker checker = new BalancedParenthesesChecker();
+        BitSet result = new BitSet(inputs.size());
+        for (int i = 0; i < inputs.size(); i++)
+            if (checker.isBalanced(inputs.get(i)))
+                result.set(i);
+        return result;
+    }
+
+}
@@ -0,0 +1,506 @@
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the Java SE Double-ended Queue (Deque) interface
+ * (<code>java.util.Deque</code>) based on a circular array. Like
+ * <code>ASDL2223Deque</code>, this deque does not have capacity restrictions,
+ * duplicated elements are permitted while <code>null</code> elements are not
+ * permitted, and its iterators are fail-fast.
+ * <p>
+ * The elements are kept in an array whose length is a power of 2, starting
+ * from the position <code>head</code> and wrapping around the end of the
+ * array. When the array is full its length is doubled. Differently from the
+ * linked implementation, adding an element does not allocate a node, so a
+ * deque used as a stack or as a queue does not produce garbage once the array
+ * has reached the maximum size needed, and the elements are contiguous in
+ * memory.
+ * <p>
+ * Inserting or removing at both ends takes constant (amortized) time;
+ * removing an element in the middle moves the elements of the shorter side
+ * of the deque.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class CircularArrayDeque<E> implements Deque<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /*
+     * The largest power of 2 that can be the length of an array
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /*
+     * The circular array containing the elements; its length is always a power
+     * of 2, so that positions can be wrapped with a mask
+     */
+    private Object[] elements;
+
+    /*
+     * Position of the first element of this deque
+     */
+    private int head;
+
+    /*
+     * Current number of elements in this deque
+     */
+    private int size;
+
+    /*
+     * Current number of modifications to this deque
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public CircularArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that can contain the given number of elements
+     * without growing.
+     *
+     * @param initialCapacity the initial number of elements that can be stored
+     * @throws IllegalArgumentException if initialCapacity is negative or
+     *                                  greater than 2<sup>30</sup>
+     */
+    public CircularArrayDeque(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.elements = new Object[capacity];
+        this.head = 0;
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    /*
+     * Position in the array of the i-th element of this deque
+     */
+    private int index(int i) {
+        return (head + i) & (elements.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) elements[index(i)];
+    }
+
+    /*
+     * Double the length of the array, moving the first element to position 0
+     */
+    private void grow() {
+        if (elements.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The deque is full.");
+        }
+        Object[] newElements = new Object[elements.length << 1];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+        elements = newElements;
+        head = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, array, 0, firstPart);
+        System.arraycopy(elements, 0, array, firstPart, size - firstPart);
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        T[] array = a;
+        if (a.length < size) {
+            array = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, array, 0, firstPart);
+        System.arraycopy(elements, 0, array, firstPart, size - firstPart);
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return array;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!this.contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        for (E e : c) {
+            this.addLast(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeMatching(c, true);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return removeMatching(c, false);
+    }
+
+    /*
+     * Remove the elements that are contained in c, if remove is true, or that
+     * are not contained in c, otherwise, compacting the remaining ones towards
+     * the head in a single pass
+     */
+    private boolean removeMatching(Collection<?> c, boolean remove) {
+        if (c == null) {
+            throw new NullPointerException("Null collection.");
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            E e = elementAt(i);
+            if (c.contains(e) != remove) {
+                elements[index(kept)] = e;
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        for (int i = kept; i < size; i++) {
+            elements[index(i)] = null;
+        }
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[index(i)] = null;
+        }
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        elements[index(size)] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        this.addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        @SuppressWarnings("unchecked")
+        E e = (E) elements[head];
+        // The reference is cleared so that the element can be collected
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return e;
+    }
+
+    @Override
+    public E removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        int last = index(size - 1);
+        @SuppressWarnings("unchecked")
+        E e = (E) elements[last];
+        elements[last] = null;
+        size--;
+        modCount++;
+        return e;
+    }
+
+    @Override
+    public E pollFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return removeFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        if (size == 0) {
+            return null;
+        }
+        return removeLast();
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return elementAt(0);
+    }
+
+    @Override
+    public E getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return elementAt(size - 1);
+    }
+
+    @Override
+    public E peekFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return elementAt(0);
+    }
+
+    @Override
+    public E peekLast() {
+        if (size == 0) {
+            return null;
+        }
+        return elementAt(size - 1);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        for (int i = 0; i < size; i++) {
+            if (o.equals(elementAt(i))) {
+                delete(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (o.equals(elementAt(i))) {
+                delete(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Remove the i-th element of this deque, moving by one position the
+     * elements between it and the nearest end of the deque
+     */
+    private void delete(int i) {
+        if (i < size / 2) {
+            // The elements before i are moved towards the tail
+            for (int j = i; j > 0; j--) {
+                elements[index(j)] = elements[index(j - 1)];
+            }
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+        } else {
+            // The elements after i are moved towards the head
+            for (int j = i; j < size - 1; j++) {
+                elements[index(j)] = elements[index(j + 1)];
+            }
+            elements[index(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return this.offerLast(e);
+    }
+
+    @Override
+    public E remove() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return this.pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return this.getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return this.peekFirst();
+    }
+
+    @Override
+    public void push(E e) {
+        this.addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        for (int i = 0; i < size; i++) {
+            if (o.equals(elementAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(false);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new Itr(true);
+    }
+
+    /*
+     * Class for implementing the iterators of this deque, in both directions.
+     * The iterator is fail-fast: it detects if during the iteration a
+     * modification to the original deque was done and, if so, it launches a
+     * <code>ConcurrentModificationException</code> as soon as a call to the
+     * method <code>next()</code> is done.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final boolean descending;
+
+        /*
+         * Number of elements already returned
+         */
+        private int returned;
+
+        /*
+         * The number of modifications to the original deque when this
+         * iterator was created.
+         */
+        private final int expectedModCount;
+
+        Itr(boolean descending) {
+            this.descending = descending;
+            this.returned = 0;
+            this.expectedModCount = modCount;
+        }
+
+        public boolean hasNext() {
+            return returned < size;
+        }
+
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("The deque has been modified.");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements in the deque.");
+            }
+            int i = descending ? size - 1 - returned : returned;
+            returned++;
+            return elementAt(i);
+        }
+    }
+
+    /*
+     * This method is only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.elements.length;
+    }
+}
@@ -0,0 +1,199 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircularArrayDequeTest {
+
+    @Test
+    final void testCircularArrayDeque() {
+        CircularArrayDeque<String> dq = new CircularArrayDeque<String>();
+        assertTrue(dq.isEmpty());
+        assertTrue(dq.size() == 0);
+        assertTrue(dq.getCapacity() == 16);
+        assertTrue(new CircularArrayDeque<String>(17).getCapacity() == 32);
+        assertTrue(new CircularArrayDeque<String>(0).getCapacity() == 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircularArrayDeque<String>(-1));
+    }
+
+    @Test
+    final void testStackAndQueue() {
+        CircularArrayDeque<String> dq = new CircularArrayDeque<String>(2);
+        assertThrows(NullPointerException.class, () -> dq.push(null));
+        assertThrows(NullPointerException.class, () -> dq.offer(null));
+        assertThrows(NoSuchElementException.class, () -> dq.pop());
+        assertThrows(NoSuchElementException.class, () -> dq.getLast());
+        assertNull(dq.poll());
+        assertNull(dq.peekLast());
+        dq.push("Pippo");
+        dq.push("Pluto");
+        dq.push("Paperino");
+        assertTrue(dq.getCapacity() == 4);
+        assertTrue(dq.peek().equals("Paperino"));
+        assertTrue(dq.getLast().equals("Pippo"));
+        assertTrue(dq.pop().equals("Paperino"));
+        dq.offer("Minnie");
+        assertTrue(dq.poll().equals("Pluto"));
+        assertTrue(dq.pollLast().equals("Minnie"));
+        assertTrue(dq.remove().equals("Pippo"));
+        assertTrue(dq.isEmpty());
+    }
+
+    @Test
+    final void testWrapAround() {
+        CircularArrayDeque<Integer> dq = new CircularArrayDeque<Integer>(4);
+        // Gli elementi attraversano più volte la fine dell'array
+        for (int i = 0; i < 100; i++) {
+            dq.addLast(i);
+            dq.addLast(i + 1000);
+            assertTrue(dq.removeFirst() == (i % 2 == 0 ? i / 2 : i / 2 + 1000));
+        }
+        // Crescita con gli elementi divisi in due parti dell'array
+        CircularArrayDeque<Integer> d = new CircularArrayDeque<Integer>(8);
+        for (int i = 0; i < 4; i++) {
+            d.addLast(i);
+            d.addFirst(-i - 1);
+        }
+        d.addLast(4);
+        assertTrue(d.getCapacity() == 16);
+        assertArrayEquals(new Object[] { -4, -3, -2, -1, 0, 1, 2, 3, 4 },
+                d.toArray());
+        Integer[] a = d.toArray(new Integer[12]);
+        assertTrue(a[8] == 4 && a[9] == null);
+        assertTrue(d.toArray(new Integer[0]).length == 9);
+    }
+
+    @Test
+    final void testRemoveObject() {
+        CircularArrayDeque<String> d = new CircularArrayDeque<String>(4);
+        d.add("Pippo");
+        d.add("Pluto");
+        d.addFirst("Minnie");
+        d.add("Pippo");
+        d.add("Qui");
+        assertThrows(NullPointerException.class, () -> d.remove(null));
+        assertThrows(NullPointerException.class, () -> d.contains(null));
+        assertFalse(d.remove("Topolino"));
+        assertTrue(d.removeLastOccurrence("Pippo"));
+        assertArrayEquals(new Object[] { "Minnie", "Pippo", "Pluto", "Qui" },
+                d.toArray());
+        assertTrue(d.remove("Pippo"));
+        assertArrayEquals(new Object[] { "Minnie", "Pluto", "Qui" },
+                d.toArray());
+        assertTrue(d.contains("Qui"));
+        assertFalse(d.contains("Pippo"));
+        assertTrue(d.removeFirstOccurrence("Qui"));
+        assertTrue(d.removeFirstOccurrence("Minnie"));
+        assertArrayEquals(new Object[] { "Pluto" }, d.toArray());
+    }
+
+    @Test
+    final void testBulkOperations() {
+        CircularArrayDeque<String> d = new CircularArrayDeque<String>(2);
+        assertFalse(d.addAll(new ArrayList<String>()));
+        assertTrue(d.addAll(List.of("Qui", "Quo", "Qua", "Pippo", "Qui")));
+        assertTrue(d.containsAll(Set.of("Qui", "Pippo")));
+        assertFalse(d.containsAll(Set.of("Qui", "Pluto")));
+        assertTrue(d.removeAll(Set.of("Qui", "Pluto")));
+        assertArrayEquals(new Object[] { "Quo", "Qua", "Pippo" }, d.toArray());
+        assertFalse(d.removeAll(Set.of("Pluto")));
+        assertTrue(d.retainAll(Set.of("Pippo", "Quo")));
+        assertArrayEquals(new Object[] { "Quo", "Pippo" }, d.toArray());
+        d.clear();
+        assertTrue(d.isEmpty());
+        assertNull(d.peekFirst());
+    }
+
+    @Test
+    final void testIterator() {
+        CircularArrayDeque<String> d = new CircularArrayDeque<String>(2);
+        d.add("Pippo");
+        d.add("Pluto");
+        d.add("Minnie");
+        d.add("Pippo");
+        Iterator<String> it = d.iterator();
+        assertTrue(it.hasNext());
+        assertTrue(it.next().equals("Pippo"));
+        assertTrue(it.next().equals("Pluto"));
+        d.add("Topolino");
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+        Iterator<String> it1 = d.iterator();
+        assertTrue(it1.next().equals("Pippo"));
+        assertTrue(it1.next().equals("Pluto"));
+        assertTrue(it1.next().equals("Minnie"));
+        assertTrue(it1.next().equals("Pippo"));
+        assertTrue(it1.hasNext());
+        assertTrue(it1.next().equals("Topolino"));
+        assertFalse(it1.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it1.next());
+        d.clear();
+        Iterator<String> it2 = d.iterator();
+        assertFalse(it2.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it2.next());
+        d.add("Pippo");
+        assertThrows(ConcurrentModificationException.class, () -> it2.next());
+        Iterator<String> it3 = d.iterator();
+        d.clear();
+        assertThrows(ConcurrentModificationException.class, () -> it3.next());
+    }
+
+    @Test
+    final void testDescendingIterator() {
+        CircularArrayDeque<String> d = new CircularArrayDeque<String>(2);
+        d.add("Pippo");
+        d.add("Pluto");
+        d.addFirst("Minnie");
+        Iterator<String> it = d.descendingIterator();
+        assertTrue(it.next().equals("Pluto"));
+        assertTrue(it.next().equals("Pippo"));
+        assertTrue(it.hasNext());
+        assertTrue(it.next().equals("Minnie"));
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it.next());
+        Iterator<String> it1 = d.descendingIterator();
+        assertTrue(it1.next().equals("Pluto"));
+        d.removeLast();
+        assertThrows(ConcurrentModificationException.class, () -> it1.next());
+    }
+
+    @Test
+    final void testAgainstArrayDeque() {
+        // Sequenza casuale di operazioni confrontata con java.util.ArrayDeque
+        Random r = new Random(42);
+        CircularArrayDeque<Integer> d = new CircularArrayDeque<Integer>(1);
+        ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+        for (int i = 0; i < 20000; i++) {
+            int op = r.nextInt(7);
+            Integer e = r.nextInt(50);
+            if (op == 0) {
+                d.addFirst(e);
+                expected.addFirst(e);
+            } else if (op == 1 || op == 2) {
+                d.addLast(e);
+                expected.addLast(e);
+            } else if (op == 3) {
+                assertEquals(expected.pollFirst(), d.pollFirst());
+            } else if (op == 4) {
+                assertEquals(expected.pollLast(), d.pollLast());
+            } else if (op == 5) {
+                assertEquals(expected.removeFirstOccurrence(e),
+                        d.removeFirstOccurrence(e));
+            } else {
+                assertEquals(expected.removeLastOccurrence(e),
+                        d.removeLastOccurrence(e));
+            }
+            assertEquals(expected.size(), d.size());
+            assertEquals(expected.peekFirst(), d.peekFirst());
+            assertEquals(expected.peekLast(), d.peekLast());
+        }
+        assertArrayEquals(expected.toArray(), d.toArray());
+        Iterator<Integer> it = expected.descendingIterator();
+        Iterator<Integer> it1 = d.descendingIterator();
+        while (it.hasNext())
+            assertEquals(it.next(), it1.next());
+        assertFalse(it1.hasNext());
+    }
+
+}
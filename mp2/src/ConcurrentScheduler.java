@@ -0,0 +1,246 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versione thread-safe dello Scheduler, pensata per molti thread produttori
+ * che inseriscono job e un insieme di thread esecutori che prelevano il
+ * prossimo job da eseguire.
+ * <p>
+ * La coda di min-priorità non è thread-safe, per cui viene usata solo da chi
+ * possiede un lock. Per non far aspettare i produttori su questo lock,
+ * schedule inserisce il job in una coda di ingresso lock-free e ritorna
+ * subito; i job della coda di ingresso vengono trasferiti nella coda di
+ * min-priorità dal primo thread che prende il lock per estrarre o anticipare
+ * un job. In questo modo il job restituito è sempre quello con scadenza più
+ * ravvicinata tra tutti quelli inseriti prima della richiesta.
+ * <p>
+ * Gli esecutori possono aspettare un job senza limiti di tempo, con un tempo
+ * massimo o non aspettare affatto. anticipateJob è thread-safe e usa la handle
+ * del job come la versione sequenziale, per cui un job deve essere anticipato
+ * solo attraverso questo scheduler e solo mentre è in attesa di essere
+ * eseguito.
+ *
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class ConcurrentScheduler {
+
+    private final MinPriorityQueue queue;
+
+    /*
+     * Coda di ingresso dei job inseriti e non ancora trasferiti nella coda di
+     * min-priorità.
+     */
+    private final ConcurrentLinkedQueue<Job> inbox;
+
+    private final ReentrantLock lock;
+
+    /*
+     * Condizione su cui aspettano gli esecutori quando non ci sono job.
+     */
+    private final Condition notEmpty;
+
+    /*
+     * Numero di esecutori in attesa. I produttori prendono il lock per
+     * svegliarne uno solo se questo numero è positivo.
+     */
+    private final AtomicInteger waiting;
+
+    /**
+     * Costruisce un nuovo scheduler che usa una TernaryHeapMinPriorityQueue.
+     */
+    public ConcurrentScheduler() {
+        this(new TernaryHeapMinPriorityQueue());
+    }
+
+    /**
+     * Costruisce un nuovo scheduler che usa la coda di min-priorità data. La
+     * coda non deve essere usata da nessun altro dopo la creazione dello
+     * scheduler.
+     *
+     * @param queue
+     *                  la coda da usare, che deve essere vuota
+     * @throws NullPointerException
+     *                                      se la coda è null
+     * @throws IllegalArgumentException
+     *                                      se la coda non è vuota
+     */
+    public ConcurrentScheduler(MinPriorityQueue queue) {
+        if (queue == null)
+            throw new NullPointerException("Coda nulla");
+        if (queue.size() != 0)
+            throw new IllegalArgumentException("La coda non è vuota");
+        this.queue = queue;
+        this.inbox = new ConcurrentLinkedQueue<Job>();
+        this.lock = new ReentrantLock();
+        this.notEmpty = this.lock.newCondition();
+        this.waiting = new AtomicInteger(0);
+    }
+
+    /**
+     * Inserisce un nuovo job nello scheduler senza bloccarsi. Il job deve
+     * avere una deadline già fissata.
+     *
+     * @param j
+     *              il nuovo job da inserire
+     * @throws NullPointerException
+     *                                  se il job è null
+     */
+    public void schedule(Job j) {
+        if (j == null)
+            throw new NullPointerException("Job nullo");
+        this.inbox.add(j);
+        // Un esecutore in attesa incrementa waiting prima di guardare la coda
+        // di ingresso, per cui o vede questo job o viene svegliato qui
+        if (this.waiting.get() > 0) {
+            this.lock.lock();
+            try {
+                this.notEmpty.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Trasferisce i job della coda di ingresso nella coda di min-priorità. Da
+     * chiamare solo con il lock.
+     */
+    private void drainInbox() {
+        Job j;
+        while ((j = this.inbox.poll()) != null)
+            this.queue.insert(j);
+    }
+
+    /**
+     * Estrae il prossimo job da eseguire, cioè quello con scadenza più
+     * ravvicinata, aspettando se non ce ne sono.
+     *
+     * @return il prossimo job da eseguire
+     * @throws InterruptedException
+     *                                  se il thread viene interrotto durante
+     *                                  l'attesa
+     */
+    public Job getNextJobToExecute() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            drainInbox();
+            if (this.queue.size() == 0) {
+                this.waiting.incrementAndGet();
+                try {
+                    drainInbox();
+                    while (this.queue.size() == 0) {
+                        this.notEmpty.await();
+                        drainInbox();
+                    }
+                } finally {
+                    this.waiting.decrementAndGet();
+                }
+            }
+            return (Job) this.queue.extractMinimum();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Estrae il prossimo job da eseguire, aspettando al più il tempo dato se
+     * non ce ne sono.
+     *
+     * @param timeout
+     *                    il tempo massimo di attesa
+     * @param unit
+     *                    l'unità di misura di timeout
+     * @return il prossimo job da eseguire, oppure null se è scaduto il tempo
+     *         senza che ci fossero job
+     * @throws InterruptedException
+     *                                  se il thread viene interrotto durante
+     *                                  l'attesa
+     */
+    public Job getNextJobToExecute(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            drainInbox();
+            if (this.queue.size() == 0) {
+                this.waiting.incrementAndGet();
+                try {
+                    drainInbox();
+                    while (this.queue.size() == 0) {
+                        if (nanos <= 0)
+                            return null;
+                        nanos = this.notEmpty.awaitNanos(nanos);
+                        drainInbox();
+                    }
+                } finally {
+                    this.waiting.decrementAndGet();
+                }
+            }
+            return (Job) this.queue.extractMinimum();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Estrae il prossimo job da eseguire senza aspettare.
+     *
+     * @return il prossimo job da eseguire, oppure null se non ci sono job
+     */
+    public Job tryGetNextJobToExecute() {
+        this.lock.lock();
+        try {
+            drainInbox();
+            if (this.queue.size() == 0)
+                return null;
+            return (Job) this.queue.extractMinimum();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Anticipa un certo job di un certo tempo specificato.
+     *
+     * @param j
+     *                   il job da anticipare
+     * @param amount
+     *                   la quantità di tempo da anticipare
+     * @throws IllegalArgumentException
+     *                                      se amount è <= 0
+     * @throws NoSuchElementException
+     *                                      se il job non è in attesa in
+     *                                      questo scheduler
+     */
+    public void anticipateJob(Job j, double amount) {
+        if (amount <= 0)
+            throw new IllegalArgumentException(
+                    "Anticipo di un job di un tempo non positivo");
+        this.lock.lock();
+        try {
+            // Il job potrebbe essere ancora nella coda di ingresso
+            drainInbox();
+            this.queue.decreasePriority(j, j.getPriority() - amount);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return il numero di job in attesa di essere eseguiti
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            drainInbox();
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
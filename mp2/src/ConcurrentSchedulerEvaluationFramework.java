@@ -0,0 +1,136 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Misura throughput e latenza del ConcurrentScheduler con un numero crescente
+ * di thread, da 1 a MAX_THREADS. Con t thread si usano t produttori e t
+ * esecutori (per t = 1 un produttore e un esecutore): ogni produttore
+ * inserisce JOBS_PER_RUN / t job e gli esecutori li estraggono tutti. La
+ * deadline di ogni job è l'istante di inserimento in nanosecondi, per cui lo
+ * scheduler si comporta come una coda in ordine di arrivo e la latenza di un
+ * job è il tempo tra il suo inserimento e la sua estrazione. Sul file
+ * concurrentscheduler.csv vengono scritti per ogni numero di thread il
+ * throughput in job al secondo e la latenza media, mediana e al 99esimo
+ * percentile in nanosecondi.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class ConcurrentSchedulerEvaluationFramework {
+
+    private static final int MAX_THREADS = 64;
+
+    private static final int JOBS_PER_RUN = 1 << 20;
+
+    /*
+     * Numero di ripetizioni per ogni numero di thread, la prima è di
+     * riscaldamento e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "concurrentscheduler.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "concurrentscheduler.csv");
+            System.exit(1);
+        }
+        o.println("Threads,JobsPerSec,MeanLatencyNs,MedianLatencyNs,"
+                + "P99LatencyNs");
+        for (int t = 1; t <= MAX_THREADS; t *= 2) {
+            for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                String line = run(t);
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(line);
+            }
+            System.out.println("Completate le misure per " + t + " thread");
+        }
+        o.close();
+    }
+
+    /*
+     * Esegue una misura con t produttori e t esecutori e restituisce la riga
+     * da scrivere nel file.
+     */
+    private static String run(int t) throws InterruptedException {
+        ConcurrentScheduler scheduler = new ConcurrentScheduler();
+        int jobsPerProducer = JOBS_PER_RUN / t;
+        int total = jobsPerProducer * t;
+        long[] latencies = new long[total];
+        int[] nextLatency = { 0 };
+        CountDownLatch startSignal = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2 * t);
+        for (int p = 0; p < t; p++) {
+            new Thread(() -> {
+                awaitQuietly(startSignal);
+                for (int i = 0; i < jobsPerProducer; i++)
+                    scheduler.schedule(new Job("Job", System.nanoTime()));
+                done.countDown();
+            }).start();
+        }
+        // Ogni esecutore raccoglie le sue latenze e le copia alla fine
+        int[] remaining = { total };
+        for (int e = 0; e < t; e++) {
+            new Thread(() -> {
+                awaitQuietly(startSignal);
+                long[] mine = new long[total];
+                int count = 0;
+                try {
+                    while (true) {
+                        synchronized (remaining) {
+                            if (remaining[0] == 0)
+                                break;
+                            remaining[0]--;
+                        }
+                        Job j = scheduler.getNextJobToExecute();
+                        mine[count++] = System.nanoTime()
+                                - (long) j.getDeadline();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (latencies) {
+                    System.arraycopy(mine, 0, latencies, nextLatency[0],
+                            count);
+                    nextLatency[0] += count;
+                }
+                done.countDown();
+            }).start();
+        }
+        long start = System.nanoTime();
+        startSignal.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        long sum = 0;
+        for (long l : latencies)
+            sum += l;
+        return t + "," + (long) (total * 1e9 / elapsed) + "," + sum / total
+                + "," + latencies[total / 2] + ","
+                + latencies[(int) (total * 0.99)];
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
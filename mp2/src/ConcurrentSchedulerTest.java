@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentSchedulerTest {
+
+    @Test
+    final void testOrderSingleThread() throws InterruptedException {
+        ConcurrentScheduler s = new ConcurrentScheduler();
+        assertThrows(NullPointerException.class, () -> s.schedule(null));
+        assertNull(s.tryGetNextJobToExecute());
+        Job j30 = new Job("Job30", 30);
+        Job j25 = new Job("Job25", 25);
+        Job j41 = new Job("Job41", 41);
+        s.schedule(j30);
+        s.schedule(j25);
+        s.schedule(j41);
+        assertTrue(s.size() == 3);
+        assertTrue(s.getNextJobToExecute() == j25);
+        assertTrue(s.getNextJobToExecute(1, TimeUnit.SECONDS) == j30);
+        assertTrue(s.tryGetNextJobToExecute() == j41);
+        assertTrue(s.size() == 0);
+    }
+
+    @Test
+    final void testTimeout() throws InterruptedException {
+        ConcurrentScheduler s = new ConcurrentScheduler();
+        long start = System.nanoTime();
+        assertNull(s.getNextJobToExecute(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    final void testAnticipateJob() throws InterruptedException {
+        ConcurrentScheduler s = new ConcurrentScheduler(
+                new PairingHeapMinPriorityQueue());
+        Job j30 = new Job("Job30", 30);
+        Job j25 = new Job("Job25", 25);
+        s.schedule(j30);
+        s.schedule(j25);
+        // j30 può essere ancora nella coda di ingresso
+        s.anticipateJob(j30, 10);
+        assertThrows(IllegalArgumentException.class, () -> s.anticipateJob(j30, 0));
+        assertTrue(s.getNextJobToExecute() == j30);
+        assertThrows(NoSuchElementException.class, () -> s.anticipateJob(j30, 1));
+    }
+
+    @Test
+    final void testBlockedExecutorIsWokenUp() throws InterruptedException {
+        ConcurrentScheduler s = new ConcurrentScheduler();
+        List<Job> taken = new ArrayList<Job>();
+        Thread executor = new Thread(() -> {
+            try {
+                taken.add(s.getNextJobToExecute());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.start();
+        Thread.sleep(50);
+        Job j = new Job("Job", 1);
+        s.schedule(j);
+        executor.join(5000);
+        assertTrue(!executor.isAlive());
+        assertTrue(taken.size() == 1 && taken.get(0) == j);
+    }
+
+    @Test
+    final void testManyProducersAndExecutors() throws InterruptedException {
+        final int producers = 4;
+        final int executors = 4;
+        final int jobsPerProducer = 20000;
+        ConcurrentScheduler s = new ConcurrentScheduler();
+        ConcurrentHashMap<Job, Boolean> extracted = new ConcurrentHashMap<Job, Boolean>();
+        AtomicInteger duplicates = new AtomicInteger(0);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < jobsPerProducer; i++) {
+                    Job j = new Job("Job" + id + "_" + i, i);
+                    s.schedule(j);
+                    if (i % 10 == 0)
+                        try {
+                            s.anticipateJob(j, 0.5);
+                        } catch (NoSuchElementException e) {
+                            // già estratto da un esecutore
+                        }
+                }
+            }));
+        }
+        for (int e = 0; e < executors; e++) {
+            threads.add(new Thread(() -> {
+                try {
+                    Job j;
+                    while ((j = s.getNextJobToExecute(500,
+                            TimeUnit.MILLISECONDS)) != null)
+                        if (extracted.put(j, Boolean.TRUE) != null)
+                            duplicates.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join(30000);
+        assertTrue(duplicates.get() == 0);
+        assertTrue(extracted.size() == producers * jobsPerProducer);
+        assertTrue(s.size() == 0);
+    }
+
+}
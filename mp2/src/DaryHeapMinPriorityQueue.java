@@ -0,0 +1,250 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that provides an implementation of a "dynamic" min-priority queue based
+ * on a d-ary heap, where the arity d is chosen at construction time.
+ * <p>
+ * Unlike <code>TernaryHeapMinPriorityQueue</code>, the heap is stored in two
+ * parallel arrays: one with the elements and one with their priorities. All
+ * the comparisons made while sifting elements up and down read the
+ * <code>double[]</code> array directly, without calling
+ * <code>getPriority()</code> on the elements, so they neither go through the
+ * interface nor touch the element objects. The elements are only accessed to
+ * update their handles, which are always kept equal to their index in the
+ * arrays.
+ * <p>
+ * The priority of an element is read once, when it is inserted, and then
+ * changed only through <code>decreasePriority</code>, which updates both the
+ * array and the element. Changing the priority of an element in the queue in
+ * any other way leaves the queue inconsistent.
+ * <p>
+ * This min-priority queue does not have capacity restrictions. Duplicated
+ * elements are permitted while <code>null</code> elements are not permitted.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class DaryHeapMinPriorityQueue implements MinPriorityQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * The arity of the heap: the children of position i are the positions from
+     * d * i + 1 to d * i + d, and its parent is (i - 1) / d.
+     */
+    private final int d;
+
+    private PriorityQueueElement[] elements;
+
+    /*
+     * priorities[i] is the priority of elements[i].
+     */
+    private double[] priorities;
+
+    private int size;
+
+    /**
+     * Create an empty queue with the given arity.
+     *
+     * @param d the arity of the heap
+     * @throws IllegalArgumentException if d is less than 2
+     */
+    public DaryHeapMinPriorityQueue(int d) {
+        if (d < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + d);
+        }
+        this.d = d;
+        this.elements = new PriorityQueueElement[INITIAL_CAPACITY];
+        this.priorities = new double[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Create an empty ternary queue.
+     */
+    public DaryHeapMinPriorityQueue() {
+        this(3);
+    }
+
+    /**
+     * @return the arity of the heap
+     */
+    public int getArity() {
+        return this.d;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void insert(PriorityQueueElement element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        if (this.size == this.elements.length) {
+            grow(this.size + 1);
+        }
+        siftUp(this.size++, element, element.getPriority());
+    }
+
+    /*
+     * Enlarge the arrays so that they can contain at least minCapacity
+     * elements.
+     */
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, this.elements.length * 2);
+        this.elements = Arrays.copyOf(this.elements, newCapacity);
+        this.priorities = Arrays.copyOf(this.priorities, newCapacity);
+    }
+
+    @Override
+    public PriorityQueueElement minimum() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        return this.elements[0];
+    }
+
+    @Override
+    public PriorityQueueElement extractMinimum() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        PriorityQueueElement min = this.elements[0];
+        int last = --this.size;
+        PriorityQueueElement e = this.elements[last];
+        double p = this.priorities[last];
+        this.elements[last] = null;
+        if (last > 0) {
+            siftDown(0, e, p);
+        }
+        min.setHandle(-1);
+        return min;
+    }
+
+    @Override
+    public void decreasePriority(PriorityQueueElement element, double newPriority) {
+        int i = element.getHandle();
+        if (i < 0 || i >= this.size || this.elements[i] != element) {
+            throw new NoSuchElementException();
+        }
+        if (this.priorities[i] <= newPriority) {
+            throw new IllegalArgumentException();
+        }
+        element.setPriority(newPriority);
+        siftUp(i, element, newPriority);
+    }
+
+    @Override
+    public void remove(PriorityQueueElement element) {
+        int i = element.getHandle();
+        if (i < 0 || i >= this.size || this.elements[i] != element) {
+            throw new NoSuchElementException();
+        }
+        int last = --this.size;
+        PriorityQueueElement e = this.elements[last];
+        double p = this.priorities[last];
+        this.elements[last] = null;
+        if (i < last) {
+            // The last element fills the hole left in position i, moving up
+            // or down from there
+            if (p < this.priorities[i]) {
+                siftUp(i, e, p);
+            } else {
+                siftDown(i, e, p);
+            }
+        }
+        element.setHandle(-1);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.elements[i].setHandle(-1);
+            this.elements[i] = null;
+        }
+        this.size = 0;
+    }
+
+    /*
+     * Place element e, with priority p, starting from the "hole" at position i
+     * and moving up: the parents with a greater priority are moved down into
+     * the hole, and e is written only once in its final position.
+     */
+    private void siftUp(int i, PriorityQueueElement e, double p) {
+        while (i > 0) {
+            int parent = (i - 1) / this.d;
+            double pp = this.priorities[parent];
+            if (p >= pp) {
+                break;
+            }
+            move(parent, i, pp);
+            i = parent;
+        }
+        place(i, e, p);
+    }
+
+    /*
+     * Place element e, with priority p, starting from the "hole" at position i
+     * and moving down: at each level the child with the minimum priority is
+     * moved up into the hole if its priority is less than p.
+     */
+    private void siftDown(int i, PriorityQueueElement e, double p) {
+        int n = this.size;
+        int d = this.d;
+        while (true) {
+            int first = d * i + 1;
+            if (first >= n) {
+                break;
+            }
+            int end = Math.min(first + d, n);
+            int minChild = first;
+            double minPriority = this.priorities[first];
+            for (int c = first + 1; c < end; c++) {
+                if (this.priorities[c] < minPriority) {
+                    minChild = c;
+                    minPriority = this.priorities[c];
+                }
+            }
+            if (minPriority >= p) {
+                break;
+            }
+            move(minChild, i, minPriority);
+            i = minChild;
+        }
+        place(i, e, p);
+    }
+
+    /*
+     * Move the element in position from, with priority p, to position to.
+     */
+    private void move(int from, int to, double p) {
+        PriorityQueueElement e = this.elements[from];
+        this.elements[to] = e;
+        this.priorities[to] = p;
+        e.setHandle(to);
+    }
+
+    private void place(int i, PriorityQueueElement e, double p) {
+        this.elements[i] = e;
+        this.priorities[i] = p;
+        e.setHandle(i);
+    }
+
+    /*
+     * This method is only for JUnit testing purposes.
+     */
+    protected PriorityQueueElement[] getElements() {
+        return this.elements;
+    }
+
+    /*
+     * This method is only for JUnit testing purposes.
+     */
+    protected double[] getPriorities() {
+        return this.priorities;
+    }
+
+}
@@ -0,0 +1,156 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DaryHeapMinPriorityQueueTest {
+
+    @Test
+    final void testDaryHeapMinPriorityQueue() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DaryHeapMinPriorityQueue(1));
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue();
+        assertTrue(h.getArity() == 3);
+        assertTrue(h.size() == 0);
+    }
+
+    @Test
+    final void testInsertSameLayoutAsTernaryHeap() {
+        TernaryHeapMinPriorityQueue t = new TernaryHeapMinPriorityQueue();
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(3);
+        assertThrows(NullPointerException.class, () -> h.insert(null));
+        double[] priorities = { 30, 25, 41, 17, 28, 3, 50, 12, 12, 7 };
+        for (double p : priorities) {
+            t.insert(new Job("t" + p, p));
+            h.insert(new Job("h" + p, p));
+        }
+        ArrayList<PriorityQueueElement> a = t.getTernaryHeap();
+        for (int i = 0; i < a.size(); i++) {
+            assertTrue(a.get(i).getPriority() == h.getPriorities()[i]);
+            assertTrue(h.getElements()[i].getPriority() == h.getPriorities()[i]);
+        }
+        controlloHandles(h);
+    }
+
+    @Test
+    final void testMinimum() {
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(4);
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        assertTrue(h.minimum() == j30);
+        Job j25 = new Job("Job25", 25);
+        h.insert(j25);
+        assertTrue(h.minimum() == j25);
+        assertTrue(h.size() == 2);
+    }
+
+    @Test
+    final void testExtractMinimum() {
+        for (int d = 2; d <= 8; d++) {
+            DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(d);
+            assertThrows(NoSuchElementException.class, () -> h.extractMinimum());
+            Random random = new Random(d);
+            for (int i = 0; i < 1000; i++)
+                h.insert(new Job("Job" + i, random.nextInt(500)));
+            controlloHandles(h);
+            double last = Double.NEGATIVE_INFINITY;
+            while (h.size() > 0) {
+                PriorityQueueElement e = h.extractMinimum();
+                assertTrue(e.getPriority() >= last);
+                assertTrue(e.getHandle() == -1);
+                last = e.getPriority();
+                controlloHandles(h);
+            }
+        }
+    }
+
+    @Test
+    final void testDecreasePriority() {
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(3);
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 100; i++) {
+            Job j = new Job("Job" + i, 1000 + i);
+            jobs.add(j);
+            h.insert(j);
+        }
+        Job j50 = jobs.get(50);
+        assertThrows(IllegalArgumentException.class,
+                () -> h.decreasePriority(j50, 1050));
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(new Job("Other", 10), 5));
+        h.decreasePriority(j50, 1);
+        assertTrue(j50.getPriority() == 1);
+        assertTrue(h.minimum() == j50);
+        controlloHandles(h);
+        Random random = new Random(42);
+        for (Job j : jobs)
+            if (j != j50)
+                h.decreasePriority(j, random.nextInt(1000) + 2);
+        controlloHandles(h);
+        assertTrue(h.extractMinimum() == j50);
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(j50, 0));
+        double last = Double.NEGATIVE_INFINITY;
+        while (h.size() > 0) {
+            PriorityQueueElement e = h.extractMinimum();
+            assertTrue(e.getPriority() >= last);
+            last = e.getPriority();
+        }
+    }
+
+    @Test
+    final void testRemove() {
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(4);
+        Random random = new Random(3);
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 300; i++) {
+            Job j = new Job("Job" + i, random.nextInt(100));
+            jobs.add(j);
+            h.insert(j);
+        }
+        // Tolgo un job ogni tre, compreso a volte il minimo
+        List<Double> expected = new ArrayList<Double>();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job j = jobs.get(i);
+            if (i % 3 == 0) {
+                h.remove(j);
+                assertTrue(j.getHandle() == -1);
+                assertThrows(NoSuchElementException.class, () -> h.remove(j));
+                controlloHandles(h);
+            } else {
+                expected.add(j.getPriority());
+            }
+        }
+        assertTrue(h.size() == expected.size());
+        assertThrows(NoSuchElementException.class,
+                () -> h.remove(new Job("Other", 10)));
+        expected.sort(null);
+        for (Double p : expected)
+            assertTrue(h.extractMinimum().getPriority() == p);
+        assertTrue(h.size() == 0);
+    }
+
+    @Test
+    final void testClear() {
+        DaryHeapMinPriorityQueue h = new DaryHeapMinPriorityQueue(3);
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        h.insert(new Job("Job25", 25));
+        h.clear();
+        assertTrue(h.size() == 0);
+        assertTrue(j30.getHandle() == -1);
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+    }
+
+    final void controlloHandles(DaryHeapMinPriorityQueue h) {
+        for (int i = 0; i < h.size(); i++)
+            assertTrue(h.getElements()[i].getHandle() == i);
+    }
+
+}
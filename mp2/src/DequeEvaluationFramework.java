@@ -0,0 +1,163 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Confronta ASDL2223Deque, CircularArrayDeque e java.util.ArrayDeque sulle
+ * stesse sequenze di operazioni. Per ogni numero di elementi n vengono
+ * misurati separatamente il tempo per usare la deque come pila (n push
+ * seguite da n pop), come coda (n offer seguite da n poll) e per una fase
+ * mista in cui la deque contiene n elementi e ogni passo sceglie a caso una
+ * coppia di operazioni tra push/pop, offer/poll e offerFirst/pollLast, per n
+ * passi.
+ * 
+ * Sul file deque.csv vengono scritti per ogni realizzazione, fase e numero
+ * di elementi il tempo medio in nanosecondi di un'operazione e il numero
+ * medio di byte allocati per operazione dal thread che esegue la misura, se
+ * la JVM permette di misurarlo (-1 altrimenti).
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class DequeEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di ripetizioni per ogni dimensione, la prima è di riscaldamento
+     * e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    private static final String[] PHASES = { "Stack", "Queue", "Mixed" };
+
+    /*
+     * Una realizzazione da valutare, con il nome da usare nel file csv.
+     */
+    private static class Candidate {
+        private final String name;
+
+        private final Supplier<Deque<Integer>> factory;
+
+        private Candidate(String name, Supplier<Deque<Integer>> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    /*
+     * Valore che dipende da tutti gli elementi estratti, perché il
+     * compilatore non elimini le estrazioni
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "deque.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "deque.csv");
+            System.exit(1);
+        }
+        Candidate[] candidates = {
+                new Candidate("ASDL2223Deque", ASDL2223Deque::new),
+                new Candidate("CircularArrayDeque", CircularArrayDeque::new),
+                new Candidate("ArrayDeque", ArrayDeque::new) };
+        o.println("Deque,Phase,Size,NsPerOperation,BytesPerOperation");
+        Random randomGenerator = new Random();
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            // Le stesse scelte casuali per tutte le realizzazioni
+            byte[] choices = new byte[n];
+            for (int i = 0; i < n; i++)
+                choices[i] = (byte) randomGenerator.nextInt(3);
+            for (Candidate c : candidates)
+                for (int phase = 0; phase < PHASES.length; phase++)
+                    for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                        Deque<Integer> d = c.factory.get();
+                        if (phase == 2)
+                            for (int i = 0; i < n; i++)
+                                d.addLast(i);
+                        long bytes = allocatedBytes();
+                        long start = System.nanoTime();
+                        run(d, phase, n, choices);
+                        long elapsed = System.nanoTime() - start;
+                        bytes = bytes == -1 ? -1 : allocatedBytes() - bytes;
+                        long operations = 2L * n;
+                        if (s > 0) // la prima ripetizione è di riscaldamento
+                            o.println(c.name + "," + PHASES[phase] + "," + n
+                                    + "," + (double) elapsed / operations + ","
+                                    + (bytes == -1 ? -1
+                                            : (double) bytes / operations));
+                    }
+            System.out.println("Completate le misure per " + n + " elementi");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+    /*
+     * Esegue una fase, con 2n operazioni
+     */
+    private static void run(Deque<Integer> d, int phase, int n,
+            byte[] choices) {
+        long sum = 0;
+        if (phase == 0) {
+            for (int i = 0; i < n; i++)
+                d.push(i);
+            for (int i = 0; i < n; i++)
+                sum += d.pop();
+        } else if (phase == 1) {
+            for (int i = 0; i < n; i++)
+                d.offer(i);
+            for (int i = 0; i < n; i++)
+                sum += d.poll();
+        } else {
+            for (int i = 0; i < n; i++) {
+                if (choices[i] == 0) {
+                    d.push(i);
+                    sum += d.pop();
+                } else if (choices[i] == 1) {
+                    d.offer(i);
+                    sum += d.poll();
+                } else {
+                    d.offerFirst(i);
+                    sum += d.pollLast();
+                }
+            }
+        }
+        checksum += sum;
+    }
+
+    /*
+     * Byte allocati fino ad ora dal thread corrente, oppure -1 se la JVM non
+     * permette di misurarli
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+
+}
@@ -0,0 +1,112 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Confronta ASDL2223Deque senza e con l'indice hash degli elementi sulle
+ * operazioni che cercano un elemento. Per ogni numero di elementi n, a
+ * partire da MIN_SIZE e moltiplicando ogni volta per FATTORE_INCREMENTO fino
+ * a MAX_SIZE, la deque viene riempita con n elementi distinti; si misurano
+ * poi NUMBER_OF_OPERATIONS chiamate di contains su elementi scelti a caso,
+ * metà presenti e metà assenti, e NUMBER_OF_OPERATIONS chiamate di
+ * remove(Object) su elementi presenti scelti a caso, ciascuno reinserito in
+ * fondo alla deque fuori dalla misura.
+ * 
+ * Sul file dequeindex.csv vengono scritti per ogni modalità e numero di
+ * elementi il tempo medio in nanosecondi per inserire un elemento, per una
+ * contains e per una remove(Object).
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class DequeIndexEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    /*
+     * Numero di ricerche e di rimozioni misurate per ogni iterazione
+     */
+    private static final int NUMBER_OF_OPERATIONS = 1000;
+
+    /*
+     * Valore che dipende dai risultati delle ricerche, perché il compilatore
+     * non le elimini
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "dequeindex.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "dequeindex.csv");
+            System.exit(1);
+        }
+        Random random = new Random(1);
+        o.println("Mode,Size,AddNs,ContainsNs,RemoveNs");
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            Integer[] elements = new Integer[2 * n];
+            for (int i = 0; i < 2 * n; i++)
+                elements[i] = i;
+            Integer[] searched = new Integer[NUMBER_OF_OPERATIONS];
+            Integer[] removed = new Integer[NUMBER_OF_OPERATIONS];
+            for (boolean indexed : new boolean[] { false, true }) {
+                for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                    // Gli elementi da n a 2n - 1 non sono mai nella deque
+                    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                        searched[i] = elements[random.nextInt(2 * n)];
+                        removed[i] = elements[random.nextInt(n)];
+                    }
+                    long start = System.nanoTime();
+                    ASDL2223Deque<Integer> d = new ASDL2223Deque<Integer>(indexed);
+                    for (int i = 0; i < n; i++)
+                        d.addLast(elements[i]);
+                    long add = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++)
+                        if (d.contains(searched[i]))
+                            checksum++;
+                    long contains = System.nanoTime() - start;
+                    long remove = 0;
+                    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                        start = System.nanoTime();
+                        if (d.remove(removed[i]))
+                            checksum++;
+                        remove += System.nanoTime() - start;
+                        d.addLast(removed[i]);
+                    }
+                    if (s > 0) // la prima iterazione è di riscaldamento
+                        o.println((indexed ? "Indexed" : "Plain") + "," + n + ","
+                                + (double) add / n + ","
+                                + (double) contains / NUMBER_OF_OPERATIONS + ","
+                                + (double) remove / NUMBER_OF_OPERATIONS);
+                }
+            }
+            System.out.println("Completate le misure per " + n + " elementi");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+}
@@ -0,0 +1,128 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Confronta la memoria occupata e la velocità di iterazione di
+ * ASDL2223Deque, UnrolledLinkedDeque, CircularArrayDeque e
+ * java.util.ArrayDeque. Per ogni numero di elementi n, a partire da MIN_SIZE
+ * e moltiplicando ogni volta per FATTORE_INCREMENTO fino a MAX_SIZE, la deque
+ * viene riempita con n elementi creati prima della misura, per cui la
+ * memoria misurata è solo quella della struttura. La memoria viene misurata
+ * come differenza della memoria usata dalla JVM, dopo aver chiesto una
+ * garbage collection, prima e dopo il riempimento.
+ * 
+ * Sul file dequememory.csv vengono scritti per ogni realizzazione e numero di
+ * elementi il numero di byte per elemento e il tempo medio in nanosecondi per
+ * visitare un elemento con l'iteratore e con l'iteratore discendente.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class DequeMemoryEvaluationFramework {
+
+    private static final int MIN_SIZE = 10000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 10000000;
+
+    /*
+     * Numero di iterazioni per ogni dimensione, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    /*
+     * Una realizzazione da valutare, con il nome da usare nel file csv.
+     */
+    private static class Candidate {
+        private final String name;
+
+        private final Supplier<Deque<Integer>> factory;
+
+        private Candidate(String name, Supplier<Deque<Integer>> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    /*
+     * Valore che dipende da tutti gli elementi visitati, perché il
+     * compilatore non elimini le iterazioni
+     */
+    private static long checksum;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "dequememory.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "dequememory.csv");
+            System.exit(1);
+        }
+        Candidate[] candidates = {
+                new Candidate("ASDL2223Deque", ASDL2223Deque::new),
+                new Candidate("UnrolledLinkedDeque", UnrolledLinkedDeque::new),
+                new Candidate("CircularArrayDeque", CircularArrayDeque::new),
+                new Candidate("ArrayDeque", ArrayDeque::new) };
+        o.println("Deque,Size,BytesPerElement,IterationNs,DescendingIterationNs");
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            Integer[] elements = new Integer[n];
+            for (int i = 0; i < n; i++)
+                elements[i] = i;
+            for (Candidate c : candidates) {
+                long before = usedMemory();
+                Deque<Integer> d = c.factory.get();
+                for (int i = 0; i < n; i++)
+                    d.addLast(elements[i]);
+                double bytes = (double) (usedMemory() - before) / n;
+                for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                    long start = System.nanoTime();
+                    long sum = 0;
+                    for (Integer e : d)
+                        sum += e;
+                    long ascending = System.nanoTime() - start;
+                    start = System.nanoTime();
+                    java.util.Iterator<Integer> it = d.descendingIterator();
+                    while (it.hasNext())
+                        sum += it.next();
+                    long descending = System.nanoTime() - start;
+                    checksum += sum;
+                    if (s > 0) // la prima iterazione è di riscaldamento
+                        o.println(c.name + "," + n + "," + bytes + ","
+                                + (double) ascending / n + ","
+                                + (double) descending / n);
+                }
+                d = null;
+            }
+            System.out.println("Completate le misure per " + n + " elementi");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum);
+    }
+
+    /*
+     * Memoria usata dalla JVM dopo aver chiesto alcune garbage collection
+     */
+    private static long usedMemory() {
+        Runtime r = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return r.totalMemory() - r.freeMemory();
+    }
+
+}
@@ -0,0 +1,517 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Scheduler che, oltre a ordinare i job per scadenza, li esegue. Un thread
+ * dispatcher estrae i job da un ConcurrentScheduler in ordine di scadenza e li
+ * passa a un Executor, che esegue su ogni job l'azione data alla creazione.
+ * Il numero di job in esecuzione contemporaneamente è limitato da un semaforo:
+ * quando il limite è raggiunto il dispatcher aspetta che un job finisca, per
+ * cui i job in attesa restano nella coda di min-priorità e chi arriva con una
+ * scadenza più ravvicinata passa avanti a loro.
+ * <p>
+ * Le scadenze dei job sono interpretate come istanti di un orologio, dato
+ * alla creazione oppure, di default, i millisecondi trascorsi dalla creazione
+ * dello scheduler. Per ogni job vengono misurati il tempo di attesa in coda,
+ * dall'inserimento all'inizio dell'esecuzione, e il ritardo, cioè la
+ * differenza tra l'istante di fine esecuzione e la scadenza: un job con
+ * ritardo positivo ha mancato la scadenza. Le metriche complessive si
+ * ottengono con getMetrics().
+ * <p>
+ * L'Executor di default è un pool di tanti thread quanti sono i job che
+ * possono essere eseguiti contemporaneamente; si può passare un qualsiasi
+ * altro Executor, ad esempio uno che crea un thread virtuale per ogni job
+ * sulle versioni di Java che li prevedono. Lo scheduler va chiuso con
+ * shutdown() o shutdownNow().
+ *
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class ExecutingScheduler {
+
+    private final ConcurrentScheduler scheduler;
+
+    private final Consumer<Job> action;
+
+    private final Executor executor;
+
+    /*
+     * true se l'executor è stato creato dallo scheduler e va chiuso con lui.
+     */
+    private final boolean ownsExecutor;
+
+    private final DoubleSupplier clock;
+
+    private final int maxConcurrency;
+
+    /*
+     * Un permesso per ogni job che può essere in esecuzione.
+     */
+    private final Semaphore permits;
+
+    /*
+     * Istante di inserimento di ogni job in attesa, secondo l'orologio.
+     */
+    private final Map<Job, Double> scheduledAt;
+
+    private final Thread dispatcher;
+
+    /*
+     * dispatchStopped viene aperto quando il dispatcher smette di estrarre
+     * job, terminated quando sono finiti anche i job in esecuzione.
+     */
+    private final CountDownLatch dispatchStopped;
+
+    private final CountDownLatch terminated;
+
+    private final double startTime;
+
+    private volatile boolean shutdown;
+
+    /*
+     * Lock che rende atomici il controllo di shutdown e l'inserimento di un
+     * job: schedule prende il lock in lettura, per cui gli inserimenti non si
+     * escludono a vicenda, mentre shutdown prende il lock in scrittura. Così
+     * ogni job inserito prima della chiusura viene visto dal dispatcher.
+     */
+    private final ReentrantReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+
+    private volatile boolean stopped;
+
+    private final LongAdder scheduled = new LongAdder();
+
+    private final LongAdder completed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder deadlineMisses = new LongAdder();
+
+    private final DoubleAdder totalQueueingDelay = new DoubleAdder();
+
+    private final DoubleAccumulator maxQueueingDelay = new DoubleAccumulator(
+            Math::max, 0);
+
+    private final DoubleAdder totalLateness = new DoubleAdder();
+
+    private final DoubleAccumulator maxLateness = new DoubleAccumulator(
+            Math::max, 0);
+
+    /**
+     * Costruisce un nuovo scheduler che esegue l'azione data su al più
+     * maxConcurrency job alla volta, con un pool di thread proprio e con le
+     * scadenze espresse in millisecondi dalla creazione dello scheduler.
+     *
+     * @param maxConcurrency
+     *                           il numero massimo di job in esecuzione
+     *                           contemporaneamente
+     * @param action
+     *                           l'azione da eseguire su ogni job
+     * @throws IllegalArgumentException
+     *                                      se maxConcurrency non è positivo
+     * @throws NullPointerException
+     *                                      se action è null
+     */
+    public ExecutingScheduler(int maxConcurrency, Consumer<Job> action) {
+        this(maxConcurrency, action, null, null);
+    }
+
+    /**
+     * Costruisce un nuovo scheduler che esegue l'azione data su al più
+     * maxConcurrency job alla volta con l'executor e l'orologio dati.
+     *
+     * @param maxConcurrency
+     *                           il numero massimo di job in esecuzione
+     *                           contemporaneamente
+     * @param action
+     *                           l'azione da eseguire su ogni job
+     * @param executor
+     *                           l'executor su cui eseguire i job, oppure null
+     *                           per usare un pool di maxConcurrency thread
+     *                           creato e chiuso dallo scheduler
+     * @param clock
+     *                           l'orologio con cui confrontare le scadenze,
+     *                           oppure null per usare i millisecondi dalla
+     *                           creazione dello scheduler
+     * @throws IllegalArgumentException
+     *                                      se maxConcurrency non è positivo
+     * @throws NullPointerException
+     *                                      se action è null
+     */
+    public ExecutingScheduler(int maxConcurrency, Consumer<Job> action,
+            Executor executor, DoubleSupplier clock) {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException(
+                    "Numero di job contemporanei non positivo: "
+                            + maxConcurrency);
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        this.maxConcurrency = maxConcurrency;
+        this.action = action;
+        if (executor == null) {
+            this.executor = Executors.newFixedThreadPool(maxConcurrency);
+            this.ownsExecutor = true;
+        } else {
+            this.executor = executor;
+            this.ownsExecutor = false;
+        }
+        if (clock == null) {
+            long origin = System.nanoTime();
+            this.clock = () -> (System.nanoTime() - origin) / 1e6;
+        } else
+            this.clock = clock;
+        this.scheduler = new ConcurrentScheduler();
+        this.permits = new Semaphore(maxConcurrency);
+        this.scheduledAt = new ConcurrentHashMap<Job, Double>();
+        this.dispatchStopped = new CountDownLatch(1);
+        this.terminated = new CountDownLatch(1);
+        this.startTime = this.clock.getAsDouble();
+        this.dispatcher = new Thread(this::dispatch, "ExecutingScheduler");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Inserisce un nuovo job nello scheduler senza bloccarsi. Il job deve
+     * avere una deadline già fissata.
+     *
+     * @param j
+     *              il nuovo job da inserire
+     * @throws NullPointerException
+     *                                   se il job è null
+     * @throws IllegalStateException
+     *                                   se lo scheduler è stato chiuso
+     */
+    public void schedule(Job j) {
+        if (j == null)
+            throw new NullPointerException("Job nullo");
+        this.shutdownLock.readLock().lock();
+        try {
+            if (this.shutdown)
+                throw new IllegalStateException("Scheduler chiuso");
+            this.scheduledAt.put(j, this.clock.getAsDouble());
+            this.scheduled.increment();
+            this.scheduler.schedule(j);
+        } finally {
+            this.shutdownLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Anticipa un certo job, ancora in attesa di essere eseguito, di un certo
+     * tempo specificato.
+     *
+     * @param j
+     *                   il job da anticipare
+     * @param amount
+     *                   la quantità di tempo da anticipare
+     * @throws IllegalArgumentException
+     *                                      se amount è <= 0
+     * @throws java.util.NoSuchElementException
+     *                                              se il job non è in attesa
+     *                                              in questo scheduler
+     */
+    public void anticipateJob(Job j, double amount) {
+        this.scheduler.anticipateJob(j, amount);
+    }
+
+    /*
+     * Corpo del thread dispatcher: prende un permesso, estrae il job con
+     * scadenza più ravvicinata e lo passa all'executor. Dopo shutdown() vengono
+     * passati all'executor i job rimasti e poi il thread termina.
+     */
+    private void dispatch() {
+        while (!this.stopped) {
+            Job j;
+            boolean acquired = false;
+            try {
+                this.permits.acquire();
+                acquired = true;
+                if (this.shutdown) {
+                    j = this.scheduler.tryGetNextJobToExecute();
+                    if (j == null) {
+                        this.permits.release();
+                        break;
+                    }
+                } else
+                    j = this.scheduler.getNextJobToExecute();
+            } catch (InterruptedException e) {
+                // Svegliato da shutdown(): ricontrollo lo stato, restituendo
+                // il permesso se l'avevo già preso
+                if (acquired)
+                    this.permits.release();
+                continue;
+            }
+            double dispatchTime = this.clock.getAsDouble();
+            Double at = this.scheduledAt.remove(j);
+            double delay = at == null ? 0 : dispatchTime - at;
+            this.totalQueueingDelay.add(delay);
+            this.maxQueueingDelay.accumulate(delay);
+            try {
+                this.executor.execute(() -> run(j));
+            } catch (RuntimeException e) {
+                // L'executor ha rifiutato il job
+                this.failed.increment();
+                this.permits.release();
+            }
+        }
+        this.dispatchStopped.countDown();
+        // Aspetto che finiscano i job in esecuzione
+        this.permits.acquireUninterruptibly(this.maxConcurrency);
+        if (this.ownsExecutor)
+            ((ExecutorService) this.executor).shutdown();
+        this.terminated.countDown();
+    }
+
+    /*
+     * Esegue l'azione su un job e ne registra l'esito.
+     */
+    private void run(Job j) {
+        try {
+            this.action.accept(j);
+            double lateness = this.clock.getAsDouble() - j.getDeadline();
+            this.completed.increment();
+            if (lateness > 0) {
+                this.deadlineMisses.increment();
+                this.totalLateness.add(lateness);
+                this.maxLateness.accumulate(lateness);
+            }
+        } catch (RuntimeException e) {
+            this.failed.increment();
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Chiude lo scheduler: non si possono più inserire job, ma quelli già
+     * inseriti vengono comunque eseguiti, in ordine di scadenza. Non aspetta
+     * che l'esecuzione finisca, per questo si usa awaitTermination().
+     */
+    public void shutdown() {
+        setShutdown();
+        this.dispatcher.interrupt();
+    }
+
+    private void setShutdown() {
+        this.shutdownLock.writeLock().lock();
+        try {
+            this.shutdown = true;
+        } finally {
+            this.shutdownLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chiude lo scheduler senza eseguire i job ancora in attesa, che vengono
+     * restituiti in ordine di scadenza. I job già in esecuzione non vengono
+     * interrotti.
+     *
+     * @return i job che non sono stati eseguiti
+     */
+    public List<Job> shutdownNow() {
+        setShutdown();
+        this.stopped = true;
+        this.dispatcher.interrupt();
+        try {
+            this.dispatchStopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Job> pending = new ArrayList<Job>();
+        Job j;
+        while ((j = this.scheduler.tryGetNextJobToExecute()) != null) {
+            this.scheduledAt.remove(j);
+            pending.add(j);
+        }
+        return pending;
+    }
+
+    /**
+     * Aspetta che, dopo la chiusura, tutti i job siano stati eseguiti.
+     *
+     * @param timeout
+     *                    il tempo massimo di attesa
+     * @param unit
+     *                    l'unità di misura di timeout
+     * @return true se tutti i job sono stati eseguiti, false se è scaduto il
+     *         tempo
+     * @throws InterruptedException
+     *                                  se il thread viene interrotto durante
+     *                                  l'attesa
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return this.terminated.await(timeout, unit);
+    }
+
+    /**
+     * @return il numero di job in attesa di essere eseguiti
+     */
+    public int size() {
+        return this.scheduler.size();
+    }
+
+    /**
+     * @return il numero massimo di job in esecuzione contemporaneamente
+     */
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * Restituisce le metriche raccolte fino a questo momento. Le metriche
+     * vengono lette mentre i job continuano ad essere eseguiti, per cui i
+     * diversi valori possono non essere perfettamente coerenti tra loro.
+     *
+     * @return una copia delle metriche correnti
+     */
+    public Metrics getMetrics() {
+        return new Metrics(this);
+    }
+
+    /**
+     * Copia delle metriche di un ExecutingScheduler in un certo istante. Tempi
+     * e ritardi sono espressi nell'unità di misura dell'orologio dello
+     * scheduler.
+     */
+    public static class Metrics {
+
+        private final long scheduled;
+
+        private final long completed;
+
+        private final long failed;
+
+        private final long deadlineMisses;
+
+        private final long dispatched;
+
+        private final double meanQueueingDelay;
+
+        private final double maxQueueingDelay;
+
+        private final double meanLateness;
+
+        private final double maxLateness;
+
+        private final double throughput;
+
+        private Metrics(ExecutingScheduler s) {
+            this.completed = s.completed.sum();
+            this.failed = s.failed.sum();
+            this.deadlineMisses = s.deadlineMisses.sum();
+            this.scheduled = s.scheduled.sum();
+            this.dispatched = this.scheduled - s.scheduledAt.size();
+            this.meanQueueingDelay = this.dispatched == 0 ? 0
+                    : s.totalQueueingDelay.sum() / this.dispatched;
+            this.maxQueueingDelay = s.maxQueueingDelay.get();
+            this.meanLateness = this.deadlineMisses == 0 ? 0
+                    : s.totalLateness.sum() / this.deadlineMisses;
+            this.maxLateness = s.maxLateness.get();
+            double elapsed = s.clock.getAsDouble() - s.startTime;
+            this.throughput = elapsed <= 0 ? 0 : this.completed / elapsed;
+        }
+
+        /**
+         * @return il numero di job inseriti
+         */
+        public long getScheduled() {
+            return this.scheduled;
+        }
+
+        /**
+         * @return il numero di job passati all'executor
+         */
+        public long getDispatched() {
+            return this.dispatched;
+        }
+
+        /**
+         * @return il numero di job eseguiti senza errori
+         */
+        public long getCompleted() {
+            return this.completed;
+        }
+
+        /**
+         * @return il numero di job la cui azione ha lanciato un'eccezione o
+         *         che sono stati rifiutati dall'executor
+         */
+        public long getFailed() {
+            return this.failed;
+        }
+
+        /**
+         * @return il numero di job eseguiti che sono finiti dopo la loro
+         *         scadenza
+         */
+        public long getDeadlineMisses() {
+            return this.deadlineMisses;
+        }
+
+        /**
+         * @return il tempo medio di attesa in coda dei job passati
+         *         all'executor
+         */
+        public double getMeanQueueingDelay() {
+            return this.meanQueueingDelay;
+        }
+
+        /**
+         * @return il tempo massimo di attesa in coda
+         */
+        public double getMaxQueueingDelay() {
+            return this.maxQueueingDelay;
+        }
+
+        /**
+         * @return il ritardo medio dei job che hanno mancato la scadenza
+         */
+        public double getMeanLateness() {
+            return this.meanLateness;
+        }
+
+        /**
+         * @return il ritardo massimo rispetto alla scadenza, 0 se nessun job
+         *         l'ha mancata
+         */
+        public double getMaxLateness() {
+            return this.maxLateness;
+        }
+
+        /**
+         * @return il numero di job eseguiti per unità di tempo dalla creazione
+         *         dello scheduler
+         */
+        public double getThroughput() {
+            return this.throughput;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics [scheduled=" + this.scheduled + ", dispatched="
+                    + this.dispatched + ", completed=" + this.completed
+                    + ", failed=" + this.failed + ", deadlineMisses="
+                    + this.deadlineMisses + ", meanQueueingDelay="
+                    + this.meanQueueingDelay + ", maxQueueingDelay="
+                    + this.maxQueueingDelay + ", meanLateness="
+                    + this.meanLateness + ", maxLateness=" + this.maxLateness
+                    + ", throughput=" + this.throughput + "]";
+        }
+
+    }
+
+}
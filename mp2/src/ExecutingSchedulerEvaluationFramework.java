@@ -0,0 +1,108 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misura il comportamento dell'ExecutingScheduler al variare del numero
+ * massimo di job in esecuzione contemporaneamente, da 1 a MAX_CONCURRENCY.
+ * Un produttore inserisce NUMBER_OF_JOBS job, uno ogni ARRIVAL_INTERVAL_NS
+ * nanosecondi, con scadenza pari all'istante di arrivo più un margine casuale
+ * tra 0 e MAX_SLACK_MS millisecondi. Ogni job simula un'operazione di I/O
+ * aspettando JOB_DURATION_MS millisecondi, per cui con pochi job contemporanei
+ * lo scheduler è sovraccarico e i job si accumulano in coda.
+ * 
+ * Sul file executingscheduler.csv vengono scritti per ogni limite il
+ * throughput in job al secondo, il tempo medio e massimo di attesa in coda in
+ * millisecondi, la percentuale di job che hanno mancato la scadenza e il
+ * ritardo medio in millisecondi di questi job.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class ExecutingSchedulerEvaluationFramework {
+
+    private static final int MAX_CONCURRENCY = 64;
+
+    private static final int NUMBER_OF_JOBS = 2000;
+
+    private static final long ARRIVAL_INTERVAL_NS = 100000;
+
+    private static final double MAX_SLACK_MS = 50;
+
+    private static final long JOB_DURATION_MS = 1;
+
+    /*
+     * Numero di ripetizioni per ogni limite, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "executingscheduler.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "executingscheduler.csv");
+            System.exit(1);
+        }
+        o.println("MaxConcurrency,JobsPerSec,MeanQueueingDelayMs,"
+                + "MaxQueueingDelayMs,DeadlineMissPercent,MeanLatenessMs");
+        Random randomGenerator = new Random();
+        for (int c = 1; c <= MAX_CONCURRENCY; c *= 2) {
+            for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                ExecutingScheduler.Metrics m = run(c, randomGenerator);
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(c + "," + (long) (m.getThroughput() * 1000)
+                            + "," + m.getMeanQueueingDelay() + ","
+                            + m.getMaxQueueingDelay() + ","
+                            + 100.0 * m.getDeadlineMisses()
+                                    / m.getCompleted()
+                            + "," + m.getMeanLateness());
+            }
+            System.out.println("Completate le misure per " + c + " job");
+        }
+        o.close();
+    }
+
+    /*
+     * Esegue una misura con il limite dato e restituisce le metriche finali.
+     */
+    private static ExecutingScheduler.Metrics run(int maxConcurrency,
+            Random randomGenerator) throws InterruptedException {
+        long origin = System.nanoTime();
+        ExecutingScheduler scheduler = new ExecutingScheduler(maxConcurrency,
+                j -> {
+                    try {
+                        Thread.sleep(JOB_DURATION_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, null, () -> (System.nanoTime() - origin) / 1e6);
+        long next = System.nanoTime();
+        for (int i = 0; i < NUMBER_OF_JOBS; i++) {
+            while (System.nanoTime() < next)
+                Thread.onSpinWait();
+            double now = (System.nanoTime() - origin) / 1e6;
+            scheduler.schedule(new Job("Job" + i,
+                    now + randomGenerator.nextDouble() * MAX_SLACK_MS));
+            next += ARRIVAL_INTERVAL_NS;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.HOURS);
+        return scheduler.getMetrics();
+    }
+
+}
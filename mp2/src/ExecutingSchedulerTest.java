@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExecutingSchedulerTest {
+
+    @Test
+    final void testConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExecutingScheduler(0, j -> {
+                }));
+        assertThrows(NullPointerException.class,
+                () -> new ExecutingScheduler(1, null));
+    }
+
+    @Test
+    final void testDeadlineOrder() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<String> executed = Collections
+                .synchronizedList(new ArrayList<String>());
+        ExecutingScheduler s = new ExecutingScheduler(1, j -> {
+            if (j.getName().equals("Blocker")) {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            executed.add(j.getName());
+        });
+        s.schedule(new Job("Blocker", 0));
+        // Aspetto che il primo job sia in esecuzione
+        while (s.size() > 0)
+            Thread.sleep(1);
+        s.schedule(new Job("Job30", 30));
+        s.schedule(new Job("Job10", 10));
+        Job j20 = new Job("Job20", 50);
+        s.schedule(j20);
+        s.anticipateJob(j20, 30);
+        blocker.countDown();
+        s.shutdown();
+        assertThrows(IllegalStateException.class,
+                () -> s.schedule(new Job("Late", 0)));
+        assertTrue(s.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(executed.equals(List.of("Blocker", "Job10", "Job20", "Job30")));
+    }
+
+    @Test
+    final void testConcurrencyLimit() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutingScheduler s = new ExecutingScheduler(3, j -> {
+            int r = running.incrementAndGet();
+            maxRunning.accumulateAndGet(r, Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+        for (int i = 0; i < 60; i++)
+            s.schedule(new Job("Job" + i, i));
+        s.shutdown();
+        assertTrue(s.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 3);
+        assertTrue(s.getMetrics().getCompleted() == 60);
+    }
+
+    @Test
+    final void testMetrics() throws InterruptedException {
+        // Orologio simulato: ogni job fa avanzare il tempo di 10 unità
+        AtomicLong time = new AtomicLong(0);
+        CountDownLatch allScheduled = new CountDownLatch(1);
+        ExecutingScheduler s = new ExecutingScheduler(1, j -> {
+            try {
+                allScheduled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (j.getName().equals("Failing"))
+                throw new IllegalStateException();
+            time.addAndGet(10);
+        }, null, () -> time.get());
+        s.schedule(new Job("OnTime", 15));
+        s.schedule(new Job("Late", 16));
+        s.schedule(new Job("Failing", 100));
+        allScheduled.countDown();
+        s.shutdown();
+        assertTrue(s.awaitTermination(10, TimeUnit.SECONDS));
+        ExecutingScheduler.Metrics m = s.getMetrics();
+        assertTrue(m.getScheduled() == 3);
+        assertTrue(m.getDispatched() == 3);
+        assertTrue(m.getCompleted() == 2);
+        assertTrue(m.getFailed() == 1);
+        // Late finisce all'istante 20, con 4 unità di ritardo
+        assertTrue(m.getDeadlineMisses() == 1);
+        assertTrue(m.getMaxLateness() == 4);
+        assertTrue(m.getMeanLateness() == 4);
+        // Late aspetta 10 unità, Failing 20
+        assertTrue(m.getMaxQueueingDelay() == 20);
+        assertTrue(m.getMeanQueueingDelay() == 10);
+        assertTrue(m.getThroughput() == 0.1);
+    }
+
+    @Test
+    final void testShutdownNow() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        ExecutingScheduler s = new ExecutingScheduler(1, j -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        s.schedule(new Job("Running", 0));
+        while (s.size() > 0)
+            Thread.sleep(1);
+        Job j2 = new Job("J2", 2);
+        Job j1 = new Job("J1", 1);
+        s.schedule(j2);
+        s.schedule(j1);
+        List<Job> pending = s.shutdownNow();
+        assertTrue(pending.equals(List.of(j1, j2)));
+        assertTrue(!s.awaitTermination(50, TimeUnit.MILLISECONDS));
+        blocker.countDown();
+        assertTrue(s.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(s.getMetrics().getCompleted() == 1);
+    }
+
+}
@@ -0,0 +1,623 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * Scheduler persistente: tutti i job in attesa sopravvivono alla terminazione
+ * del processo e vengono ricostruiti alla successiva apertura della stessa
+ * directory.
+ * <p>
+ * Ogni operazione che modifica lo scheduler (inserimento, anticipo ed
+ * estrazione di un job) viene aggiunta come record in fondo a un giornale,
+ * un file mappato in memoria, per cui scrivere un record costa come scrivere
+ * in un array. I record vengono resi durevoli sul disco a gruppi
+ * ("group commit"): il giornale viene forzato su disco ogni groupCommitSize
+ * record, oppure con sync(). Se termina il solo processo non si perde nulla,
+ * perché le pagine mappate restano al sistema operativo; se si ferma la
+ * macchina si possono perdere al più gli ultimi record non ancora forzati.
+ * Ogni record ha un codice CRC32, per cui un record scritto a metà viene
+ * riconosciuto e ignorato, insieme a quelli successivi.
+ * <p>
+ * Ogni snapshotInterval record, oppure con snapshot(), tutti i job in attesa
+ * vengono scritti in un file di snapshot e il giornale ricomincia vuoto. Lo
+ * snapshot e il giornale hanno un numero di generazione: uno snapshot di
+ * generazione g contiene tutti gli eventi dei giornali precedenti e il
+ * giornale di generazione g contiene gli eventi successivi. I due file
+ * vengono sostituiti scrivendo un file temporaneo e rinominandolo, per cui a
+ * ogni istante sul disco c'è uno stato consistente: se il processo si ferma
+ * tra la scrittura dello snapshot e quella del nuovo giornale, il vecchio
+ * giornale ha una generazione minore di quella dello snapshot e viene
+ * ignorato.
+ * <p>
+ * All'apertura lo stato viene ricostruito leggendo lo snapshot e rieseguendo
+ * gli eventi del giornale; i job in attesa vengono poi inseriti tutti insieme
+ * con scheduleAll, che costruisce lo heap in tempo lineare. I job ricostruiti
+ * sono oggetti nuovi, che si ottengono con getPendingJobs() o estraendoli.
+ * <p>
+ * Come lo Scheduler, questa classe non è thread-safe.
+ *
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class JournaledScheduler implements Closeable {
+
+    /**
+     * Numero di record dopo il quale, di default, il giornale viene forzato
+     * su disco.
+     */
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+    /**
+     * Numero di record dopo il quale, di default, viene fatto uno snapshot.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1 << 20;
+
+    /**
+     * Nome del file del giornale nella directory dello scheduler.
+     */
+    public static final String JOURNAL_FILE = "scheduler.journal";
+
+    /**
+     * Nome del file dello snapshot nella directory dello scheduler.
+     */
+    public static final String SNAPSHOT_FILE = "scheduler.snapshot";
+
+    private static final int JOURNAL_MAGIC = 0x4A524E4C; // "JRNL"
+
+    private static final int SNAPSHOT_MAGIC = 0x534E4150; // "SNAP"
+
+    /*
+     * Intestazione del giornale: magic, 4 byte liberi e generazione.
+     */
+    private static final int JOURNAL_HEADER_BYTES = 16;
+
+    /*
+     * Intestazione di un record: lunghezza del contenuto e CRC32 del
+     * contenuto. Il contenuto inizia con il tipo di evento e l'id del job.
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private static final byte SCHEDULE = 1;
+
+    private static final byte ANTICIPATE = 2;
+
+    private static final byte EXTRACT = 3;
+
+    private static final int INITIAL_JOURNAL_BYTES = 1 << 16;
+
+    /*
+     * Dimensione massima del giornale: oltre questa dimensione viene fatto
+     * uno snapshot, che lo svuota.
+     */
+    private static final int MAX_JOURNAL_BYTES = 1 << 30;
+
+    private final Path journalPath;
+
+    private final Path snapshotPath;
+
+    private final int groupCommitSize;
+
+    private final int snapshotInterval;
+
+    private final Scheduler scheduler;
+
+    /*
+     * Id dei job in attesa. Gli id sono assegnati in ordine di inserimento e
+     * identificano i job nei record del giornale.
+     */
+    private final Map<Job, Long> ids;
+
+    private long nextId;
+
+    private long generation;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer journal;
+
+    /*
+     * Posizione nel giornale del prossimo record e del primo record non
+     * ancora forzato su disco.
+     */
+    private int position;
+
+    private int committed;
+
+    private int uncommitted;
+
+    private int recordsSinceSnapshot;
+
+    private final CRC32 crc;
+
+    private boolean closed;
+
+    /**
+     * Apre lo scheduler persistente nella directory data con i parametri di
+     * default, ricostruendo i job in attesa se la directory contiene già uno
+     * scheduler.
+     *
+     * @param dir
+     *                la directory dei file dello scheduler, creata se non
+     *                esiste
+     * @throws IOException
+     *                         se ci sono errori di lettura o scrittura, o se i
+     *                         file non sono consistenti
+     */
+    public JournaledScheduler(Path dir) throws IOException {
+        this(dir, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Apre lo scheduler persistente nella directory data, ricostruendo i job
+     * in attesa se la directory contiene già uno scheduler.
+     *
+     * @param dir
+     *                             la directory dei file dello scheduler,
+     *                             creata se non esiste
+     * @param groupCommitSize
+     *                             il numero di record dopo il quale il
+     *                             giornale viene forzato su disco; con 1 ogni
+     *                             operazione è durevole quando ritorna
+     * @param snapshotInterval
+     *                             il numero di record dopo il quale viene
+     *                             fatto uno snapshot
+     * @throws IllegalArgumentException
+     *                                      se groupCommitSize o
+     *                                      snapshotInterval non sono positivi
+     * @throws IOException
+     *                                      se ci sono errori di lettura o
+     *                                      scrittura, o se i file non sono
+     *                                      consistenti
+     */
+    public JournaledScheduler(Path dir, int groupCommitSize,
+            int snapshotInterval) throws IOException {
+        if (groupCommitSize <= 0)
+            throw new IllegalArgumentException(
+                    "Dimensione del gruppo non positiva: " + groupCommitSize);
+        if (snapshotInterval <= 0)
+            throw new IllegalArgumentException(
+                    "Intervallo tra gli snapshot non positivo: "
+                            + snapshotInterval);
+        this.groupCommitSize = groupCommitSize;
+        this.snapshotInterval = snapshotInterval;
+        this.crc = new CRC32();
+        Files.createDirectories(dir);
+        this.journalPath = dir.resolve(JOURNAL_FILE);
+        this.snapshotPath = dir.resolve(SNAPSHOT_FILE);
+        // Id e job in attesa, nell'ordine in cui sono stati inseriti
+        Map<Long, Job> pending = new LinkedHashMap<Long, Job>();
+        readSnapshot(pending);
+        openJournal(pending);
+        this.ids = new IdentityHashMap<Job, Long>(pending.size());
+        for (Map.Entry<Long, Job> e : pending.entrySet())
+            this.ids.put(e.getValue(), e.getKey());
+        this.scheduler = new Scheduler();
+        this.scheduler.scheduleAll(pending.values());
+    }
+
+    /*
+     * Legge lo snapshot, se esiste, inserendo i suoi job in pending e
+     * impostando generazione e prossimo id.
+     */
+    private void readSnapshot(Map<Long, Job> pending) throws IOException {
+        this.generation = 0;
+        this.nextId = 0;
+        if (!Files.exists(this.snapshotPath))
+            return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(this.snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC)
+                throw new IOException("File di snapshot non valido: "
+                        + this.snapshotPath);
+            this.generation = in.readLong();
+            this.nextId = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                double deadline = in.readDouble();
+                int nameLength = in.readInt();
+                String name = null;
+                if (nameLength >= 0) {
+                    byte[] b = new byte[nameLength];
+                    in.readFully(b);
+                    name = new String(b, StandardCharsets.UTF_8);
+                }
+                pending.put(id, new Job(name, deadline));
+            }
+        } catch (EOFException e) {
+            throw new IOException("File di snapshot troncato: "
+                    + this.snapshotPath, e);
+        }
+    }
+
+    /*
+     * Apre il giornale della generazione corrente rieseguendo i suoi eventi
+     * su pending, oppure ne crea uno vuoto se non esiste o è di una
+     * generazione precedente.
+     */
+    private void openJournal(Map<Long, Job> pending) throws IOException {
+        if (Files.exists(this.journalPath)) {
+            FileChannel ch = FileChannel.open(this.journalPath,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = ch.size();
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+            ch.read(header, 0);
+            header.flip();
+            if (size < JOURNAL_HEADER_BYTES
+                    || header.getInt(0) != JOURNAL_MAGIC) {
+                ch.close();
+                throw new IOException(
+                        "File di giornale non valido: " + this.journalPath);
+            }
+            long journalGeneration = header.getLong(8);
+            if (journalGeneration > this.generation) {
+                ch.close();
+                throw new IOException("Il giornale " + this.journalPath
+                        + " è successivo allo snapshot");
+            }
+            if (journalGeneration == this.generation) {
+                if (size > MAX_JOURNAL_BYTES) {
+                    ch.close();
+                    throw new IOException(
+                            "File di giornale troppo grande: " + this.journalPath);
+                }
+                this.channel = ch;
+                this.journal = ch.map(FileChannel.MapMode.READ_WRITE, 0,
+                        Math.max(size, INITIAL_JOURNAL_BYTES));
+                this.position = replay(pending);
+                // Azzero quello che resta di un eventuale record scritto a
+                // metà, perché non venga confuso con i record successivi
+                byte[] zeros = new byte[4096];
+                for (int i = this.position; i < this.journal.capacity();
+                        i += zeros.length)
+                    this.journal.put(i, zeros, 0,
+                            Math.min(zeros.length, this.journal.capacity() - i));
+                this.journal.force();
+                this.committed = this.position;
+                return;
+            }
+            // Giornale già incluso nello snapshot
+            ch.close();
+        }
+        resetJournal();
+    }
+
+    /*
+     * Riesegue su pending gli eventi del giornale fino al primo record non
+     * valido e restituisce la sua posizione.
+     */
+    private int replay(Map<Long, Job> pending) {
+        MappedByteBuffer b = this.journal;
+        int p = JOURNAL_HEADER_BYTES;
+        while (p + RECORD_HEADER_BYTES <= b.capacity()) {
+            int length = b.getInt(p);
+            if (length < 9 || length > b.capacity() - p - RECORD_HEADER_BYTES)
+                break;
+            int start = p + RECORD_HEADER_BYTES;
+            this.crc.reset();
+            this.crc.update(b.slice(start, length));
+            if ((int) this.crc.getValue() != b.getInt(p + 4))
+                break;
+            byte type = b.get(start);
+            long id = b.getLong(start + 1);
+            if (type == SCHEDULE) {
+                double deadline = b.getDouble(start + 9);
+                int nameLength = b.getInt(start + 17);
+                String name = null;
+                if (nameLength >= 0) {
+                    byte[] n = new byte[nameLength];
+                    b.get(start + 21, n);
+                    name = new String(n, StandardCharsets.UTF_8);
+                }
+                pending.put(id, new Job(name, deadline));
+                this.nextId = Math.max(this.nextId, id + 1);
+            } else if (type == ANTICIPATE) {
+                Job j = pending.get(id);
+                if (j != null)
+                    j.setDeadline(b.getDouble(start + 9));
+            } else if (type == EXTRACT)
+                pending.remove(id);
+            else
+                break;
+            p = start + length;
+        }
+        return p;
+    }
+
+    /*
+     * Sostituisce il giornale con uno vuoto della generazione corrente.
+     */
+    private void resetJournal() throws IOException {
+        Path tmp = this.journalPath
+                .resolveSibling(this.journalPath.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES);
+            header.putInt(JOURNAL_MAGIC).putInt(0).putLong(this.generation);
+            header.flip();
+            ch.write(header, 0);
+            ch.force(true);
+        }
+        Files.move(tmp, this.journalPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        if (this.channel != null)
+            this.channel.close();
+        this.channel = FileChannel.open(this.journalPath,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.journal = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                INITIAL_JOURNAL_BYTES);
+        this.position = JOURNAL_HEADER_BYTES;
+        this.committed = this.position;
+        this.uncommitted = 0;
+        this.recordsSinceSnapshot = 0;
+    }
+
+    /*
+     * Aggiunge un record al giornale. Il nome è usato solo per SCHEDULE e la
+     * scadenza solo per SCHEDULE e ANTICIPATE.
+     */
+    private void append(byte type, long id, double deadline, byte[] name) {
+        int length = 9;
+        if (type != EXTRACT)
+            length += 8;
+        if (type == SCHEDULE)
+            length += 4 + (name == null ? 0 : name.length);
+        try {
+            ensureCapacity(RECORD_HEADER_BYTES + length);
+            MappedByteBuffer b = this.journal;
+            int start = this.position + RECORD_HEADER_BYTES;
+            b.put(start, type);
+            b.putLong(start + 1, id);
+            if (type != EXTRACT)
+                b.putDouble(start + 9, deadline);
+            if (type == SCHEDULE) {
+                b.putInt(start + 17, name == null ? -1 : name.length);
+                if (name != null)
+                    b.put(start + 21, name);
+            }
+            this.crc.reset();
+            this.crc.update(b.slice(start, length));
+            // La lunghezza è scritta per ultima, così un record è visibile
+            // solo quando è completo
+            b.putInt(this.position + 4, (int) this.crc.getValue());
+            b.putInt(this.position, length);
+            this.position = start + length;
+            if (++this.uncommitted >= this.groupCommitSize)
+                sync();
+            this.recordsSinceSnapshot++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Esegue uno snapshot se dall'ultimo sono stati scritti snapshotInterval
+     * record. Va chiamato alla fine di ogni operazione, dopo aver aggiornato
+     * lo stato in memoria, perché lo snapshot contenga l'effetto del record
+     * appena scritto, che viene tolto dal giornale.
+     */
+    private void snapshotIfNeeded() {
+        if (this.recordsSinceSnapshot < this.snapshotInterval)
+            return;
+        try {
+            snapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Ingrandisce la mappatura del giornale, se necessario, perché possa
+     * contenere altri bytes byte.
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (this.position + bytes <= this.journal.capacity())
+            return;
+        if ((long) this.position + bytes > MAX_JOURNAL_BYTES)
+            snapshot();
+        long newCapacity = Math.min(MAX_JOURNAL_BYTES,
+                Math.max(2L * this.journal.capacity(), this.position + bytes));
+        this.journal = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                newCapacity);
+    }
+
+    private void checkOpen() {
+        if (this.closed)
+            throw new IllegalStateException("Scheduler chiuso");
+    }
+
+    /**
+     * Inserisce un nuovo job nello scheduler. Il job deve avere una deadline
+     * già fissata.
+     *
+     * @param j
+     *              il nuovo job da inserire
+     * @throws NullPointerException
+     *                                      se il job è null
+     * @throws IllegalArgumentException
+     *                                      se il job è già in attesa in
+     *                                      questo scheduler
+     * @throws IllegalStateException
+     *                                      se lo scheduler è stato chiuso
+     * @throws UncheckedIOException
+     *                                      se ci sono errori di scrittura del
+     *                                      giornale
+     */
+    public void schedule(Job j) {
+        if (j == null)
+            throw new NullPointerException("Job nullo");
+        checkOpen();
+        if (this.ids.containsKey(j))
+            throw new IllegalArgumentException("Job già presente");
+        long id = this.nextId++;
+        byte[] name = j.getName() == null ? null
+                : j.getName().getBytes(StandardCharsets.UTF_8);
+        append(SCHEDULE, id, j.getDeadline(), name);
+        this.ids.put(j, id);
+        this.scheduler.schedule(j);
+        snapshotIfNeeded();
+    }
+
+    /**
+     * Estrae il prossimo job da eseguire, cioè quello con scadenza più
+     * ravvicinata.
+     *
+     * @return il prossimo job da eseguire
+     * @throws NoSuchElementException
+     *                                    se non ci sono job in attesa
+     * @throws IllegalStateException
+     *                                    se lo scheduler è stato chiuso
+     * @throws UncheckedIOException
+     *                                    se ci sono errori di scrittura del
+     *                                    giornale
+     */
+    public Job getNextJobToExecute() {
+        checkOpen();
+        Job j = this.scheduler.getNextJobToExecute();
+        long id = this.ids.remove(j);
+        append(EXTRACT, id, 0, null);
+        snapshotIfNeeded();
+        return j;
+    }
+
+    /**
+     * Anticipa un certo job di un certo tempo specificato.
+     *
+     * @param j
+     *                   il job da anticipare
+     * @param amount
+     *                   la quantità di tempo da anticipare
+     * @throws IllegalArgumentException
+     *                                      se amount è <= 0
+     * @throws NoSuchElementException
+     *                                      se il job non è in attesa in
+     *                                      questo scheduler
+     * @throws IllegalStateException
+     *                                      se lo scheduler è stato chiuso
+     * @throws UncheckedIOException
+     *                                      se ci sono errori di scrittura del
+     *                                      giornale
+     */
+    public void anticipateJob(Job j, double amount) {
+        checkOpen();
+        Long id = this.ids.get(j);
+        if (id == null)
+            throw new NoSuchElementException("Job non presente");
+        this.scheduler.anticipateJob(j, amount);
+        append(ANTICIPATE, id, j.getDeadline(), null);
+        snapshotIfNeeded();
+    }
+
+    /**
+     * @return il numero di job in attesa
+     */
+    public int size() {
+        return this.ids.size();
+    }
+
+    /**
+     * @return una lista dei job in attesa, in un ordine qualsiasi
+     */
+    public List<Job> getPendingJobs() {
+        return new ArrayList<Job>(this.ids.keySet());
+    }
+
+    /**
+     * Forza su disco tutti i record del giornale non ancora forzati.
+     *
+     * @throws IllegalStateException
+     *                                   se lo scheduler è stato chiuso
+     */
+    public void sync() {
+        checkOpen();
+        if (this.position > this.committed) {
+            this.journal.force(this.committed, this.position - this.committed);
+            this.committed = this.position;
+        }
+        this.uncommitted = 0;
+    }
+
+    /**
+     * Scrive uno snapshot di tutti i job in attesa e svuota il giornale.
+     *
+     * @throws IllegalStateException
+     *                                   se lo scheduler è stato chiuso
+     * @throws IOException
+     *                                   se ci sono errori di scrittura
+     */
+    public void snapshot() throws IOException {
+        checkOpen();
+        sync();
+        long newGeneration = this.generation + 1;
+        Path tmp = this.snapshotPath
+                .resolveSibling(this.snapshotPath.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(ch),
+                            1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(newGeneration);
+            out.writeLong(this.nextId);
+            out.writeInt(this.ids.size());
+            for (Map.Entry<Job, Long> e : this.ids.entrySet()) {
+                Job j = e.getKey();
+                out.writeLong(e.getValue());
+                out.writeDouble(j.getDeadline());
+                if (j.getName() == null)
+                    out.writeInt(-1);
+                else {
+                    byte[] name = j.getName().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+                }
+            }
+            out.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        // Da qui il vecchio giornale è superato dallo snapshot
+        this.generation = newGeneration;
+        resetJournal();
+    }
+
+    /**
+     * Forza su disco il giornale e chiude lo scheduler. Chiudere uno
+     * scheduler già chiuso non ha effetto.
+     *
+     * @throws IOException
+     *                         se ci sono errori nella chiusura del file
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed)
+            return;
+        sync();
+        this.closed = true;
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,134 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Confronta lo Scheduler in memoria con il JournaledScheduler con diverse
+ * dimensioni del group commit. Per ogni numero di job n, a partire da
+ * START_NUMBER_OF_JOBS e moltiplicando ogni volta per 10 fino a
+ * MAX_NUMBER_OF_JOBS, vengono inseriti n job con scadenze casuali, lo
+ * scheduler persistente viene chiuso e riaperto e infine vengono estratti
+ * tutti i job. Con group commit 1 ogni operazione forza il giornale su disco,
+ * per cui viene misurato solo fino a MAX_JOBS_UNGROUPED job.
+ * 
+ * Sul file journal.csv vengono scritti per ogni configurazione e numero di
+ * job il tempo medio in nanosecondi di un inserimento e di un'estrazione e il
+ * tempo in millisecondi della ricostruzione dei job alla riapertura (0 per lo
+ * scheduler in memoria). I file dello scheduler persistente vengono scritti
+ * in una directory temporanea.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class JournaledSchedulerEvaluationFramework {
+
+    private static final int START_NUMBER_OF_JOBS = 1000;
+
+    private static final int MAX_NUMBER_OF_JOBS = 1000000;
+
+    private static final int MAX_JOBS_UNGROUPED = 10000;
+
+    /*
+     * Dimensioni del group commit misurate; 0 indica lo scheduler in memoria
+     */
+    private static final int[] GROUP_COMMIT_SIZES = { 0, 1, 16, 256 };
+
+    /*
+     * Numero di ripetizioni per ogni misura, la prima è di riscaldamento e
+     * non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    public static void main(String[] args) throws IOException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "journal.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "journal.csv");
+            System.exit(1);
+        }
+        o.println("Mode,NumberOfJobs,ScheduleNs,ExtractNs,RecoveryMs");
+        Random randomGenerator = new Random();
+        for (int n = START_NUMBER_OF_JOBS; n <= MAX_NUMBER_OF_JOBS; n *= 10) {
+            double[] deadlines = new double[n];
+            for (int i = 0; i < n; i++)
+                deadlines[i] = randomGenerator.nextDouble() * n;
+            for (int g : GROUP_COMMIT_SIZES) {
+                if (g == 1 && n > MAX_JOBS_UNGROUPED)
+                    continue;
+                String mode = g == 0 ? "InMemory" : "Journaled" + g;
+                for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                    long[] t = g == 0 ? runInMemory(deadlines)
+                            : runJournaled(deadlines, g);
+                    if (s > 0) // la prima ripetizione è di riscaldamento
+                        o.println(mode + "," + n + "," + t[0] / n + ","
+                                + t[1] / n + "," + t[2] / 1e6);
+                }
+            }
+            System.out.println("Completate le misure per " + n + " job");
+        }
+        o.close();
+    }
+
+    /*
+     * Restituisce il tempo totale in nanosecondi degli inserimenti, delle
+     * estrazioni e della ricostruzione.
+     */
+    private static long[] runInMemory(double[] deadlines) {
+        Scheduler s = new Scheduler();
+        long start = System.nanoTime();
+        for (int i = 0; i < deadlines.length; i++)
+            s.schedule(new Job("Job" + i, deadlines[i]));
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < deadlines.length; i++)
+            s.getNextJobToExecute();
+        return new long[] { scheduled - start, System.nanoTime() - scheduled,
+                0 };
+    }
+
+    private static long[] runJournaled(double[] deadlines, int groupCommitSize)
+            throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        try {
+            JournaledScheduler s = new JournaledScheduler(dir, groupCommitSize,
+                    JournaledScheduler.DEFAULT_SNAPSHOT_INTERVAL);
+            long start = System.nanoTime();
+            for (int i = 0; i < deadlines.length; i++)
+                s.schedule(new Job("Job" + i, deadlines[i]));
+            s.sync();
+            long scheduled = System.nanoTime();
+            s.close();
+            long reopen = System.nanoTime();
+            s = new JournaledScheduler(dir, groupCommitSize,
+                    JournaledScheduler.DEFAULT_SNAPSHOT_INTERVAL);
+            long recovered = System.nanoTime();
+            for (int i = 0; i < deadlines.length; i++)
+                s.getNextJobToExecute();
+            s.sync();
+            long extracted = System.nanoTime();
+            s.close();
+            return new long[] { scheduled - start, extracted - recovered,
+                    recovered - reopen };
+        } finally {
+            for (String f : new String[] { JournaledScheduler.JOURNAL_FILE,
+                    JournaledScheduler.SNAPSHOT_FILE })
+                Files.deleteIfExists(dir.resolve(f));
+            Files.delete(dir);
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournaledSchedulerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    final void testOrder() throws IOException {
+        try (JournaledScheduler s = new JournaledScheduler(tempDir)) {
+            assertThrows(NullPointerException.class, () -> s.schedule(null));
+            assertThrows(NoSuchElementException.class,
+                    () -> s.getNextJobToExecute());
+            Job j30 = new Job("Job30", 30);
+            Job j25 = new Job("Job25", 25);
+            Job j41 = new Job("Job41", 41);
+            s.schedule(j30);
+            s.schedule(j25);
+            s.schedule(j41);
+            assertThrows(IllegalArgumentException.class, () -> s.schedule(j30));
+            s.anticipateJob(j41, 20);
+            assertThrows(IllegalArgumentException.class,
+                    () -> s.anticipateJob(j41, 0));
+            assertThrows(NoSuchElementException.class,
+                    () -> s.anticipateJob(new Job("Altro", 1), 1));
+            assertTrue(s.size() == 3);
+            assertTrue(s.getNextJobToExecute() == j41);
+            assertTrue(s.getNextJobToExecute() == j25);
+            assertTrue(s.getNextJobToExecute() == j30);
+            assertTrue(s.size() == 0);
+        }
+    }
+
+    @Test
+    final void testRecovery() throws IOException {
+        JournaledScheduler s = new JournaledScheduler(tempDir);
+        for (int i = 0; i < 100; i++)
+            s.schedule(new Job("Job" + i, 1000 - i));
+        // Estraggo i job con scadenza da 901 a 910
+        for (int i = 0; i < 10; i++)
+            s.getNextJobToExecute();
+        for (Job j : s.getPendingJobs())
+            if (j.getName().equals("Job50"))
+                s.anticipateJob(j, 900);
+        s.close();
+        assertThrows(IllegalStateException.class,
+                () -> s.schedule(new Job("Job", 1)));
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 90);
+            Job first = r.getNextJobToExecute();
+            assertEquals("Job50", first.getName());
+            assertEquals(50.0, first.getDeadline());
+            double last = Double.NEGATIVE_INFINITY;
+            while (r.size() > 0) {
+                Job j = r.getNextJobToExecute();
+                assertTrue(j.getDeadline() >= last);
+                assertEquals(1000 - Integer.parseInt(j.getName().substring(3)),
+                        j.getDeadline());
+                last = j.getDeadline();
+            }
+            assertTrue(last == 1000);
+        }
+    }
+
+    @Test
+    final void testSnapshot() throws IOException {
+        // Uno snapshot automatico ogni 7 record
+        try (JournaledScheduler s = new JournaledScheduler(tempDir, 3, 7)) {
+            for (int i = 0; i < 50; i++)
+                s.schedule(new Job(i % 5 == 0 ? null : "Job" + i, i));
+            for (int i = 0; i < 20; i++)
+                s.getNextJobToExecute();
+            s.snapshot();
+            s.schedule(new Job("Ultimo", -1));
+        }
+        assertTrue(Files.exists(tempDir.resolve(JournaledScheduler.SNAPSHOT_FILE)));
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 31);
+            assertEquals("Ultimo", r.getNextJobToExecute().getName());
+            for (int i = 20; i < 50; i++) {
+                Job j = r.getNextJobToExecute();
+                assertTrue(j.getDeadline() == i);
+                assertEquals(i % 5 == 0 ? null : "Job" + i, j.getName());
+            }
+            // I nuovi id non si sovrappongono a quelli ricostruiti
+            r.schedule(new Job("Nuovo", 3));
+        }
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 1);
+            assertEquals("Nuovo", r.getNextJobToExecute().getName());
+        }
+    }
+
+    @Test
+    final void testSnapshotOnLastRecord() throws IOException {
+        // L'intervallo divide il numero di record: l'ultimo record di ogni
+        // gruppo fa partire uno snapshot che deve contenere il suo effetto
+        try (JournaledScheduler s = new JournaledScheduler(tempDir, 1, 4)) {
+            for (int i = 0; i < 8; i++)
+                s.schedule(new Job("j" + i, i));
+        }
+        try (JournaledScheduler r = new JournaledScheduler(tempDir, 1, 4)) {
+            assertTrue(r.size() == 8);
+            List<Job> pending = r.getPendingJobs();
+            assertTrue(pending.stream().anyMatch(j -> "j7".equals(j.getName())));
+            // 2 estrazioni e 2 anticipi: il quarto record fa partire lo snapshot
+            assertEquals("j0", r.getNextJobToExecute().getName());
+            assertEquals("j1", r.getNextJobToExecute().getName());
+            Job j7 = pending.stream().filter(j -> "j7".equals(j.getName())).findFirst().get();
+            Job j6 = pending.stream().filter(j -> "j6".equals(j.getName())).findFirst().get();
+            r.anticipateJob(j6, 10);
+            r.anticipateJob(j7, 20);
+        }
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 6);
+            assertEquals("j7", r.getNextJobToExecute().getName());
+            assertEquals("j6", r.getNextJobToExecute().getName());
+        }
+    }
+
+    @Test
+    final void testTornTail() throws IOException {
+        try (JournaledScheduler s = new JournaledScheduler(tempDir)) {
+            for (int i = 0; i < 10; i++)
+                s.schedule(new Job("Job" + i, i));
+        }
+        Path journal = tempDir.resolve(JournaledScheduler.JOURNAL_FILE);
+        byte[] content = Files.readAllBytes(journal);
+        // Cerco la fine dei record, seguita solo da zeri
+        int end = content.length;
+        while (content[end - 1] == 0)
+            end--;
+        // Simulo l'ultimo record scritto a metà modificando il suo ultimo
+        // byte
+        try (RandomAccessFile f = new RandomAccessFile(journal.toFile(), "rw")) {
+            f.seek(end - 1);
+            f.write(content[end - 1] ^ 0x5A);
+        }
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 9);
+            r.schedule(new Job("Nuovo", 100));
+        }
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 10);
+            for (int i = 0; i < 9; i++)
+                assertEquals("Job" + i, r.getNextJobToExecute().getName());
+            assertEquals("Nuovo", r.getNextJobToExecute().getName());
+        }
+    }
+
+    @Test
+    final void testCrashDuringSnapshot() throws IOException {
+        Path journal = tempDir.resolve(JournaledScheduler.JOURNAL_FILE);
+        Path oldJournal = tempDir.resolve("old.journal");
+        try (JournaledScheduler s = new JournaledScheduler(tempDir)) {
+            for (int i = 0; i < 10; i++)
+                s.schedule(new Job("Job" + i, i));
+            s.getNextJobToExecute();
+            s.sync();
+            Files.copy(journal, oldJournal);
+            s.snapshot();
+        }
+        // Simulo una terminazione dopo la scrittura dello snapshot ma prima
+        // della sostituzione del giornale: il vecchio giornale va ignorato
+        Files.move(oldJournal, journal, StandardCopyOption.REPLACE_EXISTING);
+        try (JournaledScheduler r = new JournaledScheduler(tempDir)) {
+            assertTrue(r.size() == 9);
+            for (int i = 1; i < 10; i++)
+                assertEquals("Job" + i, r.getNextJobToExecute().getName());
+        }
+        // Lo snapshot da solo non basta
+        Files.delete(tempDir.resolve(JournaledScheduler.SNAPSHOT_FILE));
+        assertThrows(IOException.class, () -> new JournaledScheduler(tempDir));
+    }
+
+}
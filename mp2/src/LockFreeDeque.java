@@ -0,0 +1,367 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free unbounded deque that can be used by any number of threads at
+ * both ends, based on the algorithm of M. M. Michael, "CAS-Based Lock-Free
+ * Algorithm for Shared Deques" (Euro-Par 2003).
+ * <p>
+ * The elements are kept in a double-linked list. The pointers to the first
+ * and the last node, together with a status, are kept in an immutable
+ * anchor, that is replaced with a single compare-and-set. A push creates the
+ * new node, links it to the current end node and installs an anchor pointing
+ * to it with a status that tells that the list is not yet stable, because
+ * the old end node does not point to the new node; the list is then
+ * stabilized by setting the missing pointer, either by the same thread or by
+ * any other thread that finds the anchor in this status. A pop replaces a
+ * stable anchor with one that does not contain the node to remove. In this
+ * way every operation is linearizable and no thread can be blocked by a
+ * thread that has been suspended in the middle of an operation.
+ * <p>
+ * Nodes and anchors are never reused, so the garbage collector prevents the
+ * ABA problem. Only the operations that can be linearized on the ends of the
+ * deque are provided; <code>null</code> elements are not permitted.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class LockFreeDeque<E> {
+
+    private static final int STABLE = 0;
+
+    /*
+     * A node was pushed at the first end and its right neighbour does not
+     * point to it yet
+     */
+    private static final int LEFT_PUSH = 1;
+
+    /*
+     * A node was pushed at the last end and its left neighbour does not point
+     * to it yet
+     */
+    private static final int RIGHT_PUSH = 2;
+
+    private static final VarHandle LEFT;
+
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            LEFT = l.findVarHandle(Node.class, "left", Node.class);
+            RIGHT = l.findVarHandle(Node.class, "right", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+     * The anchor of an empty deque
+     */
+    private static final Anchor<?> EMPTY = new Anchor<Object>(null, null, STABLE);
+
+    private final AtomicReference<Anchor<E>> anchor;
+
+    /**
+     * Constructs an empty deque.
+     */
+    @SuppressWarnings("unchecked")
+    public LockFreeDeque() {
+        this.anchor = new AtomicReference<Anchor<E>>((Anchor<E>) EMPTY);
+    }
+
+    /**
+     * Insert the element at the front of this deque.
+     *
+     * @param e the element to insert
+     * @throws NullPointerException if e is null
+     */
+    public void addFirst(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Node<E> node = new Node<E>(e);
+        while (true) {
+            Anchor<E> a = this.anchor.get();
+            if (a.first == null) {
+                if (this.anchor.compareAndSet(a,
+                        new Anchor<E>(node, node, STABLE))) {
+                    return;
+                }
+            } else if (a.status == STABLE) {
+                node.right = a.first;
+                Anchor<E> pushed = new Anchor<E>(node, a.last, LEFT_PUSH);
+                if (this.anchor.compareAndSet(a, pushed)) {
+                    stabilize(pushed);
+                    return;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    /**
+     * Insert the element at the end of this deque.
+     *
+     * @param e the element to insert
+     * @throws NullPointerException if e is null
+     */
+    public void addLast(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Node<E> node = new Node<E>(e);
+        while (true) {
+            Anchor<E> a = this.anchor.get();
+            if (a.last == null) {
+                if (this.anchor.compareAndSet(a,
+                        new Anchor<E>(node, node, STABLE))) {
+                    return;
+                }
+            } else if (a.status == STABLE) {
+                node.left = a.last;
+                Anchor<E> pushed = new Anchor<E>(a.first, node, RIGHT_PUSH);
+                if (this.anchor.compareAndSet(a, pushed)) {
+                    stabilize(pushed);
+                    return;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    /*
+     * Complete the push recorded in the anchor a, setting the pointer of the
+     * old end node to the new one, and mark the anchor as stable
+     */
+    private void stabilize(Anchor<E> a) {
+        if (a.status == RIGHT_PUSH) {
+            Node<E> prev = a.last.left;
+            Node<E> prevNext = prev.right;
+            if (prevNext != a.last) {
+                // The anchor is read again so as not to change a node that
+                // has been removed in the meantime
+                if (this.anchor.get() != a
+                        || !RIGHT.compareAndSet(prev, prevNext, a.last)) {
+                    return;
+                }
+            }
+        } else {
+            Node<E> next = a.first.right;
+            Node<E> nextPrev = next.left;
+            if (nextPrev != a.first) {
+                if (this.anchor.get() != a
+                        || !LEFT.compareAndSet(next, nextPrev, a.first)) {
+                    return;
+                }
+            }
+        }
+        this.anchor.compareAndSet(a, new Anchor<E>(a.first, a.last, STABLE));
+    }
+
+    /**
+     * Insert the element at the front of this deque.
+     *
+     * @param e the element to insert
+     * @return true
+     * @throws NullPointerException if e is null
+     */
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+
+    /**
+     * Insert the element at the end of this deque.
+     *
+     * @param e the element to insert
+     * @return true
+     * @throws NullPointerException if e is null
+     */
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+
+    /**
+     * Remove and return the first element of this deque.
+     *
+     * @return the first element, or null if the deque is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E pollFirst() {
+        while (true) {
+            Anchor<E> a = this.anchor.get();
+            if (a.first == null) {
+                return null;
+            }
+            if (a.status != STABLE) {
+                stabilize(a);
+            } else if (a.first == a.last) {
+                if (this.anchor.compareAndSet(a, (Anchor<E>) EMPTY)) {
+                    return a.first.item;
+                }
+            } else if (this.anchor.compareAndSet(a,
+                    new Anchor<E>(a.first.right, a.last, STABLE))) {
+                return a.first.item;
+            }
+        }
+    }
+
+    /**
+     * Remove and return the last element of this deque.
+     *
+     * @return the last element, or null if the deque is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E pollLast() {
+        while (true) {
+            Anchor<E> a = this.anchor.get();
+            if (a.last == null) {
+                return null;
+            }
+            if (a.status != STABLE) {
+                stabilize(a);
+            } else if (a.first == a.last) {
+                if (this.anchor.compareAndSet(a, (Anchor<E>) EMPTY)) {
+                    return a.last.item;
+                }
+            } else if (this.anchor.compareAndSet(a,
+                    new Anchor<E>(a.first, a.last.left, STABLE))) {
+                return a.last.item;
+            }
+        }
+    }
+
+    /**
+     * Remove and return the first element of this deque.
+     *
+     * @return the first element
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public E removeFirst() {
+        E e = pollFirst();
+        if (e == null) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return e;
+    }
+
+    /**
+     * Remove and return the last element of this deque.
+     *
+     * @return the last element
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public E removeLast() {
+        E e = pollLast();
+        if (e == null) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return e;
+    }
+
+    /**
+     * Return, without removing it, the first element of this deque.
+     *
+     * @return the first element, or null if the deque is empty
+     */
+    public E peekFirst() {
+        Node<E> first = this.anchor.get().first;
+        return first == null ? null : first.item;
+    }
+
+    /**
+     * Return, without removing it, the last element of this deque.
+     *
+     * @return the last element, or null if the deque is empty
+     */
+    public E peekLast() {
+        Node<E> last = this.anchor.get().last;
+        return last == null ? null : last.item;
+    }
+
+    /**
+     * Push an element at the front of this deque, used as a stack.
+     *
+     * @param e the element to push
+     * @throws NullPointerException if e is null
+     */
+    public void push(E e) {
+        addFirst(e);
+    }
+
+    /**
+     * Pop an element from the front of this deque, used as a stack.
+     *
+     * @return the first element
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public E pop() {
+        return removeFirst();
+    }
+
+    /**
+     * Insert the element at the end of this deque, used as a queue.
+     *
+     * @param e the element to insert
+     * @return true
+     * @throws NullPointerException if e is null
+     */
+    public boolean offer(E e) {
+        return offerLast(e);
+    }
+
+    /**
+     * Remove and return the first element of this deque, used as a queue.
+     *
+     * @return the first element, or null if the deque is empty
+     */
+    public E poll() {
+        return pollFirst();
+    }
+
+    /**
+     * @return true if this deque has no elements
+     */
+    public boolean isEmpty() {
+        return this.anchor.get().first == null;
+    }
+
+    /*
+     * A node of the double-linked list. The pointers are changed only with
+     * the VarHandles LEFT and RIGHT or before the node is published.
+     */
+    private static class Node<E> {
+        private final E item;
+
+        private volatile Node<E> left;
+
+        private volatile Node<E> right;
+
+        private Node(E item) {
+            this.item = item;
+        }
+    }
+
+    /*
+     * The immutable state of the deque: its end nodes, both null if the deque
+     * is empty, and the status of the list.
+     */
+    private static class Anchor<E> {
+        private final Node<E> first;
+
+        private final Node<E> last;
+
+        private final int status;
+
+        private Anchor(Node<E> first, Node<E> last, int status) {
+            this.first = first;
+            this.last = last;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockFreeDequeTest {
+
+    @Test
+    final void testSingleThread() {
+        LockFreeDeque<String> d = new LockFreeDeque<String>();
+        assertThrows(NullPointerException.class, () -> d.addFirst(null));
+        assertThrows(NullPointerException.class, () -> d.offer(null));
+        assertThrows(NoSuchElementException.class, () -> d.pop());
+        assertThrows(NoSuchElementException.class, () -> d.removeLast());
+        assertNull(d.poll());
+        assertNull(d.pollLast());
+        assertNull(d.peekFirst());
+        assertTrue(d.isEmpty());
+        d.push("Pippo");
+        d.offer("Pluto");
+        d.addFirst("Minnie");
+        d.offerLast("Qui");
+        // Minnie, Pippo, Pluto, Qui
+        assertFalse(d.isEmpty());
+        assertEquals("Minnie", d.peekFirst());
+        assertEquals("Qui", d.peekLast());
+        assertEquals("Qui", d.pollLast());
+        assertEquals("Minnie", d.pop());
+        assertEquals("Pluto", d.removeLast());
+        d.offerFirst("Quo");
+        assertEquals("Pippo", d.removeLast());
+        assertEquals("Quo", d.poll());
+        assertTrue(d.isEmpty());
+        assertNull(d.peekLast());
+    }
+
+    @Test
+    final void testStress() throws InterruptedException {
+        final int threads = 6;
+        final int elementsPerThread = 50000;
+        LockFreeDeque<Integer> d = new LockFreeDeque<Integer>();
+        AtomicIntegerArray taken = new AtomicIntegerArray(
+                threads * elementsPerThread);
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            final int base = t * elementsPerThread;
+            final long seed = t;
+            Thread w = new Thread(() -> {
+                Random r = new Random(seed);
+                for (int i = 0; i < elementsPerThread; i++) {
+                    // Inserimenti ed estrazioni a caso sulle due estremità
+                    if (r.nextBoolean())
+                        d.addFirst(base + i);
+                    else
+                        d.addLast(base + i);
+                    Integer e = r.nextBoolean() ? d.pollFirst() : d.pollLast();
+                    if (e != null)
+                        taken.incrementAndGet(e);
+                }
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers)
+            w.join();
+        Integer e;
+        while ((e = d.pollFirst()) != null)
+            taken.incrementAndGet(e);
+        // Ogni elemento è stato estratto esattamente una volta
+        for (int i = 0; i < threads * elementsPerThread; i++)
+            assertEquals(1, taken.get(i), "Elemento " + i);
+    }
+
+    @Test
+    final void testOrderUnderConcurrency() throws InterruptedException {
+        final int elements = 100000;
+        LockFreeDeque<Integer> d = new LockFreeDeque<Integer>();
+        // Un thread inserisce in fondo, un altro inserisce in testa numeri
+        // negativi: alla fine gli elementi di ciascuno sono in ordine
+        Thread last = new Thread(() -> {
+            for (int i = 1; i <= elements; i++)
+                d.addLast(i);
+        });
+        Thread first = new Thread(() -> {
+            for (int i = 1; i <= elements; i++)
+                d.addFirst(-i);
+        });
+        last.start();
+        first.start();
+        last.join();
+        first.join();
+        int expectedNegative = -elements;
+        int expectedPositive = 1;
+        Integer e;
+        while ((e = d.pollFirst()) != null) {
+            if (e < 0)
+                assertEquals(expectedNegative++, e);
+            else
+                assertEquals(expectedPositive++, e);
+        }
+        assertEquals(0, expectedNegative);
+        assertEquals(elements + 1, expectedPositive);
+    }
+
+}
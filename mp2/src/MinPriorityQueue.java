@@ -0,0 +1,96 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * Operations of a "dynamic" min-priority queue of
+ * <code>PriorityQueueElement</code>s, i.e., a queue in which the priority of an
+ * element already present may be decreased. Implementations use the handle of
+ * the elements to find them in constant time, so the same element must not be
+ * present in two queues at the same time.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public interface MinPriorityQueue {
+
+    /**
+     * Return the current size of this queue.
+     *
+     * @return the number of elements currently in this queue.
+     */
+    public int size();
+
+    /**
+     * Add an element to this min-priority queue. The current priority
+     * associated with the element will be used to place it in the correct
+     * position. The handle of the element will also be set accordingly.
+     *
+     * @param element the new element to add
+     * @throws NullPointerException if the element passed is null
+     */
+    public void insert(PriorityQueueElement element);
+
+    /**
+     * Add all the elements of a collection to this min-priority queue. The
+     * default implementation inserts them one at a time; implementations may
+     * provide a faster bulk operation.
+     *
+     * @param elements the new elements to add
+     * @throws NullPointerException if the collection or one of its elements
+     *                              is null
+     */
+    public default void insertAll(Collection<? extends PriorityQueueElement> elements) {
+        for (PriorityQueueElement e : elements) {
+            insert(e);
+        }
+    }
+
+    /**
+     * Returns the current minimum element of this min-priority queue without
+     * extracting it.
+     *
+     * @return the current minimum element of this min-priority queue
+     * @throws NoSuchElementException if this min-priority queue is empty
+     */
+    public PriorityQueueElement minimum();
+
+    /**
+     * Extract the current minimum element from this min-priority queue.
+     *
+     * @return the current minimum element
+     * @throws NoSuchElementException if this min-priority queue is empty
+     */
+    public PriorityQueueElement extractMinimum();
+
+    /**
+     * Decrease the priority associated to an element of this min-priority
+     * queue. The changed element may become the minimum element.
+     *
+     * @param element     the element whose priority will be decreased, it
+     *                    must currently be inside this min-priority queue
+     * @param newPriority the new priority to assign to the element
+     * @throws NoSuchElementException   if the element is not currently
+     *                                  present in this min-priority queue
+     * @throws IllegalArgumentException if the specified newPriority is not
+     *                                  strictly less than the current
+     *                                  priority of the element
+     */
+    public void decreasePriority(PriorityQueueElement element, double newPriority);
+
+    /**
+     * Remove an element from this min-priority queue, for instance because
+     * the job it represents has been cancelled. The handle of the removed
+     * element is set to -1.
+     *
+     * @param element the element to remove, it must currently be inside this
+     *                min-priority queue
+     * @throws NoSuchElementException if the element is not currently present
+     *                                in this min-priority queue
+     */
+    public void remove(PriorityQueueElement element);
+
+    /**
+     * Erase all the elements from this min-priority queue.
+     */
+    public void clear();
+
+}
@@ -0,0 +1,289 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that provides an implementation of a "dynamic" min-priority queue based
+ * on a pairing heap. Insert and decreasePriority take O(1) time, while
+ * extractMinimum takes O(log n) amortized time, so this queue is convenient
+ * when the priorities are decreased much more often than the minimum is
+ * extracted.
+ * <p>
+ * The pairing heap is a tree of nodes in which every node has a priority not
+ * greater than the priorities of its children. The children of a node are kept
+ * in a doubly linked list. Decreasing the priority of a node cuts its subtree
+ * and links it to the root; extracting the minimum merges the children of the
+ * root with the classic two-pass pairing.
+ * <p>
+ * The handle of an element is the index of its node in an array of nodes, so
+ * that decreasePriority finds the node in constant time as in the array-based
+ * heaps. The positions freed by extractMinimum are reused by the following
+ * insertions. As in <code>DaryHeapMinPriorityQueue</code> the priority of an
+ * element is read once, when it is inserted, and then changed only through
+ * <code>decreasePriority</code>.
+ * <p>
+ * This min-priority queue does not have capacity restrictions. Duplicated
+ * elements are permitted while <code>null</code> elements are not permitted.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class PairingHeapMinPriorityQueue implements MinPriorityQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Node of the pairing heap. prev is the previous sibling or, for the first
+     * child of a node, the parent itself.
+     */
+    private static class Node {
+        private PriorityQueueElement element;
+
+        private double priority;
+
+        private Node child;
+
+        private Node next;
+
+        private Node prev;
+
+        /*
+         * Position of this node in the nodes array, i.e., the handle of its
+         * element.
+         */
+        private final int index;
+
+        private Node(int index) {
+            this.index = index;
+        }
+    }
+
+    private Node root;
+
+    /*
+     * nodes[h] is the node of the element with handle h. Free positions are
+     * listed in freeIndexes.
+     */
+    private Node[] nodes;
+
+    private int[] freeIndexes;
+
+    private int freeCount;
+
+    /*
+     * Number of positions of nodes used so far, free or not.
+     */
+    private int used;
+
+    private int size;
+
+    /*
+     * Temporary list used by extractMinimum for the two-pass pairing.
+     */
+    private final ArrayList<Node> pairs;
+
+    /**
+     * Create an empty queue.
+     */
+    public PairingHeapMinPriorityQueue() {
+        this.nodes = new Node[INITIAL_CAPACITY];
+        this.freeIndexes = new int[INITIAL_CAPACITY];
+        this.pairs = new ArrayList<Node>();
+        this.root = null;
+        this.freeCount = 0;
+        this.used = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void insert(PriorityQueueElement element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        Node n = allocate();
+        n.element = element;
+        n.priority = element.getPriority();
+        element.setHandle(n.index);
+        this.root = this.root == null ? n : link(this.root, n);
+        this.size++;
+    }
+
+    /*
+     * Return a free node, reusing a freed position if there is one.
+     */
+    private Node allocate() {
+        if (this.freeCount > 0) {
+            return this.nodes[this.freeIndexes[--this.freeCount]];
+        }
+        if (this.used == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, this.used * 2);
+        }
+        Node n = new Node(this.used);
+        this.nodes[this.used++] = n;
+        return n;
+    }
+
+    private void free(Node n) {
+        n.element.setHandle(-1);
+        n.element = null;
+        n.child = null;
+        n.next = null;
+        n.prev = null;
+        if (this.freeCount == this.freeIndexes.length) {
+            this.freeIndexes = Arrays.copyOf(this.freeIndexes, this.freeCount * 2);
+        }
+        this.freeIndexes[this.freeCount++] = n.index;
+    }
+
+    /*
+     * Link two roots: the one with the greater priority becomes the first child
+     * of the other, which is returned.
+     */
+    private static Node link(Node a, Node b) {
+        if (b.priority < a.priority) {
+            Node t = a;
+            a = b;
+            b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        a.next = null;
+        a.prev = null;
+        return a;
+    }
+
+    @Override
+    public PriorityQueueElement minimum() {
+        if (this.root == null) {
+            throw new NoSuchElementException();
+        }
+        return this.root.element;
+    }
+
+    @Override
+    public PriorityQueueElement extractMinimum() {
+        if (this.root == null) {
+            throw new NoSuchElementException();
+        }
+        Node min = this.root;
+        PriorityQueueElement e = min.element;
+        this.root = mergePairs(min.child);
+        this.size--;
+        free(min);
+        return e;
+    }
+
+    /*
+     * Two-pass pairing of a list of sibling trees: first link them in pairs
+     * from left to right, then link the results from right to left.
+     */
+    private Node mergePairs(Node first) {
+        if (first == null) {
+            return null;
+        }
+        ArrayList<Node> p = this.pairs;
+        Node a = first;
+        while (a != null) {
+            Node b = a.next;
+            Node rest = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+                a = link(a, b);
+            }
+            p.add(a);
+            a = rest;
+        }
+        Node r = p.get(p.size() - 1);
+        for (int i = p.size() - 2; i >= 0; i--) {
+            r = link(p.get(i), r);
+        }
+        p.clear();
+        return r;
+    }
+
+    @Override
+    public void decreasePriority(PriorityQueueElement element, double newPriority) {
+        int h = element.getHandle();
+        if (h < 0 || h >= this.used || this.nodes[h].element != element) {
+            throw new NoSuchElementException();
+        }
+        Node n = this.nodes[h];
+        if (n.priority <= newPriority) {
+            throw new IllegalArgumentException();
+        }
+        element.setPriority(newPriority);
+        n.priority = newPriority;
+        if (n == this.root) {
+            return;
+        }
+        // Cut the subtree of n from its parent and link it to the root
+        cut(n);
+        this.root = link(this.root, n);
+    }
+
+    /*
+     * Detach node n, which is not the root, with its subtree from the list of
+     * children of its parent.
+     */
+    private static void cut(Node n) {
+        if (n.prev.child == n) {
+            n.prev.child = n.next;
+        } else {
+            n.prev.next = n.next;
+        }
+        if (n.next != null) {
+            n.next.prev = n.prev;
+        }
+        n.next = null;
+        n.prev = null;
+    }
+
+    @Override
+    public void remove(PriorityQueueElement element) {
+        int h = element.getHandle();
+        if (h < 0 || h >= this.used || this.nodes[h].element != element) {
+            throw new NoSuchElementException();
+        }
+        Node n = this.nodes[h];
+        if (n == this.root) {
+            this.root = mergePairs(n.child);
+        } else {
+            // The children of n are paired as in extractMinimum and the
+            // resulting tree is linked to the root
+            cut(n);
+            Node children = mergePairs(n.child);
+            if (children != null) {
+                this.root = link(this.root, children);
+            }
+        }
+        this.size--;
+        free(n);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.used; i++) {
+            if (this.nodes[i].element != null) {
+                this.nodes[i].element.setHandle(-1);
+            }
+        }
+        this.nodes = new Node[INITIAL_CAPACITY];
+        this.freeIndexes = new int[INITIAL_CAPACITY];
+        this.root = null;
+        this.freeCount = 0;
+        this.used = 0;
+        this.size = 0;
+    }
+
+}
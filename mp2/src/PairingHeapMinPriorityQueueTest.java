@@ -0,0 +1,146 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairingHeapMinPriorityQueueTest {
+
+    @Test
+    final void testInsertMinimum() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        assertThrows(NullPointerException.class, () -> h.insert(null));
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        assertTrue(h.minimum() == j30);
+        Job j25 = new Job("Job25", 25);
+        h.insert(j25);
+        Job j41 = new Job("Job41", 41);
+        h.insert(j41);
+        assertTrue(h.minimum() == j25);
+        assertTrue(h.size() == 3);
+        assertTrue(j30.getHandle() != j25.getHandle());
+    }
+
+    @Test
+    final void testExtractMinimum() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        assertThrows(NoSuchElementException.class, () -> h.extractMinimum());
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++)
+            h.insert(new Job("Job" + i, random.nextInt(500)));
+        double last = Double.NEGATIVE_INFINITY;
+        while (h.size() > 0) {
+            PriorityQueueElement e = h.extractMinimum();
+            assertTrue(e.getPriority() >= last);
+            assertTrue(e.getHandle() == -1);
+            last = e.getPriority();
+        }
+    }
+
+    @Test
+    final void testDecreasePriority() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 100; i++) {
+            Job j = new Job("Job" + i, 1000 + i);
+            jobs.add(j);
+            h.insert(j);
+        }
+        h.extractMinimum();
+        Job j50 = jobs.get(50);
+        assertThrows(IllegalArgumentException.class,
+                () -> h.decreasePriority(j50, 1050));
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(jobs.get(0), 5));
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(new Job("Other", 10), 5));
+        h.decreasePriority(j50, 1);
+        assertTrue(j50.getPriority() == 1);
+        assertTrue(h.minimum() == j50);
+        // Anticipo anche la radice
+        h.decreasePriority(j50, 0);
+        assertTrue(h.minimum() == j50);
+    }
+
+    @Test
+    final void testRandomOperationsAgainstPriorityQueue() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        PriorityQueue<Double> expected = new PriorityQueue<Double>();
+        List<Job> present = new ArrayList<Job>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 3 || present.isEmpty()) {
+                Job j = new Job("Job" + i, random.nextDouble() * 1000);
+                h.insert(j);
+                present.add(j);
+                expected.add(j.getPriority());
+            } else if (op < 8) {
+                Job j = present.get(random.nextInt(present.size()));
+                double newPriority = j.getPriority() - random.nextDouble() * 10
+                        - 0.001;
+                expected.remove(j.getPriority());
+                expected.add(newPriority);
+                h.decreasePriority(j, newPriority);
+            } else {
+                Job j = (Job) h.extractMinimum();
+                assertTrue(j.getPriority() == expected.poll());
+                present.remove(j);
+            }
+            assertTrue(h.size() == expected.size());
+        }
+    }
+
+    @Test
+    final void testRemove() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        Random random = new Random(3);
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 300; i++) {
+            Job j = new Job("Job" + i, random.nextInt(100));
+            jobs.add(j);
+            h.insert(j);
+        }
+        // Tolgo un job ogni tre, compreso a volte il minimo
+        List<Double> expected = new ArrayList<Double>();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job j = jobs.get(i);
+            if (i % 3 == 0) {
+                h.remove(j);
+                assertTrue(j.getHandle() == -1);
+                assertThrows(NoSuchElementException.class, () -> h.remove(j));
+            } else {
+                expected.add(j.getPriority());
+            }
+        }
+        assertTrue(h.size() == expected.size());
+        assertThrows(NoSuchElementException.class,
+                () -> h.remove(new Job("Other", 10)));
+        expected.sort(null);
+        for (Double p : expected)
+            assertTrue(h.extractMinimum().getPriority() == p);
+        assertTrue(h.size() == 0);
+    }
+
+    @Test
+    final void testClear() {
+        PairingHeapMinPriorityQueue h = new PairingHeapMinPriorityQueue();
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        h.insert(new Job("Job25", 25));
+        h.clear();
+        assertTrue(h.size() == 0);
+        assertTrue(j30.getHandle() == -1);
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+        h.insert(j30);
+        assertTrue(h.minimum() == j30);
+    }
+
+}
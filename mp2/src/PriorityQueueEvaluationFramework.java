@@ -0,0 +1,183 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Confronta diverse realizzazioni di MinPriorityQueue sulle stesse sequenze di
+ * operazioni. Per ogni numero di job n vengono misurati separatamente, in
+ * nanosecondi, il tempo per inserire n job con scadenze casuali, per fare n
+ * decreasePriority su job casuali ancora in coda, per una fase mista di n
+ * passi in cui ogni passo fa un inserimento, MIXED_DECREASES_PER_STEP
+ * decreasePriority e una estrazione, e infine per estrarre tutti i job. I
+ * risultati sono scritti sul file priorityqueue.csv.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class PriorityQueueEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di ripetizioni per ogni dimensione, la prima è di riscaldamento
+     * e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    /*
+     * Numero di decreasePriority per ogni estrazione nella fase mista
+     */
+    private static final int MIXED_DECREASES_PER_STEP = 8;
+
+    /*
+     * Una realizzazione da valutare, con il nome da usare nel file csv.
+     */
+    private static class Candidate {
+        private final String name;
+
+        private final Supplier<MinPriorityQueue> factory;
+
+        private Candidate(String name, Supplier<MinPriorityQueue> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "priorityqueue.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "priorityqueue.csv");
+            System.exit(1);
+        }
+        // Inserisco le realizzazioni che voglio confrontare
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        candidates.add(new Candidate("TernaryHeap",
+                TernaryHeapMinPriorityQueue::new));
+        // La stessa coda con le statistiche abilitate, per misurarne il costo
+        candidates.add(new Candidate("TernaryHeapStats", () -> {
+            TernaryHeapMinPriorityQueue q = new TernaryHeapMinPriorityQueue();
+            q.enableStatistics();
+            return q;
+        }));
+        candidates.add(new Candidate("DaryHeap2",
+                () -> new DaryHeapMinPriorityQueue(2)));
+        candidates.add(new Candidate("DaryHeap3",
+                () -> new DaryHeapMinPriorityQueue(3)));
+        candidates.add(new Candidate("DaryHeap4",
+                () -> new DaryHeapMinPriorityQueue(4)));
+        candidates.add(new Candidate("DaryHeap8",
+                () -> new DaryHeapMinPriorityQueue(8)));
+        candidates.add(new Candidate("PairingHeap",
+                PairingHeapMinPriorityQueue::new));
+        candidates.add(new Candidate("TimingWheel",
+                TimingWheelMinPriorityQueue::new));
+        o.print("N,");
+        for (Candidate c : candidates)
+            o.print(c.name + "InsertTns," + c.name + "DecreaseTns," + c.name
+                    + "MixedTns," + c.name + "ExtractTns,");
+        o.print("\n");
+        Random randomGenerator = new Random();
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                // Genero le scadenze e la sequenza dei job da anticipare,
+                // uguali per tutte le realizzazioni
+                double[] deadlines = new double[n];
+                for (int i = 0; i < n; i++)
+                    deadlines[i] = randomGenerator.nextDouble() * n;
+                // Nella fase mista si usano 2n job: gli n già inseriti e gli
+                // n inseriti durante la fase
+                int nDecreased = n + n * MIXED_DECREASES_PER_STEP;
+                int[] decreased = new int[nDecreased];
+                double[] amounts = new double[nDecreased];
+                for (int i = 0; i < nDecreased; i++) {
+                    decreased[i] = randomGenerator
+                            .nextInt(i < n ? n : 2 * n);
+                    amounts[i] = randomGenerator.nextDouble() * 10 + 1;
+                }
+                double[] mixedDeadlines = new double[n];
+                for (int i = 0; i < n; i++)
+                    mixedDeadlines[i] = randomGenerator.nextDouble() * n;
+                StringBuilder line = new StringBuilder(n + ",");
+                for (Candidate c : candidates) {
+                    long[] times = measure(c.factory.get(), deadlines,
+                            mixedDeadlines, decreased, amounts);
+                    line.append(times[0] + "," + times[1] + "," + times[2]
+                            + "," + times[3] + ",");
+                }
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(line);
+            }
+            System.out.println("Completate le misure per n = " + n);
+        }
+        o.close();
+    }
+
+    /*
+     * Esegue le quattro fasi su una coda vuota e restituisce i loro tempi.
+     */
+    private static long[] measure(MinPriorityQueue q, double[] deadlines,
+            double[] mixedDeadlines, int[] decreased, double[] amounts) {
+        int n = deadlines.length;
+        Job[] jobs = new Job[2 * n];
+        for (int i = 0; i < n; i++) {
+            jobs[i] = new Job("Job" + i, deadlines[i]);
+            jobs[n + i] = new Job("Job" + (n + i), mixedDeadlines[i]);
+        }
+        long[] times = new long[4];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            q.insert(jobs[i]);
+        times[0] = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            Job j = jobs[decreased[i]];
+            q.decreasePriority(j, j.getPriority() - amounts[i]);
+        }
+        times[1] = System.nanoTime() - start;
+        start = System.nanoTime();
+        int d = n;
+        for (int i = 0; i < n; i++) {
+            q.insert(jobs[n + i]);
+            for (int k = 0; k < MIXED_DECREASES_PER_STEP; k++, d++) {
+                Job j = jobs[decreased[d]];
+                // Salto i job non ancora inseriti o già estratti
+                if (decreased[d] <= n + i && j.getHandle() != -1)
+                    q.decreasePriority(j, j.getPriority() - amounts[d]);
+            }
+            q.extractMinimum();
+        }
+        times[2] = System.nanoTime() - start;
+        start = System.nanoTime();
+        double last = Double.NEGATIVE_INFINITY;
+        while (q.size() > 0) {
+            double p = q.extractMinimum().getPriority();
+            if (p < last)
+                throw new IllegalStateException(
+                        "Elementi estratti non in ordine di priorità");
+            last = p;
+        }
+        times[3] = System.nanoTime() - start;
+        return times;
+    }
+
+}
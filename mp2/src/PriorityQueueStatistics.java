@@ -0,0 +1,259 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects statistics about the operations of a
+ * <code>TernaryHeapMinPriorityQueue</code>: for every kind of operation the
+ * number of calls, the total number of levels the elements were sifted up or
+ * down and a histogram of the latencies, together with the maximum size
+ * reached by the queue.
+ * <p>
+ * Reading the clock costs more than many of the operations themselves, so
+ * the latency is measured only for one operation every
+ * <code>LATENCY_SAMPLE_INTERVAL</code>; the histograms and the mean latency
+ * refer to these sampled operations, while the counts and the sift levels
+ * refer to all of them.
+ * <p>
+ * An object of this class is created by the queue only when the statistics
+ * are enabled. The counters are thread-safe, so they can be read by a
+ * monitoring thread while the queue is used by another thread. The current
+ * size of the queue is not kept here, but it is read from the queue when a
+ * snapshot is requested.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class PriorityQueueStatistics {
+
+    /**
+     * The kinds of operations that are recorded.
+     */
+    public enum Operation {
+        INSERT, INSERT_ALL, EXTRACT_MINIMUM, DECREASE_PRIORITY
+    }
+
+    /**
+     * Number of classes of the latency histograms. Class i counts the
+     * operations that took from 2<sup>i-1</sup> (included) to 2<sup>i</sup>
+     * (excluded) nanoseconds, class 0 those that took 0 nanoseconds and the
+     * last class all those that took at least
+     * 2<sup>LATENCY_HISTOGRAM_SIZE-2</sup> nanoseconds.
+     */
+    public static final int LATENCY_HISTOGRAM_SIZE = 40;
+
+    /**
+     * The latency is measured for one operation every
+     * LATENCY_SAMPLE_INTERVAL, which must be a power of 2.
+     */
+    public static final int LATENCY_SAMPLE_INTERVAL = 16;
+
+    private static final int OPERATIONS = Operation.values().length;
+
+    private final LongAdder[] counts = new LongAdder[OPERATIONS];
+
+    private final LongAdder[] siftLevels = new LongAdder[OPERATIONS];
+
+    private final LongAdder[] latencyNanos = new LongAdder[OPERATIONS];
+
+    private final LongAdder[] sampled = new LongAdder[OPERATIONS];
+
+    /*
+     * The histograms of all the operations, one after the other.
+     */
+    private final AtomicLongArray latencyHistograms = new AtomicLongArray(
+            OPERATIONS * LATENCY_HISTOGRAM_SIZE);
+
+    private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+
+    /*
+     * Number of operations started, used to choose the ones to sample. It is
+     * read and written only by the thread using the queue.
+     */
+    private int started;
+
+    /*
+     * The constructor is package-private: the objects are created only by the
+     * queue.
+     */
+    PriorityQueueStatistics() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            this.counts[i] = new LongAdder();
+            this.siftLevels[i] = new LongAdder();
+            this.latencyNanos[i] = new LongAdder();
+            this.sampled[i] = new LongAdder();
+        }
+    }
+
+    /*
+     * Called by the queue when an operation starts: return the current time,
+     * if the latency of the operation has to be measured, or -1 otherwise.
+     */
+    long start() {
+        if ((++this.started & (LATENCY_SAMPLE_INTERVAL - 1)) != 0) {
+            return -1;
+        }
+        return System.nanoTime();
+    }
+
+    /*
+     * Record an operation, started at the time returned by start(), that moved
+     * elements by the given number of levels and left the queue with the given
+     * size.
+     */
+    void record(Operation op, long start, int levels, int size) {
+        int i = op.ordinal();
+        this.counts[i].increment();
+        this.siftLevels[i].add(levels);
+        if (start != -1) {
+            long elapsedNanos = System.nanoTime() - start;
+            this.sampled[i].increment();
+            this.latencyNanos[i].add(elapsedNanos);
+            this.latencyHistograms.incrementAndGet(
+                    i * LATENCY_HISTOGRAM_SIZE + latencyClass(elapsedNanos));
+        }
+        this.maxSize.accumulate(size);
+    }
+
+    private static int latencyClass(long nanos) {
+        int c = 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+        return Math.min(c, LATENCY_HISTOGRAM_SIZE - 1);
+    }
+
+    /**
+     * @param op the kind of operation
+     * @return the number of operations of the given kind recorded
+     */
+    public long getCount(Operation op) {
+        return this.counts[op.ordinal()].sum();
+    }
+
+    /**
+     * @param op the kind of operation
+     * @return the total number of levels the elements were sifted up or down
+     *         by the operations of the given kind
+     */
+    public long getSiftLevels(Operation op) {
+        return this.siftLevels[op.ordinal()].sum();
+    }
+
+    /**
+     * @param op the kind of operation
+     * @return the number of operations of the given kind whose latency was
+     *         measured
+     */
+    public long getSampledCount(Operation op) {
+        return this.sampled[op.ordinal()].sum();
+    }
+
+    /**
+     * @param op the kind of operation
+     * @return the total time, in nanoseconds, spent in the sampled
+     *         operations of the given kind
+     */
+    public long getLatencyNanos(Operation op) {
+        return this.latencyNanos[op.ordinal()].sum();
+    }
+
+    /**
+     * Return a copy of the latency histogram of the given kind of operation.
+     *
+     * @param op the kind of operation
+     * @return a copy of the latency histogram, with LATENCY_HISTOGRAM_SIZE
+     *         classes as described for that constant
+     */
+    public long[] getLatencyHistogram(Operation op) {
+        long[] h = new long[LATENCY_HISTOGRAM_SIZE];
+        int base = op.ordinal() * LATENCY_HISTOGRAM_SIZE;
+        for (int i = 0; i < LATENCY_HISTOGRAM_SIZE; i++) {
+            h[i] = this.latencyHistograms.get(base + i);
+        }
+        return h;
+    }
+
+    /**
+     * @return the maximum size of the queue after a recorded operation
+     */
+    public long getMaxSize() {
+        return this.maxSize.get();
+    }
+
+    /**
+     * A picture of the queue at a certain instant: its size, together with
+     * the counters accumulated up to that instant.
+     */
+    public static class Snapshot {
+
+        private final int size;
+
+        private final long maxSize;
+
+        private final long[] counts;
+
+        private final long[] siftLevels;
+
+        private final long[] latencyNanos;
+
+        private final long[] sampled;
+
+        Snapshot(int size, PriorityQueueStatistics stats) {
+            this.size = size;
+            this.maxSize = Math.max(size, stats.getMaxSize());
+            this.counts = new long[OPERATIONS];
+            this.siftLevels = new long[OPERATIONS];
+            this.latencyNanos = new long[OPERATIONS];
+            this.sampled = new long[OPERATIONS];
+            for (Operation op : Operation.values()) {
+                this.counts[op.ordinal()] = stats.getCount(op);
+                this.siftLevels[op.ordinal()] = stats.getSiftLevels(op);
+                this.latencyNanos[op.ordinal()] = stats.getLatencyNanos(op);
+                this.sampled[op.ordinal()] = stats.getSampledCount(op);
+            }
+        }
+
+        public int getSize() {
+            return this.size;
+        }
+
+        public long getMaxSize() {
+            return this.maxSize;
+        }
+
+        public long getCount(Operation op) {
+            return this.counts[op.ordinal()];
+        }
+
+        /**
+         * @param op the kind of operation
+         * @return the mean number of levels the elements were sifted by an
+         *         operation of the given kind, 0 if there were none
+         */
+        public double getMeanSiftLevels(Operation op) {
+            long c = this.counts[op.ordinal()];
+            return c == 0 ? 0 : (double) this.siftLevels[op.ordinal()] / c;
+        }
+
+        /**
+         * @param op the kind of operation
+         * @return the mean latency, in nanoseconds, of the sampled operations
+         *         of the given kind, 0 if there were none
+         */
+        public double getMeanLatencyNanos(Operation op) {
+            long c = this.sampled[op.ordinal()];
+            return c == 0 ? 0 : (double) this.latencyNanos[op.ordinal()] / c;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Snapshot [size=" + this.size
+                    + ", maxSize=" + this.maxSize);
+            for (Operation op : Operation.values()) {
+                sb.append(", " + op + "=(count=" + getCount(op)
+                        + ", meanSiftLevels=" + getMeanSiftLevels(op)
+                        + ", meanLatencyNanos=" + getMeanLatencyNanos(op)
+                        + ")");
+            }
+            return sb.append("]").toString();
+        }
+    }
+
+}
@@ -1,22 +1,50 @@
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
 /**
  * Una semplice classe che fa lo scheduling di jobs utilizzando una coda di
- * min-priorità realizzata dalla classe TernaryHeapMinPriorityQueue. La priorità
- * dei job è la loro scadenza. La scadenza di un job può essere anticipata
- * dinamicamente, che corrisponde a dire che la sua priorità nella coda può
- * essere decrementata.
+ * min-priorità, di default realizzata dalla classe TernaryHeapMinPriorityQueue.
+ * La priorità dei job è la loro scadenza. La scadenza di un job può essere
+ * anticipata dinamicamente, che corrisponde a dire che la sua priorità nella
+ * coda può essere decrementata. Se i job vengono anticipati molto più spesso
+ * di quanto vengano estratti conviene usare una
+ * PairingHeapMinPriorityQueue, in cui l'anticipo costa tempo costante. Con
+ * moltissimi job dalle scadenze ravvicinate si può usare una
+ * TimingWheelMinPriorityQueue, in cui inserimento e anticipo costano tempo
+ * costante e solo i job con la stessa scadenza, a meno della larghezza di un
+ * tick, vengono ordinati con uno heap. Un job in attesa può anche essere
+ * cancellato, togliendolo dalla coda tramite il suo handle.
  * 
  * @author Luca Tesei
  *
  */
 public class Scheduler {
 
-    private TernaryHeapMinPriorityQueue queue;
+    private MinPriorityQueue queue;
 
     /**
      * Costruisce un nuovo scheduler
      */
     public Scheduler() {
-        this.queue = new TernaryHeapMinPriorityQueue();
+        this(new TernaryHeapMinPriorityQueue());
+    }
+
+    /**
+     * Costruisce un nuovo scheduler che usa la coda di min-priorità data.
+     * 
+     * @param queue
+     *                  la coda da usare, che deve essere vuota
+     * @throws NullPointerException
+     *                                      se la coda è null
+     * @throws IllegalArgumentException
+     *                                      se la coda non è vuota
+     */
+    public Scheduler(MinPriorityQueue queue) {
+        if (queue == null)
+            throw new NullPointerException("Coda nulla");
+        if (queue.size() != 0)
+            throw new IllegalArgumentException("La coda non è vuota");
+        this.queue = queue;
     }
 
     /**
@@ -31,6 +59,22 @@ public class Scheduler {
         this.queue.insert(j);
     }
 
+    /**
+     * Inserisce nello scheduler tutti i job di una collezione, ad esempio un
+     * arretrato da caricare all'avvio. I job devono avere una deadline già
+     * fissata. L'inserimento è fatto in blocco dalla coda, che nel caso di un
+     * arretrato grande ricostruisce lo heap in tempo lineare invece di fare un
+     * inserimento alla volta.
+     * 
+     * @param jobs
+     *                 i nuovi job da inserire
+     * @throws NullPointerException
+     *                                  se la collezione o uno dei job è null
+     */
+    public void scheduleAll(Collection<Job> jobs) {
+        this.queue.insertAll(jobs);
+    }
+
     /**
      * Estrae il prossimo job da eseguire, cioè quello con scadenza più
      * ravvicinata.
@@ -58,4 +102,70 @@ public class Scheduler {
         this.queue.decreasePriority(j, j.getPriority() - amount);
     }
 
+    /**
+     * Cancella un job inserito nello scheduler e non ancora estratto, che non
+     * verrà più restituito da getNextJobToExecute.
+     * 
+     * @param j
+     *              il job da cancellare
+     * @throws NoSuchElementException
+     *                                    se il job non è in attesa nello
+     *                                    scheduler
+     */
+    public void cancelJob(Job j) {
+        this.queue.remove(j);
+    }
+
+    /**
+     * Abilita la raccolta delle statistiche sulla coda dello scheduler:
+     * numero, latenza e livelli percorsi nello heap di inserimenti,
+     * estrazioni e anticipi, oltre alla dimensione della coda. Se erano già
+     * abilitate non fa nulla.
+     * 
+     * @throws UnsupportedOperationException
+     *                                           se la coda non è una
+     *                                           TernaryHeapMinPriorityQueue
+     */
+    public void enableStatistics() {
+        ternaryQueue().enableStatistics();
+    }
+
+    /**
+     * Disabilita la raccolta delle statistiche sulla coda dello scheduler,
+     * scartando quelle raccolte finora.
+     * 
+     * @throws UnsupportedOperationException
+     *                                           se la coda non è una
+     *                                           TernaryHeapMinPriorityQueue
+     */
+    public void disableStatistics() {
+        ternaryQueue().disableStatistics();
+    }
+
+    /**
+     * Restituisce una fotografia dello stato della coda dello scheduler, con
+     * le statistiche raccolte finora.
+     * 
+     * @return una fotografia dello stato della coda
+     * @throws UnsupportedOperationException
+     *                                           se la coda non è una
+     *                                           TernaryHeapMinPriorityQueue
+     * @throws IllegalStateException
+     *                                           se le statistiche non sono
+     *                                           abilitate
+     */
+    public PriorityQueueStatistics.Snapshot getStatisticsSnapshot() {
+        return ternaryQueue().getStatisticsSnapshot();
+    }
+
+    /*
+     * Le statistiche sono raccolte solo dalla TernaryHeapMinPriorityQueue.
+     */
+    private TernaryHeapMinPriorityQueue ternaryQueue() {
+        if (!(this.queue instanceof TernaryHeapMinPriorityQueue))
+            throw new UnsupportedOperationException(
+                    "Statistiche disponibili solo con una TernaryHeapMinPriorityQueue");
+        return (TernaryHeapMinPriorityQueue) this.queue;
+    }
+
 }
@@ -0,0 +1,84 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Misura il tempo di caricamento di un arretrato di job nello Scheduler,
+ * confrontando l'inserimento di un job alla volta con schedule e
+ * l'inserimento in blocco con scheduleAll. Per ogni numero di job vengono
+ * scritti sul file schedulerbacklog.csv i due tempi in nanosecondi.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class SchedulerBacklogEvaluationFramework {
+
+    private static final int MIN_SIZE = 1000;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_SIZE = 1000000;
+
+    /*
+     * Numero di ripetizioni per ogni dimensione, la prima è di riscaldamento
+     * e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES_PER_SIZE = 4;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "schedulerbacklog.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "schedulerbacklog.csv");
+            System.exit(1);
+        }
+        o.println("N,ScheduleTns,ScheduleAllTns");
+        Random randomGenerator = new Random();
+        for (int n = MIN_SIZE; n <= MAX_SIZE; n *= FATTORE_INCREMENTO) {
+            for (int s = 0; s < NUMBER_OF_SAMPLES_PER_SIZE; s++) {
+                // Arretrato in ordine di arrivo, con scadenze che tendono a
+                // decrescere: il caso peggiore per gli inserimenti singoli
+                List<Job> backlog1 = new ArrayList<Job>(n);
+                List<Job> backlog2 = new ArrayList<Job>(n);
+                for (int i = 0; i < n; i++) {
+                    double deadline = n - i + randomGenerator.nextDouble() * 100;
+                    backlog1.add(new Job("Job" + i, deadline));
+                    backlog2.add(new Job("Job" + i, deadline));
+                }
+                Scheduler s1 = new Scheduler();
+                long start = System.nanoTime();
+                for (Job j : backlog1)
+                    s1.schedule(j);
+                long scheduleTime = System.nanoTime() - start;
+                Scheduler s2 = new Scheduler();
+                start = System.nanoTime();
+                s2.scheduleAll(backlog2);
+                long scheduleAllTime = System.nanoTime() - start;
+                if (s1.getNextJobToExecute().getPriority() != s2
+                        .getNextJobToExecute().getPriority())
+                    throw new IllegalStateException(
+                            "Primo job diverso nei due scheduler");
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(n + "," + scheduleTime + "," + scheduleAllTime);
+            }
+            System.out.println("Completate le misure per n = " + n);
+        }
+        o.close();
+    }
+
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.NoSuchElementException;
 
 /**
@@ -14,7 +15,7 @@ import java.util.NoSuchElementException;
  *
  * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
  */
-public class TernaryHeapMinPriorityQueue {
+public class TernaryHeapMinPriorityQueue implements MinPriorityQueue {
 
     /*
      * ArrayList for representing the ternary heap. Use all positions, including
@@ -23,6 +24,14 @@ public class TernaryHeapMinPriorityQueue {
      */
     private ArrayList<PriorityQueueElement> heap;
 
+    /*
+     * Statistics of the queue, null if not enabled. It is volatile because the
+     * statistics may be enabled, disabled and read by a monitoring thread
+     * different from the one using the queue. When they are disabled the only
+     * cost for the operations is reading this field.
+     */
+    private volatile PriorityQueueStatistics stats;
+
     /**
      * Create an empty queue.
      */
@@ -30,6 +39,20 @@ public class TernaryHeapMinPriorityQueue {
         this.heap = new ArrayList<PriorityQueueElement>();
     }
 
+    /**
+     * Create a queue containing all the elements of the given collection. The
+     * ternary heap is built in linear time with Floyd's method instead of
+     * inserting the elements one at a time.
+     *
+     * @param elements the elements to put in the queue
+     * @throws NullPointerException if the collection or one of its elements
+     *                              is null
+     */
+    public TernaryHeapMinPriorityQueue(Collection<? extends PriorityQueueElement> elements) {
+        this.heap = new ArrayList<PriorityQueueElement>(elements.size());
+        insertAll(elements);
+    }
+
     /**
      * Return the current size of this queue.
      *
@@ -52,6 +75,9 @@ public class TernaryHeapMinPriorityQueue {
         if (element == null) {
             throw new NullPointerException();
         }
+        PriorityQueueStatistics s = this.stats;
+        long start = s == null ? -1 : s.start();
+        int levels = 0;
         /*
          * If heap is empty, add the element and set the handle to 0.
          */
@@ -65,7 +91,57 @@ public class TernaryHeapMinPriorityQueue {
         } else {
             this.heap.add(element);
             element.setHandle(size() - 1);
-            heapUp(size() - 1);
+            levels = heapUp(size() - 1);
+        }
+        if (s != null) {
+            s.record(PriorityQueueStatistics.Operation.INSERT, start, levels, size());
+        }
+    }
+
+    /**
+     * Add all the elements of a collection to this min-priority queue. The
+     * elements are first appended at the end of the ternary heap and then the
+     * heap is repaired: if the new elements are many with respect to the size
+     * of the queue the whole heap is rebuilt in linear time with Floyd's
+     * method, otherwise each new element is bubbled up as in insert.
+     *
+     * @param elements the new elements to add
+     * @throws NullPointerException if the collection or one of its elements
+     *                              is null, in which case the queue is not
+     *                              changed
+     */
+    public void insertAll(Collection<? extends PriorityQueueElement> elements) {
+        for (PriorityQueueElement e : elements) {
+            if (e == null) {
+                throw new NullPointerException();
+            }
+        }
+        PriorityQueueStatistics s = this.stats;
+        long start = s == null ? -1 : s.start();
+        int levels = 0;
+        int oldSize = size();
+        this.heap.ensureCapacity(oldSize + elements.size());
+        for (PriorityQueueElement e : elements) {
+            e.setHandle(size());
+            this.heap.add(e);
+        }
+        int added = size() - oldSize;
+        /*
+         * Floyd's method costs O(n) for the whole heap, while bubbling up each
+         * new element costs O(log n) in the worst case: rebuild the heap when
+         * the new elements are at least half of the old ones.
+         */
+        if (added >= oldSize / 2) {
+            for (int i = (size() - 2) / 3; i >= 0; i--) {
+                levels += heapDown(i);
+            }
+        } else {
+            for (int i = oldSize; i < size(); i++) {
+                levels += heapUp(i);
+            }
+        }
+        if (s != null) {
+            s.record(PriorityQueueStatistics.Operation.INSERT_ALL, start, levels, size());
         }
     }
 
@@ -95,6 +171,8 @@ public class TernaryHeapMinPriorityQueue {
         if (this.heap.isEmpty()) {
             throw new NoSuchElementException();
         }
+        PriorityQueueStatistics s = this.stats;
+        long start = s == null ? -1 : s.start();
         /*
          * Swap the first and the last element of the heap and then bubble the
          * first element down to the correct position.
@@ -104,7 +182,89 @@ public class TernaryHeapMinPriorityQueue {
         this.heap.set(this.heap.size() - 1, min);
         this.heap.get(0).setHandle(0);
         this.heap.remove(this.heap.size() - 1);
-        int i = 0;
+        int levels = heapDown(0);
+        // The extracted element is no longer in the queue.
+        min.setHandle(-1);
+        if (s != null) {
+            s.record(PriorityQueueStatistics.Operation.EXTRACT_MINIMUM, start, levels, size());
+        }
+        // Return the minimum element.
+        return min;
+    }
+
+    /**
+     * Decrease the priority associated to an element of this min-priority
+     * queue. The position of the element in the ternary heap must be changed
+     * accordingly. The changed element may become the minimum element. The
+     * handle of the element will also be changed accordingly.
+     *
+     * @param element     the element whose priority will be decreased, it
+     *                    must currently be inside this min-priority queue
+     * @param newPriority the new priority to assign to the element
+     * @throws NoSuchElementException   if the element is not currently
+     *                                  present in this min-priority queue
+     * @throws IllegalArgumentException if the specified newPriority is not
+     *                                  strictly less than the current
+     *                                  priority of the element
+     */
+    public void decreasePriority(PriorityQueueElement element, double newPriority) {
+        int h = element.getHandle();
+        if (h < 0 || h >= size() || this.heap.get(h) != element) {
+            throw new NoSuchElementException();
+        }
+        if (element.getPriority() <= newPriority) {
+            throw new IllegalArgumentException();
+        }
+        /*
+         * Update the priority of the element and then bubble it up to the
+         * correct position.
+         */
+        PriorityQueueStatistics s = this.stats;
+        long start = s == null ? -1 : s.start();
+        element.setPriority(newPriority);
+        int levels = heapUp(element.getHandle());
+        if (s != null) {
+            s.record(PriorityQueueStatistics.Operation.DECREASE_PRIORITY, start, levels, size());
+        }
+    }
+
+    /**
+     * Remove an element from this min-priority queue. The last element of the
+     * ternary heap takes its position and is moved up or down accordingly. The
+     * handle of the removed element is set to -1.
+     *
+     * @param element the element to remove, it must currently be inside this
+     *                min-priority queue
+     * @throws NoSuchElementException if the element is not currently present
+     *                                in this min-priority queue
+     */
+    public void remove(PriorityQueueElement element) {
+        int h = element.getHandle();
+        if (h < 0 || h >= size() || this.heap.get(h) != element) {
+            throw new NoSuchElementException();
+        }
+        /*
+         * Put the last element in the position of the removed one and then
+         * bubble it up or, if it does not move up, down to the correct
+         * position.
+         */
+        PriorityQueueElement last = this.heap.remove(this.heap.size() - 1);
+        if (last != element) {
+            this.heap.set(h, last);
+            last.setHandle(h);
+            if (heapUp(h) == 0) {
+                heapDown(h);
+            }
+        }
+        element.setHandle(-1);
+    }
+
+    /*
+     * Bubble the element in position i down until none of its children has a
+     * smaller priority. Return the number of levels the element was moved.
+     */
+    private int heapDown(int i) {
+        int levels = 0;
         while (i < this.heap.size()) {
             int minIndex = i;
             /*
@@ -140,45 +300,20 @@ public class TernaryHeapMinPriorityQueue {
                 this.heap.get(i).setHandle(i);
                 this.heap.get(minIndex).setHandle(minIndex);
                 i = minIndex;
+                levels++;
             } else {
-                break;
+                return levels;
             }
         }
-        // Return the minimum element.
-        return min;
+        return levels;
     }
 
-    /**
-     * Decrease the priority associated to an element of this min-priority
-     * queue. The position of the element in the ternary heap must be changed
-     * accordingly. The changed element may become the minimum element. The
-     * handle of the element will also be changed accordingly.
-     *
-     * @param element     the element whose priority will be decreased, it
-     *                    must currently be inside this min-priority queue
-     * @param newPriority the new priority to assign to the element
-     * @throws NoSuchElementException   if the element is not currently
-     *                                  present in this min-priority queue
-     * @throws IllegalArgumentException if the specified newPriority is not
-     *                                  strictly less than the current
-     *                                  priority of the element
+    /*
+     * Bubble the element in position i up until its parent has a priority not
+     * greater than its own. Return the number of levels the element was moved.
      */
-    public void decreasePriority(PriorityQueueElement element, double newPriority) {
-        if (element.getHandle() == -1) {
-            throw new NoSuchElementException();
-        }
-        if (element.getPriority() <= newPriority) {
-            throw new IllegalArgumentException();
-        }
-        /*
-         * Update the priority of the element and then bubble it up to the
-         * correct position.
-         */
-        element.setPriority(newPriority);
-        heapUp(element.getHandle());
-    }
-
-    private void heapUp(int i) {
+    private int heapUp(int i) {
+        int levels = 0;
         /*
          * If the parent is smaller than the child, swap the parent and the
          * child and then set the handle of the parent and the child.
@@ -190,7 +325,9 @@ public class TernaryHeapMinPriorityQueue {
             this.heap.get(i).setHandle(i);
             this.heap.get((i - 1) / 3).setHandle((i - 1) / 3);
             i = (i - 1) / 3;
+            levels++;
         }
+        return levels;
     }
 
     /**
@@ -198,9 +335,54 @@ public class TernaryHeapMinPriorityQueue {
      * this min-priority queue is empty.
      */
     public void clear() {
+        for (PriorityQueueElement e : this.heap) {
+            e.setHandle(-1);
+        }
         this.heap.clear();
     }
 
+    /**
+     * Enable the collection of statistics on this queue. If they were already
+     * enabled nothing happens, otherwise they start again from zero.
+     */
+    public void enableStatistics() {
+        if (this.stats == null) {
+            this.stats = new PriorityQueueStatistics();
+        }
+    }
+
+    /**
+     * Disable the collection of statistics on this queue, discarding those
+     * collected so far.
+     */
+    public void disableStatistics() {
+        this.stats = null;
+    }
+
+    /**
+     * @return the statistics collected, or null if they are not enabled
+     */
+    public PriorityQueueStatistics getStatistics() {
+        return this.stats;
+    }
+
+    /**
+     * Return a picture of the current state of this queue, i.e., its size
+     * together with the statistics collected so far. The method may be called
+     * by a monitoring thread; in that case the size is approximate if the
+     * queue is modified in the meantime.
+     *
+     * @return a picture of the current state of this queue
+     * @throws IllegalStateException if the statistics are not enabled
+     */
+    public PriorityQueueStatistics.Snapshot getStatisticsSnapshot() {
+        PriorityQueueStatistics s = this.stats;
+        if (s == null) {
+            throw new IllegalStateException("Statistics not enabled on this queue");
+        }
+        return new PriorityQueueStatistics.Snapshot(size(), s);
+    }
+
     /*
      * This method is only for JUnit testing purposes.
      */
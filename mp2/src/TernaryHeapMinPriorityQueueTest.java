@@ -1,7 +1,10 @@
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -443,6 +446,130 @@ class TernaryHeapMinPriorityQueueTest {
 
     }
 
+    @Test
+    final void testRemove() {
+        TernaryHeapMinPriorityQueue h = new TernaryHeapMinPriorityQueue();
+        Random random = new Random(3);
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 300; i++) {
+            Job j = new Job("Job" + i, random.nextInt(100));
+            jobs.add(j);
+            h.insert(j);
+        }
+        // Tolgo un job ogni tre, compreso a volte il minimo
+        List<Double> expected = new ArrayList<Double>();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job j = jobs.get(i);
+            if (i % 3 == 0) {
+                h.remove(j);
+                assertTrue(j.getHandle() == -1);
+                assertThrows(NoSuchElementException.class, () -> h.remove(j));
+                controlloHandles(h.getTernaryHeap(), h.size());
+            } else {
+                expected.add(j.getPriority());
+            }
+        }
+        assertTrue(h.size() == expected.size());
+        assertThrows(NoSuchElementException.class,
+                () -> h.remove(new Job("Other", 10)));
+        expected.sort(null);
+        for (Double p : expected)
+            assertTrue(h.extractMinimum().getPriority() == p);
+        assertTrue(h.size() == 0);
+    }
+
+    @Test
+    final void testInsertAll() {
+        TernaryHeapMinPriorityQueue h = new TernaryHeapMinPriorityQueue();
+        assertThrows(NullPointerException.class,
+                () -> h.insertAll(Arrays.asList(new Job("Job1", 1), null)));
+        assertTrue(h.size() == 0);
+        Random random = new Random(42);
+        // Pochi elementi rispetto alla dimensione: heapUp di ognuno; molti
+        // elementi: ricostruzione con il metodo di Floyd
+        int[] blocchi = { 1, 2, 100, 10, 3, 1000 };
+        for (int b : blocchi) {
+            List<Job> jobs = new ArrayList<Job>();
+            for (int i = 0; i < b; i++)
+                jobs.add(new Job("Job" + i, random.nextInt(100)));
+            h.insertAll(jobs);
+            controlloHandles(h.getTernaryHeap(), h.size());
+            controlloHeap(h.getTernaryHeap());
+        }
+        assertTrue(h.size() == 1116);
+        double last = Double.NEGATIVE_INFINITY;
+        while (h.size() > 0) {
+            PriorityQueueElement e = h.extractMinimum();
+            assertTrue(e.getPriority() >= last);
+            last = e.getPriority();
+        }
+    }
+
+    @Test
+    final void testBulkConstructor() {
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 100; i > 0; i--)
+            jobs.add(new Job("Job" + i, i));
+        TernaryHeapMinPriorityQueue h = new TernaryHeapMinPriorityQueue(jobs);
+        assertTrue(h.size() == 100);
+        assertTrue(h.minimum().getPriority() == 1);
+        controlloHandles(h.getTernaryHeap(), h.size());
+        controlloHeap(h.getTernaryHeap());
+        assertThrows(NullPointerException.class,
+                () -> new TernaryHeapMinPriorityQueue(null));
+    }
+
+    @Test
+    final void testStatistics() {
+        TernaryHeapMinPriorityQueue h = new TernaryHeapMinPriorityQueue();
+        assertTrue(h.getStatistics() == null);
+        assertThrows(IllegalStateException.class,
+                () -> h.getStatisticsSnapshot());
+        h.enableStatistics();
+        // Inserisco in ordine decrescente: ogni job risale fino alla radice
+        Job j30 = new Job("Job30", 30);
+        Job j20 = new Job("Job20", 20);
+        Job j10 = new Job("Job10", 10);
+        Job j5 = new Job("Job5", 5);
+        h.insert(j30);
+        h.insert(j20);
+        h.insert(j10);
+        h.insert(j5);
+        PriorityQueueStatistics s = h.getStatistics();
+        PriorityQueueStatistics.Operation insert = PriorityQueueStatistics.Operation.INSERT;
+        assertTrue(s.getCount(insert) == 4);
+        assertTrue(s.getSiftLevels(insert) == 3);
+        h.decreasePriority(j30, 1);
+        h.extractMinimum();
+        h.insertAll(List.of(new Job("Job1", 1), new Job("Job2", 2)));
+        PriorityQueueStatistics.Snapshot snapshot = h.getStatisticsSnapshot();
+        assertTrue(snapshot.getSize() == 5);
+        assertTrue(snapshot.getMaxSize() == 5);
+        assertTrue(snapshot.getCount(PriorityQueueStatistics.Operation.DECREASE_PRIORITY) == 1);
+        assertTrue(snapshot.getMeanSiftLevels(PriorityQueueStatistics.Operation.DECREASE_PRIORITY) == 1);
+        assertTrue(snapshot.getCount(PriorityQueueStatistics.Operation.EXTRACT_MINIMUM) == 1);
+        assertTrue(snapshot.getCount(PriorityQueueStatistics.Operation.INSERT_ALL) == 1);
+        // La latenza è misurata solo per un'operazione ogni
+        // LATENCY_SAMPLE_INTERVAL
+        for (int i = 0; i < PriorityQueueStatistics.LATENCY_SAMPLE_INTERVAL; i++)
+            h.insert(new Job("Job" + (100 + i), 100 + i));
+        assertTrue(s.getSampledCount(insert) == 1);
+        assertTrue(Arrays.stream(s.getLatencyHistogram(insert)).sum() == 1);
+        assertTrue(h.getStatisticsSnapshot().getMeanLatencyNanos(insert) >= 0);
+        // Riabilitare le statistiche già abilitate non le azzera
+        h.enableStatistics();
+        assertTrue(h.getStatistics() == s);
+        h.disableStatistics();
+        assertTrue(h.getStatistics() == null);
+        h.insert(new Job("Job7", 7));
+        assertTrue(s.getCount(insert) == 20);
+    }
+
+    final void controlloHeap(ArrayList<PriorityQueueElement> a) {
+        for (int i = 1; i < a.size(); i++)
+            assertTrue(a.get((i - 1) / 3).getPriority() <= a.get(i).getPriority());
+    }
+
     final void controlloHandles(ArrayList<PriorityQueueElement> a, int n) {
         for (int i = 0; i < n; i++)
             assertTrue(a.get(i).getHandle() == i);
@@ -0,0 +1,164 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Confronta la TimingWheelMinPriorityQueue con le code basate su heap
+ * simulando uno scheduler che riceve job a ritmo costante. Il tempo avanza di
+ * un'unità alla volta per NUMBER_OF_STEPS passi; ad ogni passo arrivano r job
+ * con scadenza pari all'istante corrente più un ritardo, vengono anticipati
+ * ANTICIPATED_PERCENT job su cento tra quelli ancora in coda e vengono estratti
+ * tutti i job con scadenza non successiva all'istante corrente.
+ * 
+ * I ritardi seguono una distribuzione tipica dei timeout: per lo più brevi,
+ * con distribuzione esponenziale di media SHORT_MEAN, una parte distribuiti
+ * uniformemente fino a MEDIUM_MAX e pochi molto lunghi, oltre l'orizzonte
+ * della ruota. Per ogni numero di job per passo r viene scritto sul file
+ * timingwheel.csv il tempo medio in nanosecondi per job, comprensivo di
+ * inserimento, anticipi ed estrazione, per ogni realizzazione.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class TimingWheelEvaluationFramework {
+
+    private static final int MIN_JOBS_PER_STEP = 100;
+
+    private static final int FATTORE_INCREMENTO = 10;
+
+    private static final int MAX_JOBS_PER_STEP = 10000;
+
+    private static final int NUMBER_OF_STEPS = 500;
+
+    private static final double SHORT_MEAN = 50;
+
+    private static final double MEDIUM_MAX = 2000;
+
+    private static final double LONG_MIN = 1e8;
+
+    private static final int ANTICIPATED_PERCENT = 10;
+
+    /*
+     * Numero di ripetizioni per ogni ritmo, la prima è di riscaldamento e non
+     * viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    /*
+     * Una realizzazione da valutare, con il nome da usare nel file csv.
+     */
+    private static class Candidate {
+        private final String name;
+
+        private final Supplier<MinPriorityQueue> factory;
+
+        private Candidate(String name, Supplier<MinPriorityQueue> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "timingwheel.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "timingwheel.csv");
+            System.exit(1);
+        }
+        List<Candidate> candidates = new ArrayList<Candidate>();
+        candidates.add(new Candidate("TernaryHeap",
+                TernaryHeapMinPriorityQueue::new));
+        candidates.add(new Candidate("DaryHeap4",
+                () -> new DaryHeapMinPriorityQueue(4)));
+        candidates.add(new Candidate("TimingWheel",
+                TimingWheelMinPriorityQueue::new));
+        candidates.add(new Candidate("TimingWheel8",
+                () -> new TimingWheelMinPriorityQueue(0.125)));
+        o.print("JobsPerStep");
+        for (Candidate c : candidates)
+            o.print("," + c.name + "NsPerJob");
+        o.print("\n");
+        Random randomGenerator = new Random();
+        for (int r = MIN_JOBS_PER_STEP; r <= MAX_JOBS_PER_STEP; r *= FATTORE_INCREMENTO) {
+            for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                // Genero ritardi e anticipi, uguali per tutte le realizzazioni
+                int n = r * NUMBER_OF_STEPS;
+                double[] delays = new double[n];
+                for (int i = 0; i < n; i++) {
+                    int kind = randomGenerator.nextInt(100);
+                    if (kind < 70)
+                        delays[i] = -SHORT_MEAN
+                                * Math.log(1 - randomGenerator.nextDouble());
+                    else if (kind < 95)
+                        delays[i] = randomGenerator.nextDouble() * MEDIUM_MAX;
+                    else
+                        delays[i] = LONG_MIN
+                                * (1 + randomGenerator.nextDouble());
+                }
+                int nAnticipated = n / 100 * ANTICIPATED_PERCENT;
+                double[] anticipated = new double[nAnticipated];
+                double[] amounts = new double[nAnticipated];
+                for (int i = 0; i < nAnticipated; i++) {
+                    // Frazione dei job già arrivati in cui scegliere il job
+                    anticipated[i] = randomGenerator.nextDouble();
+                    amounts[i] = randomGenerator.nextDouble() * SHORT_MEAN
+                            + 1;
+                }
+                StringBuilder line = new StringBuilder(String.valueOf(r));
+                for (Candidate c : candidates) {
+                    long time = measure(c.factory.get(), r, delays,
+                            anticipated, amounts);
+                    line.append("," + time / n);
+                }
+                if (s > 0) // la prima ripetizione è di riscaldamento
+                    o.println(line);
+            }
+            System.out.println("Completate le misure per r = " + r);
+        }
+        o.close();
+    }
+
+    /*
+     * Esegue la simulazione su una coda vuota e restituisce il tempo totale.
+     */
+    private static long measure(MinPriorityQueue q, int r, double[] delays,
+            double[] anticipated, double[] amounts) {
+        Scheduler scheduler = new Scheduler(q);
+        Job[] jobs = new Job[delays.length];
+        int anticipatedPerStep = anticipated.length / NUMBER_OF_STEPS;
+        int arrived = 0;
+        int a = 0;
+        long start = System.nanoTime();
+        for (int now = 0; now < NUMBER_OF_STEPS; now++) {
+            for (int i = 0; i < r; i++, arrived++) {
+                jobs[arrived] = new Job("Job", now + delays[arrived]);
+                scheduler.schedule(jobs[arrived]);
+            }
+            for (int i = 0; i < anticipatedPerStep; i++, a++) {
+                Job j = jobs[(int) (anticipated[a] * arrived)];
+                // Salto i job già estratti
+                if (j.getHandle() != -1)
+                    scheduler.anticipateJob(j, amounts[a]);
+            }
+            while (q.size() > 0 && q.minimum().getPriority() <= now)
+                scheduler.getNextJobToExecute();
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,420 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Class that provides an implementation of a "dynamic" min-priority queue based
+ * on a hierarchical timing wheel, suited to scheduling very many elements whose
+ * priorities are deadlines in the near future.
+ * <p>
+ * The priorities are divided into ticks of a fixed width, given at
+ * construction time, and the queue keeps a cursor on the tick of the last
+ * extracted element. An element whose tick is not after the cursor is kept in
+ * a small <code>DaryHeapMinPriorityQueue</code> of arity 3, the near heap,
+ * which orders exactly the elements of the current tick. An element whose tick
+ * is after the cursor, but by less than
+ * <code>SLOTS</code><sup><code>LEVELS</code></sup> ticks, is appended in
+ * constant time to a bucket of the wheel: level k of the wheel has
+ * <code>SLOTS</code> buckets, each covering <code>SLOTS</code><sup>k</sup>
+ * ticks. The remaining elements, with a deadline too far in the future, are
+ * kept in a second <code>DaryHeapMinPriorityQueue</code> of arity 3, the far
+ * heap.
+ * <p>
+ * When the near heap is empty, the cursor is moved to the first non-empty
+ * bucket of the lowest non-empty level, found with a bitmap of the non-empty
+ * buckets of each level. A bucket of level 0 is moved in block into the near
+ * heap, while a bucket of a higher level is redistributed on the lower levels.
+ * Every element is redistributed at most <code>LEVELS</code> times, so
+ * insert, decreasePriority and remove of an element in the wheel and the
+ * amortized cost of extractMinimum are constant, apart from the ordering inside
+ * a single tick. Removing an element in the wheel only unlinks its node from
+ * the doubly linked list of its bucket.
+ * <p>
+ * The handle of an element in the wheel is <code>-2 - i</code>, where i is the
+ * index of its node in the node arrays, while the handle of an element in
+ * one of the two heaps is its position in the heap. As in
+ * <code>DaryHeapMinPriorityQueue</code> the priority of an element is read
+ * once, when it is inserted, and then changed only through
+ * <code>decreasePriority</code>.
+ * <p>
+ * This min-priority queue does not have capacity restrictions. Duplicated
+ * elements are permitted while <code>null</code> elements are not permitted.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class TimingWheelMinPriorityQueue implements MinPriorityQueue {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Number of bits of the tick used by each level and number of buckets of
+     * each level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private static final int LEVELS = 4;
+
+    private final double tickWidth;
+
+    /*
+     * Tick of the cursor. Every element in the wheel has a tick greater than
+     * the cursor, every element in the near heap a tick not greater than it.
+     */
+    private long cursor;
+
+    private final MinPriorityQueue near;
+
+    private final MinPriorityQueue far;
+
+    /*
+     * heads[level * SLOTS + slot] is the first node of the bucket, or -1 if
+     * the bucket is empty; bit slot of occupied[level] is set iff the bucket
+     * is not empty.
+     */
+    private final int[] heads;
+
+    private final long[] occupied;
+
+    /*
+     * Node arrays: the element of node i, its tick, and the next and previous
+     * nodes in its bucket in links[2 * i] and links[2 * i + 1]. The bucket of
+     * a node is not stored, because it is always the one computed from its
+     * tick and the cursor. The free nodes are linked through links[2 * i]
+     * starting from freeList.
+     */
+    private PriorityQueueElement[] elements;
+
+    private long[] ticks;
+
+    private int[] links;
+
+    private int freeList;
+
+    private int used;
+
+    private int size;
+
+    /*
+     * Temporary list used to move a bucket into the near heap in block.
+     */
+    private final ArrayList<PriorityQueueElement> moved;
+
+    /**
+     * Create an empty queue with the given tick width.
+     *
+     * @param tickWidth the width of a tick, i.e., the range of priorities
+     *                  kept in the same bucket of level 0
+     * @throws IllegalArgumentException if tickWidth is not positive and
+     *                                  finite
+     */
+    public TimingWheelMinPriorityQueue(double tickWidth) {
+        if (!(tickWidth > 0 && tickWidth < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Invalid tick width: " + tickWidth);
+        }
+        this.tickWidth = tickWidth;
+        this.near = new DaryHeapMinPriorityQueue(3);
+        this.far = new DaryHeapMinPriorityQueue(3);
+        this.heads = new int[LEVELS * SLOTS];
+        Arrays.fill(this.heads, -1);
+        this.occupied = new long[LEVELS];
+        this.moved = new ArrayList<PriorityQueueElement>();
+        this.elements = new PriorityQueueElement[INITIAL_CAPACITY];
+        this.ticks = new long[INITIAL_CAPACITY];
+        this.links = new int[2 * INITIAL_CAPACITY];
+        this.freeList = -1;
+        this.used = 0;
+        this.size = 0;
+        this.cursor = 0;
+    }
+
+    /**
+     * Create an empty queue with ticks of width 1.
+     */
+    public TimingWheelMinPriorityQueue() {
+        this(1.0);
+    }
+
+    /**
+     * @return the width of a tick
+     */
+    public double getTickWidth() {
+        return this.tickWidth;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    private long tickOf(double priority) {
+        return (long) Math.floor(priority / this.tickWidth);
+    }
+
+    @Override
+    public void insert(PriorityQueueElement element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long t = tickOf(element.getPriority());
+        if (this.size == 0) {
+            // The queue is empty, so the cursor can be moved anywhere
+            this.cursor = t;
+        }
+        place(element, t);
+        this.size++;
+    }
+
+    /*
+     * Put element e, with tick t, in the near heap, in the wheel or in the far
+     * heap, according to the cursor.
+     */
+    private void place(PriorityQueueElement e, long t) {
+        if (t <= this.cursor) {
+            this.near.insert(e);
+            return;
+        }
+        int b = bucketOf(t);
+        if (b == -1) {
+            this.far.insert(e);
+        } else {
+            link(e, t, allocate(), b);
+        }
+    }
+
+    /*
+     * Return the bucket of the wheel for tick t > cursor, or -1 if the tick
+     * is too far from the cursor to be in the wheel. The level is the lowest
+     * one above which t and the cursor agree, so that the slot of t in that
+     * level is after the slot of the cursor.
+     */
+    private int bucketOf(long t) {
+        int level = 0;
+        while ((t >> (SLOT_BITS * (level + 1))) != (this.cursor >> (SLOT_BITS * (level + 1)))) {
+            if (++level == LEVELS) {
+                return -1;
+            }
+        }
+        return level * SLOTS + ((int) (t >> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    /*
+     * Add node i, for element e with tick t, at the head of bucket b.
+     */
+    private void link(PriorityQueueElement e, long t, int i, int b) {
+        this.elements[i] = e;
+        this.ticks[i] = t;
+        int h = this.heads[b];
+        this.links[2 * i] = h;
+        this.links[2 * i + 1] = -1;
+        if (h != -1) {
+            this.links[2 * h + 1] = i;
+        }
+        this.heads[b] = i;
+        this.occupied[b / SLOTS] |= 1L << (b % SLOTS);
+        e.setHandle(-2 - i);
+    }
+
+    /*
+     * Remove node i from its bucket, without releasing it.
+     */
+    private void unlink(int i) {
+        int n = this.links[2 * i];
+        int p = this.links[2 * i + 1];
+        if (p == -1) {
+            int b = bucketOf(this.ticks[i]);
+            this.heads[b] = n;
+            if (n == -1) {
+                this.occupied[b / SLOTS] &= ~(1L << (b % SLOTS));
+            }
+        } else {
+            this.links[2 * p] = n;
+        }
+        if (n != -1) {
+            this.links[2 * n + 1] = p;
+        }
+    }
+
+    private int allocate() {
+        if (this.freeList != -1) {
+            int i = this.freeList;
+            this.freeList = this.links[2 * i];
+            return i;
+        }
+        if (this.used == this.elements.length) {
+            int newCapacity = this.used * 2;
+            this.elements = Arrays.copyOf(this.elements, newCapacity);
+            this.ticks = Arrays.copyOf(this.ticks, newCapacity);
+            this.links = Arrays.copyOf(this.links, 2 * newCapacity);
+        }
+        return this.used++;
+    }
+
+    private void release(int i) {
+        this.elements[i] = null;
+        this.links[2 * i] = this.freeList;
+        this.freeList = i;
+    }
+
+    /*
+     * If the near heap is empty, move the cursor forward until the near heap
+     * contains the elements of the next non-empty tick.
+     */
+    private void advance() {
+        while (this.near.size() == 0) {
+            int level = 0;
+            while (level < LEVELS && this.occupied[level] == 0) {
+                level++;
+            }
+            if (level == LEVELS) {
+                // The wheel is empty: jump to the tick of the first far
+                // element and bring in all the far elements now in range
+                long t = tickOf(this.far.minimum().getPriority());
+                this.cursor = t;
+                long top = t >> (SLOT_BITS * LEVELS);
+                while (this.far.size() > 0) {
+                    PriorityQueueElement e = this.far.minimum();
+                    long te = tickOf(e.getPriority());
+                    if (te >> (SLOT_BITS * LEVELS) != top) {
+                        break;
+                    }
+                    this.far.extractMinimum();
+                    place(e, te);
+                }
+                continue;
+            }
+            // All the buckets of this level are after the slot of the cursor,
+            // and the first one contains the next ticks
+            int shift = SLOT_BITS * level;
+            int slot = Long.numberOfTrailingZeros(this.occupied[level]);
+            long blockStart = (this.cursor >> (shift + SLOT_BITS)) << (shift + SLOT_BITS);
+            this.cursor = blockStart | ((long) slot << shift);
+            int b = level * SLOTS + slot;
+            int i = this.heads[b];
+            this.heads[b] = -1;
+            this.occupied[level] &= ~(1L << slot);
+            while (i != -1) {
+                int n = this.links[2 * i];
+                PriorityQueueElement e = this.elements[i];
+                long t = this.ticks[i];
+                if (t <= this.cursor) {
+                    this.moved.add(e);
+                    release(i);
+                } else {
+                    link(e, t, i, bucketOf(t));
+                }
+                i = n;
+            }
+            this.near.insertAll(this.moved);
+            this.moved.clear();
+        }
+    }
+
+    @Override
+    public PriorityQueueElement minimum() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        advance();
+        return this.near.minimum();
+    }
+
+    @Override
+    public PriorityQueueElement extractMinimum() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        advance();
+        this.size--;
+        return this.near.extractMinimum();
+    }
+
+    @Override
+    public void decreasePriority(PriorityQueueElement element, double newPriority) {
+        int h = element.getHandle();
+        if (h <= -2) {
+            int i = -2 - h;
+            if (i >= this.used || this.elements[i] != element) {
+                throw new NoSuchElementException();
+            }
+            if (element.getPriority() <= newPriority) {
+                throw new IllegalArgumentException();
+            }
+            element.setPriority(newPriority);
+            long t = tickOf(newPriority);
+            // The order inside a bucket does not matter, so the node moves
+            // only if the new tick belongs to another bucket
+            if (t > this.cursor && bucketOf(t) == bucketOf(this.ticks[i])) {
+                this.ticks[i] = t;
+                return;
+            }
+            unlink(i);
+            release(i);
+            place(element, t);
+            return;
+        }
+        // The element is in one of the two heaps: the near heap contains all
+        // and only the elements with a tick not after the cursor
+        if (tickOf(element.getPriority()) <= this.cursor) {
+            this.near.decreasePriority(element, newPriority);
+            return;
+        }
+        long t = tickOf(newPriority);
+        if (t > this.cursor && t >> (SLOT_BITS * LEVELS) != this.cursor >> (SLOT_BITS * LEVELS)) {
+            this.far.decreasePriority(element, newPriority);
+            return;
+        }
+        // The element leaves the far heap: it becomes its minimum and it is
+        // extracted before being placed again
+        if (element.getPriority() <= newPriority) {
+            throw new IllegalArgumentException();
+        }
+        this.far.decreasePriority(element, Double.NEGATIVE_INFINITY);
+        this.far.extractMinimum();
+        element.setPriority(newPriority);
+        place(element, t);
+    }
+
+    @Override
+    public void remove(PriorityQueueElement element) {
+        int h = element.getHandle();
+        if (h <= -2) {
+            int i = -2 - h;
+            if (i >= this.used || this.elements[i] != element) {
+                throw new NoSuchElementException();
+            }
+            unlink(i);
+            release(i);
+            element.setHandle(-1);
+        } else if (tickOf(element.getPriority()) <= this.cursor) {
+            // As in decreasePriority, the near heap contains all and only the
+            // elements with a tick not after the cursor
+            this.near.remove(element);
+        } else {
+            this.far.remove(element);
+        }
+        this.size--;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.used; i++) {
+            if (this.elements[i] != null) {
+                this.elements[i].setHandle(-1);
+                this.elements[i] = null;
+            }
+        }
+        this.near.clear();
+        this.far.clear();
+        Arrays.fill(this.heads, -1);
+        Arrays.fill(this.occupied, 0L);
+        this.freeList = -1;
+        this.used = 0;
+        this.size = 0;
+        this.cursor = 0;
+    }
+
+}
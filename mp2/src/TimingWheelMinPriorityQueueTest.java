@@ -0,0 +1,220 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelMinPriorityQueueTest {
+
+    @Test
+    final void testConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimingWheelMinPriorityQueue(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimingWheelMinPriorityQueue(Double.NaN));
+        assertTrue(new TimingWheelMinPriorityQueue().getTickWidth() == 1.0);
+    }
+
+    @Test
+    final void testInsertMinimum() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue();
+        assertThrows(NullPointerException.class, () -> h.insert(null));
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        assertTrue(h.minimum() == j30);
+        Job j25 = new Job("Job25", 25);
+        h.insert(j25);
+        Job j41 = new Job("Job41", 41);
+        h.insert(j41);
+        assertTrue(h.minimum() == j25);
+        assertTrue(h.size() == 3);
+    }
+
+    @Test
+    final void testExtractMinimumAllRanges() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue(0.5);
+        assertThrows(NoSuchElementException.class, () -> h.extractMinimum());
+        Random random = new Random(42);
+        // Scadenze vicine, nei livelli alti della ruota e oltre la ruota
+        for (int i = 0; i < 3000; i++) {
+            double range = i % 3 == 0 ? 10 : i % 3 == 1 ? 1e6 : 1e12;
+            h.insert(new Job("Job" + i, random.nextDouble() * range));
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (h.size() > 0) {
+            PriorityQueueElement e = h.extractMinimum();
+            assertTrue(e.getPriority() >= last);
+            assertTrue(e.getHandle() == -1);
+            last = e.getPriority();
+        }
+    }
+
+    @Test
+    final void testInsertBeforeCursor() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue();
+        h.insert(new Job("Job100", 100));
+        h.insert(new Job("Job200", 200));
+        assertTrue(h.extractMinimum().getPriority() == 100);
+        // Scadenze già passate rispetto all'ultimo job estratto
+        h.insert(new Job("Job-5", -5));
+        h.insert(new Job("Job150", 150));
+        assertTrue(h.extractMinimum().getPriority() == -5);
+        assertTrue(h.extractMinimum().getPriority() == 150);
+        assertTrue(h.extractMinimum().getPriority() == 200);
+        assertTrue(h.size() == 0);
+    }
+
+    @Test
+    final void testDecreasePriority() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue();
+        List<Job> jobs = new ArrayList<Job>();
+        for (int i = 0; i < 100; i++) {
+            Job j = new Job("Job" + i, 1000 + i * 100);
+            jobs.add(j);
+            h.insert(j);
+        }
+        Job far = new Job("Far", 1e12);
+        h.insert(far);
+        h.extractMinimum();
+        Job j50 = jobs.get(50);
+        assertThrows(IllegalArgumentException.class,
+                () -> h.decreasePriority(j50, 6000));
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(jobs.get(0), 5));
+        assertThrows(NoSuchElementException.class,
+                () -> h.decreasePriority(new Job("Other", 10), 5));
+        h.decreasePriority(j50, 1);
+        assertTrue(j50.getPriority() == 1);
+        assertTrue(h.minimum() == j50);
+        h.decreasePriority(j50, 0);
+        assertTrue(h.minimum() == j50);
+        // Un job oltre la ruota che viene anticipato entro la ruota
+        h.decreasePriority(far, 1e11);
+        assertThrows(IllegalArgumentException.class,
+                () -> h.decreasePriority(far, 1e11));
+        h.decreasePriority(far, 5000.5);
+        h.decreasePriority(far, 1050.5);
+        assertTrue(h.extractMinimum() == j50);
+        assertTrue(h.extractMinimum() == far);
+        assertTrue(h.extractMinimum() == jobs.get(1));
+    }
+
+    @Test
+    final void testRandomOperationsAgainstPriorityQueue() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue(0.25);
+        PriorityQueue<Double> expected = new PriorityQueue<Double>();
+        List<Job> present = new ArrayList<Job>();
+        Random random = new Random(7);
+        double now = 0;
+        for (int i = 0; i < 50000; i++) {
+            int op = random.nextInt(10);
+            if (op < 4 || present.isEmpty()) {
+                // Per lo più scadenze vicine, ogni tanto molto lontane
+                double offset = random.nextInt(20) == 0
+                        ? random.nextDouble() * 1e9
+                        : random.nextDouble() * 200;
+                Job j = new Job("Job" + i, now + offset);
+                h.insert(j);
+                present.add(j);
+                expected.add(j.getPriority());
+            } else if (op < 5) {
+                // Cancellazione di un job nella ruota o in uno dei due heap
+                Job j = present.remove(random.nextInt(present.size()));
+                expected.remove(j.getPriority());
+                h.remove(j);
+                assertTrue(j.getHandle() == -1);
+            } else if (op < 7) {
+                Job j = present.get(random.nextInt(present.size()));
+                double amount = random.nextInt(10) == 0
+                        ? random.nextDouble() * 1e9
+                        : random.nextDouble() * 50;
+                double newPriority = j.getPriority() - amount - 0.001;
+                expected.remove(j.getPriority());
+                expected.add(newPriority);
+                h.decreasePriority(j, newPriority);
+            } else {
+                Job j = (Job) h.extractMinimum();
+                assertTrue(j.getPriority() == expected.poll());
+                present.remove(j);
+                now = Math.max(now, j.getPriority());
+            }
+            assertTrue(h.size() == expected.size());
+        }
+    }
+
+    @Test
+    final void testRemove() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue();
+        Job j100 = new Job("Job100", 100);
+        Job j105 = new Job("Job105", 105);
+        Job j200 = new Job("Job200", 200);
+        Job j5000 = new Job("Job5000", 5000);
+        Job far = new Job("Far", 1e12);
+        h.insert(j100);
+        h.insert(j105);
+        h.insert(j200);
+        h.insert(j5000);
+        h.insert(far);
+        // Un job nello heap vicino, uno nella ruota e uno nello heap lontano
+        h.remove(j100);
+        h.remove(j200);
+        h.remove(far);
+        assertTrue(h.size() == 2);
+        assertTrue(j100.getHandle() == -1);
+        assertTrue(j200.getHandle() == -1);
+        assertTrue(far.getHandle() == -1);
+        assertThrows(NoSuchElementException.class, () -> h.remove(j200));
+        assertThrows(NoSuchElementException.class, () -> h.remove(far));
+        assertThrows(NoSuchElementException.class,
+                () -> h.remove(new Job("Other", 10)));
+        assertTrue(h.extractMinimum() == j105);
+        assertTrue(h.extractMinimum() == j5000);
+        assertTrue(h.size() == 0);
+        // Un nodo liberato dalla cancellazione viene riusato
+        h.insert(j200);
+        h.insert(far);
+        assertTrue(h.extractMinimum() == j200);
+        assertTrue(h.extractMinimum() == far);
+    }
+
+    @Test
+    final void testClear() {
+        TimingWheelMinPriorityQueue h = new TimingWheelMinPriorityQueue();
+        Job j30 = new Job("Job30", 30);
+        h.insert(j30);
+        h.insert(new Job("Job25", 25));
+        h.insert(new Job("Far", 1e15));
+        h.clear();
+        assertTrue(h.size() == 0);
+        assertTrue(j30.getHandle() == -1);
+        assertThrows(NoSuchElementException.class, () -> h.minimum());
+        h.insert(j30);
+        assertTrue(h.minimum() == j30);
+    }
+
+    @Test
+    final void testScheduler() {
+        Scheduler s = new Scheduler(new TimingWheelMinPriorityQueue());
+        Job j1 = new Job("J1", 500);
+        Job j2 = new Job("J2", 100);
+        s.schedule(j1);
+        s.schedule(j2);
+        s.anticipateJob(j1, 450);
+        assertTrue(s.getNextJobToExecute() == j1);
+        assertTrue(s.getNextJobToExecute() == j2);
+        Job j3 = new Job("J3", 300);
+        Job j4 = new Job("J4", 400);
+        s.schedule(j3);
+        s.schedule(j4);
+        s.cancelJob(j3);
+        assertThrows(NoSuchElementException.class, () -> s.cancelJob(j3));
+        assertTrue(s.getNextJobToExecute() == j4);
+    }
+
+}
@@ -0,0 +1,586 @@
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the Java SE Double-ended Queue (Deque) interface
+ * (<code>java.util.Deque</code>) based on an unrolled double linked list:
+ * instead of one element, every node of the list contains an array of
+ * <code>BLOCK_SIZE</code> elements. Like <code>ASDL2223Deque</code>, this
+ * deque does not have capacity restrictions, duplicated elements are
+ * permitted while <code>null</code> elements are not permitted, and its
+ * iterators are fail-fast.
+ * <p>
+ * All the blocks are full, apart from the first one, whose elements are at
+ * the end of its array, and the last one, whose elements are at the
+ * beginning of its array. Inserting or removing an element at either end
+ * takes constant time and allocates or frees a block only once every
+ * <code>BLOCK_SIZE</code> operations; a block is never moved, so the
+ * elements are never copied when the deque grows. With respect to the linked
+ * implementation, the memory used for each element is little more than a
+ * reference instead of a whole node, and the elements are contiguous in
+ * memory, so iterating over the deque is much faster.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class UnrolledLinkedDeque<E> implements Deque<E> {
+
+    /**
+     * Number of elements of each block.
+     */
+    public static final int BLOCK_SIZE = 64;
+
+    /*
+     * Current number of elements in this deque
+     */
+    private int size;
+
+    /*
+     * First and last block of the list; when the deque is empty they are the
+     * same block
+     */
+    private Block first;
+
+    private Block last;
+
+    /*
+     * Position of the first element in the first block and position after the
+     * last element in the last block; when the deque is empty they are equal
+     */
+    private int firstIndex;
+
+    private int lastIndex;
+
+    /*
+     * Current number of modifications to this deque
+     */
+    private int modCount;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public UnrolledLinkedDeque() {
+        first = new Block();
+        last = first;
+        // In the middle, so that both ends can grow without a new block
+        firstIndex = BLOCK_SIZE / 2;
+        lastIndex = firstIndex;
+        size = 0;
+        modCount = 0;
+    }
+
+    /*
+     * Class for representing the blocks of the unrolled list.
+     */
+    private static final class Block {
+        private final Object[] items = new Object[BLOCK_SIZE];
+
+        private Block prev;
+
+        private Block next;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return copyTo(new Object[size]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        T[] array = a;
+        if (a.length < size) {
+            array = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        copyTo(array);
+        if (array.length > size) {
+            array[size] = null;
+        }
+        return array;
+    }
+
+    /*
+     * Copy the elements, one block at a time, at the beginning of the array
+     */
+    private <T> T[] copyTo(T[] array) {
+        int copied = 0;
+        Block b = first;
+        int from = firstIndex;
+        while (copied < size) {
+            int n = Math.min(BLOCK_SIZE - from, size - copied);
+            System.arraycopy(b.items, from, array, copied, n);
+            copied += n;
+            b = b.next;
+            from = 0;
+        }
+        return array;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!this.contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        for (E e : c) {
+            this.addLast(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Null collection.");
+        }
+        return removeMatching(c, true, -1);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null) {
+            throw new NullPointerException("Null collection.");
+        }
+        return removeMatching(c, false, -1);
+    }
+
+    /*
+     * Remove the elements that are contained in c, if remove is true, or that
+     * are not contained in c, otherwise; if c is null, remove only the element
+     * in position skip. The remaining elements are moved towards the front in
+     * a single pass, then the tail is cut.
+     */
+    private boolean removeMatching(Collection<?> c, boolean remove, int skip) {
+        Block readBlock = first;
+        int read = firstIndex;
+        Block writeBlock = first;
+        int write = firstIndex;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Object e = readBlock.items[read];
+            boolean removed = c == null ? i == skip : c.contains(e) == remove;
+            if (!removed) {
+                writeBlock.items[write] = e;
+                kept++;
+                if (++write == BLOCK_SIZE) {
+                    writeBlock = writeBlock.next;
+                    write = 0;
+                }
+            }
+            if (++read == BLOCK_SIZE) {
+                readBlock = readBlock.next;
+                read = 0;
+            }
+        }
+        if (kept == size) {
+            return false;
+        }
+        while (size > kept) {
+            unlinkLast();
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        first = new Block();
+        last = first;
+        firstIndex = BLOCK_SIZE / 2;
+        lastIndex = firstIndex;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public void addFirst(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        if (firstIndex == 0) {
+            Block b = new Block();
+            b.next = first;
+            first.prev = b;
+            first = b;
+            firstIndex = BLOCK_SIZE;
+        }
+        first.items[--firstIndex] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void addLast(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        if (lastIndex == BLOCK_SIZE) {
+            Block b = new Block();
+            b.prev = last;
+            last.next = b;
+            last = b;
+            lastIndex = 0;
+        }
+        last.items[lastIndex++] = e;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        this.addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    /*
+     * Remove the first element, without counting a modification
+     */
+    @SuppressWarnings("unchecked")
+    private E unlinkFirst() {
+        E e = (E) first.items[firstIndex];
+        first.items[firstIndex++] = null;
+        size--;
+        if (size == 0) {
+            firstIndex = BLOCK_SIZE / 2;
+            lastIndex = firstIndex;
+        } else if (firstIndex == BLOCK_SIZE) {
+            // The first block is empty and is left to the garbage collector
+            first = first.next;
+            first.prev = null;
+            firstIndex = 0;
+        }
+        return e;
+    }
+
+    /*
+     * Remove the last element, without counting a modification
+     */
+    @SuppressWarnings("unchecked")
+    private E unlinkLast() {
+        E e = (E) last.items[--lastIndex];
+        last.items[lastIndex] = null;
+        size--;
+        if (size == 0) {
+            firstIndex = BLOCK_SIZE / 2;
+            lastIndex = firstIndex;
+        } else if (lastIndex == 0) {
+            last = last.prev;
+            last.next = null;
+            lastIndex = BLOCK_SIZE;
+        }
+        return e;
+    }
+
+    @Override
+    public E removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        modCount++;
+        return unlinkFirst();
+    }
+
+    @Override
+    public E removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        modCount++;
+        return unlinkLast();
+    }
+
+    @Override
+    public E pollFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return removeFirst();
+    }
+
+    @Override
+    public E pollLast() {
+        if (size == 0) {
+            return null;
+        }
+        return removeLast();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return (E) first.items[firstIndex];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return (E) last.items[lastIndex - 1];
+    }
+
+    @Override
+    public E peekFirst() {
+        if (size == 0) {
+            return null;
+        }
+        return getFirst();
+    }
+
+    @Override
+    public E peekLast() {
+        if (size == 0) {
+            return null;
+        }
+        return getLast();
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Block b = first;
+        int j = firstIndex;
+        for (int i = 0; i < size; i++) {
+            if (o.equals(b.items[j])) {
+                return removeMatching(null, true, i);
+            }
+            if (++j == BLOCK_SIZE) {
+                b = b.next;
+                j = 0;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Block b = last;
+        int j = lastIndex - 1;
+        for (int i = size - 1; i >= 0; i--) {
+            if (o.equals(b.items[j])) {
+                return removeMatching(null, true, i);
+            }
+            if (--j < 0) {
+                b = b.prev;
+                j = BLOCK_SIZE - 1;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(E e) {
+        this.addLast(e);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return this.offerLast(e);
+    }
+
+    @Override
+    public E remove() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return this.pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return this.getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return this.peekFirst();
+    }
+
+    @Override
+    public void push(E e) {
+        this.addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return this.removeFirst();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return this.removeFirstOccurrence(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        Block b = first;
+        int j = firstIndex;
+        for (int i = 0; i < size; i++) {
+            if (o.equals(b.items[j])) {
+                return true;
+            }
+            if (++j == BLOCK_SIZE) {
+                b = b.next;
+                j = 0;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Class for implementing an iterator for this deque. The iterator is
+     * fail-fast: it detects if during the iteration a modification to the
+     * original deque was done and, if so, it launches a
+     * <code>ConcurrentModificationException</code> as soon as a call to the
+     * method <code>next()</code> is done.
+     */
+    private class Itr implements Iterator<E> {
+        private Block block;
+
+        private int index;
+
+        /*
+         * Number of elements already returned
+         */
+        private int returned;
+
+        private final int expectedModCount;
+
+        Itr() {
+            block = first;
+            index = firstIndex;
+            returned = 0;
+            expectedModCount = modCount;
+        }
+
+        public boolean hasNext() {
+            return returned < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("The deque has been modified.");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements in the deque.");
+            }
+            E e = (E) block.items[index];
+            returned++;
+            if (++index == BLOCK_SIZE && returned < size) {
+                block = block.next;
+                index = 0;
+            }
+            return e;
+        }
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new DescItr();
+    }
+
+    /*
+     * Class for implementing a descending iterator for this deque. The iterator
+     * is fail-fast: it detects if during the iteration a modification to the
+     * original deque was done and, if so, it launches a
+     * <code>ConcurrentModificationException</code> as soon as a call to the
+     * method <code>next()</code> is done.
+     */
+    private class DescItr implements Iterator<E> {
+        private Block block;
+
+        private int index;
+
+        private int returned;
+
+        private final int expectedModCount;
+
+        DescItr() {
+            block = last;
+            index = lastIndex - 1;
+            returned = 0;
+            expectedModCount = modCount;
+        }
+
+        public boolean hasNext() {
+            return returned < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("The deque has been modified.");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no more elements in the deque.");
+            }
+            E e = (E) block.items[index];
+            returned++;
+            if (--index < 0 && returned < size) {
+                block = block.prev;
+                index = BLOCK_SIZE - 1;
+            }
+            return e;
+        }
+    }
+
+    /*
+     * This method is only for JUnit testing purposes.
+     */
+    protected int getNumberOfBlocks() {
+        int n = 0;
+        for (Block b = first; b != null; b = b.next) {
+            n++;
+        }
+        return n;
+    }
+}
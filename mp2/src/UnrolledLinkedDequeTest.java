@@ -0,0 +1,185 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnrolledLinkedDequeTest {
+
+    @Test
+    final void testStackAndQueue() {
+        UnrolledLinkedDeque<String> dq = new UnrolledLinkedDeque<String>();
+        assertTrue(dq.isEmpty());
+        assertThrows(NullPointerException.class, () -> dq.push(null));
+        assertThrows(NullPointerException.class, () -> dq.offer(null));
+        assertThrows(NoSuchElementException.class, () -> dq.pop());
+        assertThrows(NoSuchElementException.class, () -> dq.getLast());
+        assertNull(dq.poll());
+        assertNull(dq.peekLast());
+        dq.push("Pippo");
+        dq.push("Pluto");
+        dq.push("Paperino");
+        assertTrue(dq.peek().equals("Paperino"));
+        assertTrue(dq.getLast().equals("Pippo"));
+        assertTrue(dq.pop().equals("Paperino"));
+        dq.offer("Minnie");
+        assertTrue(dq.poll().equals("Pluto"));
+        assertTrue(dq.pollLast().equals("Minnie"));
+        assertTrue(dq.remove().equals("Pippo"));
+        assertTrue(dq.isEmpty());
+        assertTrue(dq.size() == 0);
+    }
+
+    @Test
+    final void testBlocks() {
+        UnrolledLinkedDeque<Integer> d = new UnrolledLinkedDeque<Integer>();
+        int n = 10 * UnrolledLinkedDeque.BLOCK_SIZE;
+        assertTrue(d.getNumberOfBlocks() == 1);
+        // Il primo blocco ha spazio per metà dei suoi elementi in fondo
+        for (int i = 0; i < n; i++) {
+            d.addLast(i);
+        }
+        assertTrue(d.getNumberOfBlocks() == 11);
+        for (int i = 1; i <= n; i++) {
+            d.addFirst(-i);
+        }
+        assertTrue(d.getNumberOfBlocks() == 21);
+        Object[] a = d.toArray();
+        for (int i = 0; i < 2 * n; i++) {
+            assertEquals(i - n, a[i]);
+        }
+        // I blocchi svuotati vengono liberati
+        for (int i = 0; i < n; i++) {
+            assertEquals(-n + i, d.removeFirst());
+            assertEquals(n - 1 - i, d.removeLast());
+        }
+        assertTrue(d.isEmpty());
+        assertTrue(d.getNumberOfBlocks() == 1);
+        d.add(1);
+        d.clear();
+        assertTrue(d.isEmpty());
+        assertNull(d.peekFirst());
+    }
+
+    @Test
+    final void testRemoveAndBulkOperations() {
+        UnrolledLinkedDeque<String> d = new UnrolledLinkedDeque<String>();
+        d.add("Pippo");
+        d.add("Pluto");
+        d.addFirst("Minnie");
+        d.add("Pippo");
+        d.add("Qui");
+        assertThrows(NullPointerException.class, () -> d.remove(null));
+        assertThrows(NullPointerException.class, () -> d.contains(null));
+        assertFalse(d.remove("Topolino"));
+        assertTrue(d.removeLastOccurrence("Pippo"));
+        assertArrayEquals(new Object[] { "Minnie", "Pippo", "Pluto", "Qui" }, d.toArray());
+        assertTrue(d.remove("Pippo"));
+        assertArrayEquals(new Object[] { "Minnie", "Pluto", "Qui" }, d.toArray());
+        assertTrue(d.contains("Qui"));
+        assertFalse(d.contains("Pippo"));
+        assertTrue(d.addAll(List.of("Qui", "Quo", "Qua")));
+        assertTrue(d.containsAll(Set.of("Qui", "Quo")));
+        assertFalse(d.containsAll(Set.of("Qui", "Paperino")));
+        assertTrue(d.removeAll(Set.of("Qui", "Minnie")));
+        assertArrayEquals(new Object[] { "Pluto", "Quo", "Qua" }, d.toArray());
+        assertFalse(d.removeAll(Set.of("Paperino")));
+        assertTrue(d.retainAll(Set.of("Qua", "Pluto")));
+        String[] a = d.toArray(new String[3]);
+        assertArrayEquals(new String[] { "Pluto", "Qua", null }, a);
+        assertTrue(d.retainAll(Set.of()));
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    final void testIterator() {
+        UnrolledLinkedDeque<String> d = new UnrolledLinkedDeque<String>();
+        d.add("Pippo");
+        d.add("Pluto");
+        d.add("Minnie");
+        d.add("Pippo");
+        Iterator<String> it = d.iterator();
+        assertTrue(it.hasNext());
+        assertTrue(it.next().equals("Pippo"));
+        assertTrue(it.next().equals("Pluto"));
+        d.add("Topolino");
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+        Iterator<String> it1 = d.iterator();
+        assertTrue(it1.next().equals("Pippo"));
+        assertTrue(it1.next().equals("Pluto"));
+        assertTrue(it1.next().equals("Minnie"));
+        assertTrue(it1.next().equals("Pippo"));
+        assertTrue(it1.next().equals("Topolino"));
+        assertFalse(it1.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it1.next());
+        d.clear();
+        Iterator<String> it2 = d.iterator();
+        assertFalse(it2.hasNext());
+        d.add("Pippo");
+        assertThrows(ConcurrentModificationException.class, () -> it2.next());
+    }
+
+    @Test
+    final void testDescendingIterator() {
+        UnrolledLinkedDeque<Integer> d = new UnrolledLinkedDeque<Integer>();
+        for (int i = 0; i < 200; i++) {
+            d.addLast(i);
+        }
+        Iterator<Integer> it = d.descendingIterator();
+        for (int i = 199; i >= 0; i--) {
+            assertTrue(it.hasNext());
+            assertEquals(i, it.next());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, () -> it.next());
+        Iterator<Integer> it1 = d.descendingIterator();
+        assertEquals(199, it1.next());
+        d.removeLast();
+        assertThrows(ConcurrentModificationException.class, () -> it1.next());
+    }
+
+    @Test
+    final void testAgainstArrayDeque() {
+        // Sequenza casuale di operazioni confrontata con java.util.ArrayDeque
+        Random r = new Random(11);
+        UnrolledLinkedDeque<Integer> d = new UnrolledLinkedDeque<Integer>();
+        ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+        for (int i = 0; i < 50000; i++) {
+            int op = r.nextInt(9);
+            Integer e = r.nextInt(300);
+            if (op < 2) {
+                d.addFirst(e);
+                expected.addFirst(e);
+            } else if (op < 4) {
+                d.addLast(e);
+                expected.addLast(e);
+            } else if (op == 4) {
+                assertEquals(expected.pollFirst(), d.pollFirst());
+            } else if (op == 5) {
+                assertEquals(expected.pollLast(), d.pollLast());
+            } else if (op == 6) {
+                assertEquals(expected.removeFirstOccurrence(e), d.removeFirstOccurrence(e));
+            } else if (op == 7) {
+                assertEquals(expected.removeLastOccurrence(e), d.removeLastOccurrence(e));
+            } else if (r.nextInt(50) == 0) {
+                Set<Integer> c = Set.of(e, e + 1, e + 2);
+                assertEquals(expected.removeAll(c), d.removeAll(c));
+            }
+            assertEquals(expected.size(), d.size());
+            assertEquals(expected.peekFirst(), d.peekFirst());
+            assertEquals(expected.peekLast(), d.peekLast());
+        }
+        assertArrayEquals(expected.toArray(), d.toArray());
+        Iterator<Integer> it = expected.iterator();
+        for (Integer e : d) {
+            assertEquals(it.next(), e);
+        }
+        Iterator<Integer> desc = expected.descendingIterator();
+        Iterator<Integer> desc1 = d.descendingIterator();
+        while (desc.hasNext()) {
+            assertEquals(desc.next(), desc1.next());
+        }
+        assertFalse(desc1.hasNext());
+    }
+
+}
@@ -0,0 +1,208 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A work-stealing deque, as described by Chase and Lev in "Dynamic Circular
+ * Work-Stealing Deque" (SPAA 2005). The deque belongs to a single thread, the
+ * owner, that uses it as a stack of tasks: only the owner can call
+ * <code>push</code> and <code>pop</code>, that work at the bottom of the
+ * deque. Any other thread, a thief, can call <code>steal</code> to take the
+ * task at the top of the deque, i.e., the oldest one.
+ * <p>
+ * The elements are kept in a circular array whose length is a power of 2,
+ * that the owner replaces with one twice as long when it is full. The owner
+ * never uses locks: <code>push</code> is wait-free and <code>pop</code> needs
+ * a compare-and-set only when it competes with the thieves for the last
+ * element. Thieves compete among themselves with a compare-and-set on the
+ * top index, so <code>steal</code> is lock-free.
+ * <p>
+ * <code>null</code> elements are not permitted, since <code>null</code> is
+ * returned when the deque is empty. To keep the thieves lock-free, a stolen
+ * element is not cleared from the array: it stays referenced until the owner
+ * overwrites its position.
+ *
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ */
+public class WorkStealingDeque<E> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class,
+                    "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+     * Index of the oldest element, incremented by the thief, or the owner,
+     * that takes it. The indexes only grow, so a compare-and-set on top never
+     * suffers from ABA problems.
+     */
+    private volatile long top;
+
+    /*
+     * Index of the position where the owner will push the next element. It
+     * is written only by the owner.
+     */
+    private volatile long bottom;
+
+    /*
+     * The circular array: the element with index i is at position
+     * i & (length - 1)
+     */
+    private volatile AtomicReferenceArray<E> array;
+
+    /**
+     * Constructs an empty deque.
+     */
+    public WorkStealingDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that can contain the given number of elements
+     * without growing.
+     *
+     * @param initialCapacity the initial number of elements that can be stored
+     * @throws IllegalArgumentException if initialCapacity is not positive or
+     *                                  greater than 2<sup>30</sup>
+     */
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity <= 0 || initialCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.array = new AtomicReferenceArray<E>(capacity);
+        this.top = 0;
+        this.bottom = 0;
+    }
+
+    /**
+     * Push an element at the bottom of this deque. Only the owner can call
+     * this method.
+     *
+     * @param e the element to push
+     * @throws NullPointerException if e is null
+     */
+    public void push(E e) {
+        if (e == null) {
+            throw new NullPointerException("Null elements are not permitted.");
+        }
+        long b = this.bottom;
+        long t = this.top;
+        AtomicReferenceArray<E> a = this.array;
+        if (b - t >= a.length()) {
+            a = grow(a, t, b);
+        }
+        a.set((int) b & (a.length() - 1), e);
+        // Publishes the element to the thieves
+        this.bottom = b + 1;
+    }
+
+    /*
+     * Replace the array with one twice as long, containing the elements from
+     * index t (included) to b (excluded)
+     */
+    private AtomicReferenceArray<E> grow(AtomicReferenceArray<E> a, long t,
+            long b) {
+        if (a.length() == 1 << 30) {
+            throw new IllegalStateException("The deque is full.");
+        }
+        AtomicReferenceArray<E> newArray = new AtomicReferenceArray<E>(
+                a.length() << 1);
+        for (long i = t; i < b; i++) {
+            newArray.set((int) i & (newArray.length() - 1),
+                    a.get((int) i & (a.length() - 1)));
+        }
+        this.array = newArray;
+        return newArray;
+    }
+
+    /**
+     * Remove and return the element at the bottom of this deque, i.e., the
+     * last pushed one. Only the owner can call this method.
+     *
+     * @return the element at the bottom of this deque, or null if the deque
+     *         is empty
+     */
+    public E pop() {
+        long b = this.bottom - 1;
+        AtomicReferenceArray<E> a = this.array;
+        /*
+         * The element is reserved before reading top: a thief that reads
+         * bottom after this write does not try to take it, unless it is the
+         * last one
+         */
+        this.bottom = b;
+        long t = this.top;
+        if (b < t) {
+            // The deque was empty
+            this.bottom = t;
+            return null;
+        }
+        int position = (int) b & (a.length() - 1);
+        E e = a.get(position);
+        if (b > t) {
+            // There are other elements, so no thief can take this one
+            a.set(position, null);
+            return e;
+        }
+        // Last element: the owner competes with the thieves for it
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            e = null;
+        }
+        this.bottom = t + 1;
+        return e;
+    }
+
+    /**
+     * Remove and return the element at the top of this deque, i.e., the
+     * oldest one. Any thread can call this method.
+     *
+     * @return the element at the top of this deque, or null if the deque is
+     *         empty or another thread took the element first
+     */
+    public E steal() {
+        long t = this.top;
+        long b = this.bottom;
+        AtomicReferenceArray<E> a = this.array;
+        if (t >= b) {
+            return null;
+        }
+        E e = a.get((int) t & (a.length() - 1));
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        return e;
+    }
+
+    /**
+     * Return the number of elements in this deque. The result is exact only
+     * when no other thread is using the deque.
+     *
+     * @return the number of elements in this deque
+     */
+    public int size() {
+        long n = this.bottom - this.top;
+        return n < 0 ? 0 : (int) n;
+    }
+
+    /**
+     * Return true if this deque has no elements. The result is exact only
+     * when no other thread is using the deque.
+     *
+     * @return true if this deque has no elements
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkStealingDequeTest {
+
+    @Test
+    final void testSingleThread() {
+        WorkStealingDeque<String> d = new WorkStealingDeque<String>(2);
+        assertThrows(IllegalArgumentException.class,
+                () -> new WorkStealingDeque<String>(0));
+        assertThrows(NullPointerException.class, () -> d.push(null));
+        assertNull(d.pop());
+        assertNull(d.steal());
+        assertTrue(d.isEmpty());
+        d.push("Pippo");
+        d.push("Pluto");
+        d.push("Paperino");
+        d.push("Minnie");
+        d.push("Qui");
+        assertTrue(d.size() == 5);
+        // Il proprietario prende l'ultimo inserito, i ladri il più vecchio
+        assertEquals("Qui", d.pop());
+        assertEquals("Pippo", d.steal());
+        assertEquals("Pluto", d.steal());
+        assertEquals("Minnie", d.pop());
+        assertEquals("Paperino", d.pop());
+        assertNull(d.pop());
+        assertNull(d.steal());
+        assertTrue(d.size() == 0);
+        // Crescita con gli elementi che attraversano la fine dell'array
+        for (int i = 0; i < 10; i++)
+            d.push("Job" + i);
+        for (int i = 0; i < 10; i++)
+            assertEquals("Job" + i, d.steal());
+    }
+
+    @Test
+    final void testStress() throws InterruptedException {
+        final int elements = 200000;
+        final int thieves = 4;
+        WorkStealingDeque<Integer> d = new WorkStealingDeque<Integer>(4);
+        AtomicIntegerArray taken = new AtomicIntegerArray(elements);
+        AtomicBoolean done = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < thieves; t++) {
+            Thread thief = new Thread(() -> {
+                while (!done.get()) {
+                    Integer e = d.steal();
+                    if (e != null)
+                        taken.incrementAndGet(e);
+                }
+            });
+            threads.add(thief);
+            thief.start();
+        }
+        // Il proprietario alterna inserimenti ed estrazioni, lasciando quasi
+        // sempre pochi elementi per far competere tutti sull'ultimo
+        for (int i = 0; i < elements; i++) {
+            d.push(i);
+            if (i % 3 != 0) {
+                Integer e = d.pop();
+                if (e != null)
+                    taken.incrementAndGet(e);
+            }
+        }
+        Integer e;
+        while ((e = d.pop()) != null)
+            taken.incrementAndGet(e);
+        done.set(true);
+        for (Thread t : threads)
+            t.join();
+        // Ogni elemento è stato preso esattamente una volta
+        for (int i = 0; i < elements; i++)
+            assertEquals(1, taken.get(i), "Elemento " + i);
+        assertTrue(d.isEmpty());
+    }
+
+}
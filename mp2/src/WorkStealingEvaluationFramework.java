@@ -0,0 +1,168 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Misura la scalabilità di tre modi di distribuire task tra thread al variare
+ * del numero di thread, da 1 a MAX_THREADS. I task formano un albero binario
+ * completo di profondità DEPTH: eseguire un task non foglia genera i suoi due
+ * figli, ed eseguire un task costa WORK_ITERATIONS passi di calcolo.
+ * 
+ * Le tre configurazioni sono: una WorkStealingDeque per ogni thread, in cui
+ * il thread inserisce i task che genera e da cui, quando è vuota, ruba dalle
+ * deque degli altri thread scelte a caso; una sola LockFreeDeque condivisa da
+ * tutti i thread; una sola ASDL2223Deque condivisa, protetta da un lock.
+ * 
+ * Sul file workstealing.csv vengono scritti per ogni configurazione e numero
+ * di thread il tempo totale in millisecondi e il numero di task eseguiti al
+ * secondo. I risultati dipendono dal numero di processori disponibili.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementation: Matteo Machella - matteo.machella@studenti.unicam.it
+ *
+ */
+public class WorkStealingEvaluationFramework {
+
+    private static final int MAX_THREADS = 16;
+
+    private static final int DEPTH = 20;
+
+    private static final int WORK_ITERATIONS = 200;
+
+    /*
+     * Numero di ripetizioni per ogni numero di thread, la prima è di
+     * riscaldamento e non viene scritta nel file
+     */
+    private static final int NUMBER_OF_SAMPLES = 4;
+
+    private static final String[] MODES = { "WorkStealing", "SharedLockFree",
+            "SharedLocked" };
+
+    /*
+     * Valore che dipende dal calcolo di tutti i task, perché il compilatore
+     * non lo elimini
+     */
+    private static final AtomicLong checksum = new AtomicLong();
+
+    public static void main(String[] args) throws InterruptedException {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "workstealing.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "workstealing.csv");
+            System.exit(1);
+        }
+        long tasks = (1L << (DEPTH + 1)) - 1;
+        o.println("Mode,Threads,TimeMs,TasksPerSec");
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            for (int mode = 0; mode < MODES.length; mode++)
+                for (int s = 0; s < NUMBER_OF_SAMPLES; s++) {
+                    long elapsed = run(mode, threads, tasks);
+                    if (s > 0) // la prima ripetizione è di riscaldamento
+                        o.println(MODES[mode] + "," + threads + ","
+                                + elapsed / 1e6 + ","
+                                + (long) (tasks * 1e9 / elapsed));
+                }
+            System.out.println("Completate le misure per " + threads
+                    + " thread");
+        }
+        o.close();
+        System.out.println("Checksum: " + checksum.get());
+    }
+
+    /*
+     * Esegue tutti i task con la configurazione data e restituisce il tempo
+     * impiegato in nanosecondi
+     */
+    private static long run(int mode, int threads, long tasks)
+            throws InterruptedException {
+        // Numero di task non ancora eseguiti
+        AtomicLong pending = new AtomicLong(tasks);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        WorkStealingDeque<Integer>[] own = new WorkStealingDeque[threads];
+        for (int i = 0; i < threads; i++)
+            own[i] = new WorkStealingDeque<Integer>();
+        LockFreeDeque<Integer> lockFree = new LockFreeDeque<Integer>();
+        ASDL2223Deque<Integer> locked = new ASDL2223Deque<Integer>();
+        // Il task radice
+        if (mode == 0)
+            own[0].push(0);
+        else if (mode == 1)
+            lockFree.push(0);
+        else
+            locked.push(0);
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            final int id = w;
+            workers[w] = new Thread(() -> {
+                long sum = 0;
+                while (pending.get() > 0) {
+                    Integer task;
+                    if (mode == 0) {
+                        task = own[id].pop();
+                        if (task == null && threads > 1)
+                            task = own[ThreadLocalRandom.current()
+                                    .nextInt(threads)].steal();
+                    } else if (mode == 1)
+                        task = lockFree.pollFirst();
+                    else
+                        synchronized (locked) {
+                            task = locked.pollFirst();
+                        }
+                    if (task == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    sum += work(task);
+                    int depth = task;
+                    if (depth < DEPTH) {
+                        if (mode == 0) {
+                            own[id].push(depth + 1);
+                            own[id].push(depth + 1);
+                        } else if (mode == 1) {
+                            lockFree.push(depth + 1);
+                            lockFree.push(depth + 1);
+                        } else
+                            synchronized (locked) {
+                                locked.push(depth + 1);
+                                locked.push(depth + 1);
+                            }
+                    }
+                    pending.decrementAndGet();
+                }
+                checksum.addAndGet(sum);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers)
+            w.start();
+        for (Thread w : workers)
+            w.join();
+        return System.nanoTime() - start;
+    }
+
+    /*
+     * Il calcolo di un task: WORK_ITERATIONS passi di un generatore xorshift
+     */
+    private static long work(int seed) {
+        long x = seed + 1;
+        for (int i = 0; i < WORK_ITERATIONS; i++) {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+        }
+        return x;
+    }
+
+}